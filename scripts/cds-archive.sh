@@ -0,0 +1,20 @@
+#!/bin/sh
+# Builds an AppCDS archive for the prod profile (see README, "Startup").
+# The jar is extracted so its classes load from a fixed classpath, which CDS requires, then a
+# training run starts the context, stops before serving, and dumps every loaded class.
+set -e
+cd "$(dirname "$0")/.."
+
+JAR=target/banking-api-0.0.1-SNAPSHOT.jar
+OUT=target/cds
+
+if [ ! -f "$JAR" ]; then
+    ./mvnw -B -q -DskipTests package
+fi
+rm -rf "$OUT"
+java -Djarmode=tools -jar "$JAR" extract --destination "$OUT"
+# Eager initialisation during training also archives the classes that lazily created beans need.
+java -XX:ArchiveClassesAtExit="$OUT/application.jsa" -Xlog:cds=error -Dspring.context.exit=onRefresh \
+    -jar "$OUT/banking-api-0.0.1-SNAPSHOT.jar" --spring.profiles.active=prod --spring.main.lazy-initialization=false
+
+echo "Start with: java -XX:SharedArchiveFile=$OUT/application.jsa -jar $OUT/banking-api-0.0.1-SNAPSHOT.jar --spring.profiles.active=prod"
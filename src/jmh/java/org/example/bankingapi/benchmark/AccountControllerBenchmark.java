@@ -0,0 +1,82 @@
+package org.example.bankingapi.benchmark;
+
+import org.example.bankingapi.dto.CreateAccountRequest;
+import org.example.bankingapi.service.AccountService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Full request path through the dispatcher servlet: argument resolution, validation,
+ * service call, and JSON writing. No network stack is involved.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccountControllerBenchmark {
+
+    private static final int ACCOUNTS = 1_000;
+
+    private ConfigurableApplicationContext context;
+    private MockMvc mockMvc;
+    private long[] ids;
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkFixtures.startApplication(WebApplicationType.SERVLET);
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context).build();
+        AccountService accountService = context.getBean(AccountService.class);
+        ids = new long[ACCOUNTS];
+        for (int i = 0; i < ACCOUNTS; i++) {
+            ids[i] = accountService.createAccount(CreateAccountRequest.builder()
+                    .accountNumber("SEED-" + i)
+                    .accountHolderName("Benchmark Holder")
+                    .balance(new BigDecimal("100.00"))
+                    .currency("USD")
+                    .build()).getId();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse getAccountById() throws Exception {
+        long id = ids[ThreadLocalRandom.current().nextInt(ids.length)];
+        return mockMvc.perform(get("/api/accounts/{id}", id)).andReturn().getResponse();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse getAccountsPage() throws Exception {
+        return mockMvc.perform(get("/api/accounts").param("limit", "50")).andReturn().getResponse();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse createAccount() throws Exception {
+        String body = "{\"accountNumber\":\"WEB-" + sequence.incrementAndGet()
+                + "\",\"accountHolderName\":\"Benchmark Holder\",\"balance\":100.00,\"currency\":\"USD\"}";
+        return mockMvc.perform(post("/api/accounts")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andReturn().getResponse();
+    }
+}
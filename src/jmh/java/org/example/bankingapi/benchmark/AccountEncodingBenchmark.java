@@ -0,0 +1,53 @@
+package org.example.bankingapi.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.bankingapi.dto.AccountResponse;
+import org.example.bankingapi.dto.EncodedAccount;
+import org.example.bankingapi.service.AccountCache;
+import org.example.bankingapi.service.AccountJsonCache;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of producing the body of a single-account response: Jackson on every request, Jackson
+ * plus the checksum for a strong ETag, and a hit in {@link AccountJsonCache}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccountEncodingBenchmark {
+
+    private ObjectMapper objectMapper;
+    private AccountJsonCache cache;
+    private AccountResponse account;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        cache = new AccountJsonCache(objectMapper, new AccountCache(true, 100, Duration.ofMinutes(1)), true, 100);
+        account = AccountResponse.fromEntity(BenchmarkFixtures.accounts(1).get(0));
+        cache.get(account);
+    }
+
+    @Benchmark
+    public byte[] jackson() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(account);
+    }
+
+    @Benchmark
+    public EncodedAccount encodeWithEtag() {
+        return cache.encode(account);
+    }
+
+    @Benchmark
+    public EncodedAccount cached() {
+        return cache.get(account);
+    }
+}
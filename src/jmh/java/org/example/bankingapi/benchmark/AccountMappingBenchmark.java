@@ -0,0 +1,28 @@
+package org.example.bankingapi.benchmark;
+
+import org.example.bankingapi.dto.AccountResponse;
+import org.example.bankingapi.entity.Account;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccountMappingBenchmark {
+
+    private Account account;
+
+    @Setup
+    public void setUp() {
+        account = BenchmarkFixtures.account(42L);
+    }
+
+    @Benchmark
+    public AccountResponse fromEntity() {
+        return AccountResponse.fromEntity(account);
+    }
+}
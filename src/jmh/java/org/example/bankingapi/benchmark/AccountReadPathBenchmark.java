@@ -0,0 +1,128 @@
+package org.example.bankingapi.benchmark;
+
+import jakarta.persistence.EntityManager;
+import org.example.bankingapi.dto.AccountResponse;
+import org.example.bankingapi.dto.CreateAccountRequest;
+import org.example.bankingapi.entity.Account;
+import org.example.bankingapi.repository.AccountReadRepository;
+import org.example.bankingapi.repository.AccountRepository;
+import org.example.bankingapi.service.AccountService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Three ways to read accounts into {@link AccountResponse}, for one account and for a page of 50:
+ * managed entities copied by {@code fromEntity} (the former read path), a JPQL constructor
+ * projection in a read-only JPA transaction, and the JDBC row mapping of
+ * {@link AccountReadRepository}. Run with {@code -prof gc} to see bytes allocated per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccountReadPathBenchmark {
+
+    private static final int ACCOUNTS = 1_000;
+    private static final int PAGE_SIZE = 50;
+    private static final String PROJECTION = "SELECT new org.example.bankingapi.dto.AccountResponse(a.id, "
+            + "a.accountNumber, a.accountHolderName, a.balance, a.currency, a.status, a.createdAt, a.updatedAt, "
+            + "a.version) FROM Account a ";
+
+    private ConfigurableApplicationContext context;
+    private AccountRepository accountRepository;
+    private AccountReadRepository accountReadRepository;
+    private EntityManager entityManager;
+    private TransactionTemplate readOnly;
+    private long[] ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkFixtures.startApplication(WebApplicationType.NONE, "banking.cache.enabled=false");
+        AccountService accountService = context.getBean(AccountService.class);
+        accountRepository = context.getBean(AccountRepository.class);
+        accountReadRepository = context.getBean(AccountReadRepository.class);
+        entityManager = context.getBean(EntityManager.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+        ids = new long[ACCOUNTS];
+        for (int i = 0; i < ACCOUNTS; i++) {
+            ids[i] = accountService.createAccount(CreateAccountRequest.builder()
+                    .accountNumber("READ-" + i)
+                    .accountHolderName("Benchmark Holder")
+                    .balance(new BigDecimal("100.00"))
+                    .currency("USD")
+                    .build()).getId();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private long randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+
+    private long randomPageStart() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length - PAGE_SIZE)];
+    }
+
+    @Benchmark
+    public AccountResponse byIdEntity() {
+        return accountRepository.findById(randomId()).map(AccountResponse::fromEntity).orElseThrow();
+    }
+
+    @Benchmark
+    public AccountResponse byIdProjection() {
+        long id = randomId();
+        return readOnly.execute(status -> entityManager
+                .createQuery(PROJECTION + "WHERE a.id = :id", AccountResponse.class)
+                .setParameter("id", id)
+                .getSingleResult());
+    }
+
+    @Benchmark
+    public AccountResponse byIdJdbc() {
+        return accountReadRepository.findById(randomId()).orElseThrow();
+    }
+
+    @Benchmark
+    public List<AccountResponse> pageEntity() {
+        long afterId = randomPageStart();
+        return readOnly.execute(status -> entityManager
+                .createQuery("SELECT a FROM Account a WHERE a.id > :id ORDER BY a.id", Account.class)
+                .setParameter("id", afterId)
+                .setMaxResults(PAGE_SIZE)
+                .getResultList()
+                .stream()
+                .map(AccountResponse::fromEntity)
+                .collect(Collectors.toList()));
+    }
+
+    @Benchmark
+    public List<AccountResponse> pageProjection() {
+        long afterId = randomPageStart();
+        return readOnly.execute(status -> entityManager
+                .createQuery(PROJECTION + "WHERE a.id > :id ORDER BY a.id", AccountResponse.class)
+                .setParameter("id", afterId)
+                .setMaxResults(PAGE_SIZE)
+                .getResultList());
+    }
+
+    @Benchmark
+    public List<AccountResponse> pageJdbc() {
+        return accountReadRepository.findAfterId(randomPageStart(), PAGE_SIZE);
+    }
+}
@@ -0,0 +1,79 @@
+package org.example.bankingapi.benchmark;
+
+import org.example.bankingapi.dto.AccountResponse;
+import org.example.bankingapi.dto.CreateAccountRequest;
+import org.example.bankingapi.dto.UpdateAccountRequest;
+import org.example.bankingapi.service.AccountService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccountServiceBenchmark {
+
+    private static final int ACCOUNTS = 1_000;
+
+    @Param({"true", "false"})
+    public boolean cacheEnabled;
+
+    private ConfigurableApplicationContext context;
+    private AccountService accountService;
+    private long[] ids;
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkFixtures.startApplication(WebApplicationType.NONE, "banking.cache.enabled=" + cacheEnabled);
+        accountService = context.getBean(AccountService.class);
+        ids = new long[ACCOUNTS];
+        for (int i = 0; i < ACCOUNTS; i++) {
+            ids[i] = accountService.createAccount(createRequest("SEED-" + i)).getId();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private static CreateAccountRequest createRequest(String accountNumber) {
+        return CreateAccountRequest.builder()
+                .accountNumber(accountNumber)
+                .accountHolderName("Benchmark Holder")
+                .balance(new BigDecimal("100.00"))
+                .currency("USD")
+                .build();
+    }
+
+    private long randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+
+    @Benchmark
+    public AccountResponse createAccount() {
+        return accountService.createAccount(createRequest("BENCH-" + sequence.incrementAndGet()));
+    }
+
+    @Benchmark
+    public AccountResponse getAccountById() {
+        return accountService.getAccountById(randomId());
+    }
+
+    @Benchmark
+    public AccountResponse updateAccount() {
+        UpdateAccountRequest request = UpdateAccountRequest.builder()
+                .balance(BigDecimal.valueOf(ThreadLocalRandom.current().nextInt(100_000), 2))
+                .build();
+        return accountService.updateAccount(randomId(), request);
+    }
+}
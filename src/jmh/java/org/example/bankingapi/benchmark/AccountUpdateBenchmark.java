@@ -0,0 +1,67 @@
+package org.example.bankingapi.benchmark;
+
+import org.example.bankingapi.dto.AccountResponse;
+import org.example.bankingapi.dto.CreateAccountRequest;
+import org.example.bankingapi.dto.UpdateAccountRequest;
+import org.example.bankingapi.service.AccountService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Concurrent unconditional updates, a transaction per update against the group-commit pipeline.
+ * Both run on a file database with {@code WRITE_DELAY=0}, so every commit is written to disk
+ * before the caller is answered and durability is the same in both modes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(32)
+@Fork(1)
+public class AccountUpdateBenchmark {
+
+    private static final int ACCOUNTS = 1_000;
+
+    @Param({"false", "true"})
+    public boolean groupCommit;
+
+    private ConfigurableApplicationContext context;
+    private AccountService accountService;
+    private long[] ids;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkFixtures.startApplication(WebApplicationType.NONE,
+                "spring.datasource.url=jdbc:h2:file:./target/bench-updates-" + System.nanoTime() + ";WRITE_DELAY=0",
+                "banking.updates.group-commit.enabled=" + groupCommit);
+        accountService = context.getBean(AccountService.class);
+        ids = new long[ACCOUNTS];
+        for (int i = 0; i < ACCOUNTS; i++) {
+            ids[i] = accountService.createAccount(CreateAccountRequest.builder()
+                    .accountNumber("SEED-" + i)
+                    .accountHolderName("Benchmark Holder")
+                    .balance(new BigDecimal("100.00"))
+                    .currency("USD")
+                    .build()).getId();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public AccountResponse updateAccount() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return accountService.updateAccount(ids[random.nextInt(ids.length)], UpdateAccountRequest.builder()
+                .accountHolderName("Holder " + random.nextInt(1_000))
+                .build());
+    }
+}
@@ -0,0 +1,65 @@
+package org.example.bankingapi.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.example.bankingapi.config.CborHttpMessageConverter;
+import org.example.bankingapi.dto.AccountResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Encode and decode cost of a list of account responses as JSON and as CBOR, with the mappers
+ * the message converters use. The payload size of each combination is printed at setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AccountWireFormatBenchmark {
+
+    @Param({"json", "cbor"})
+    public String format;
+
+    @Param({"1", "50", "500"})
+    public int size;
+
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private List<AccountResponse> accounts;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = "cbor".equals(format)
+                ? new CborHttpMessageConverter(Jackson2ObjectMapperBuilder.json()).getObjectMapper()
+                : Jackson2ObjectMapperBuilder.json().build();
+        writer = objectMapper.writerFor(objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, AccountResponse.class));
+        reader = objectMapper.readerFor(objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, AccountResponse.class));
+        accounts = BenchmarkFixtures.accounts(size).stream()
+                .map(AccountResponse::fromEntity)
+                .collect(Collectors.toList());
+        payload = writer.writeValueAsBytes(accounts);
+        System.out.printf("%n%s size=%d payload=%d bytes (%.1f per account)%n",
+                format, size, payload.length, (double) payload.length / size);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        return writer.writeValueAsBytes(accounts);
+    }
+
+    @Benchmark
+    public List<AccountResponse> decode() throws IOException {
+        return reader.readValue(payload);
+    }
+}
@@ -0,0 +1,64 @@
+package org.example.bankingapi.benchmark;
+
+import org.example.bankingapi.BankingApiApplication;
+import org.example.bankingapi.entity.Account;
+import org.example.bankingapi.entity.Money;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    static Account account(long id) {
+        Instant now = Instant.parse("2024-01-01T10:15:30.123456Z");
+        return Account.builder()
+                .id(id)
+                .accountNumber("ACC" + id)
+                .accountHolderName("Holder " + id)
+                .balance(Money.of(new BigDecimal("12345.67"), "USD"))
+                .currency("USD")
+                .status(Account.AccountStatus.ACTIVE)
+                .createdAt(now)
+                .updatedAt(now)
+                .version(3L)
+                .build();
+    }
+
+    static List<Account> accounts(int count) {
+        List<Account> accounts = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            accounts.add(account(i));
+        }
+        return accounts;
+    }
+
+    /**
+     * Boots the application against its in-memory H2 database with SQL logging off, so the
+     * measurements are not dominated by console output. {@code properties} override these
+     * defaults, including the datasource URL.
+     */
+    static ConfigurableApplicationContext startApplication(WebApplicationType webApplicationType, String... properties) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.jpa.show-sql=false",
+                "--spring.h2.console.enabled=false",
+                "--server.port=0",
+                "--logging.level.root=WARN",
+                "--spring.datasource.url=jdbc:h2:mem:bench-" + System.nanoTime() + ";LAZY_QUERY_EXECUTION=1"));
+        for (String property : properties) {
+            String key = "--" + property.substring(0, property.indexOf('=') + 1);
+            args.removeIf(arg -> arg.startsWith(key));
+            args.add("--" + property);
+        }
+        return new SpringApplicationBuilder(BankingApiApplication.class)
+                .web(webApplicationType)
+                .run(args.toArray(new String[0]));
+    }
+}
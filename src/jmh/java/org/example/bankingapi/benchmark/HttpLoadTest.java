@@ -0,0 +1,143 @@
+package org.example.bankingapi.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Closed-loop HTTP load generator for comparing execution modes against a running instance:
+ * {@code clients} threads each send the next request as soon as the previous one completes.
+ * Mix: 80% {@code GET /api/accounts/{id}}, 20% {@code POST /api/accounts/{id}/deposits} over
+ * {@code accounts} seeded accounts. Start the server with {@code banking.cache.enabled=false}
+ * so every read reaches the database.
+ * <p>
+ * Usage: {@code HttpLoadTest <baseUrl> [clients=400] [seconds=20] [warmupSeconds=10] [accounts=1000]}
+ */
+public final class HttpLoadTest {
+
+    private HttpLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args[0];
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 400;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        int warmupSeconds = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+        int accounts = args.length > 4 ? Integer.parseInt(args[4]) : 1000;
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        long[] ids = seed(client, baseUrl, accounts);
+
+        run(client, baseUrl, ids, clients, warmupSeconds);
+        Result result = run(client, baseUrl, ids, clients, seconds);
+        System.out.printf(Locale.ROOT, "clients=%d seconds=%d requests=%d errors=%d throughput=%.0f req/s "
+                        + "p50=%.2fms p99=%.2fms p99.9=%.2fms max=%.2fms%n",
+                clients, seconds, result.latencies.length, result.errors, result.latencies.length / (double) seconds,
+                result.percentile(0.5), result.percentile(0.99), result.percentile(0.999), result.percentile(1.0));
+    }
+
+    private static long[] seed(HttpClient client, String baseUrl, int accounts) throws Exception {
+        String prefix = "LOAD-" + System.currentTimeMillis() + "-";
+        String body = IntStream.range(0, accounts)
+                .mapToObj(i -> "{\"accountNumber\":\"" + prefix + i + "\",\"accountHolderName\":\"Load " + i
+                        + "\",\"balance\":1000.00,\"currency\":\"USD\"}")
+                .collect(Collectors.joining(",", "[", "]"));
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/api/accounts/batch"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        return Arrays.stream(response.body().split("\"id\":"))
+                .skip(1)
+                .mapToLong(part -> Long.parseLong(part.substring(0, part.indexOf('}')).split(",")[0].trim()))
+                .toArray();
+    }
+
+    private static Result run(HttpClient client, String baseUrl, long[] ids, int clients, int seconds) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        CountDownLatch start = new CountDownLatch(1);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        List<Future<long[]>> futures = new ArrayList<>(clients);
+        long[] errors = new long[1];
+        for (int c = 0; c < clients; c++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                long[] latencies = new long[1024];
+                int count = 0;
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < deadline) {
+                    long id = ids[random.nextInt(ids.length)];
+                    HttpRequest request = random.nextInt(10) < 8
+                            ? HttpRequest.newBuilder(URI.create(baseUrl + "/api/accounts/" + id)).GET().build()
+                            : HttpRequest.newBuilder(URI.create(baseUrl + "/api/accounts/" + id + "/deposits"))
+                                    .header("Content-Type", "application/json")
+                                    .POST(HttpRequest.BodyPublishers.ofString("{\"amount\":1.00}"))
+                                    .build();
+                    long begin = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() >= 400) {
+                            synchronized (errors) {
+                                errors[0]++;
+                            }
+                            continue;
+                        }
+                    } catch (Exception ex) {
+                        synchronized (errors) {
+                            errors[0]++;
+                        }
+                        continue;
+                    }
+                    if (count == latencies.length) {
+                        latencies = Arrays.copyOf(latencies, count * 2);
+                    }
+                    latencies[count++] = System.nanoTime() - begin;
+                }
+                return Arrays.copyOf(latencies, count);
+            }));
+        }
+        start.countDown();
+        List<long[]> parts = new ArrayList<>(clients);
+        for (Future<long[]> future : futures) {
+            parts.add(future.get());
+        }
+        pool.shutdown();
+        long[] all = parts.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        return new Result(all, errors[0]);
+    }
+
+    private static final class Result {
+
+        private final long[] latencies;
+        private final long errors;
+
+        private Result(long[] latencies, long errors) {
+            this.latencies = latencies;
+            this.errors = errors;
+        }
+
+        private double percentile(double p) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.min(latencies.length - 1, Math.ceil(p * latencies.length) - 1);
+            return latencies[Math.max(0, index)] / 1_000_000.0;
+        }
+    }
+}
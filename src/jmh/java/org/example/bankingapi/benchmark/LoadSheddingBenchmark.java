@@ -0,0 +1,80 @@
+package org.example.bankingapi.benchmark;
+
+import org.example.bankingapi.limit.AdaptiveConcurrencyLimiter;
+import org.example.bankingapi.limit.ClientRateLimiter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * What admission costs a request: one token-bucket check (a map lookup and a compare-and-set)
+ * and one concurrency slot taken and returned. {@code sharedBucket} has every thread draw from
+ * the same bucket, the worst case for compare-and-set retries; {@code ownBucket} is the normal
+ * case of many clients.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+public class LoadSheddingBenchmark {
+
+    private final AtomicInteger clients = new AtomicInteger();
+    private ClientRateLimiter rateLimiter;
+    private AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    @State(Scope.Thread)
+    public static class Client {
+
+        String key;
+
+        @Setup
+        public void setUp(LoadSheddingBenchmark benchmark) {
+            key = "client-" + benchmark.clients.incrementAndGet() + " GET /api/accounts/{id}";
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        // A rate no benchmark can exhaust, so every call takes the admit path.
+        rateLimiter = new ClientRateLimiter(true, 1e12, 1_000_000, 100_000);
+        concurrencyLimiter = new AdaptiveConcurrencyLimiter(true, 1000, 1, 1000, 2.0, 0.9);
+    }
+
+    @Benchmark
+    public long sharedBucket() {
+        return rateLimiter.tryAcquire("shared GET /api/accounts/{id}", 1, System.nanoTime());
+    }
+
+    @Benchmark
+    public long ownBucket(Client client) {
+        return rateLimiter.tryAcquire(client.key, 1, System.nanoTime());
+    }
+
+    @Benchmark
+    public boolean concurrencySlot() {
+        boolean admitted = concurrencyLimiter.tryAcquire();
+        if (admitted) {
+            concurrencyLimiter.release();
+        }
+        return admitted;
+    }
+
+    @Benchmark
+    public long admission(Client client) {
+        long wait = rateLimiter.tryAcquire(client.key, 1, System.nanoTime());
+        if (wait == 0 && concurrencyLimiter.tryAcquire()) {
+            concurrencyLimiter.release();
+        }
+        return wait;
+    }
+
+    @Benchmark
+    public long nanoTime() {
+        // The clock read every admission pays, for reference.
+        return System.nanoTime();
+    }
+}
@@ -0,0 +1,70 @@
+package org.example.bankingapi.benchmark;
+
+import org.example.bankingapi.entity.Money;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The balance arithmetic of one transfer (funds check, debit, credit) on {@link BigDecimal}, as
+ * the services did before, against {@link Money}, including the one conversion of the requested
+ * amount at the service boundary.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyBenchmark {
+
+    private BigDecimal fromDecimal;
+    private BigDecimal toDecimal;
+    private Money from;
+    private Money to;
+    private BigDecimal requested;
+    private Money amount;
+
+    @Setup
+    public void setUp() {
+        fromDecimal = new BigDecimal("12345.67");
+        toDecimal = new BigDecimal("890.12");
+        from = Money.of(fromDecimal, "USD");
+        to = Money.of(toDecimal, "USD");
+        requested = new BigDecimal("12.34");
+        amount = Money.of(requested, "USD");
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimal() {
+        if (fromDecimal.compareTo(requested) < 0) {
+            throw new IllegalStateException();
+        }
+        BigDecimal debited = fromDecimal.subtract(requested);
+        BigDecimal credited = toDecimal.add(requested);
+        return debited.signum() < 0 ? debited : credited;
+    }
+
+    @Benchmark
+    public Money money() {
+        Money amount = Money.of(requested, "USD");
+        if (from.compareTo(amount) < 0) {
+            throw new IllegalStateException();
+        }
+        Money debited = from.minus(amount);
+        Money credited = to.plus(amount);
+        return debited.isNegative() ? debited : credited;
+    }
+
+    @Benchmark
+    public Money moneyConverted() {
+        // The amount already converted, as for the second leg and the ledger entries.
+        if (from.compareTo(amount) < 0) {
+            throw new IllegalStateException();
+        }
+        Money debited = from.minus(amount);
+        Money credited = to.plus(amount);
+        return debited.isNegative() ? debited : credited;
+    }
+}
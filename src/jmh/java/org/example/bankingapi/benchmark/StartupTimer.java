@@ -0,0 +1,106 @@
+package org.example.bankingapi.benchmark;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Measures time to first successful request: launches the given command with a free
+ * {@code --server.port}, polls {@code GET /api/accounts?limit=1} every 10 ms from the moment the
+ * process is spawned, and stops the process after the first 200. Each run is a fresh JVM, so the
+ * numbers include class loading and are comparable across JVM flags, profiles and CDS archives.
+ * <p>
+ * Usage: {@code StartupTimer <runs> <command...>}, e.g.
+ * {@code StartupTimer 5 java -jar target/banking-api-0.0.1-SNAPSHOT.jar --spring.profiles.active=prod}
+ */
+public final class StartupTimer {
+
+    private static final Pattern STARTED = Pattern.compile("Started \\S+ in ([0-9.]+) seconds");
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+
+    private StartupTimer() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int runs = Integer.parseInt(args[0]);
+        List<String> command = Arrays.asList(args).subList(1, args.length);
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(1))
+                .build();
+
+        long[] firstRequest = new long[runs];
+        double[] reported = new double[runs];
+        for (int run = 0; run < runs; run++) {
+            int port = freePort();
+            Path log = Files.createTempFile("startup-", ".log");
+            List<String> launch = new ArrayList<>(command);
+            launch.add("--server.port=" + port);
+
+            long begin = System.nanoTime();
+            Process process = new ProcessBuilder(launch)
+                    .redirectErrorStream(true)
+                    .redirectOutput(log.toFile())
+                    .start();
+            try {
+                firstRequest[run] = awaitFirstRequest(client, process, port, begin);
+            } finally {
+                process.destroy();
+                if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                    process.destroyForcibly().waitFor();
+                }
+            }
+            Matcher matcher = STARTED.matcher(Files.readString(log));
+            reported[run] = matcher.find() ? Double.parseDouble(matcher.group(1)) * 1000 : Double.NaN;
+            Files.delete(log);
+            System.out.printf(Locale.ROOT, "run %d: first request %d ms, reported start %.0f ms%n",
+                    run + 1, firstRequest[run], reported[run]);
+        }
+        long[] sorted = firstRequest.clone();
+        Arrays.sort(sorted);
+        double[] sortedReported = reported.clone();
+        Arrays.sort(sortedReported);
+        System.out.printf(Locale.ROOT, "runs=%d first request: min=%d ms median=%d ms max=%d ms; reported start median=%.0f ms%n",
+                runs, sorted[0], sorted[runs / 2], sorted[runs - 1], sortedReported[runs / 2]);
+    }
+
+    private static long awaitFirstRequest(HttpClient client, Process process, int port, long begin) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/accounts?limit=1"))
+                .timeout(Duration.ofSeconds(5))
+                .GET()
+                .build();
+        long deadline = begin + TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Process exited with " + process.exitValue() + " before serving a request");
+            }
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin);
+                }
+            } catch (IOException ex) {
+                // Not listening yet.
+            }
+            Thread.sleep(10);
+        }
+        throw new IllegalStateException("No successful request within " + TIMEOUT);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,547 @@
+package org.example.bankingapi.accrual;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.example.bankingapi.dto.AccrualRunResponse;
+import org.example.bankingapi.entity.Account;
+import org.example.bankingapi.entity.AccrualCheckpoint;
+import org.example.bankingapi.entity.LedgerEntry;
+import org.example.bankingapi.entity.Money;
+import org.example.bankingapi.exception.AccrualRunningException;
+import org.example.bankingapi.fx.FxRates;
+import org.example.bankingapi.limit.AdaptiveConcurrencyLimiter;
+import org.example.bankingapi.outbox.AccountOutbox;
+import org.example.bankingapi.repository.AccountRepository;
+import org.example.bankingapi.repository.AccrualCheckpointRepository;
+import org.example.bankingapi.repository.LedgerEntryRepository;
+import org.example.bankingapi.service.AccountCache;
+import org.example.bankingapi.service.AccountTotals;
+import org.example.bankingapi.service.LedgerService;
+import org.example.bankingapi.shard.ShardRouter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * End-of-day interest and fees over every active account, in process instead of one
+ * {@code PUT} per account. A run walks the accounts of each shard in id order, one keyset page
+ * of {@code chunk-size} ids at a time, and hands each page to a pool of {@code threads}
+ * workers. A worker locks its page's rows, credits one day of interest at {@code interest-rate}
+ * a year and charges {@code fee}, appends a ledger entry for each, and writes the page in JDBC
+ * batches in one transaction, with the outbox events, cache evictions and totals of any other
+ * balance change.
+ * <p>
+ * Pages complete in the order they were read, at most two per worker ahead of the oldest, and
+ * the shard's {@link AccrualCheckpoint} moves past each one. A run that stops part-way resumes
+ * after the last page whose predecessors were all done. Every entry carries the reference
+ * {@code accrual-<date>} and an account that already has one is skipped, so pages finished
+ * beyond the checkpoint are not charged twice.
+ * <p>
+ * The walk can be paced to {@code accounts-per-second}, and with the concurrency limit enabled
+ * it waits while online requests use half of that limit or more.
+ */
+@Component
+public class AccrualJob implements MeterBinder {
+
+    private static final String REFERENCE_PREFIX = "accrual-";
+    private static final long YIELD_PAUSE_MILLIS = 50;
+
+    private final boolean enabled;
+    private final BigDecimal interestRate;
+    private final int dayCount;
+    private final BigDecimal fee;
+    private final int chunkSize;
+    private final int threads;
+    private final int accountsPerSecond;
+    private final boolean yieldToRequests;
+    private final AccountRepository accountRepository;
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final AccrualCheckpointRepository checkpointRepository;
+    private final LedgerService ledgerService;
+    private final AccountOutbox accountOutbox;
+    private final AccountTotals accountTotals;
+    private final AccountCache accountCache;
+    private final ShardRouter shardRouter;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService workers;
+    private final ExecutorService coordinator;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile Run latest;
+
+    private final LongAdder accounts = new LongAdder();
+    private final LongAdder chunks = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder yields = new LongAdder();
+
+    public AccrualJob(@Value("${banking.accrual.enabled:false}") boolean enabled,
+                      @Value("${banking.accrual.interest-rate:0.01}") BigDecimal interestRate,
+                      @Value("${banking.accrual.day-count:365}") int dayCount,
+                      @Value("${banking.accrual.fee:0.00}") BigDecimal fee,
+                      @Value("${banking.accrual.chunk-size:500}") int chunkSize,
+                      @Value("${banking.accrual.threads:2}") int threads,
+                      @Value("${banking.accrual.throttle.accounts-per-second:0}") int accountsPerSecond,
+                      @Value("${banking.accrual.throttle.yield-to-requests:true}") boolean yieldToRequests,
+                      AccountRepository accountRepository,
+                      LedgerEntryRepository ledgerEntryRepository,
+                      AccrualCheckpointRepository checkpointRepository,
+                      LedgerService ledgerService,
+                      AccountOutbox accountOutbox,
+                      AccountTotals accountTotals,
+                      AccountCache accountCache,
+                      ShardRouter shardRouter,
+                      AdaptiveConcurrencyLimiter concurrencyLimiter,
+                      PlatformTransactionManager transactionManager) {
+        if (interestRate.signum() < 0 || fee.signum() < 0 || dayCount < 1) {
+            throw new IllegalArgumentException("Accrual interest rate and fee must not be negative and the day count"
+                    + " must be positive: " + interestRate + ", " + fee + ", " + dayCount);
+        }
+        if (chunkSize < 1 || threads < 1 || accountsPerSecond < 0) {
+            throw new IllegalArgumentException("Accrual chunk size and threads must be positive and the pace must"
+                    + " not be negative: " + chunkSize + ", " + threads + ", " + accountsPerSecond);
+        }
+        this.enabled = enabled;
+        this.interestRate = interestRate;
+        this.dayCount = dayCount;
+        this.fee = fee;
+        this.chunkSize = chunkSize;
+        this.threads = threads;
+        this.accountsPerSecond = accountsPerSecond;
+        this.yieldToRequests = yieldToRequests;
+        this.accountRepository = accountRepository;
+        this.ledgerEntryRepository = ledgerEntryRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.ledgerService = ledgerService;
+        this.accountOutbox = accountOutbox;
+        this.accountTotals = accountTotals;
+        this.accountCache = accountCache;
+        this.shardRouter = shardRouter;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        AtomicInteger workerCount = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "accrual-" + workerCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.coordinator = Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "accrual-coordinator");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts yesterday's accrual (UTC) in the background, after resuming any earlier run that did
+     * not finish. The runs go to the coordinator, as {@link #start} does, so the scheduler's one
+     * thread is free for the other scheduled tasks meanwhile.
+     */
+    @Scheduled(cron = "${banking.accrual.cron:0 5 0 * * *}", zone = "UTC")
+    public void runScheduled() {
+        if (!enabled) {
+            return;
+        }
+        LocalDate yesterday = LocalDate.now(ZoneOffset.UTC).minusDays(1);
+        coordinator.execute(() -> {
+            try {
+                for (LocalDate date : unfinishedDates()) {
+                    if (date.isBefore(yesterday)) {
+                        run(date);
+                    }
+                }
+                run(yesterday);
+            } catch (AccrualRunningException ex) {
+                // Started by hand meanwhile; the next schedule picks up whatever it leaves.
+            } catch (RuntimeException ex) {
+                // Recorded on the run.
+            }
+        });
+    }
+
+    /**
+     * Runs the accrual for {@code businessDate} on the calling thread, resuming from its
+     * checkpoints; a date that already finished is a no-op.
+     *
+     * @throws AccrualRunningException if a run is in progress
+     */
+    public AccrualRunResponse run(LocalDate businessDate) {
+        Run run = claim(businessDate);
+        execute(run);
+        return run.toResponse();
+    }
+
+    /**
+     * Starts the accrual for {@code businessDate} in the background.
+     *
+     * @throws AccrualRunningException if a run is in progress
+     */
+    public AccrualRunResponse start(LocalDate businessDate) {
+        Run run = claim(businessDate);
+        coordinator.execute(() -> {
+            try {
+                execute(run);
+            } catch (RuntimeException ex) {
+                // Recorded on the run.
+            }
+        });
+        return run.toResponse();
+    }
+
+    /**
+     * The run in progress or the last one, or {@code null} before the first.
+     */
+    public AccrualRunResponse status() {
+        Run run = latest;
+        return run == null ? null : run.toResponse();
+    }
+
+    public List<LocalDate> unfinishedDates() {
+        List<LocalDate> dates = new ArrayList<>();
+        for (AccrualCheckpoint checkpoint : checkpointRepository.findByFinishedFalseOrderByBusinessDateAsc()) {
+            if (!dates.contains(checkpoint.getBusinessDate())) {
+                dates.add(checkpoint.getBusinessDate());
+            }
+        }
+        return dates;
+    }
+
+    private Run claim(LocalDate businessDate) {
+        if (!running.compareAndSet(false, true)) {
+            throw new AccrualRunningException("The accrual for " + latest.businessDate + " is still running");
+        }
+        Run run = new Run(businessDate);
+        latest = run;
+        return run;
+    }
+
+    private void execute(Run run) {
+        try {
+            for (int shard : shardRouter.shards()) {
+                runShard(run, shard);
+            }
+            run.finish(AccrualRunResponse.State.FINISHED, null);
+        } catch (RuntimeException ex) {
+            failures.increment();
+            run.finish(AccrualRunResponse.State.FAILED, ex.getMessage());
+            throw ex;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void runShard(Run run, int shard) {
+        Instant now = Instant.now();
+        AccrualCheckpoint checkpoint = checkpointRepository.findById(AccrualCheckpoint.key(run.businessDate, shard))
+                .orElseGet(() -> AccrualCheckpoint.builder()
+                        .key(AccrualCheckpoint.key(run.businessDate, shard))
+                        .businessDate(run.businessDate)
+                        .shard(shard)
+                        .afterId(0L)
+                        .accounts(0L)
+                        .finished(false)
+                        .startedAt(now)
+                        .updatedAt(now)
+                        .build());
+        if (checkpoint.getFinished()) {
+            return;
+        }
+        Deque<Chunk> window = new ArrayDeque<>();
+        try {
+            long afterId = checkpoint.getAfterId();
+            while (true) {
+                long from = afterId;
+                List<Long> ids = shardRouter.onShard(shard, () -> accountRepository.findIdsByStatusAfter(
+                        Account.AccountStatus.ACTIVE, from, PageRequest.of(0, chunkSize)));
+                if (ids.isEmpty()) {
+                    break;
+                }
+                afterId = ids.get(ids.size() - 1);
+                // A slot caught mid-move is walked on its new owner.
+                List<Long> owned = new ArrayList<>(ids.size());
+                for (Long id : ids) {
+                    if (shardRouter.isOwner(shard, id)) {
+                        owned.add(id);
+                    }
+                }
+                run.scanned.add(owned.size());
+                throttle(run, owned.size());
+                window.add(new Chunk(afterId, workers.submit(() -> accrue(run, owned))));
+                if (window.size() >= 2 * threads) {
+                    checkpoint = complete(window.poll(), checkpoint);
+                }
+            }
+            while (!window.isEmpty()) {
+                checkpoint = complete(window.poll(), checkpoint);
+            }
+        } catch (RuntimeException ex) {
+            window.forEach(chunk -> chunk.result.cancel(false));
+            throw ex;
+        }
+        checkpoint.setFinished(true);
+        checkpoint.setUpdatedAt(Instant.now());
+        checkpointRepository.save(checkpoint);
+    }
+
+    private AccrualCheckpoint complete(Chunk chunk, AccrualCheckpoint checkpoint) {
+        int changed;
+        try {
+            changed = chunk.result.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Accrual run interrupted", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+        checkpoint.setAfterId(chunk.lastId);
+        checkpoint.setAccounts(checkpoint.getAccounts() + changed);
+        checkpoint.setUpdatedAt(Instant.now());
+        return checkpointRepository.save(checkpoint);
+    }
+
+    /**
+     * Gives way to online traffic, then paces the walk; called before each page is handed out.
+     */
+    private void throttle(Run run, int pageSize) {
+        if (yieldToRequests && concurrencyLimiter.isEnabled()) {
+            while (concurrencyLimiter.getInFlight() * 2 >= concurrencyLimiter.getLimit()) {
+                yields.increment();
+                sleep(TimeUnit.MILLISECONDS.toNanos(YIELD_PAUSE_MILLIS));
+            }
+        }
+        if (accountsPerSecond > 0) {
+            long now = System.nanoTime();
+            if (run.pacedUntil - now > 0) {
+                sleep(run.pacedUntil - now);
+                now = System.nanoTime();
+            }
+            run.pacedUntil = Math.max(run.pacedUntil, now) + TimeUnit.SECONDS.toNanos(pageSize) / accountsPerSecond;
+        }
+    }
+
+    private static void sleep(long nanos) {
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Accrual run interrupted", ex);
+        }
+    }
+
+    /**
+     * Processes one page, one transaction per shard its accounts are on now.
+     */
+    private int accrue(Run run, List<Long> ids) {
+        Map<Integer, List<Long>> byShard = new TreeMap<>();
+        for (Long id : ids) {
+            byShard.computeIfAbsent(shardRouter.shardOf(id), shard -> new ArrayList<>()).add(id);
+        }
+        int changed = 0;
+        for (List<Long> group : byShard.values()) {
+            changed += transactionTemplate.execute(status -> accrueInTransaction(run.businessDate, group));
+        }
+        run.accounts.add(changed);
+        run.chunks.increment();
+        accounts.add(changed);
+        chunks.increment();
+        return changed;
+    }
+
+    private int accrueInTransaction(LocalDate businessDate, List<Long> ids) {
+        shardRouter.route(ids.stream().mapToLong(Long::longValue).toArray());
+        String reference = REFERENCE_PREFIX + businessDate;
+        Set<Long> done = new HashSet<>(ledgerEntryRepository.findAccountIdsWithReference(ids, reference));
+        List<Account> changed = new ArrayList<>();
+        for (Account account : accountRepository.findAllByIdForUpdate(ids)) {
+            if (account.getStatus() != Account.AccountStatus.ACTIVE || done.contains(account.getId())) {
+                continue;
+            }
+            AccountTotals.Position before = AccountTotals.positionOf(account);
+            Money interest = dailyInterest(account.getBalance(), interestRate, dayCount);
+            if (interest.signum() > 0) {
+                account.setBalance(account.getBalance().plus(interest));
+                ledgerService.append(account, LedgerEntry.EntryType.INTEREST, interest, reference,
+                        "Interest for " + businessDate);
+            }
+            Money charge = fee(account.getBalance(), fee);
+            if (charge.signum() > 0) {
+                account.setBalance(account.getBalance().minus(charge));
+                ledgerService.append(account, LedgerEntry.EntryType.FEE, charge.negate(), reference,
+                        "Fee for " + businessDate);
+            }
+            if (interest.signum() > 0 || charge.signum() > 0) {
+                accountTotals.changed(before, account);
+                changed.add(account);
+            }
+        }
+        if (changed.isEmpty()) {
+            return 0;
+        }
+        List<Account> saved = accountRepository.saveAllAndFlush(changed);
+        accountOutbox.updated(saved);
+        accountCache.evictAfterCommit(saved.stream().map(Account::getId).toArray(Long[]::new));
+        return saved.size();
+    }
+
+    /**
+     * One day's interest on a positive balance, rounded half-even to the currency's minor unit.
+     */
+    static Money dailyInterest(Money balance, BigDecimal annualRate, int dayCount) {
+        if (balance.signum() <= 0 || annualRate.signum() == 0) {
+            return Money.zero(balance.getCurrency());
+        }
+        BigDecimal interest = balance.toBigDecimal().multiply(annualRate)
+                .divide(BigDecimal.valueOf(dayCount), MathContext.DECIMAL64);
+        return Money.of(FxRates.round(interest, balance.getCurrency()), balance.getCurrency());
+    }
+
+    /**
+     * The fee, or the whole balance if it is smaller; a fee never takes an account below zero.
+     */
+    static Money fee(Money balance, BigDecimal fee) {
+        if (balance.signum() <= 0 || fee.signum() == 0) {
+            return Money.zero(balance.getCurrency());
+        }
+        Money charge = Money.of(FxRates.round(fee, balance.getCurrency()), balance.getCurrency());
+        return charge.compareTo(balance) > 0 ? balance : charge;
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    public long getAccounts() {
+        return accounts.sum();
+    }
+
+    public long getChunks() {
+        return chunks.sum();
+    }
+
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    public long getYields() {
+        return yields.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("banking.accrual.accounts", accounts, LongAdder::sum)
+                .description("Accounts credited interest or charged a fee")
+                .register(registry);
+        FunctionCounter.builder("banking.accrual.chunks", chunks, LongAdder::sum)
+                .description("Pages of accounts processed")
+                .register(registry);
+        FunctionCounter.builder("banking.accrual.failures", failures, LongAdder::sum)
+                .description("Runs stopped by an error; the next run resumes them")
+                .register(registry);
+        FunctionCounter.builder("banking.accrual.yields", yields, LongAdder::sum)
+                .description("Pauses made to let online requests through")
+                .register(registry);
+        Gauge.builder("banking.accrual.running", running, flag -> flag.get() ? 1 : 0)
+                .description("Whether a run is in progress")
+                .register(registry);
+        Gauge.builder("banking.accrual.scanned", this, job -> job.latest == null ? 0 : job.latest.scanned.sum())
+                .description("Accounts walked by the current or last run")
+                .register(registry);
+        Gauge.builder("banking.accrual.throughput", this, job -> job.latest == null ? 0 : job.latest.throughput())
+                .description("Accounts walked per second by the current or last run")
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        coordinator.shutdownNow();
+        workers.shutdownNow();
+    }
+
+    private static final class Chunk {
+
+        private final long lastId;
+        private final Future<Integer> result;
+
+        private Chunk(long lastId, Future<Integer> result) {
+            this.lastId = lastId;
+            this.result = result;
+        }
+    }
+
+    private static final class Run {
+
+        private final LocalDate businessDate;
+        private final Instant startedAt = Instant.now();
+        private final long startNanos = System.nanoTime();
+        private final LongAdder scanned = new LongAdder();
+        private final LongAdder accounts = new LongAdder();
+        private final LongAdder chunks = new LongAdder();
+        private long pacedUntil = startNanos;
+        private volatile AccrualRunResponse.State state = AccrualRunResponse.State.RUNNING;
+        private volatile Instant finishedAt;
+        private volatile long finishNanos;
+        private volatile String error;
+
+        private Run(LocalDate businessDate) {
+            this.businessDate = businessDate;
+        }
+
+        private void finish(AccrualRunResponse.State state, String error) {
+            this.finishNanos = System.nanoTime();
+            this.finishedAt = Instant.now();
+            this.error = error;
+            this.state = state;
+        }
+
+        private double throughput() {
+            long end = state == AccrualRunResponse.State.RUNNING ? System.nanoTime() : finishNanos;
+            long nanos = end - startNanos;
+            return nanos <= 0 ? 0 : scanned.sum() * 1e9 / nanos;
+        }
+
+        private AccrualRunResponse toResponse() {
+            return AccrualRunResponse.builder()
+                    .businessDate(businessDate)
+                    .state(state)
+                    .scanned(scanned.sum())
+                    .accounts(accounts.sum())
+                    .chunks(chunks.sum())
+                    .accountsPerSecond(throughput())
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .error(error)
+                    .build();
+        }
+    }
+}
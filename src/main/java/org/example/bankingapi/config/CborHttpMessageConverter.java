@@ -0,0 +1,33 @@
+package org.example.bankingapi.config;
+
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reads and writes {@code application/cbor} (RFC 8949) with the same Jackson mappings as JSON, so
+ * every endpoint that takes or returns a DTO negotiates CBOR through {@code Content-Type} and
+ * {@code Accept}; JSON stays the default. Replaces the converter Spring MVC registers for CBOR,
+ * which is built without the application's Jackson settings.
+ * <p>
+ * Instants are written as numeric timestamps rather than ISO text, and amounts as CBOR decimal
+ * fractions, which keep their scale exactly as JSON does.
+ */
+@Component
+public class CborHttpMessageConverter extends MappingJackson2CborHttpMessageConverter {
+
+    /**
+     * A stream of CBOR items written back to back (RFC 8742), the binary counterpart of NDJSON.
+     */
+    public static final String APPLICATION_CBOR_SEQ_VALUE = "application/cbor-seq";
+    public static final MediaType APPLICATION_CBOR_SEQ = MediaType.parseMediaType(APPLICATION_CBOR_SEQ_VALUE);
+
+    public CborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        super(builder.factory(new CBORFactory())
+                .featuresToEnable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build());
+    }
+}
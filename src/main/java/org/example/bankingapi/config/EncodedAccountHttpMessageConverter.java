@@ -0,0 +1,65 @@
+package org.example.bankingapi.config;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.example.bankingapi.dto.AccountResponse;
+import org.example.bankingapi.dto.EncodedAccount;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+
+/**
+ * Writes {@link EncodedAccount} bodies as their pre-encoded JSON bytes, so cached account
+ * responses skip Jackson entirely. Write-only: requests are still read by the Jackson converter.
+ * <p>
+ * Clients that ask for {@code application/cbor} get the account encoded on the spot from the
+ * response it was built from.
+ */
+@Component
+public class EncodedAccountHttpMessageConverter extends AbstractHttpMessageConverter<EncodedAccount> {
+
+    private final ObjectWriter cborWriter;
+
+    public EncodedAccountHttpMessageConverter(CborHttpMessageConverter cborConverter) {
+        super(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR);
+        this.cborWriter = cborConverter.getObjectMapper().writerFor(AccountResponse.class);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return EncodedAccount.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected EncodedAccount readInternal(Class<? extends EncodedAccount> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("EncodedAccount is write-only", inputMessage);
+    }
+
+    @Override
+    protected Long getContentLength(EncodedAccount account, MediaType contentType) {
+        return isCbor(contentType) ? null : (long) account.getJson().length;
+    }
+
+    @Override
+    protected void writeInternal(EncodedAccount account, HttpOutputMessage outputMessage) throws IOException {
+        if (isCbor(outputMessage.getHeaders().getContentType())) {
+            cborWriter.writeValue(StreamUtils.nonClosing(outputMessage.getBody()), account.getAccount());
+        } else {
+            outputMessage.getBody().write(account.getJson());
+        }
+    }
+
+    private static boolean isCbor(MediaType contentType) {
+        return MediaType.APPLICATION_CBOR.equalsTypeAndSubtype(contentType);
+    }
+}
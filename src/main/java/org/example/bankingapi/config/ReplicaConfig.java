@@ -0,0 +1,85 @@
+package org.example.bankingapi.config;
+
+import org.example.bankingapi.replica.ReadYourWritesInterceptor;
+import org.example.bankingapi.replica.ReplicaRouter;
+import org.example.bankingapi.replica.ReplicaRoutingDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * With {@code banking.replicas.enabled=true}, read-only work is served by the databases in
+ * {@code banking.replicas.urls}, copies of the primary kept current by the database's own
+ * replication. The primary data source is wrapped so that each connection goes to a replica or
+ * to the primary (see {@link ReplicaRoutingDataSource}); writes, migrations and schema
+ * management always reach the primary.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "banking.replicas.enabled", havingValue = "true")
+public class ReplicaConfig {
+
+    @Bean
+    ReplicaRouter replicaRouter(@Value("${banking.replicas.urls:}") List<String> urls,
+                                @Value("${banking.replicas.selection:round-robin}") ReplicaRouter.Selection selection,
+                                @Value("${banking.replicas.read-your-writes-window:5s}") Duration readYourWritesWindow,
+                                @Value("${banking.replicas.health-check-timeout:1s}") Duration healthCheckTimeout,
+                                @Value("${banking.sharding.enabled:false}") boolean sharding,
+                                @Value("${spring.datasource.username:sa}") String username,
+                                @Value("${spring.datasource.password:}") String password) {
+        if (sharding) {
+            throw new IllegalStateException("Read replicas cannot be combined with sharding");
+        }
+        if (urls.isEmpty()) {
+            throw new IllegalArgumentException("banking.replicas.urls must list at least one database");
+        }
+        List<DataSource> replicas = new ArrayList<>(urls.size());
+        for (String url : urls) {
+            replicas.add(DataSourceBuilder.create()
+                    .url(url.trim())
+                    .username(username)
+                    .password(password)
+                    .build());
+        }
+        return new ReplicaRouter(replicas, selection, readYourWritesWindow, healthCheckTimeout);
+    }
+
+    /**
+     * Wraps the primary {@code dataSource} bean only; the replicas' own pools are left alone.
+     */
+    @Bean
+    static BeanPostProcessor replicaRoutingPostProcessor(ObjectProvider<ReplicaRouter> router) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!"dataSource".equals(beanName) || !(bean instanceof DataSource)) {
+                    return bean;
+                }
+                return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource((DataSource) bean, router.getObject()));
+            }
+        };
+    }
+
+    @Bean
+    WebMvcConfigurer readYourWritesWebConfig(ReplicaRouter router,
+                                             @Value("${banking.replicas.client-header:X-Client-Id}") String clientHeader) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new ReadYourWritesInterceptor(router, clientHeader))
+                        .addPathPatterns("/api/**");
+            }
+        };
+    }
+}
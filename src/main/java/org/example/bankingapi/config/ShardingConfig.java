@@ -0,0 +1,100 @@
+package org.example.bankingapi.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.bankingapi.shard.ShardRouter;
+import org.example.bankingapi.shard.ShardRoutingDataSource;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * With {@code banking.sharding.enabled=true} accounts are split over the databases listed in
+ * {@code banking.sharding.urls}, each holding the full schema. The primary data source then
+ * routes every connection to the shard the current work is bound to (see {@link ShardRouter});
+ * {@code spring.datasource.url} is not used.
+ */
+@Configuration(proxyBeanMethods = false)
+public class ShardingConfig {
+
+    private static final int MAX_SHARDS = 256;
+
+    /**
+     * Each shard draws ids from its own range of {@code 2^40} values, so a row keeps a unique
+     * id when its slot moves to another shard.
+     */
+    private static final int SEQUENCE_RANGE_BITS = 40;
+
+    private static final List<String> SEQUENCES = List.of("account_seq", "ledger_entry_seq", "balance_snapshot_seq", "account_event_seq");
+
+    private static final int SEQUENCE_ALLOCATION_SIZE = 50;
+
+    @Bean
+    ShardRouter shardRouter(@Value("${banking.sharding.enabled:false}") boolean enabled,
+                            @Value("${banking.sharding.urls:}") List<String> urls,
+                            @Value("${spring.datasource.username:sa}") String username,
+                            @Value("${spring.datasource.password:}") String password) {
+        if (!enabled) {
+            return ShardRouter.disabled();
+        }
+        if (urls.isEmpty() || urls.size() > MAX_SHARDS) {
+            throw new IllegalArgumentException("banking.sharding.urls must list 1 to " + MAX_SHARDS + " databases");
+        }
+        List<DataSource> shards = new ArrayList<>(urls.size());
+        for (String url : urls) {
+            shards.add(DataSourceBuilder.create()
+                    .url(url.trim())
+                    .username(username)
+                    .password(password)
+                    .build());
+        }
+        return new ShardRouter(shards);
+    }
+
+    @Bean
+    @Primary
+    @ConditionalOnProperty(name = "banking.sharding.enabled", havingValue = "true")
+    DataSource shardedDataSource(ShardRouter shardRouter) {
+        return new LazyConnectionDataSourceProxy(new ShardRoutingDataSource(shardRouter));
+    }
+
+    /**
+     * Hibernate creates the schema through the primary data source, which reaches shard 0
+     * only; this repeats it on the other shards and moves every shard's sequences into its own
+     * range. With a schema managed outside Hibernate both are left to the migrations.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "banking.sharding.enabled", havingValue = "true")
+    SmartInitializingSingleton shardSchemaInitializer(EntityManagerFactory entityManagerFactory,
+                                                      ShardRouter shardRouter,
+                                                      @Value("${spring.jpa.hibernate.ddl-auto:none}") String ddlAuto) {
+        return () -> {
+            if (!ddlAuto.startsWith("create")) {
+                return;
+            }
+            SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+            for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+                if (shard > 0) {
+                    shardRouter.runOnShard(shard, () -> sessionFactory.getSchemaManager().exportMappedObjects(true));
+                }
+                // Shard 0 restarts too: the id optimizers are shared by all shards, and a block
+                // fetched from a sequence still at its initial value would start below 1.
+                JdbcTemplate jdbcTemplate = new JdbcTemplate(shardRouter.dataSource(shard));
+                long start = ((long) shard << SEQUENCE_RANGE_BITS) + SEQUENCE_ALLOCATION_SIZE;
+                for (String sequence : SEQUENCES) {
+                    jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + start);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,25 @@
+package org.example.bankingapi.config;
+
+import org.example.bankingapi.shard.ShardRouter;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationInitializer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+
+/**
+ * Beans that stay eager under {@code spring.main.lazy-initialization}, as the prod profile sets
+ * it. Migrations, the persistence unit and the shard directory are needed by the first request
+ * anyway, and a broken schema, mapping or slot table should stop the start rather than fail
+ * that request. Scheduled beans, meter binders and lifecycle beans are created eagerly by
+ * Spring regardless.
+ */
+@Configuration(proxyBeanMethods = false)
+public class StartupConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter eagerStartupBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(
+                FlywayMigrationInitializer.class, AbstractEntityManagerFactoryBean.class, ShardRouter.class);
+    }
+}
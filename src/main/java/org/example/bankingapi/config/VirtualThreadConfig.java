@@ -0,0 +1,75 @@
+package org.example.bankingapi.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+
+/**
+ * Active when {@code spring.threads.virtual.enabled=true} on Java 21 or later. Boot then runs
+ * Tomcat requests, MVC async work (streamed exports) and the task executor on virtual threads;
+ * this configuration adds the database bulkhead that the thread pool used to provide.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    @Bean
+    static BeanPostProcessor boundedDataSourcePostProcessor(
+            @Value("${banking.db.max-concurrency:0}") int maxConcurrency,
+            @Value("${banking.db.acquire-timeout:30s}") Duration acquireTimeout) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource) || bean instanceof BoundedDataSource) {
+                    return bean;
+                }
+                DataSource dataSource = (DataSource) bean;
+                return new BoundedDataSource(dataSource, permits(dataSource, maxConcurrency), acquireTimeout);
+            }
+        };
+    }
+
+    /**
+     * One permit per pooled connection unless configured explicitly, so requests wait for a
+     * permit rather than for a connection. Hikari reports -1 until its defaults are applied.
+     */
+    private static int permits(DataSource dataSource, int maxConcurrency) {
+        if (maxConcurrency > 0) {
+            return maxConcurrency;
+        }
+        if (dataSource instanceof HikariDataSource && ((HikariDataSource) dataSource).getMaximumPoolSize() > 0) {
+            return ((HikariDataSource) dataSource).getMaximumPoolSize();
+        }
+        return DEFAULT_POOL_SIZE;
+    }
+
+    @Bean
+    MeterBinder dataSourceBulkheadMetrics(DataSource dataSource) {
+        return registry -> {
+            BoundedDataSource bounded;
+            try {
+                bounded = dataSource.unwrap(BoundedDataSource.class);
+            } catch (SQLException ex) {
+                return;
+            }
+            Gauge.builder("banking.db.permits.available", bounded, BoundedDataSource::getAvailablePermits)
+                    .description("Database permits not currently held")
+                    .register(registry);
+            Gauge.builder("banking.db.permits.waiting", bounded, BoundedDataSource::getQueueLength)
+                    .description("Threads waiting for a database permit")
+                    .register(registry);
+        };
+    }
+}
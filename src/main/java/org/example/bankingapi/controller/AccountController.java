@@ -1,50 +1,272 @@
 package org.example.bankingapi.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import org.example.bankingapi.config.CborHttpMessageConverter;
+import org.example.bankingapi.dto.AccountPage;
+import org.example.bankingapi.dto.BatchCreateResponse;
 import org.example.bankingapi.dto.AccountResponse;
+import org.example.bankingapi.dto.AccountSearchCriteria;
+import org.example.bankingapi.dto.AccountSort;
 import org.example.bankingapi.dto.CreateAccountRequest;
+import org.example.bankingapi.dto.EncodedAccount;
 import org.example.bankingapi.dto.UpdateAccountRequest;
+import org.example.bankingapi.entity.Account;
 import org.example.bankingapi.exception.AccountNotFoundException;
+import org.example.bankingapi.exception.AccountVersionMismatchException;
+import org.example.bankingapi.exception.ChangeEventsDisabledException;
+import org.example.bankingapi.exception.ConcurrentUpdateException;
 import org.example.bankingapi.exception.DuplicateAccountException;
+import org.example.bankingapi.exception.IdempotencyKeyInProgressException;
+import org.example.bankingapi.exception.IdempotencyKeyReusedException;
+import org.example.bankingapi.exception.InvalidAmountException;
+import org.example.bankingapi.exception.InvalidCursorException;
+import org.example.bankingapi.exception.InvalidIdempotencyKeyException;
+import org.example.bankingapi.exception.InvalidSearchException;
+import org.example.bankingapi.exception.InvalidSubscriptionException;
+import org.example.bankingapi.limit.RequestCost;
+import org.example.bankingapi.outbox.AccountChangeStream;
+import org.example.bankingapi.service.AccountBatchService;
+import org.example.bankingapi.service.AccountJsonCache;
 import org.example.bankingapi.service.AccountService;
+import org.example.bankingapi.service.IdempotencyService;
+import org.example.bankingapi.service.LiveBalanceService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.MimeTypeUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import javax.validation.Valid;
+import jakarta.validation.Valid;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 @RestController
 @RequestMapping("/api/accounts")
 public class AccountController {
 
     private final AccountService accountService;
+    private final AccountBatchService accountBatchService;
+    private final IdempotencyService idempotencyService;
+    private final AccountJsonCache accountJsonCache;
+    private final AccountChangeStream accountChangeStream;
+    private final LiveBalanceService liveBalanceService;
+    private final ObjectMapper objectMapper;
+    private final ObjectMapper cborMapper;
+    private final int defaultPageSize;
+    private final int maxPageSize;
 
-    public AccountController(AccountService accountService) {
+    public AccountController(AccountService accountService,
+                             AccountBatchService accountBatchService,
+                             IdempotencyService idempotencyService,
+                             AccountJsonCache accountJsonCache,
+                             AccountChangeStream accountChangeStream,
+                             LiveBalanceService liveBalanceService,
+                             ObjectMapper objectMapper,
+                             CborHttpMessageConverter cborConverter,
+                             @Value("${banking.accounts.default-page-size:50}") int defaultPageSize,
+                             @Value("${banking.accounts.max-page-size:500}") int maxPageSize) {
         this.accountService = accountService;
+        this.accountBatchService = accountBatchService;
+        this.idempotencyService = idempotencyService;
+        this.accountJsonCache = accountJsonCache;
+        this.accountChangeStream = accountChangeStream;
+        this.liveBalanceService = liveBalanceService;
+        this.objectMapper = objectMapper;
+        this.cborMapper = cborConverter.getObjectMapper();
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
     }
 
     @PostMapping
-    public ResponseEntity<AccountResponse> createAccount(@Valid @RequestBody CreateAccountRequest request) {
-        AccountResponse response = accountService.createAccount(request);
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    public ResponseEntity<AccountResponse> createAccount(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody CreateAccountRequest request) {
+        return idempotencyService.execute(idempotencyKey, "POST /api/accounts", request, AccountResponse.class,
+                () -> ResponseEntity.status(HttpStatus.CREATED).body(accountService.createAccount(request)));
+    }
+
+    @PostMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    @RequestCost(20)
+    public ResponseEntity<BatchCreateResponse> createAccounts(@RequestBody List<CreateAccountRequest> requests) {
+        return ResponseEntity.ok(accountBatchService.createAccounts(requests.iterator()));
+    }
+
+    /**
+     * NDJSON variant: items are parsed line by line as the batch service pulls them, so the
+     * request body is never held in memory. A line that is not valid JSON is reported as an
+     * invalid item instead of failing the whole upload.
+     */
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @RequestCost(20)
+    public ResponseEntity<BatchCreateResponse> createAccountsFromStream(InputStream body) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            Iterator<CreateAccountRequest> requests = reader.lines()
+                    .filter(line -> !line.isBlank())
+                    .map(this::parseLine)
+                    .iterator();
+            return ResponseEntity.ok(accountBatchService.createAccounts(requests));
+        }
+    }
+
+    private CreateAccountRequest parseLine(String line) {
+        try {
+            return objectMapper.readValue(line, CreateAccountRequest.class);
+        } catch (IOException ex) {
+            return null;
+        }
     }
 
     @GetMapping
-    public ResponseEntity<List<AccountResponse>> getAllAccounts() {
-        return ResponseEntity.ok(accountService.getAllAccounts());
+    @RequestCost(10)
+    public ResponseEntity<AccountPage> getAccounts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        int pageSize = limit != null ? Math.max(1, Math.min(limit, maxPageSize)) : defaultPageSize;
+        return ResponseEntity.ok(accountService.getAccounts(cursor, pageSize));
+    }
+
+    @GetMapping("/search")
+    @RequestCost(10)
+    public ResponseEntity<AccountPage> searchAccounts(
+            @RequestParam(required = false) Account.AccountStatus status,
+            @RequestParam(required = false) String currency,
+            @RequestParam(required = false) String holderNamePrefix,
+            @RequestParam(required = false) BigDecimal minBalance,
+            @RequestParam(required = false) BigDecimal maxBalance,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant createdTo,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant updatedFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant updatedTo,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        AccountSearchCriteria criteria = AccountSearchCriteria.builder()
+                .status(status)
+                .currency(currency)
+                .holderNamePrefix(holderNamePrefix)
+                .minBalance(minBalance)
+                .maxBalance(maxBalance)
+                .createdFrom(createdFrom)
+                .createdTo(createdTo)
+                .updatedFrom(updatedFrom)
+                .updatedTo(updatedTo)
+                .build();
+        int pageSize = limit != null ? Math.max(1, Math.min(limit, maxPageSize)) : defaultPageSize;
+        return ResponseEntity.ok(accountService.searchAccounts(criteria, AccountSort.parse(sort), cursor, pageSize));
+    }
+
+    /**
+     * One JSON document per line, or with {@code Accept: application/cbor-seq} one CBOR item per
+     * account written back to back. NDJSON unless the client prefers the CBOR sequence.
+     */
+    @GetMapping(value = "/export",
+            produces = {MediaType.APPLICATION_NDJSON_VALUE, CborHttpMessageConverter.APPLICATION_CBOR_SEQ_VALUE})
+    @RequestCost(50)
+    public ResponseEntity<StreamingResponseBody> exportAccounts(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        if (prefers(accept, CborHttpMessageConverter.APPLICATION_CBOR_SEQ, MediaType.APPLICATION_NDJSON)) {
+            return export(cborMapper.writerFor(AccountResponse.class), CborHttpMessageConverter.APPLICATION_CBOR_SEQ);
+        }
+        return export(objectMapper.writerFor(AccountResponse.class).withRootValueSeparator("\n"),
+                MediaType.APPLICATION_NDJSON);
+    }
+
+    private ResponseEntity<StreamingResponseBody> export(ObjectWriter accountWriter, MediaType contentType) {
+        StreamingResponseBody body = out -> {
+            try (SequenceWriter writer = accountWriter.writeValues(out)) {
+                accountService.exportAccounts(account -> {
+                    try {
+                        writer.write(account);
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(contentType).body(body);
+    }
+
+    /**
+     * Change events as server-sent events, each with its position as the event id. A client
+     * resumes with {@code since} or, after a dropped connection, the {@code Last-Event-ID}
+     * header its EventSource sends.
+     */
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(
+            @RequestParam(required = false) Long since,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return accountChangeStream.subscribe(since != null ? since : lastEventId);
+    }
+
+    /**
+     * Live state of up to {@code banking.live.max-ids} accounts as server-sent events, in place of
+     * polling {@code GET /api/accounts/{id}}.
+     */
+    @GetMapping(value = "/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAccounts(@RequestParam(required = false) List<Long> ids) {
+        return liveBalanceService.stream(ids);
+    }
+
+    /**
+     * Long-poll variant for clients that cannot keep a stream open: pass back the versions from
+     * the previous answer and the request is held until one of them changes.
+     */
+    @GetMapping("/live/poll")
+    public DeferredResult<ResponseEntity<Map<Long, AccountResponse>>> pollAccounts(
+            @RequestParam(required = false) List<Long> ids,
+            @RequestParam(required = false) List<Long> versions) {
+        return liveBalanceService.poll(ids, versions);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<AccountResponse> getAccountById(@PathVariable Long id) {
-        return ResponseEntity.ok(accountService.getAccountById(id));
+    public ResponseEntity<EncodedAccount> getAccountById(
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return encoded(accountJsonCache.get(accountService.getAccountById(id)), accept);
+    }
+
+    @GetMapping("/by-number/{accountNumber}")
+    public ResponseEntity<EncodedAccount> getAccountByNumber(
+            @PathVariable String accountNumber,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return encoded(accountJsonCache.get(accountService.getAccountByNumber(accountNumber)), accept);
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<AccountResponse> updateAccount(
+    public ResponseEntity<EncodedAccount> updateAccount(
             @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
             @Valid @RequestBody UpdateAccountRequest request) {
-        AccountResponse response = accountService.updateAccount(id, request);
-        return ResponseEntity.ok(response);
+        AccountResponse response = ifMatch == null || ifMatch.trim().equals("*")
+                ? accountService.updateAccount(id, request)
+                : accountService.updateAccount(id, request, parseVersion(id, ifMatch));
+        // The written entity may differ in scale from what reads return, so the body and its tag
+        // come from the read path: the bytes a GET of this version gets. Should a later write have
+        // landed meanwhile, the written one is sent, as no read can match its version any more.
+        AccountResponse current = accountService.getAccountById(id);
+        return encoded(Objects.equals(current.getVersion(), response.getVersion())
+                ? accountJsonCache.get(current)
+                : accountJsonCache.encode(response), accept);
     }
 
     @DeleteMapping("/{id}")
@@ -53,6 +275,68 @@ public class AccountController {
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * The ETag computed over the JSON bytes, sent weak when the client negotiates CBOR: it still
+     * names the version, which is all {@code If-None-Match} and {@code If-Match} compare.
+     */
+    private static ResponseEntity<EncodedAccount> encoded(EncodedAccount encoded, String accept) {
+        String etag = prefers(accept, MediaType.APPLICATION_CBOR, MediaType.APPLICATION_JSON)
+                ? "W/" + encoded.getEtag()
+                : encoded.getEtag();
+        return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(encoded);
+    }
+
+    /**
+     * Whether content negotiation picks {@code preferred} over {@code fallback}, ranking the
+     * {@code Accept} header the way Spring MVC does; without one, the fallback is sent.
+     */
+    private static boolean prefers(String accept, MediaType preferred, MediaType fallback) {
+        if (accept == null) {
+            return false;
+        }
+        List<MediaType> accepted = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        MimeTypeUtils.sortBySpecificity(accepted);
+        for (MediaType type : accepted) {
+            if (fallback.isCompatibleWith(type)) {
+                return false;
+            }
+            if (preferred.isCompatibleWith(type)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Accepts a strong or weak entity tag starting with the account version, e.g.
+     * {@code "3-9f1c0a2e"}, {@code "3"} or {@code W/"3"}. Only the version is compared: the
+     * checksum after it identifies the bytes of one response, not the state of the account.
+     * A tag we never issued cannot match, so it fails the precondition.
+     */
+    private static Long parseVersion(Long id, String ifMatch) {
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            tag = tag.substring(1, tag.length() - 1);
+        }
+        int dash = tag.indexOf('-');
+        if (dash > 0) {
+            tag = tag.substring(0, dash);
+        }
+        try {
+            return Long.valueOf(tag);
+        } catch (NumberFormatException ex) {
+            throw new AccountVersionMismatchException(id, null);
+        }
+    }
+
+    @ExceptionHandler(InvalidAmountException.class)
+    public ResponseEntity<String> handleInvalidAmount(InvalidAmountException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    }
+
     @ExceptionHandler(AccountNotFoundException.class)
     public ResponseEntity<String> handleAccountNotFound(AccountNotFoundException ex) {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
@@ -62,4 +346,49 @@ public class AccountController {
     public ResponseEntity<String> handleDuplicateAccount(DuplicateAccountException ex) {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
     }
+
+    @ExceptionHandler(AccountVersionMismatchException.class)
+    public ResponseEntity<String> handleVersionMismatch(AccountVersionMismatchException ex) {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(ConcurrentUpdateException.class)
+    public ResponseEntity<String> handleConcurrentUpdate(ConcurrentUpdateException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(ChangeEventsDisabledException.class)
+    public ResponseEntity<String> handleChangeEventsDisabled(ChangeEventsDisabledException ex) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<String> handleInvalidCursor(InvalidCursorException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(InvalidSearchException.class)
+    public ResponseEntity<String> handleInvalidSearch(InvalidSearchException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(InvalidSubscriptionException.class)
+    public ResponseEntity<String> handleInvalidSubscription(InvalidSubscriptionException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(InvalidIdempotencyKeyException.class)
+    public ResponseEntity<String> handleInvalidIdempotencyKey(InvalidIdempotencyKeyException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ResponseEntity<String> handleIdempotencyKeyReused(IdempotencyKeyReusedException ex) {
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(IdempotencyKeyInProgressException.class)
+    public ResponseEntity<String> handleIdempotencyKeyInProgress(IdempotencyKeyInProgressException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
+    }
 }
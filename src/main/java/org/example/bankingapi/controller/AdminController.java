@@ -0,0 +1,104 @@
+package org.example.bankingapi.controller;
+
+import org.example.bankingapi.accrual.AccrualJob;
+import org.example.bankingapi.dto.AccrualRunResponse;
+import org.example.bankingapi.dto.CacheStatsResponse;
+import org.example.bankingapi.dto.ShardMoveResponse;
+import org.example.bankingapi.dto.ShardStatsResponse;
+import org.example.bankingapi.exception.AccrualRunningException;
+import org.example.bankingapi.exception.InvalidShardMoveException;
+import org.example.bankingapi.service.AccountCache;
+import org.example.bankingapi.service.AccountJsonCache;
+import org.example.bankingapi.shard.ShardRebalancer;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin")
+public class AdminController {
+
+    private final AccountCache accountCache;
+    private final AccountJsonCache accountJsonCache;
+    private final ShardRebalancer shardRebalancer;
+    private final AccrualJob accrualJob;
+
+    public AdminController(AccountCache accountCache, AccountJsonCache accountJsonCache, ShardRebalancer shardRebalancer,
+                           AccrualJob accrualJob) {
+        this.accountCache = accountCache;
+        this.accountJsonCache = accountJsonCache;
+        this.shardRebalancer = shardRebalancer;
+        this.accrualJob = accrualJob;
+    }
+
+    @GetMapping("/cache")
+    public ResponseEntity<List<CacheStatsResponse>> getCacheStats() {
+        return ResponseEntity.ok(List.of(
+                CacheStatsResponse.from("accounts-by-id", accountCache.isEnabled(),
+                        accountCache.size(), accountCache.byIdStats()),
+                CacheStatsResponse.from("account-ids-by-number", accountCache.isEnabled(),
+                        accountCache.numberIndexSize(), accountCache.byNumberStats()),
+                CacheStatsResponse.from("account-json", accountJsonCache.isEnabled(),
+                        accountJsonCache.size(), accountJsonCache.stats())));
+    }
+
+    @DeleteMapping("/cache")
+    public ResponseEntity<Void> clearCache() {
+        accountCache.clear();
+        accountJsonCache.clear();
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/shards")
+    public ResponseEntity<List<ShardStatsResponse>> getShards() {
+        return ResponseEntity.ok(shardRebalancer.stats());
+    }
+
+    /**
+     * Moves the hash slots {@code fromSlot..toSlot} (inclusive) and their accounts to {@code shard}.
+     */
+    @PostMapping("/shards/moves")
+    public ResponseEntity<ShardMoveResponse> moveSlots(@RequestParam int fromSlot,
+                                                       @RequestParam int toSlot,
+                                                       @RequestParam int shard) {
+        return ResponseEntity.ok(shardRebalancer.move(fromSlot, toSlot, shard));
+    }
+
+    /**
+     * Starts the interest and fee run for {@code date}, yesterday (UTC) by default, in the
+     * background; a run that stopped part-way resumes where it left off.
+     */
+    @PostMapping("/accrual/runs")
+    public ResponseEntity<AccrualRunResponse> startAccrual(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        LocalDate businessDate = date != null ? date : LocalDate.now(ZoneOffset.UTC).minusDays(1);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(accrualJob.start(businessDate));
+    }
+
+    @GetMapping("/accrual/runs/latest")
+    public ResponseEntity<AccrualRunResponse> getAccrual() {
+        AccrualRunResponse status = accrualJob.status();
+        return status != null ? ResponseEntity.ok(status) : ResponseEntity.notFound().build();
+    }
+
+    @ExceptionHandler(InvalidShardMoveException.class)
+    public ResponseEntity<String> handleInvalidShardMove(InvalidShardMoveException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(AccrualRunningException.class)
+    public ResponseEntity<String> handleAccrualRunning(AccrualRunningException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
+    }
+}
@@ -0,0 +1,118 @@
+package org.example.bankingapi.controller;
+
+import org.example.bankingapi.dto.AccountResponse;
+import org.example.bankingapi.dto.BalanceResponse;
+import org.example.bankingapi.dto.LedgerPage;
+import org.example.bankingapi.dto.MoneyMovementRequest;
+import org.example.bankingapi.exception.AccountNotActiveException;
+import org.example.bankingapi.exception.AccountNotFoundException;
+import org.example.bankingapi.exception.IdempotencyKeyInProgressException;
+import org.example.bankingapi.exception.IdempotencyKeyReusedException;
+import org.example.bankingapi.exception.InsufficientFundsException;
+import org.example.bankingapi.exception.InvalidAmountException;
+import org.example.bankingapi.exception.InvalidCursorException;
+import org.example.bankingapi.exception.InvalidIdempotencyKeyException;
+import org.example.bankingapi.service.IdempotencyService;
+import org.example.bankingapi.service.LedgerService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import jakarta.validation.Valid;
+import java.time.Instant;
+
+@RestController
+@RequestMapping("/api/accounts/{id}")
+public class LedgerController {
+
+    private final LedgerService ledgerService;
+    private final IdempotencyService idempotencyService;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+
+    public LedgerController(LedgerService ledgerService,
+                            IdempotencyService idempotencyService,
+                            @Value("${banking.accounts.default-page-size:50}") int defaultPageSize,
+                            @Value("${banking.accounts.max-page-size:500}") int maxPageSize) {
+        this.ledgerService = ledgerService;
+        this.idempotencyService = idempotencyService;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    @PostMapping("/deposits")
+    public ResponseEntity<AccountResponse> deposit(
+            @PathVariable Long id,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody MoneyMovementRequest request) {
+        return idempotencyService.execute(idempotencyKey, "POST /api/accounts/" + id + "/deposits", request,
+                AccountResponse.class, () -> ResponseEntity.ok(ledgerService.deposit(id, request)));
+    }
+
+    @PostMapping("/withdrawals")
+    public ResponseEntity<AccountResponse> withdraw(
+            @PathVariable Long id,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody MoneyMovementRequest request) {
+        return idempotencyService.execute(idempotencyKey, "POST /api/accounts/" + id + "/withdrawals", request,
+                AccountResponse.class, () -> ResponseEntity.ok(ledgerService.withdraw(id, request)));
+    }
+
+    @GetMapping("/ledger")
+    public ResponseEntity<LedgerPage> getStatement(
+            @PathVariable Long id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        int pageSize = limit != null ? Math.max(1, Math.min(limit, maxPageSize)) : defaultPageSize;
+        return ResponseEntity.ok(ledgerService.getStatement(id, cursor, pageSize));
+    }
+
+    @GetMapping("/balance")
+    public ResponseEntity<BalanceResponse> getBalance(
+            @PathVariable Long id,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant at) {
+        return ResponseEntity.ok(ledgerService.getBalanceAt(id, at != null ? at : Instant.now()));
+    }
+
+    @ExceptionHandler(InvalidAmountException.class)
+    public ResponseEntity<String> handleInvalidAmount(InvalidAmountException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(AccountNotFoundException.class)
+    public ResponseEntity<String> handleAccountNotFound(AccountNotFoundException ex) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(AccountNotActiveException.class)
+    public ResponseEntity<String> handleAccountNotActive(AccountNotActiveException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(InsufficientFundsException.class)
+    public ResponseEntity<String> handleInsufficientFunds(InsufficientFundsException ex) {
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<String> handleInvalidCursor(InvalidCursorException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(InvalidIdempotencyKeyException.class)
+    public ResponseEntity<String> handleInvalidIdempotencyKey(InvalidIdempotencyKeyException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ResponseEntity<String> handleIdempotencyKeyReused(IdempotencyKeyReusedException ex) {
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(IdempotencyKeyInProgressException.class)
+    public ResponseEntity<String> handleIdempotencyKeyInProgress(IdempotencyKeyInProgressException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
+    }
+}
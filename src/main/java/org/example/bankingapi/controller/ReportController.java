@@ -0,0 +1,45 @@
+package org.example.bankingapi.controller;
+
+import org.example.bankingapi.dto.BalanceTotalsResponse;
+import org.example.bankingapi.exception.InvalidReportException;
+import org.example.bankingapi.exception.UnknownCurrencyException;
+import org.example.bankingapi.service.ReportService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/reports")
+public class ReportController {
+
+    private final ReportService reportService;
+
+    public ReportController(ReportService reportService) {
+        this.reportService = reportService;
+    }
+
+    @GetMapping("/totals")
+    public ResponseEntity<BalanceTotalsResponse> getBalanceTotals(@RequestParam(required = false) String groupBy,
+                                                                  @RequestParam(required = false) String reportingCurrency,
+                                                                  @RequestParam(required = false) String source) {
+        return ResponseEntity.ok(reportService.balanceTotals(groupBy, reportingCurrency, source));
+    }
+
+    @ExceptionHandler(InvalidReportException.class)
+    public ResponseEntity<String> handleInvalidReport(InvalidReportException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    }
+
+    /**
+     * Accounts are held in a currency the rate table does not cover; the report cannot be
+     * produced until the table is extended.
+     */
+    @ExceptionHandler(UnknownCurrencyException.class)
+    public ResponseEntity<String> handleUnknownCurrency(UnknownCurrencyException ex) {
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(ex.getMessage());
+    }
+}
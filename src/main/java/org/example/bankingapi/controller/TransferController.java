@@ -0,0 +1,74 @@
+package org.example.bankingapi.controller;
+
+import org.example.bankingapi.dto.TransferRequest;
+import org.example.bankingapi.dto.TransferResponse;
+import org.example.bankingapi.exception.AccountNotFoundException;
+import org.example.bankingapi.exception.IdempotencyKeyInProgressException;
+import org.example.bankingapi.exception.IdempotencyKeyReusedException;
+import org.example.bankingapi.exception.InsufficientFundsException;
+import org.example.bankingapi.exception.InvalidAmountException;
+import org.example.bankingapi.exception.InvalidIdempotencyKeyException;
+import org.example.bankingapi.exception.InvalidTransferException;
+import org.example.bankingapi.service.IdempotencyService;
+import org.example.bankingapi.service.TransferService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import jakarta.validation.Valid;
+
+@RestController
+@RequestMapping("/api/transfers")
+public class TransferController {
+
+    private final TransferService transferService;
+    private final IdempotencyService idempotencyService;
+
+    public TransferController(TransferService transferService, IdempotencyService idempotencyService) {
+        this.transferService = transferService;
+        this.idempotencyService = idempotencyService;
+    }
+
+    @PostMapping
+    public ResponseEntity<TransferResponse> transfer(
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody TransferRequest request) {
+        return idempotencyService.execute(idempotencyKey, "POST /api/transfers", request, TransferResponse.class,
+                () -> ResponseEntity.status(HttpStatus.CREATED).body(transferService.transfer(request)));
+    }
+
+    @ExceptionHandler(InvalidAmountException.class)
+    public ResponseEntity<String> handleInvalidAmount(InvalidAmountException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(AccountNotFoundException.class)
+    public ResponseEntity<String> handleAccountNotFound(AccountNotFoundException ex) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(InvalidTransferException.class)
+    public ResponseEntity<String> handleInvalidTransfer(InvalidTransferException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(InsufficientFundsException.class)
+    public ResponseEntity<String> handleInsufficientFunds(InsufficientFundsException ex) {
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(InvalidIdempotencyKeyException.class)
+    public ResponseEntity<String> handleInvalidIdempotencyKey(InvalidIdempotencyKeyException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ResponseEntity<String> handleIdempotencyKeyReused(IdempotencyKeyReusedException ex) {
+        return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(ex.getMessage());
+    }
+
+    @ExceptionHandler(IdempotencyKeyInProgressException.class)
+    public ResponseEntity<String> handleIdempotencyKeyInProgress(IdempotencyKeyInProgressException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(ex.getMessage());
+    }
+}
@@ -0,0 +1,29 @@
+package org.example.bankingapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.bankingapi.entity.AccountEvent;
+
+import java.time.Instant;
+
+/**
+ * A published account change. {@code position} increases along the stream and is the
+ * {@code since} value to resume from; {@code eventId} identifies the change itself, so a
+ * consumer can drop an event delivered twice.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountChangeEvent {
+
+    private Long position;
+    private Long eventId;
+    private Long accountId;
+    private AccountEvent.ChangeType type;
+    private Long accountVersion;
+    private AccountResponse account;
+    private Instant occurredAt;
+}
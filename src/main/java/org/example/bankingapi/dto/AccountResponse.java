@@ -23,17 +23,19 @@ public class AccountResponse {
     private Account.AccountStatus status;
     private Instant createdAt;
     private Instant updatedAt;
+    private Long version;
 
     public static AccountResponse fromEntity(Account account) {
         return AccountResponse.builder()
                 .id(account.getId())
                 .accountNumber(account.getAccountNumber())
                 .accountHolderName(account.getAccountHolderName())
-                .balance(account.getBalance())
+                .balance(account.getBalance().toBigDecimal())
                 .currency(account.getCurrency())
                 .status(account.getStatus())
                 .createdAt(account.getCreatedAt())
                 .updatedAt(account.getUpdatedAt())
+                .version(account.getVersion())
                 .build();
     }
 }
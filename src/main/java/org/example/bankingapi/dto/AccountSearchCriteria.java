@@ -0,0 +1,40 @@
+package org.example.bankingapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.bankingapi.entity.Account;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Filters of an account search; {@code null} fields are not applied. Balance bounds are
+ * inclusive, time windows are half-open ({@code from <= t < to}) and the holder-name prefix is
+ * case-sensitive.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountSearchCriteria {
+
+    private Account.AccountStatus status;
+
+    private String currency;
+
+    private String holderNamePrefix;
+
+    private BigDecimal minBalance;
+
+    private BigDecimal maxBalance;
+
+    private Instant createdFrom;
+
+    private Instant createdTo;
+
+    private Instant updatedFrom;
+
+    private Instant updatedTo;
+}
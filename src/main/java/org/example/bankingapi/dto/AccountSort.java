@@ -0,0 +1,76 @@
+package org.example.bankingapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.example.bankingapi.exception.InvalidSearchException;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.Collectors;
+
+/**
+ * Sort orders of an account search, written as {@code field} or {@code field,direction}, e.g.
+ * {@code balance,desc}. Ties are broken by id in the same direction, so the order is total and
+ * a page can continue from the (value, id) of the previous one.
+ * <p>
+ * Only orders that an index on {@code accounts} delivers directly are offered: paging through
+ * any of them reads one page of index entries instead of sorting every matching row.
+ */
+@Getter
+@AllArgsConstructor
+public enum AccountSort {
+
+    ID_ASC("id", "id", false),
+    ID_DESC("id,desc", "id", true),
+    HOLDER_NAME_ASC("accountHolderName", "account_holder_name", false),
+    BALANCE_DESC("balance,desc", "balance", true),
+    UPDATED_AT_DESC("updatedAt,desc", "updated_at", true);
+
+    private final String parameter;
+    private final String column;
+    private final boolean descending;
+
+    public static AccountSort parse(String value) {
+        if (value == null || value.isBlank()) {
+            return ID_ASC;
+        }
+        String normalized = value.replace(" ", "");
+        if (normalized.endsWith(",asc")) {
+            normalized = normalized.substring(0, normalized.length() - ",asc".length());
+        }
+        for (AccountSort sort : values()) {
+            if (sort.parameter.equals(normalized)) {
+                return sort;
+            }
+        }
+        throw new InvalidSearchException("Unsupported sort: " + value + " (supported: "
+                + Arrays.stream(values()).map(AccountSort::getParameter).collect(Collectors.joining("; ")) + ")");
+    }
+
+    public boolean isById() {
+        return this == ID_ASC || this == ID_DESC;
+    }
+
+    /**
+     * The order this sort gives in SQL, for merging the pages of several shards and for
+     * searching accounts held in memory.
+     */
+    public Comparator<AccountResponse> comparator() {
+        Comparator<AccountResponse> byValue;
+        switch (this) {
+            case HOLDER_NAME_ASC:
+                byValue = Comparator.comparing(AccountResponse::getAccountHolderName);
+                break;
+            case BALANCE_DESC:
+                byValue = Comparator.comparing(AccountResponse::getBalance);
+                break;
+            case UPDATED_AT_DESC:
+                byValue = Comparator.comparing(AccountResponse::getUpdatedAt);
+                break;
+            default:
+                byValue = (a, b) -> 0;
+        }
+        Comparator<AccountResponse> order = byValue.thenComparing(AccountResponse::getId);
+        return descending ? order.reversed() : order;
+    }
+}
@@ -0,0 +1,36 @@
+package org.example.bankingapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccrualRunResponse {
+
+    private LocalDate businessDate;
+    private State state;
+    /**
+     * Active accounts walked by this run, not counting those done before a restart.
+     */
+    private long scanned;
+    /**
+     * Accounts credited interest or charged a fee by this run.
+     */
+    private long accounts;
+    private long chunks;
+    private double accountsPerSecond;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private String error;
+
+    public enum State {
+        RUNNING, FINISHED, FAILED
+    }
+}
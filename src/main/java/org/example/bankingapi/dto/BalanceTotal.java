@@ -0,0 +1,26 @@
+package org.example.bankingapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.bankingapi.entity.Account;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceTotal {
+
+    /** {@code null} when the totals are grouped by status only. */
+    private String currency;
+    /** {@code null} when the totals are grouped by currency only. */
+    private Account.AccountStatus status;
+    private long accounts;
+    /** Sum in {@code currency}; {@code null} when the group spans currencies. */
+    private BigDecimal balance;
+    /** Sum in the reporting currency. */
+    private BigDecimal converted;
+}
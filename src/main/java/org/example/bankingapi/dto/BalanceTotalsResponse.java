@@ -0,0 +1,24 @@
+package org.example.bankingapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceTotalsResponse {
+
+    private String groupBy;
+    private String source;
+    private String reportingCurrency;
+    private String ratesVersion;
+    private long accounts;
+    private BigDecimal total;
+    private List<BalanceTotal> totals;
+}
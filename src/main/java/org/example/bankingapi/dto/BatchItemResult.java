@@ -0,0 +1,25 @@
+package org.example.bankingapi.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchItemResult {
+
+    private int index;
+    private Status status;
+    private String accountNumber;
+    private Long id;
+    private String error;
+
+    public enum Status {
+        CREATED, DUPLICATE, INVALID
+    }
+}
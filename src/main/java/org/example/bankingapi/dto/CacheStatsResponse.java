@@ -0,0 +1,36 @@
+package org.example.bankingapi.dto;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStatsResponse {
+
+    private String name;
+    private boolean enabled;
+    private long size;
+    private long hitCount;
+    private long missCount;
+    private double hitRate;
+    private long evictionCount;
+    private double averageLoadPenaltyNanos;
+
+    public static CacheStatsResponse from(String name, boolean enabled, long size, CacheStats stats) {
+        return CacheStatsResponse.builder()
+                .name(name)
+                .enabled(enabled)
+                .size(size)
+                .hitCount(stats.hitCount())
+                .missCount(stats.missCount())
+                .hitRate(stats.hitRate())
+                .evictionCount(stats.evictionCount())
+                .averageLoadPenaltyNanos(stats.averageLoadPenalty())
+                .build();
+    }
+}
@@ -0,0 +1,45 @@
+package org.example.bankingapi.dto;
+
+/**
+ * The JSON of one {@link AccountResponse}, encoded once and written to responses as is.
+ * {@code etag} is a strong validator: the account version followed by a checksum of
+ * {@code json}, so two responses share a tag only if their bytes are identical.
+ * <p>
+ * Keeps the response it was encoded from for clients that negotiate another format.
+ */
+public final class EncodedAccount {
+
+    private final long id;
+    private final long version;
+    private final byte[] json;
+    private final String etag;
+    private final AccountResponse account;
+
+    public EncodedAccount(long id, long version, byte[] json, String etag, AccountResponse account) {
+        this.id = id;
+        this.version = version;
+        this.json = json;
+        this.etag = etag;
+        this.account = account;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public byte[] getJson() {
+        return json;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public AccountResponse getAccount() {
+        return account;
+    }
+}
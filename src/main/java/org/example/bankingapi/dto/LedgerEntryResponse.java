@@ -0,0 +1,37 @@
+package org.example.bankingapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.bankingapi.entity.LedgerEntry;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerEntryResponse {
+
+    private Long accountId;
+    private Long sequence;
+    private LedgerEntry.EntryType type;
+    private BigDecimal amount;
+    private String reference;
+    private String description;
+    private Instant createdAt;
+
+    public static LedgerEntryResponse fromEntity(LedgerEntry entry) {
+        return LedgerEntryResponse.builder()
+                .accountId(entry.getAccountId())
+                .sequence(entry.getSequence())
+                .type(entry.getType())
+                .amount(entry.getAmount())
+                .reference(entry.getReference())
+                .description(entry.getDescription())
+                .createdAt(entry.getCreatedAt())
+                .build();
+    }
+}
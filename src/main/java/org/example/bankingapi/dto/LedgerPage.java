@@ -0,0 +1,22 @@
+package org.example.bankingapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerPage {
+
+    private List<LedgerEntryResponse> items;
+
+    /**
+     * Opaque continuation token for the next page, or {@code null} when this is the last page.
+     */
+    private String nextCursor;
+}
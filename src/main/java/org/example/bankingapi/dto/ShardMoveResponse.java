@@ -0,0 +1,22 @@
+package org.example.bankingapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShardMoveResponse {
+
+    private int fromSlot;
+    private int toSlot;
+    private int targetShard;
+    private int slotsMoved;
+    private int accountsMoved;
+    private int ledgerEntriesMoved;
+    private int snapshotsMoved;
+    private long durationMillis;
+}
@@ -0,0 +1,25 @@
+package org.example.bankingapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransferResponse {
+
+    private String transferId;
+    private Long fromAccountId;
+    private Long toAccountId;
+    private BigDecimal amount;
+    private String currency;
+    private BigDecimal fromBalance;
+    private BigDecimal toBalance;
+    private Instant completedAt;
+}
@@ -7,8 +7,8 @@ import lombok.NoArgsConstructor;
 
 import org.example.bankingapi.entity.Account;
 
-import javax.validation.constraints.DecimalMin;
-import javax.validation.constraints.Size;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Size;
 import java.math.BigDecimal;
 
 @Data
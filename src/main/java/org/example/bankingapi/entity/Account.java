@@ -5,20 +5,34 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import javax.persistence.*;
-import java.math.BigDecimal;
+import jakarta.persistence.*;
 import java.time.Instant;
 
+/**
+ * Secondary indexes back {@code GET /api/accounts/search}: every filter leads at least one of
+ * them, and each supported sort order has an index that returns rows in that order.
+ */
 @Entity
-@Table(name = "accounts")
+@Table(name = "accounts", indexes = {
+        @Index(name = "idx_accounts_status_currency_balance", columnList = "status, currency, balance"),
+        @Index(name = "idx_accounts_currency_balance", columnList = "currency, balance"),
+        @Index(name = "idx_accounts_holder_name", columnList = "account_holder_name, id"),
+        @Index(name = "idx_accounts_balance_desc", columnList = "balance desc, id desc"),
+        @Index(name = "idx_accounts_created", columnList = "created_at"),
+        @Index(name = "idx_accounts_updated_desc", columnList = "updated_at desc, id desc"),
+        @Index(name = "idx_accounts_id_desc", columnList = "id desc")
+})
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class Account {
 
+    // Sequence ids with a pooled optimizer let Hibernate assign ids without a round trip per
+    // insert, which IDENTITY cannot do, so inserts can be sent as JDBC batches. The low bits
+    // hold the hash slot of the account number, which locates the account's shard.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @SlotEncodedId(sequenceName = "account_seq")
     private Long id;
 
     @Column(nullable = false, unique = true)
@@ -27,8 +41,13 @@ public class Account {
     @Column(nullable = false)
     private String accountHolderName;
 
+    /**
+     * Hundredths of {@link #currency}; read and written as {@link Money} through
+     * {@link #getBalance()} and {@link #setBalance(Money)}.
+     */
+    @Convert(converter = MoneyUnitsConverter.class)
     @Column(nullable = false, precision = 19, scale = 2)
-    private BigDecimal balance;
+    private long balance;
 
     @Column(nullable = false, length = 3)
     private String currency;
@@ -43,6 +62,17 @@ public class Account {
     @Column(nullable = false)
     private Instant updatedAt;
 
+    @Version
+    private Long version;
+
+    /**
+     * Sequence of the latest ledger entry. Kept on the row so appending an entry needs no
+     * extra query; the row is locked or version-checked by every writer.
+     */
+    @Column(nullable = false)
+    @Builder.Default
+    private Long ledgerSequence = 0L;
+
     @PrePersist
     protected void onCreate() {
         createdAt = Instant.now();
@@ -54,6 +84,30 @@ public class Account {
         updatedAt = Instant.now();
     }
 
+    public Money getBalance() {
+        return Money.ofUnits(balance, currency);
+    }
+
+    public void setBalance(Money balance) {
+        if (currency != null && !currency.equals(balance.getCurrency())) {
+            throw new IllegalArgumentException("Balance in " + balance.getCurrency() + " for a " + currency + " account");
+        }
+        this.balance = balance.getUnits();
+    }
+
+    public long nextLedgerSequence() {
+        ledgerSequence = (ledgerSequence == null ? 0L : ledgerSequence) + 1;
+        return ledgerSequence;
+    }
+
+    public static class AccountBuilder {
+
+        public AccountBuilder balance(Money balance) {
+            this.balance = balance.getUnits();
+            return this;
+        }
+    }
+
     public enum AccountStatus {
         ACTIVE, INACTIVE, CLOSED
     }
@@ -0,0 +1,53 @@
+package org.example.bankingapi.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * Outbox row for one committed change of an account, written in the transaction that made the
+ * change. {@code payload} is the account as committed, as JSON; a delete has none.
+ * {@code position} is assigned when the relay publishes the event and orders the change stream.
+ */
+@Entity
+@Table(name = "account_events", indexes = {
+        @Index(name = "idx_account_events_position", columnList = "stream_position"),
+        @Index(name = "idx_account_events_created_at", columnList = "createdAt")})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_event_seq")
+    @SequenceGenerator(name = "account_event_seq", sequenceName = "account_event_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "account_id", nullable = false, updatable = false)
+    private Long accountId;
+
+    @Column(nullable = false, updatable = false, length = 10)
+    @Enumerated(EnumType.STRING)
+    private ChangeType type;
+
+    @Column(nullable = false, updatable = false)
+    private Long accountVersion;
+
+    @Column(updatable = false, length = 4000)
+    private String payload;
+
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @Column(name = "stream_position")
+    private Long position;
+
+    public enum ChangeType {
+        CREATED, UPDATED, DELETED
+    }
+}
@@ -0,0 +1,39 @@
+package org.example.bankingapi.entity;
+
+import org.example.bankingapi.shard.ShardSlots;
+import org.hibernate.MappingException;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.lang.reflect.Member;
+import java.util.Properties;
+
+/**
+ * The usual pooled sequence, with the slot of the account number appended to each value. The
+ * sequence keeps its name and allocation size, so inserts are still batched without a round
+ * trip per id.
+ */
+public class AccountIdGenerator extends SequenceStyleGenerator {
+
+    private final SlotEncodedId config;
+
+    public AccountIdGenerator(SlotEncodedId config, Member member, CustomIdGeneratorCreationContext context) {
+        this.config = config;
+    }
+
+    @Override
+    public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry) throws MappingException {
+        parameters.setProperty(SEQUENCE_PARAM, config.sequenceName());
+        parameters.setProperty(INCREMENT_PARAM, String.valueOf(config.allocationSize()));
+        super.configure(type, parameters, serviceRegistry);
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        long sequence = ((Number) super.generate(session, object)).longValue();
+        return ShardSlots.accountId(sequence, ((Account) object).getAccountNumber());
+    }
+}
@@ -0,0 +1,55 @@
+package org.example.bankingapi.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * How far the accrual run for one business date has come on one shard: every active account
+ * with an id up to {@code afterId} has been processed. A restarted run continues after it.
+ */
+@Entity
+@Table(name = "accrual_checkpoints")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccrualCheckpoint {
+
+    /**
+     * Business date and shard, e.g. {@code 2024-05-31/0}.
+     */
+    @Id
+    @Column(name = "run_key", length = 32)
+    private String key;
+
+    @Column(nullable = false)
+    private LocalDate businessDate;
+
+    @Column(nullable = false)
+    private Integer shard;
+
+    @Column(nullable = false)
+    private Long afterId;
+
+    @Column(nullable = false)
+    private Long accounts;
+
+    @Column(nullable = false)
+    private Boolean finished;
+
+    @Column(nullable = false)
+    private Instant startedAt;
+
+    @Column(nullable = false)
+    private Instant updatedAt;
+
+    public static String key(LocalDate businessDate, int shard) {
+        return businessDate + "/" + shard;
+    }
+}
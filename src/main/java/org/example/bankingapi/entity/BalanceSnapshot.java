@@ -0,0 +1,43 @@
+package org.example.bankingapi.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Checkpoint of an account balance after the ledger entry {@code sequence}. Point-in-time
+ * balances start from the nearest checkpoint instead of summing the whole history.
+ */
+@Entity
+@Immutable
+@Table(name = "balance_snapshots",
+        indexes = @Index(name = "idx_snapshot_account_seq", columnList = "account_id, seq_no"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "balance_snapshot_seq")
+    @SequenceGenerator(name = "balance_snapshot_seq", sequenceName = "balance_snapshot_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "account_id", nullable = false, updatable = false)
+    private Long accountId;
+
+    @Column(name = "seq_no", nullable = false, updatable = false)
+    private Long sequence;
+
+    @Column(nullable = false, updatable = false, precision = 19, scale = 2)
+    private BigDecimal balance;
+
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,44 @@
+package org.example.bankingapi.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * Durable copy of an idempotent request: enough to replay the original response to a retry that
+ * arrives after a restart or on another instance. Inserted as a claim before the request executes;
+ * {@code status}, {@code etag} and {@code body} stay {@code null} until it completes.
+ */
+@Entity
+@Table(name = "idempotency_records", indexes = @Index(name = "idx_idempotency_created_at", columnList = "createdAt"))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecord {
+
+    /**
+     * Endpoint scope and client key, e.g. {@code POST /api/accounts\nabc-123}.
+     */
+    @Id
+    @Column(name = "idem_key", length = 512)
+    private String key;
+
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+
+    private Integer status;
+
+    @Column(length = 64)
+    private String etag;
+
+    @Column(length = 65536)
+    private byte[] body;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,58 @@
+package org.example.bankingapi.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * One immutable movement on an account. {@code sequence} numbers the entries of an account
+ * without gaps, starting at 1 with the opening entry; the signed amounts of all entries sum to
+ * the account balance.
+ */
+@Entity
+@Immutable
+@Table(name = "ledger_entries",
+        uniqueConstraints = @UniqueConstraint(name = "uk_ledger_account_seq", columnNames = {"account_id", "seq_no"}))
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ledger_entry_seq")
+    @SequenceGenerator(name = "ledger_entry_seq", sequenceName = "ledger_entry_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "account_id", nullable = false, updatable = false)
+    private Long accountId;
+
+    @Column(name = "seq_no", nullable = false, updatable = false)
+    private Long sequence;
+
+    @Column(nullable = false, updatable = false, length = 20)
+    @Enumerated(EnumType.STRING)
+    private EntryType type;
+
+    @Column(nullable = false, updatable = false, precision = 19, scale = 2)
+    private BigDecimal amount;
+
+    @Column(updatable = false, length = 36)
+    private String reference;
+
+    @Column(updatable = false)
+    private String description;
+
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt;
+
+    public enum EntryType {
+        OPENING, DEPOSIT, WITHDRAWAL, TRANSFER_IN, TRANSFER_OUT, ADJUSTMENT, INTEREST, FEE
+    }
+}
@@ -0,0 +1,171 @@
+package org.example.bankingapi.entity;
+
+import org.example.bankingapi.exception.InvalidAmountException;
+
+import java.math.BigDecimal;
+import java.util.Currency;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An amount of one currency as a whole number of hundredths, the scale of every amount column.
+ * Arithmetic is exact {@code long} arithmetic and fails with {@link InvalidAmountException}
+ * instead of overflowing, so the hot path never allocates a {@link BigDecimal}.
+ * <p>
+ * A currency's own precision is enforced when an amount enters: a yen amount must be whole, and
+ * currencies with three decimals (BHD, KWD, ...) are rejected because the columns cannot hold
+ * them. Codes unknown to {@link Currency} are treated as having two decimals.
+ */
+public final class Money implements Comparable<Money> {
+
+    public static final int SCALE = 2;
+
+    private static final Map<String, Integer> FRACTION_DIGITS = new ConcurrentHashMap<>();
+
+    private final long units;
+    private final String currency;
+
+    private Money(long units, String currency) {
+        this.units = units;
+        this.currency = currency;
+    }
+
+    /**
+     * @throws InvalidAmountException if {@code amount} is more precise than {@code currency}
+     *                                allows or does not fit in a {@code long} of hundredths
+     */
+    public static Money of(BigDecimal amount, String currency) {
+        int digits = fractionDigits(currency);
+        if (digits > SCALE) {
+            throw new InvalidAmountException("Currency " + currency + " has " + digits
+                    + " decimals; at most " + SCALE + " are supported");
+        }
+        if (amount.scale() > digits && amount.stripTrailingZeros().scale() > digits) {
+            throw new InvalidAmountException("Amount " + amount.toPlainString() + " has more than "
+                    + digits + " decimals for " + currency);
+        }
+        try {
+            return new Money(amount.movePointRight(SCALE).longValueExact(), currency);
+        } catch (ArithmeticException ex) {
+            throw new InvalidAmountException("Amount out of range: " + amount.toPlainString());
+        }
+    }
+
+    public static Money ofUnits(long units, String currency) {
+        return new Money(units, currency);
+    }
+
+    public static Money zero(String currency) {
+        return new Money(0L, currency);
+    }
+
+    /**
+     * Hundredths of a {@link BigDecimal} read from an amount column, which already has scale 2.
+     */
+    static long unitsOf(BigDecimal amount) {
+        try {
+            return amount.movePointRight(SCALE).longValueExact();
+        } catch (ArithmeticException ex) {
+            throw new InvalidAmountException("Amount out of range: " + amount.toPlainString());
+        }
+    }
+
+    public Money plus(Money other) {
+        requireSameCurrency(other);
+        try {
+            return new Money(Math.addExact(units, other.units), currency);
+        } catch (ArithmeticException ex) {
+            throw new InvalidAmountException("Amount out of range: " + this + " + " + other);
+        }
+    }
+
+    public Money minus(Money other) {
+        requireSameCurrency(other);
+        try {
+            return new Money(Math.subtractExact(units, other.units), currency);
+        } catch (ArithmeticException ex) {
+            throw new InvalidAmountException("Amount out of range: " + this + " - " + other);
+        }
+    }
+
+    public Money negate() {
+        // Long.MIN_VALUE is the only value without a negation; no valid amount reaches it.
+        return new Money(Math.negateExact(units), currency);
+    }
+
+    /**
+     * The same number of hundredths in another currency, for accounts whose currency is relabelled.
+     */
+    public Money withCurrency(String currency) {
+        return new Money(units, currency);
+    }
+
+    public int signum() {
+        return Long.signum(units);
+    }
+
+    public boolean isNegative() {
+        return units < 0;
+    }
+
+    public long getUnits() {
+        return units;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    /**
+     * Always at scale 2, like the amount columns, so responses render exactly as before.
+     */
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(units, SCALE);
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        requireSameCurrency(other);
+        return Long.compare(units, other.units);
+    }
+
+    private void requireSameCurrency(Money other) {
+        if (!Objects.equals(currency, other.currency)) {
+            throw new InvalidAmountException("Currency mismatch: " + currency + " and " + other.currency);
+        }
+    }
+
+    private static int fractionDigits(String currency) {
+        return FRACTION_DIGITS.computeIfAbsent(currency, code -> {
+            try {
+                int digits = Currency.getInstance(code).getDefaultFractionDigits();
+                return digits < 0 ? SCALE : digits;
+            } catch (IllegalArgumentException ex) {
+                return SCALE;
+            }
+        });
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Money)) {
+            return false;
+        }
+        Money other = (Money) o;
+        return units == other.units && Objects.equals(currency, other.currency);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(units) * 31 + Objects.hashCode(currency);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString() + " " + currency;
+    }
+}
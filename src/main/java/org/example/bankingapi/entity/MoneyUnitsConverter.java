@@ -0,0 +1,24 @@
+package org.example.bankingapi.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.math.BigDecimal;
+
+/**
+ * Maps the hundredths behind a {@link Money} to a {@code DECIMAL(19, 2)} column, so the schema,
+ * the indexes and every SQL query on amounts stay as they were.
+ */
+@Converter
+public class MoneyUnitsConverter implements AttributeConverter<Long, BigDecimal> {
+
+    @Override
+    public BigDecimal convertToDatabaseColumn(Long units) {
+        return units == null ? null : BigDecimal.valueOf(units, Money.SCALE);
+    }
+
+    @Override
+    public Long convertToEntityAttribute(BigDecimal amount) {
+        return amount == null ? null : Money.unitsOf(amount);
+    }
+}
@@ -0,0 +1,22 @@
+package org.example.bankingapi.entity;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks the id of {@link Account}: a sequence value with the account's hash slot in the low
+ * bits, generated by {@link AccountIdGenerator}.
+ */
+@IdGeneratorType(AccountIdGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface SlotEncodedId {
+
+    String sequenceName();
+
+    int allocationSize() default 50;
+}
@@ -0,0 +1,8 @@
+package org.example.bankingapi.exception;
+
+public class AccountNotActiveException extends RuntimeException {
+
+    public AccountNotActiveException(Long id) {
+        super("Account is not active: " + id);
+    }
+}
@@ -0,0 +1,8 @@
+package org.example.bankingapi.exception;
+
+public class AccountVersionMismatchException extends RuntimeException {
+
+    public AccountVersionMismatchException(Long id, Long expectedVersion) {
+        super("Account with id " + id + " no longer matches version: " + expectedVersion);
+    }
+}
@@ -0,0 +1,8 @@
+package org.example.bankingapi.exception;
+
+public class AccrualRunningException extends RuntimeException {
+
+    public AccrualRunningException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package org.example.bankingapi.exception;
+
+public class ChangeEventsDisabledException extends RuntimeException {
+
+    public ChangeEventsDisabledException() {
+        super("Account change events are not enabled (banking.outbox.enabled)");
+    }
+}
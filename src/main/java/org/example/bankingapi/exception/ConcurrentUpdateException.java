@@ -0,0 +1,8 @@
+package org.example.bankingapi.exception;
+
+public class ConcurrentUpdateException extends RuntimeException {
+
+    public ConcurrentUpdateException(Long id, int attempts) {
+        super("Account with id " + id + " is being modified concurrently; gave up after " + attempts + " attempts");
+    }
+}
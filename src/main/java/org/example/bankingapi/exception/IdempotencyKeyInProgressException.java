@@ -0,0 +1,8 @@
+package org.example.bankingapi.exception;
+
+public class IdempotencyKeyInProgressException extends RuntimeException {
+
+    public IdempotencyKeyInProgressException(String key) {
+        super("A request with this Idempotency-Key is still in progress: " + key);
+    }
+}
@@ -0,0 +1,8 @@
+package org.example.bankingapi.exception;
+
+public class InsufficientFundsException extends RuntimeException {
+
+    public InsufficientFundsException(Long id) {
+        super("Insufficient funds in account with id: " + id);
+    }
+}
@@ -0,0 +1,8 @@
+package org.example.bankingapi.exception;
+
+public class InvalidAmountException extends RuntimeException {
+
+    public InvalidAmountException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package org.example.bankingapi.exception;
+
+public class InvalidReportException extends RuntimeException {
+
+    public InvalidReportException(String message) {
+        super(message);
+    }
+}
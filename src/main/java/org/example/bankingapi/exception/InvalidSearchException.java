@@ -0,0 +1,8 @@
+package org.example.bankingapi.exception;
+
+public class InvalidSearchException extends RuntimeException {
+
+    public InvalidSearchException(String message) {
+        super(message);
+    }
+}
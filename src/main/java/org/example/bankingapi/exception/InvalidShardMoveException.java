@@ -0,0 +1,8 @@
+package org.example.bankingapi.exception;
+
+public class InvalidShardMoveException extends RuntimeException {
+
+    public InvalidShardMoveException(String message) {
+        super(message);
+    }
+}
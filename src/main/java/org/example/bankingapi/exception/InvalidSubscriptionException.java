@@ -0,0 +1,8 @@
+package org.example.bankingapi.exception;
+
+public class InvalidSubscriptionException extends RuntimeException {
+
+    public InvalidSubscriptionException(String message) {
+        super(message);
+    }
+}
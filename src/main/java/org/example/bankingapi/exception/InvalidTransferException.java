@@ -0,0 +1,8 @@
+package org.example.bankingapi.exception;
+
+public class InvalidTransferException extends RuntimeException {
+
+    public InvalidTransferException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package org.example.bankingapi.exception;
+
+/**
+ * Work bound to one shard reached a slot owned by another, typically because the slot moved
+ * after the work was grouped by shard. Grouping again and retrying is enough.
+ */
+public class ShardSlotMovedException extends IllegalStateException {
+
+    public ShardSlotMovedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package org.example.bankingapi.exception;
+
+public class UnknownCurrencyException extends RuntimeException {
+
+    public UnknownCurrencyException(String currency, String ratesVersion) {
+        super("No exchange rate for " + currency + " in rate table " + ratesVersion);
+    }
+}
@@ -0,0 +1,136 @@
+package org.example.bankingapi.fx;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * The current {@link FxRates}, read from {@code banking.fx.rates-file}: a properties file with a
+ * {@code version}, a {@code base} currency and one {@code CODE=rate} line per currency, the rate
+ * being units of that currency per unit of base. The file is checked for changes every
+ * {@code reload-interval}; a new table is swapped in whole, so a conversion never mixes two
+ * versions. A file that fails to parse keeps the previous table in place.
+ */
+@Component
+public class FxRateTable implements MeterBinder {
+
+    private static final Pattern CURRENCY = Pattern.compile("[A-Z]{3}");
+
+    private final Resource source;
+    private volatile FxRates current;
+    private volatile long lastModified;
+
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    public FxRateTable(@Value("${banking.fx.rates-file:classpath:fx-rates.properties}") Resource source) {
+        this.source = source;
+        try {
+            load();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not read exchange rates from " + source, ex);
+        }
+    }
+
+    public FxRates current() {
+        return current;
+    }
+
+    /**
+     * Loads the file again if it changed since the last load. Resources without a modification
+     * time, such as classpath entries inside a jar, are read once.
+     */
+    @Scheduled(fixedDelayString = "${banking.fx.reload-interval:PT1M}")
+    public void reloadIfChanged() {
+        try {
+            if (source.lastModified() != lastModified) {
+                load();
+            }
+        } catch (IOException | IllegalArgumentException ex) {
+            failures.increment();
+        }
+    }
+
+    private void load() throws IOException {
+        long modified = modified();
+        Properties properties = new Properties();
+        try (InputStream in = source.getInputStream()) {
+            properties.load(in);
+        }
+        current = parse(properties);
+        lastModified = modified;
+        loads.increment();
+    }
+
+    private long modified() {
+        try {
+            return source.lastModified();
+        } catch (IOException ex) {
+            return 0L;
+        }
+    }
+
+    static FxRates parse(Properties properties) {
+        String version = properties.getProperty("version");
+        String base = properties.getProperty("base");
+        if (version == null || version.isBlank() || base == null || !CURRENCY.matcher(base).matches()) {
+            throw new IllegalArgumentException("Rate file needs a version and a base currency");
+        }
+        Map<String, BigDecimal> rates = new HashMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            if (key.equals("version") || key.equals("base")) {
+                continue;
+            }
+            if (!CURRENCY.matcher(key).matches()) {
+                throw new IllegalArgumentException("Not a currency code: " + key);
+            }
+            BigDecimal rate = new BigDecimal(properties.getProperty(key).trim());
+            if (rate.signum() <= 0) {
+                throw new IllegalArgumentException("Rate of " + key + " must be positive: " + rate);
+            }
+            rates.put(key, rate);
+        }
+        BigDecimal baseRate = rates.putIfAbsent(base, BigDecimal.ONE);
+        if (baseRate != null && baseRate.compareTo(BigDecimal.ONE) != 0) {
+            throw new IllegalArgumentException("Rate of the base currency must be 1: " + baseRate);
+        }
+        return new FxRates(version.trim(), base, rates, Instant.now());
+    }
+
+    public long getLoads() {
+        return loads.sum();
+    }
+
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("banking.fx.rates.loads", loads, LongAdder::sum)
+                .description("Rate table versions loaded")
+                .register(registry);
+        FunctionCounter.builder("banking.fx.rates.failures", failures, LongAdder::sum)
+                .description("Rate file reloads that failed and kept the previous table")
+                .register(registry);
+        Gauge.builder("banking.fx.rates.currencies", this, table -> table.current().getCurrencies().size())
+                .description("Currencies in the current rate table")
+                .register(registry);
+    }
+}
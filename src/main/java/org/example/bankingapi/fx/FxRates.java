@@ -0,0 +1,100 @@
+package org.example.bankingapi.fx;
+
+import org.example.bankingapi.exception.UnknownCurrencyException;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Currency;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One version of the rate table: how many units of each currency one unit of {@code base}
+ * buys. Never changes once loaded; a new file version replaces the whole table. Cross rates
+ * are derived on first use and kept for the life of the table.
+ */
+public final class FxRates {
+
+    private final String version;
+    private final String base;
+    private final Map<String, BigDecimal> perBase;
+    private final Instant loadedAt;
+    private final Map<String, BigDecimal> crossRates = new ConcurrentHashMap<>();
+
+    FxRates(String version, String base, Map<String, BigDecimal> perBase, Instant loadedAt) {
+        this.version = version;
+        this.base = base;
+        this.perBase = Collections.unmodifiableMap(perBase);
+        this.loadedAt = loadedAt;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    public String getBase() {
+        return base;
+    }
+
+    public Set<String> getCurrencies() {
+        return perBase.keySet();
+    }
+
+    public Instant getLoadedAt() {
+        return loadedAt;
+    }
+
+    public boolean supports(String currency) {
+        return perBase.containsKey(currency);
+    }
+
+    /**
+     * Units of {@code to} for one unit of {@code from}.
+     *
+     * @throws UnknownCurrencyException if either currency has no rate
+     */
+    public BigDecimal rate(String from, String to) {
+        if (from.equals(to)) {
+            return BigDecimal.ONE;
+        }
+        return crossRates.computeIfAbsent(from + to,
+                pair -> perBase(to).divide(perBase(from), MathContext.DECIMAL64));
+    }
+
+    /**
+     * {@code amount} of {@code from} in {@code to}, rounded half-even to the decimals of
+     * {@code to} (at most two, like the amount columns).
+     */
+    public BigDecimal convert(BigDecimal amount, String from, String to) {
+        return round(amount.multiply(rate(from, to)), to);
+    }
+
+    /**
+     * Rounds a sum of unrounded conversions into {@code currency} the way {@link #convert} does,
+     * so a total is rounded once rather than once per term.
+     */
+    public static BigDecimal round(BigDecimal amount, String currency) {
+        return amount.setScale(decimals(currency), RoundingMode.HALF_EVEN);
+    }
+
+    private BigDecimal perBase(String currency) {
+        BigDecimal rate = perBase.get(currency);
+        if (rate == null) {
+            throw new UnknownCurrencyException(currency, version);
+        }
+        return rate;
+    }
+
+    private static int decimals(String currency) {
+        try {
+            int digits = Currency.getInstance(currency).getDefaultFractionDigits();
+            return digits < 0 ? 2 : Math.min(digits, 2);
+        } catch (IllegalArgumentException ex) {
+            return 2;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package org.example.bankingapi.limit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caps the requests in flight at a limit that follows the database pool. Every
+ * {@code interval} it takes the mean time a connection was waited for and held (HikariCP's
+ * {@code hikaricp.connections.acquire} and {@code .usage} timers) over that interval and
+ * compares it with the lowest recent mean. Latency beyond {@code tolerance} times that
+ * baseline means requests are queueing for the database, and the limit is cut by
+ * {@code backoff}; otherwise it grows by one while requests actually use it.
+ * <p>
+ * Admission is a compare-and-set on the in-flight count; only the scheduler writes the limit.
+ */
+@Component
+public class AdaptiveConcurrencyLimiter implements MeterBinder {
+
+    // The baseline moves up by 1/64 of the gap per interval, so it follows a lasting shift in
+    // latency but not a spike.
+    private static final int BASELINE_DRIFT = 64;
+
+    private final boolean enabled;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double backoff;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private volatile int limit;
+    private volatile long baselineNanos;
+    private volatile long latencyNanos;
+
+    private final LongAdder rejected = new LongAdder();
+    private MeterRegistry registry;
+    private long lastCount;
+    private double lastTotalNanos;
+
+    public AdaptiveConcurrencyLimiter(@Value("${banking.limits.enabled:false}") boolean enabled,
+                                      @Value("${banking.limits.concurrency.initial:50}") int initialLimit,
+                                      @Value("${banking.limits.concurrency.min:5}") int minLimit,
+                                      @Value("${banking.limits.concurrency.max:500}") int maxLimit,
+                                      @Value("${banking.limits.concurrency.tolerance:2.0}") double tolerance,
+                                      @Value("${banking.limits.concurrency.backoff:0.9}") double backoff) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Concurrency limits must satisfy 1 <= min <= initial <= max: "
+                    + minLimit + ", " + initialLimit + ", " + maxLimit);
+        }
+        if (tolerance <= 1.0 || backoff <= 0.0 || backoff >= 1.0) {
+            throw new IllegalArgumentException("Concurrency tolerance must be above 1 and backoff between 0 and 1: "
+                    + tolerance + ", " + backoff);
+        }
+        this.enabled = enabled;
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.backoff = backoff;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Takes a slot if fewer than the limit are in flight. A successful call must be paired with
+     * {@link #release()}.
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                rejected.increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                if (current + 1 > peakInFlight.get()) {
+                    peakInFlight.accumulateAndGet(current + 1, Math::max);
+                }
+                return true;
+            }
+        }
+    }
+
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    @Scheduled(fixedDelayString = "${banking.limits.concurrency.interval:PT1S}")
+    public void update() {
+        if (!enabled || registry == null) {
+            return;
+        }
+        long count = 0;
+        double totalNanos = 0;
+        for (String name : new String[]{"hikaricp.connections.acquire", "hikaricp.connections.usage"}) {
+            for (Timer timer : registry.find(name).timers()) {
+                count += timer.count();
+                totalNanos += timer.totalTime(TimeUnit.NANOSECONDS);
+            }
+        }
+        long samples = count - lastCount;
+        double nanos = totalNanos - lastTotalNanos;
+        lastCount = count;
+        lastTotalNanos = totalNanos;
+        // Each connection checkout records once in each timer.
+        onLatency(samples > 0 ? (long) (2 * nanos / samples) : 0);
+    }
+
+    /**
+     * Adjusts the limit to one interval's mean pool latency; 0 when the pool was not used.
+     */
+    void onLatency(long sampleNanos) {
+        int peak = peakInFlight.getAndSet(inFlight.get());
+        if (sampleNanos <= 0) {
+            return;
+        }
+        latencyNanos = sampleNanos;
+        long baseline = baselineNanos;
+        if (baseline == 0 || sampleNanos < baseline) {
+            baseline = sampleNanos;
+        } else {
+            baseline += (sampleNanos - baseline) / BASELINE_DRIFT;
+        }
+        baselineNanos = baseline;
+
+        int current = limit;
+        if (sampleNanos > baseline * tolerance) {
+            limit = Math.max(minLimit, (int) (current * backoff));
+        } else if (peak * 2 >= current) {
+            limit = Math.min(maxLimit, current + 1);
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public long getBaselineNanos() {
+        return baselineNanos;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!enabled) {
+            return;
+        }
+        this.registry = registry;
+        Gauge.builder("banking.limits.concurrency.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Requests allowed in flight")
+                .register(registry);
+        Gauge.builder("banking.limits.concurrency.in.flight", this, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Requests in flight")
+                .register(registry);
+        Gauge.builder("banking.limits.concurrency.pool.latency", this, limiter -> limiter.latencyNanos / 1e6)
+                .description("Mean database connection wait plus hold time in the last interval, in ms")
+                .baseUnit("milliseconds")
+                .register(registry);
+        FunctionCounter.builder("banking.limits.concurrency.rejected", rejected, LongAdder::sum)
+                .description("Requests shed with 503 at the concurrency limit")
+                .register(registry);
+    }
+}
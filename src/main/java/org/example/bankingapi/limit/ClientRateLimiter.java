@@ -0,0 +1,126 @@
+package org.example.bankingapi.limit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Token buckets per client and endpoint, refilled at {@code rate} tokens per second up to
+ * {@code burst}. Each bucket is a single {@link AtomicLong} holding the time at which it will
+ * be full again (the generic cell rate algorithm), so taking tokens is one compare-and-set and
+ * refilling needs no timer: a bucket whose time has passed is full.
+ * <p>
+ * At most {@code max-buckets} are kept, so a flood of new clients cannot grow the table without
+ * bound. An evicted bucket comes back full, which only ever lets a client through early.
+ */
+@Component
+public class ClientRateLimiter implements MeterBinder {
+
+    private final boolean enabled;
+    private final long nanosPerToken;
+    private final long burstNanos;
+    private final Cache<String, AtomicLong> buckets;
+
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public ClientRateLimiter(@Value("${banking.limits.enabled:false}") boolean enabled,
+                             @Value("${banking.limits.rate.tokens-per-second:100}") double tokensPerSecond,
+                             @Value("${banking.limits.rate.burst:200}") int burst,
+                             @Value("${banking.limits.rate.max-buckets:100000}") long maxBuckets) {
+        if (tokensPerSecond <= 0 || burst < 1 || maxBuckets < 1) {
+            throw new IllegalArgumentException("Rate limit needs a positive rate, burst and bucket count: "
+                    + tokensPerSecond + "/s, burst " + burst + ", " + maxBuckets + " buckets");
+        }
+        this.enabled = enabled;
+        this.nanosPerToken = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / tokensPerSecond));
+        this.burstNanos = nanosPerToken * burst;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxBuckets)
+                // Evict on the caller's thread so the cap holds even while buckets are created
+                // faster than a background task would drain them.
+                .executor(Runnable::run)
+                .build();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Takes {@code cost} tokens from the bucket of {@code key} if it holds that many. A cost
+     * above the burst is charged as the full burst, so such a request still gets through
+     * against a full bucket.
+     *
+     * @return 0 if the tokens were taken, otherwise the nanoseconds until they will be there
+     */
+    public long tryAcquire(String key, int cost, long nowNanos) {
+        long increment = Math.min(burstNanos, nanosPerToken * cost);
+        AtomicLong bucket = buckets.getIfPresent(key);
+        if (bucket == null) {
+            // Only a new bucket pays for the capturing lambda.
+            bucket = buckets.get(key, k -> new AtomicLong(nowNanos));
+        }
+        while (true) {
+            long full = bucket.get();
+            long next = Math.max(full, nowNanos) + increment;
+            long wait = next - burstNanos - nowNanos;
+            if (wait > 0) {
+                rejected.increment();
+                return wait;
+            }
+            if (bucket.compareAndSet(full, next)) {
+                admitted.increment();
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Drops buckets that have filled up again: they are indistinguishable from a new one, so
+     * idle clients do not accumulate.
+     */
+    @Scheduled(fixedDelayString = "${banking.limits.rate.purge-interval:PT1M}")
+    public void purgeIdle() {
+        long now = System.nanoTime();
+        buckets.asMap().values().removeIf(bucket -> bucket.get() - now <= 0);
+    }
+
+    public long getBuckets() {
+        return buckets.estimatedSize();
+    }
+
+    public long getAdmitted() {
+        return admitted.sum();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!enabled) {
+            return;
+        }
+        FunctionCounter.builder("banking.limits.rate.admitted", admitted, LongAdder::sum)
+                .description("Requests that found enough tokens")
+                .register(registry);
+        FunctionCounter.builder("banking.limits.rate.rejected", rejected, LongAdder::sum)
+                .description("Requests rejected with 429 for lack of tokens")
+                .register(registry);
+        Gauge.builder("banking.limits.rate.buckets", buckets, Cache::estimatedSize)
+                .description("Client and endpoint buckets not yet full")
+                .register(registry);
+    }
+}
@@ -0,0 +1,37 @@
+package org.example.bankingapi.limit;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+
+@Configuration
+public class LimitsWebConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<ClientRateLimiter> rateLimiter;
+    private final ObjectProvider<AdaptiveConcurrencyLimiter> concurrencyLimiter;
+    private final Duration shedRetryAfter;
+
+    public LimitsWebConfig(ObjectProvider<ClientRateLimiter> rateLimiter,
+                           ObjectProvider<AdaptiveConcurrencyLimiter> concurrencyLimiter,
+                           @Value("${banking.limits.concurrency.retry-after:1s}") Duration shedRetryAfter) {
+        this.rateLimiter = rateLimiter;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.shedRetryAfter = shedRetryAfter;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Web slice tests run without the limiters.
+        ClientRateLimiter rate = rateLimiter.getIfAvailable();
+        AdaptiveConcurrencyLimiter concurrency = concurrencyLimiter.getIfAvailable();
+        if (rate != null && concurrency != null && (rate.isEnabled() || concurrency.isEnabled())) {
+            registry.addInterceptor(new LoadSheddingInterceptor(rate, concurrency, shedRetryAfter))
+                    .addPathPatterns("/api/**")
+                    .order(-1);
+        }
+    }
+}
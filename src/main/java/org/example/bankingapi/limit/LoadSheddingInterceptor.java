@@ -0,0 +1,192 @@
+package org.example.bankingapi.limit;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.security.Principal;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Admits a request only if the client's bucket for the endpoint holds the endpoint's
+ * {@link RequestCost} (otherwise 429) and the concurrency limit has room (otherwise 503). Both
+ * rejections carry {@code Retry-After}. Rate is checked first, so a client over its rate never
+ * takes a concurrency slot.
+ * <p>
+ * A slot is held until the request completes. A response that goes asynchronous to wait for
+ * events (stream of changes, long poll) gives its slot up at the hand-off, since waiting holds
+ * no thread or connection; one that goes asynchronous to do the work, such as a streamed export
+ * reading the database, keeps it until the asynchronous part completes.
+ */
+public class LoadSheddingInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String SLOT = LoadSheddingInterceptor.class.getName() + ".slot";
+
+    private final ClientRateLimiter rateLimiter;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final long shedRetryAfterSeconds;
+
+    public LoadSheddingInterceptor(ClientRateLimiter rateLimiter, AdaptiveConcurrencyLimiter concurrencyLimiter,
+                                   Duration shedRetryAfter) {
+        this.rateLimiter = rateLimiter;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.shedRetryAfterSeconds = Math.max(1, shedRetryAfter.toSeconds());
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        if (rateLimiter.isEnabled()) {
+            long waitNanos = rateLimiter.tryAcquire(rateKey(request), cost(handler), System.nanoTime());
+            if (waitNanos > 0) {
+                reject(response, HttpStatus.TOO_MANY_REQUESTS, secondsCeil(waitNanos),
+                        "Rate limit exceeded for this endpoint");
+                return false;
+            }
+        }
+        if (concurrencyLimiter.isEnabled()) {
+            if (!concurrencyLimiter.tryAcquire()) {
+                reject(response, HttpStatus.SERVICE_UNAVAILABLE, shedRetryAfterSeconds,
+                        "Service is at its concurrency limit");
+                return false;
+            }
+            request.setAttribute(SLOT, Boolean.TRUE);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getAttribute(SLOT) == null) {
+            return;
+        }
+        if (!worksWhileAsync(handler) || !request.isAsyncStarted()) {
+            releaseSlot(request);
+            return;
+        }
+        // Released by whichever comes first: the async dispatch completing or the request ending.
+        AsyncSlot slot = new AsyncSlot();
+        request.setAttribute(SLOT, slot);
+        request.getAsyncContext().addListener(slot);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        releaseSlot(request);
+    }
+
+    private void releaseSlot(HttpServletRequest request) {
+        Object slot = request.getAttribute(SLOT);
+        if (slot == null) {
+            return;
+        }
+        request.removeAttribute(SLOT);
+        if (slot instanceof AsyncSlot) {
+            ((AsyncSlot) slot).release();
+        } else {
+            concurrencyLimiter.release();
+        }
+    }
+
+    /**
+     * Whether the handler's asynchronous part runs work of its own, as a streamed body or a
+     * callable does, rather than waiting for something to happen elsewhere.
+     */
+    static boolean worksWhileAsync(Object handler) {
+        if (!(handler instanceof HandlerMethod)) {
+            return false;
+        }
+        ResolvableType type = ResolvableType.forMethodReturnType(((HandlerMethod) handler).getMethod());
+        if (HttpEntity.class.isAssignableFrom(type.toClass())) {
+            type = type.getGeneric(0);
+        }
+        Class<?> body = type.toClass();
+        return StreamingResponseBody.class.isAssignableFrom(body)
+                || Callable.class.isAssignableFrom(body)
+                || WebAsyncTask.class.isAssignableFrom(body);
+    }
+
+    /**
+     * The client is the authenticated principal, or else the remote address; never a request
+     * header, which a client could vary to get a fresh bucket each time. The endpoint is the
+     * matched route, so {@code /api/accounts/1} and {@code /api/accounts/2} share a bucket.
+     */
+    private static String rateKey(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        String client = principal != null ? principal.getName() : request.getRemoteAddr();
+        Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return client + ' ' + request.getMethod() + ' ' + (route != null ? route : request.getRequestURI());
+    }
+
+    static int cost(Object handler) {
+        if (handler instanceof HandlerMethod) {
+            RequestCost cost = ((HandlerMethod) handler).getMethodAnnotation(RequestCost.class);
+            if (cost != null) {
+                return cost.value();
+            }
+        }
+        return 1;
+    }
+
+    private static long secondsCeil(long nanos) {
+        return Math.max(1, (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds,
+                               String message) throws IOException {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.getWriter().write(message);
+    }
+
+    /**
+     * A slot kept through an asynchronous response. Both the async dispatch and the container's
+     * completion callback release it, on different threads, so only the first one counts.
+     */
+    private final class AsyncSlot implements AsyncListener {
+
+        private final AtomicBoolean held = new AtomicBoolean(true);
+
+        private void release() {
+            if (held.compareAndSet(true, false)) {
+                concurrencyLimiter.release();
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
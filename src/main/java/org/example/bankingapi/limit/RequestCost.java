@@ -0,0 +1,19 @@
+package org.example.bankingapi.limit;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Tokens an endpoint takes from the caller's bucket per request; endpoints without it cost 1.
+ * Listings, searches and exports read many rows and are priced accordingly.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RequestCost {
+
+    int value();
+}
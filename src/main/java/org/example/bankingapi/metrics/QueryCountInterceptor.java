@@ -0,0 +1,47 @@
+package org.example.bankingapi.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Records how many SQL statements each request issued, per method and URI pattern. Summaries
+ * are resolved once per route and cached, so the steady state does no meter lookups.
+ */
+public class QueryCountInterceptor implements HandlerInterceptor {
+
+    private final MeterRegistry registry;
+    private final ConcurrentMap<String, ConcurrentMap<String, DistributionSummary>> summaries = new ConcurrentHashMap<>();
+
+    public QueryCountInterceptor(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        QueryCounter.reset();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        String method = request.getMethod();
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern == null) {
+            return;
+        }
+        summaries.computeIfAbsent(method, m -> new ConcurrentHashMap<>())
+                .computeIfAbsent(pattern.toString(), uri -> DistributionSummary.builder("banking.http.db.statements")
+                        .description("SQL statements issued per request")
+                        .tag("method", method)
+                        .tag("uri", uri)
+                        .register(registry))
+                .record(QueryCounter.get());
+    }
+}
@@ -0,0 +1,27 @@
+package org.example.bankingapi.metrics;
+
+/**
+ * Per-thread count of SQL statements issued through Hibernate. A request runs on one thread
+ * for its whole synchronous part, so resetting at the start and reading at the end gives the
+ * number of statements that request caused. The holder is a reused {@code long[]}, so counting
+ * does not allocate.
+ */
+public final class QueryCounter {
+
+    private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+    private QueryCounter() {
+    }
+
+    public static void increment() {
+        COUNT.get()[0]++;
+    }
+
+    public static void reset() {
+        COUNT.get()[0] = 0;
+    }
+
+    public static long get() {
+        return COUNT.get()[0];
+    }
+}
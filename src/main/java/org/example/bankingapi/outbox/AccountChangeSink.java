@@ -0,0 +1,18 @@
+package org.example.bankingapi.outbox;
+
+import org.example.bankingapi.dto.AccountChangeEvent;
+
+import java.util.List;
+
+/**
+ * A destination for published account changes. Every sink bean receives every batch.
+ * <p>
+ * {@link #publish} runs inside the relay transaction that marks the batch published: if a
+ * sink throws, the batch stays unpublished and is offered again, to every sink, on the next
+ * run. Sinks therefore see each event at least once, in position order, and may see it again
+ * under a new position; {@link AccountChangeEvent#getEventId()} identifies repeats.
+ */
+public interface AccountChangeSink {
+
+    void publish(List<AccountChangeEvent> events);
+}
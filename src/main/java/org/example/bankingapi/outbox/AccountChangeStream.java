@@ -0,0 +1,175 @@
+package org.example.bankingapi.outbox;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.example.bankingapi.dto.AccountChangeEvent;
+import org.example.bankingapi.exception.ChangeEventsDisabledException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Server-sent change stream. A subscriber first catches up from the outbox, page by page,
+ * from the position it asks for, then receives live batches from the relay. Live batches that
+ * arrive while it catches up are held back and sent afterwards, skipping what the catch-up
+ * already sent. Batches reach subscribers only once their positions have committed, so a
+ * catch-up read and the live feed cannot miss each other.
+ */
+@Component
+public class AccountChangeStream implements AccountChangeSink, MeterBinder {
+
+    private static final int CATCH_UP_PAGE = 500;
+
+    private final AccountOutbox outbox;
+    private final long timeoutMillis;
+    private final int maxPending;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    public AccountChangeStream(AccountOutbox outbox,
+                               @Value("${banking.outbox.stream.timeout:30m}") Duration timeout,
+                               @Value("${banking.outbox.stream.max-pending:10000}") int maxPending) {
+        this.outbox = outbox;
+        this.timeoutMillis = timeout.toMillis();
+        this.maxPending = maxPending;
+    }
+
+    /**
+     * @param since the position of the last event the client has; {@code null} for only
+     *              changes published from now on
+     */
+    public SseEmitter subscribe(Long since) {
+        if (!outbox.isEnabled()) {
+            throw new ChangeEventsDisabledException();
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter, since != null ? since : -1);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(ex -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        if (since != null) {
+            List<AccountChangeEvent> page;
+            long position = since;
+            do {
+                page = outbox.eventsAfter(position, CATCH_UP_PAGE);
+                if (!subscriber.send(page)) {
+                    return emitter;
+                }
+                if (!page.isEmpty()) {
+                    position = page.get(page.size() - 1).getPosition();
+                }
+            } while (page.size() == CATCH_UP_PAGE);
+        }
+        subscriber.goLive();
+        return emitter;
+    }
+
+    @Override
+    public void publish(List<AccountChangeEvent> events) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    broadcast(events);
+                }
+            });
+        } else {
+            broadcast(events);
+        }
+    }
+
+    private void broadcast(List<AccountChangeEvent> events) {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(events);
+        }
+    }
+
+    public int getSubscribers() {
+        return subscribers.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("banking.outbox.stream.subscribers", subscribers, Set::size)
+                .description("Open change-stream connections")
+                .register(registry);
+        FunctionCounter.builder("banking.outbox.stream.sent", sent, LongAdder::sum)
+                .description("Change events written to stream subscribers")
+                .register(registry);
+        FunctionCounter.builder("banking.outbox.stream.dropped", dropped, LongAdder::sum)
+                .description("Subscribers disconnected for falling too far behind while catching up")
+                .register(registry);
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private long lastSent;
+        private List<AccountChangeEvent> pending = new ArrayList<>();
+
+        private Subscriber(SseEmitter emitter, long lastSent) {
+            this.emitter = emitter;
+            this.lastSent = lastSent;
+        }
+
+        private synchronized void offer(List<AccountChangeEvent> events) {
+            if (pending == null) {
+                send(events);
+            } else if (pending.size() + events.size() > maxPending) {
+                dropped.increment();
+                close();
+            } else {
+                pending.addAll(events);
+            }
+        }
+
+        private synchronized void goLive() {
+            List<AccountChangeEvent> held = pending;
+            pending = null;
+            send(held);
+        }
+
+        /**
+         * @return {@code false} once the connection is gone
+         */
+        private synchronized boolean send(List<AccountChangeEvent> events) {
+            try {
+                for (AccountChangeEvent event : events) {
+                    if (event.getPosition() <= lastSent) {
+                        continue;
+                    }
+                    emitter.send(SseEmitter.event()
+                            .id(String.valueOf(event.getPosition()))
+                            .name(event.getType().name())
+                            .data(event));
+                    lastSent = event.getPosition();
+                    sent.increment();
+                }
+                return true;
+            } catch (IOException | IllegalStateException ex) {
+                close();
+                return false;
+            }
+        }
+
+        private void close() {
+            subscribers.remove(this);
+            emitter.complete();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package org.example.bankingapi.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.bankingapi.dto.AccountChangeEvent;
+import org.example.bankingapi.dto.AccountResponse;
+import org.example.bankingapi.entity.Account;
+import org.example.bankingapi.entity.AccountEvent;
+import org.example.bankingapi.repository.AccountEventRepository;
+import org.example.bankingapi.shard.ShardRouter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * The {@code account_events} outbox. Writers record a change inside the transaction that makes
+ * it, after the account row is flushed, so the event carries the committed version and commits
+ * or rolls back with the change. Events live next to their account, on its shard.
+ * <p>
+ * With {@code banking.outbox.enabled=false} nothing is recorded and no event is published.
+ */
+@Component
+public class AccountOutbox {
+
+    private final AccountEventRepository accountEventRepository;
+    private final ShardRouter shardRouter;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+
+    public AccountOutbox(AccountEventRepository accountEventRepository,
+                         ShardRouter shardRouter,
+                         ObjectMapper objectMapper,
+                         @Value("${banking.outbox.enabled:false}") boolean enabled) {
+        this.accountEventRepository = accountEventRepository;
+        this.shardRouter = shardRouter;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void created(Account account) {
+        record(List.of(account), AccountEvent.ChangeType.CREATED);
+    }
+
+    public void created(Collection<Account> accounts) {
+        record(accounts, AccountEvent.ChangeType.CREATED);
+    }
+
+    public void updated(Account... accounts) {
+        record(List.of(accounts), AccountEvent.ChangeType.UPDATED);
+    }
+
+    public void updated(Collection<Account> accounts) {
+        record(accounts, AccountEvent.ChangeType.UPDATED);
+    }
+
+    public void deleted(Account account) {
+        record(List.of(account), AccountEvent.ChangeType.DELETED);
+    }
+
+    private void record(Collection<Account> accounts, AccountEvent.ChangeType type) {
+        if (!enabled || accounts.isEmpty()) {
+            return;
+        }
+        Instant now = Instant.now();
+        List<AccountEvent> events = new ArrayList<>(accounts.size());
+        for (Account account : accounts) {
+            events.add(AccountEvent.builder()
+                    .accountId(account.getId())
+                    .type(type)
+                    .accountVersion(account.getVersion())
+                    .payload(type == AccountEvent.ChangeType.DELETED ? null : serialize(AccountResponse.fromEntity(account)))
+                    .createdAt(now)
+                    .build());
+        }
+        accountEventRepository.saveAll(events);
+    }
+
+    /**
+     * Published events after {@code position}, in stream order, from every shard.
+     */
+    public List<AccountChangeEvent> eventsAfter(long position, int limit) {
+        return shardRouter.gather(
+                () -> accountEventRepository.findPublishedAfter(position, PageRequest.of(0, limit)).stream()
+                        .map(this::toChange)
+                        .collect(Collectors.toList()),
+                AccountChangeEvent::getAccountId, Comparator.comparing(AccountChangeEvent::getPosition), limit);
+    }
+
+    /**
+     * The highest position published so far, over every shard.
+     */
+    public long lastPosition() {
+        long last = 0;
+        for (int shard : shardRouter.shards()) {
+            last = Math.max(last, shardRouter.onShard(shard, accountEventRepository::findMaxPosition));
+        }
+        return last;
+    }
+
+    AccountChangeEvent toChange(AccountEvent event) {
+        try {
+            return AccountChangeEvent.builder()
+                    .position(event.getPosition())
+                    .eventId(event.getId())
+                    .accountId(event.getAccountId())
+                    .type(event.getType())
+                    .accountVersion(event.getAccountVersion())
+                    .account(event.getPayload() != null ? objectMapper.readValue(event.getPayload(), AccountResponse.class) : null)
+                    .occurredAt(event.getCreatedAt())
+                    .build();
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Unreadable payload of account event " + event.getId(), ex);
+        }
+    }
+
+    private String serialize(AccountResponse account) {
+        try {
+            return objectMapper.writeValueAsString(account);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package org.example.bankingapi.outbox;
+
+import org.example.bankingapi.dto.AccountChangeEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * In-process bus: every change is published as a Spring application event, so a component
+ * follows changes with an {@code @EventListener} for {@link AccountChangeEvent}. Listeners run
+ * on the relay thread inside its transaction; one that throws has the batch offered again.
+ */
+@Component
+public class ApplicationEventChangeSink implements AccountChangeSink {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ApplicationEventChangeSink(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public void publish(List<AccountChangeEvent> events) {
+        events.forEach(eventPublisher::publishEvent);
+    }
+}
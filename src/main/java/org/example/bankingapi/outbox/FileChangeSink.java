@@ -0,0 +1,58 @@
+package org.example.bankingapi.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.bankingapi.dto.AccountChangeEvent;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends every change to {@code banking.outbox.file.path} as one JSON line. A batch is written
+ * with a single write and forced to disk before the relay marks it published.
+ */
+@Component
+@ConditionalOnProperty(name = "banking.outbox.file.path")
+public class FileChangeSink implements AccountChangeSink, DisposableBean {
+
+    private final ObjectMapper objectMapper;
+    private final FileChannel channel;
+
+    public FileChangeSink(ObjectMapper objectMapper,
+                          @Value("${banking.outbox.file.path}") Path path) throws IOException {
+        this.objectMapper = objectMapper;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public synchronized void publish(List<AccountChangeEvent> events) {
+        try {
+            ByteArrayOutputStream lines = new ByteArrayOutputStream(events.size() * 256);
+            for (AccountChangeEvent event : events) {
+                objectMapper.writeValue(lines, event);
+                lines.write('\n');
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toByteArray());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,165 @@
+package org.example.bankingapi.outbox;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.example.bankingapi.dto.AccountChangeEvent;
+import org.example.bankingapi.entity.AccountEvent;
+import org.example.bankingapi.repository.AccountEventRepository;
+import org.example.bankingapi.shard.ShardRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Publishes outbox events to the {@link AccountChangeSink}s. Each run drains every shard in
+ * batches of {@code batch-size}, oldest first; a batch is handed to the sinks and given its
+ * stream positions in one transaction, so it is published completely or offered again.
+ * <p>
+ * Positions come from a single counter in this relay, so they increase across shards. Run one
+ * relay per database: relays on several instances would publish the same events twice.
+ */
+@Component
+public class OutboxRelay implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final AccountOutbox outbox;
+    private final AccountEventRepository accountEventRepository;
+    private final ShardRouter shardRouter;
+    private final List<AccountChangeSink> sinks;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration retention;
+    private long lastPosition = -1;
+    private String batchInFlight;
+    private volatile String lastFailure;
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    public OutboxRelay(AccountOutbox outbox,
+                       AccountEventRepository accountEventRepository,
+                       ShardRouter shardRouter,
+                       List<AccountChangeSink> sinks,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${banking.outbox.batch-size:500}") int batchSize,
+                       @Value("${banking.outbox.retention:7d}") Duration retention) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1: " + batchSize);
+        }
+        this.outbox = outbox;
+        this.accountEventRepository = accountEventRepository;
+        this.shardRouter = shardRouter;
+        this.sinks = sinks;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.retention = retention;
+    }
+
+    /**
+     * Publishes everything recorded so far. A failing batch stops the run; it is retried first
+     * on the next one, so events are never published out of order. The failure is logged with
+     * the batch's event ids and kept as {@link #getLastFailure()}.
+     */
+    @Scheduled(fixedDelayString = "${banking.outbox.poll-interval:PT0.1S}")
+    public synchronized void relay() {
+        if (!outbox.isEnabled()) {
+            return;
+        }
+        try {
+            if (lastPosition < 0) {
+                lastPosition = outbox.lastPosition();
+            }
+            for (int shard : shardRouter.shards()) {
+                int count;
+                do {
+                    count = shardRouter.onShard(shard, () -> transactionTemplate.execute(status -> publishBatch(shard)));
+                } while (count == batchSize);
+            }
+        } catch (RuntimeException ex) {
+            failures.increment();
+            String where = batchInFlight == null ? "before reading a batch" : "at " + batchInFlight;
+            lastFailure = Instant.now() + " " + where + ": " + ex;
+            log.warn("Outbox relay stopped {}; the batch is retried on the next run", where, ex);
+        } finally {
+            batchInFlight = null;
+        }
+    }
+
+    private int publishBatch(int shard) {
+        List<AccountEvent> batch = accountEventRepository.findUnpublished(PageRequest.of(0, batchSize));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        batchInFlight = "events " + batch.get(0).getId() + ".." + batch.get(batch.size() - 1).getId() + " on shard " + shard;
+        // Positions handed out to a batch that then rolls back are skipped, never reused.
+        List<AccountChangeEvent> events = new ArrayList<>(batch.size());
+        for (AccountEvent event : batch) {
+            event.setPosition(++lastPosition);
+            events.add(outbox.toChange(event));
+        }
+        for (AccountChangeSink sink : sinks) {
+            sink.publish(events);
+        }
+        published.add(batch.size());
+        batches.increment();
+        return batch.size();
+    }
+
+    @Scheduled(fixedDelayString = "${banking.outbox.purge-interval:PT10M}")
+    public void purgePublished() {
+        if (!outbox.isEnabled()) {
+            return;
+        }
+        Instant cutoff = Instant.now().minus(retention);
+        for (int shard : shardRouter.shards()) {
+            shardRouter.runOnShard(shard, () -> accountEventRepository.deletePublishedBefore(cutoff));
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("banking.outbox.published", published, LongAdder::sum)
+                .description("Account change events handed to the sinks")
+                .register(registry);
+        FunctionCounter.builder("banking.outbox.batches", batches, LongAdder::sum)
+                .description("Outbox batches published")
+                .register(registry);
+        FunctionCounter.builder("banking.outbox.failures", failures, LongAdder::sum)
+                .description("Relay runs stopped by a failing batch, retried on the next run")
+                .register(registry);
+    }
+
+    public long getPublished() {
+        return published.sum();
+    }
+
+    public long getBatches() {
+        return batches.sum();
+    }
+
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    /**
+     * When and where the last failed run stopped, with its exception, or {@code null} if none
+     * has failed.
+     */
+    public String getLastFailure() {
+        return lastFailure;
+    }
+}
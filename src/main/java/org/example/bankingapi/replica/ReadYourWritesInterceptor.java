@@ -0,0 +1,56 @@
+package org.example.bankingapi.replica;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * Pins a client to the primary after its own writes. A successful request other than a
+ * {@code GET}, {@code HEAD} or {@code OPTIONS} starts the client's window; requests inside the
+ * window read from the primary, so a client always sees what it has just written even while
+ * the replicas lag behind.
+ */
+public class ReadYourWritesInterceptor implements AsyncHandlerInterceptor {
+
+    private final ReplicaRouter router;
+    private final String clientHeader;
+
+    public ReadYourWritesInterceptor(ReplicaRouter router, String clientHeader) {
+        this.router = router;
+        this.clientHeader = clientHeader;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() != DispatcherType.ASYNC && router.isPinned(client(request), System.nanoTime())) {
+            ReplicaRouter.usePrimary();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        ReplicaRouter.clearPrimary();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        ReplicaRouter.clearPrimary();
+        if (isWrite(request.getMethod()) && ex == null && response.getStatus() < 400) {
+            router.pin(client(request), System.nanoTime());
+        }
+    }
+
+    private static boolean isWrite(String method) {
+        return !"GET".equals(method) && !"HEAD".equals(method) && !"OPTIONS".equals(method);
+    }
+
+    /**
+     * The client is who the configured header names, or the remote address without it.
+     */
+    private String client(HttpServletRequest request) {
+        String client = request.getHeader(clientHeader);
+        return client == null || client.isBlank() ? request.getRemoteAddr() : client;
+    }
+}
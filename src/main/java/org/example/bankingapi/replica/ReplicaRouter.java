@@ -0,0 +1,289 @@
+package org.example.bankingapi.replica;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Picks the replica that serves a read-only connection, round-robin or least-loaded among the
+ * healthy ones, and keeps track of which replicas are healthy. A replica is taken out of
+ * rotation as soon as a connection to it fails and put back once a scheduled check reaches it
+ * again; with no healthy replica, reads go to the primary.
+ * <p>
+ * Also remembers which clients wrote recently: their reads stay on the primary for
+ * {@code readYourWritesWindow}, long enough for the replicas to catch up with the write.
+ */
+public class ReplicaRouter implements MeterBinder, DisposableBean {
+
+    public enum Selection {
+        ROUND_ROBIN, LEAST_LOADED
+    }
+
+    private static final ThreadLocal<Boolean> PRIMARY = new ThreadLocal<>();
+
+    private final List<Replica> replicas;
+    private final Selection selection;
+    private final long readYourWritesNanos;
+    private final int healthCheckTimeoutSeconds;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Map<String, Long> pinnedUntil = new ConcurrentHashMap<>();
+
+    private final LongAdder replicaReads = new LongAdder();
+    private final LongAdder primaryReads = new LongAdder();
+    private final LongAdder failovers = new LongAdder();
+
+    /**
+     * @param replicas one data source per replica, each holding a copy of the primary
+     */
+    public ReplicaRouter(List<DataSource> replicas, Selection selection, Duration readYourWritesWindow,
+                         Duration healthCheckTimeout) {
+        if (replicas.isEmpty()) {
+            throw new IllegalArgumentException("Replica routing needs at least one replica");
+        }
+        List<Replica> list = new ArrayList<>(replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            list.add(new Replica(i, replicas.get(i)));
+        }
+        this.replicas = List.copyOf(list);
+        this.selection = selection;
+        this.readYourWritesNanos = readYourWritesWindow.toNanos();
+        this.healthCheckTimeoutSeconds = (int) Math.max(1, healthCheckTimeout.toSeconds());
+    }
+
+    /**
+     * Sends the current thread's reads to the primary until {@link #clearPrimary()}; set for
+     * requests of a client inside its read-your-writes window.
+     */
+    public static void usePrimary() {
+        PRIMARY.set(Boolean.TRUE);
+    }
+
+    public static void clearPrimary() {
+        PRIMARY.remove();
+    }
+
+    public static boolean isPrimaryRequired() {
+        return PRIMARY.get() != null;
+    }
+
+    /**
+     * Runs {@code read} against the primary, for reads whose result outlives the request, such
+     * as those filling a cache every client reads from: a lagging replica would leave an older
+     * version there after the write that evicted it.
+     */
+    public static <T> T onPrimary(Supplier<T> read) {
+        if (isPrimaryRequired()) {
+            return read.get();
+        }
+        usePrimary();
+        try {
+            return read.get();
+        } finally {
+            clearPrimary();
+        }
+    }
+
+    public void pin(String client, long nowNanos) {
+        pinnedUntil.put(client, nowNanos + readYourWritesNanos);
+    }
+
+    public boolean isPinned(String client, long nowNanos) {
+        Long until = pinnedUntil.get(client);
+        return until != null && until - nowNanos > 0;
+    }
+
+    /**
+     * A connection to a healthy replica, trying each at most once; {@code null} if none could
+     * be reached. The caller then reads from the primary.
+     */
+    Connection replicaConnection() {
+        int size = replicas.size();
+        int start = selection == Selection.ROUND_ROBIN ? Math.floorMod(next.getAndIncrement(), size) : leastLoaded();
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (!replica.healthy) {
+                continue;
+            }
+            try {
+                Connection connection = replica.open();
+                replicaReads.increment();
+                return connection;
+            } catch (SQLException | RuntimeException ex) {
+                replica.healthy = false;
+                failovers.increment();
+            }
+        }
+        primaryReads.increment();
+        return null;
+    }
+
+    void readFromPrimary() {
+        primaryReads.increment();
+    }
+
+    private int leastLoaded() {
+        int best = 0;
+        int bestActive = Integer.MAX_VALUE;
+        for (Replica replica : replicas) {
+            int active = replica.active.get();
+            if (replica.healthy && active < bestActive) {
+                best = replica.index;
+                bestActive = active;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Checks every replica, restoring those that answer and removing those that do not, and
+     * forgets clients whose window has passed.
+     */
+    @Scheduled(fixedDelayString = "${banking.replicas.health-check-interval:PT5S}")
+    public void checkHealth() {
+        for (Replica replica : replicas) {
+            boolean healthy;
+            try (Connection connection = replica.dataSource.getConnection()) {
+                healthy = connection.isValid(healthCheckTimeoutSeconds);
+            } catch (SQLException | RuntimeException ex) {
+                healthy = false;
+            }
+            if (replica.healthy && !healthy) {
+                failovers.increment();
+            }
+            replica.healthy = healthy;
+        }
+        long now = System.nanoTime();
+        pinnedUntil.values().removeIf(until -> until - now <= 0);
+    }
+
+    public int getReplicaCount() {
+        return replicas.size();
+    }
+
+    public int getHealthyReplicas() {
+        int healthy = 0;
+        for (Replica replica : replicas) {
+            if (replica.healthy) {
+                healthy++;
+            }
+        }
+        return healthy;
+    }
+
+    public boolean isHealthy(int replica) {
+        return replicas.get(replica).healthy;
+    }
+
+    public int getActive(int replica) {
+        return replicas.get(replica).active.get();
+    }
+
+    public long getReplicaReads() {
+        return replicaReads.sum();
+    }
+
+    public long getPrimaryReads() {
+        return primaryReads.sum();
+    }
+
+    public long getFailovers() {
+        return failovers.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("banking.replicas.reads", replicaReads, LongAdder::sum)
+                .description("Read-only connections served by a replica")
+                .register(registry);
+        FunctionCounter.builder("banking.replicas.primary.reads", primaryReads, LongAdder::sum)
+                .description("Read-only connections served by the primary: pinned clients or no healthy replica")
+                .register(registry);
+        FunctionCounter.builder("banking.replicas.failovers", failovers, LongAdder::sum)
+                .description("Replicas taken out of rotation after a failed connection or health check")
+                .register(registry);
+        Gauge.builder("banking.replicas.healthy", this, ReplicaRouter::getHealthyReplicas)
+                .description("Replicas currently in rotation")
+                .register(registry);
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof Closeable) {
+                ((Closeable) replica.dataSource).close();
+            }
+        }
+    }
+
+    private static final class Replica {
+
+        private final int index;
+        private final DataSource dataSource;
+        private final AtomicInteger active = new AtomicInteger();
+        private volatile boolean healthy = true;
+
+        private Replica(int index, DataSource dataSource) {
+            this.index = index;
+            this.dataSource = dataSource;
+        }
+
+        /**
+         * A connection that counts as active until it is closed, for least-loaded selection.
+         */
+        private Connection open() throws SQLException {
+            Connection target = dataSource.getConnection();
+            active.incrementAndGet();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, new ActiveCountingHandler(target, active));
+        }
+    }
+
+    /**
+     * Forwards every call and decrements the replica's active count on the first {@code close()}.
+     */
+    private static final class ActiveCountingHandler implements InvocationHandler {
+
+        private final Connection target;
+        private final AtomicInteger active;
+        private boolean closed;
+
+        private ActiveCountingHandler(Connection target, AtomicInteger active) {
+            this.target = target;
+            this.active = active;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if ("close".equals(method.getName()) && !closed) {
+                closed = true;
+                active.decrementAndGet();
+            }
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException ex) {
+                throw ex.getTargetException();
+            }
+        }
+    }
+}
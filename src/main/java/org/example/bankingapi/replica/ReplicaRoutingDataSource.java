@@ -0,0 +1,60 @@
+package org.example.bankingapi.replica;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Hands out replica connections to read-only work and primary connections to everything else.
+ * Work counts as read-only when it runs under {@code @Transactional(readOnly = true)}, including
+ * the {@code SUPPORTS} scopes of the read repositories, and its client is not inside a
+ * read-your-writes window. Meant to sit behind a lazy connection proxy, so the connection is
+ * chosen at the first statement, once the transaction's read-only flag is set.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    private final DataSource primary;
+    private final ReplicaRouter router;
+
+    public ReplicaRoutingDataSource(DataSource primary, ReplicaRouter router) {
+        this.primary = primary;
+        this.router = router;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (ReplicaRouter.isPrimaryRequired()) {
+                router.readFromPrimary();
+            } else {
+                Connection replica = router.replicaConnection();
+                if (replica != null) {
+                    return replica;
+                }
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return (T) this;
+        }
+        return primary.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || primary.isWrapperFor(iface);
+    }
+}
@@ -0,0 +1,29 @@
+package org.example.bankingapi.repository;
+
+import org.example.bankingapi.entity.AccountEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface AccountEventRepository extends JpaRepository<AccountEvent, Long> {
+
+    @Query("SELECT e FROM AccountEvent e WHERE e.position IS NULL ORDER BY e.id")
+    List<AccountEvent> findUnpublished(Pageable pageable);
+
+    @Query("SELECT e FROM AccountEvent e WHERE e.position > :after ORDER BY e.position")
+    List<AccountEvent> findPublishedAfter(@Param("after") long after, Pageable pageable);
+
+    @Query("SELECT COALESCE(MAX(e.position), 0) FROM AccountEvent e")
+    long findMaxPosition();
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM AccountEvent e WHERE e.position IS NOT NULL AND e.createdAt < :cutoff")
+    int deletePublishedBefore(@Param("cutoff") Instant cutoff);
+}
@@ -0,0 +1,68 @@
+package org.example.bankingapi.repository;
+
+import org.example.bankingapi.dto.AccountResponse;
+import org.example.bankingapi.store.MemoryAccountStore;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Read path for the account endpoints. Rows are mapped straight into {@link AccountResponse}
+ * over JDBC, so a read neither hydrates a managed entity nor opens a persistence context.
+ * <p>
+ * Each method is a single statement, so it needs no transaction of its own. It joins the
+ * caller's transaction if there is one and otherwise runs in a read-only scope that does not
+ * begin a JPA transaction. With {@code banking.store.mode=memory} it reads the
+ * {@link MemoryAccountStore} instead.
+ */
+@Repository
+@Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+public class AccountReadRepository {
+
+    private static final String SELECT =
+            "SELECT id, account_number, account_holder_name, balance, currency, status, created_at, updated_at, version "
+                    + "FROM accounts ";
+
+    private static final RowMapper<AccountResponse> MAPPER = (rs, rowNum) -> AccountStreamRepository.mapRow(rs);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MemoryAccountStore memoryStore;
+
+    public AccountReadRepository(JdbcTemplate jdbcTemplate, MemoryAccountStore memoryStore) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.memoryStore = memoryStore;
+    }
+
+    public Optional<AccountResponse> findById(long id) {
+        if (memoryStore.isEnabled()) {
+            return memoryStore.findById(id);
+        }
+        return first(jdbcTemplate.query(SELECT + "WHERE id = ?", MAPPER, id));
+    }
+
+    public Optional<AccountResponse> findByAccountNumber(String accountNumber) {
+        if (memoryStore.isEnabled()) {
+            return memoryStore.findByAccountNumber(accountNumber);
+        }
+        return first(jdbcTemplate.query(SELECT + "WHERE account_number = ?", MAPPER, accountNumber));
+    }
+
+    /**
+     * Up to {@code limit} accounts with an id above {@code afterId}, in id order.
+     */
+    public List<AccountResponse> findAfterId(long afterId, int limit) {
+        if (memoryStore.isEnabled()) {
+            return memoryStore.findAfterId(afterId, limit);
+        }
+        return jdbcTemplate.query(SELECT + "WHERE id > ? ORDER BY id LIMIT ?", MAPPER, afterId, limit);
+    }
+
+    private static Optional<AccountResponse> first(List<AccountResponse> rows) {
+        return rows.isEmpty() ? Optional.empty() : Optional.of(rows.get(0));
+    }
+}
@@ -1,13 +1,72 @@
 package org.example.bankingapi.repository;
 
 import org.example.bankingapi.entity.Account;
-import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
 
+import jakarta.persistence.LockModeType;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
-public interface AccountRepository extends JpaRepository<Account, Long> {
+/**
+ * The account operations the services use, declared one by one rather than inherited from
+ * {@code JpaRepository} so the in-memory store implements exactly what is called. Spring Data
+ * backs the CRUD methods with its usual JPA implementation.
+ */
+public interface AccountRepository extends Repository<Account, Long> {
+
+    Optional<Account> findById(Long id);
+
+    boolean existsById(Long id);
+
+    List<Account> findAllById(Iterable<Long> ids);
+
+    List<Account> findAll();
+
+    long count();
+
+    <S extends Account> S save(S account);
+
+    <S extends Account> List<S> saveAll(Iterable<S> accounts);
+
+    <S extends Account> S saveAndFlush(S account);
+
+    <S extends Account> List<S> saveAllAndFlush(Iterable<S> accounts);
+
+    void flush();
+
+    void delete(Account account);
+
+    void deleteAllById(Iterable<? extends Long> ids);
+
+    void deleteAll();
 
     Optional<Account> findByAccountNumber(String accountNumber);
 
     boolean existsByAccountNumber(String accountNumber);
+
+    @Query("SELECT a.accountNumber FROM Account a WHERE a.accountNumber IN :accountNumbers")
+    List<String> findExistingAccountNumbers(@Param("accountNumbers") Collection<String> accountNumbers);
+
+    List<Account> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    /**
+     * One keyset page of the ids of accounts in {@code status}, for jobs that walk every account.
+     */
+    @Query("SELECT a.id FROM Account a WHERE a.status = :status AND a.id > :afterId ORDER BY a.id")
+    List<Long> findIdsByStatusAfter(@Param("status") Account.AccountStatus status,
+                                    @Param("afterId") Long afterId,
+                                    Pageable pageable);
+
+    /**
+     * Loads and row-locks the given accounts in ascending id order, so concurrent callers
+     * always acquire row locks in the same sequence.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Account a WHERE a.id IN :ids ORDER BY a.id")
+    List<Account> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
 }
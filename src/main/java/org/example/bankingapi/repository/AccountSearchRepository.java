@@ -0,0 +1,130 @@
+package org.example.bankingapi.repository;
+
+import org.example.bankingapi.dto.AccountResponse;
+import org.example.bankingapi.dto.AccountSearchCriteria;
+import org.example.bankingapi.dto.AccountSort;
+import org.example.bankingapi.store.MemoryAccountStore;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Filtered, keyset-paginated account search. The statement is assembled from the filters that
+ * are set, and each filter is written as a plain comparison on its column (the holder-name
+ * prefix as a range) so the database can seek one of the {@code accounts} indexes instead of
+ * scanning the table. Like {@link AccountReadRepository} it runs one statement in a read-only
+ * scope without beginning a JPA transaction, and defers to the {@link MemoryAccountStore} when
+ * that holds the accounts.
+ */
+@Repository
+@Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+public class AccountSearchRepository {
+
+    private static final String SELECT =
+            "SELECT id, account_number, account_holder_name, balance, currency, status, created_at, updated_at, version "
+                    + "FROM accounts";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final MemoryAccountStore memoryStore;
+
+    public AccountSearchRepository(NamedParameterJdbcTemplate jdbcTemplate, MemoryAccountStore memoryStore) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.memoryStore = memoryStore;
+    }
+
+    /**
+     * @param afterValue sort value of the last row of the previous page, {@code null} on the first
+     *                   page or when sorting by id
+     * @param afterId    id of the last row of the previous page, {@code null} on the first page
+     */
+    public List<AccountResponse> search(AccountSearchCriteria criteria, AccountSort sort,
+                                        Object afterValue, Long afterId, int limit) {
+        if (memoryStore.isEnabled()) {
+            return memoryStore.search(criteria, sort, afterValue, afterId, limit);
+        }
+        SearchQuery query = buildQuery(criteria, sort, afterValue, afterId, limit);
+        return jdbcTemplate.query(query.sql, query.params, (rs, rowNum) -> AccountStreamRepository.mapRow(rs));
+    }
+
+    SearchQuery buildQuery(AccountSearchCriteria criteria, AccountSort sort, Object afterValue, Long afterId, int limit) {
+        List<String> conditions = new ArrayList<>();
+        MapSqlParameterSource params = new MapSqlParameterSource();
+
+        if (criteria.getStatus() != null) {
+            conditions.add("status = :status");
+            params.addValue("status", criteria.getStatus().name());
+        }
+        if (criteria.getCurrency() != null) {
+            conditions.add("currency = :currency");
+            params.addValue("currency", criteria.getCurrency());
+        }
+        String prefix = criteria.getHolderNamePrefix();
+        if (prefix != null && !prefix.isEmpty()) {
+            // The range is what an index can seek; LIKE keeps the result exact under collations
+            // that order strings differently from their code points.
+            conditions.add("account_holder_name >= :holderFrom AND account_holder_name <= :holderTo"
+                    + " AND account_holder_name LIKE :holderPattern ESCAPE '\\'");
+            params.addValue("holderFrom", prefix);
+            params.addValue("holderTo", prefix + Character.MAX_VALUE);
+            params.addValue("holderPattern", prefix.replaceAll("([\\\\%_])", "\\\\$1") + "%");
+        }
+        addRange(conditions, params, "balance", criteria.getMinBalance(), ">=", "minBalance");
+        addRange(conditions, params, "balance", criteria.getMaxBalance(), "<=", "maxBalance");
+        addRange(conditions, params, "created_at", criteria.getCreatedFrom(), ">=", "createdFrom");
+        addRange(conditions, params, "created_at", criteria.getCreatedTo(), "<", "createdTo");
+        addRange(conditions, params, "updated_at", criteria.getUpdatedFrom(), ">=", "updatedFrom");
+        addRange(conditions, params, "updated_at", criteria.getUpdatedTo(), "<", "updatedTo");
+
+        String column = sort.getColumn();
+        String direction = sort.isDescending() ? "DESC" : "ASC";
+        if (afterId != null) {
+            String after = sort.isDescending() ? "<" : ">";
+            if (sort.isById()) {
+                conditions.add("id " + after + " :afterId");
+            } else {
+                // The non-strict bound on the sort column alone is index-seekable; the OR only
+                // filters the rows that tie with the last value.
+                conditions.add(column + " " + after + "= :afterValue AND (" + column + " " + after
+                        + " :afterValue OR id " + after + " :afterId)");
+                params.addValue("afterValue", afterValue);
+            }
+            params.addValue("afterId", afterId);
+        }
+
+        StringBuilder sql = new StringBuilder(SELECT);
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+        sql.append(" ORDER BY ");
+        if (!sort.isById()) {
+            sql.append(column).append(' ').append(direction).append(", ");
+        }
+        sql.append("id ").append(direction).append(" LIMIT :limit");
+        params.addValue("limit", limit);
+        return new SearchQuery(sql.toString(), params);
+    }
+
+    private static void addRange(List<String> conditions, MapSqlParameterSource params,
+                                 String column, Object bound, String operator, String name) {
+        if (bound != null) {
+            conditions.add(column + " " + operator + " :" + name);
+            params.addValue(name, bound);
+        }
+    }
+
+    static final class SearchQuery {
+
+        final String sql;
+        final MapSqlParameterSource params;
+
+        private SearchQuery(String sql, MapSqlParameterSource params) {
+            this.sql = sql;
+            this.params = params;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package org.example.bankingapi.repository;
+
+import org.example.bankingapi.dto.AccountResponse;
+import org.example.bankingapi.entity.Account;
+import org.example.bankingapi.store.MemoryAccountStore;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.function.Consumer;
+
+/**
+ * Walks the accounts table through a forward-only JDBC cursor, handing each row to the
+ * caller as soon as it is read. Nothing is registered in a persistence context, so memory
+ * use does not grow with the table size. Accounts held by the {@link MemoryAccountStore} are
+ * walked in the same id order.
+ */
+@Repository
+public class AccountStreamRepository {
+
+    private static final String SELECT_ALL =
+            "SELECT id, account_number, account_holder_name, balance, currency, status, created_at, updated_at, version "
+                    + "FROM accounts ORDER BY id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MemoryAccountStore memoryStore;
+
+    public AccountStreamRepository(JdbcTemplate jdbcTemplate, MemoryAccountStore memoryStore) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.memoryStore = memoryStore;
+    }
+
+    /**
+     * Runs in a read-only transaction of its own, so the cursor holds one connection open.
+     */
+    @Transactional(readOnly = true)
+    public void streamAll(int fetchSize, Consumer<AccountResponse> consumer) {
+        if (memoryStore.isEnabled()) {
+            memoryStore.streamAll(consumer);
+            return;
+        }
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_ALL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            return statement;
+        }, (RowCallbackHandler) rs -> consumer.accept(mapRow(rs)));
+    }
+
+    static AccountResponse mapRow(ResultSet rs) throws SQLException {
+        return AccountResponse.builder()
+                .id(rs.getLong("id"))
+                .accountNumber(rs.getString("account_number"))
+                .accountHolderName(rs.getString("account_holder_name"))
+                .balance(rs.getBigDecimal("balance"))
+                .currency(rs.getString("currency"))
+                .status(Account.AccountStatus.valueOf(rs.getString("status")))
+                .createdAt(rs.getTimestamp("created_at").toInstant())
+                .updatedAt(rs.getTimestamp("updated_at").toInstant())
+                .version(rs.getLong("version"))
+                .build();
+    }
+}
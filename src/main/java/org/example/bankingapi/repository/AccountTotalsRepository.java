@@ -0,0 +1,137 @@
+package org.example.bankingapi.repository;
+
+import org.example.bankingapi.entity.Account;
+import org.example.bankingapi.entity.Money;
+import org.example.bankingapi.shard.ShardRouter;
+import org.example.bankingapi.shard.ShardSlots;
+import org.example.bankingapi.store.MemoryAccountStore;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Account counts and balance sums per currency and status, computed by the database in one
+ * {@code GROUP BY} over the {@code (status, currency, balance)} index rather than by loading
+ * accounts. With sharding every shard is asked in turn and the rows are grouped by slot as well,
+ * so a slot that is being copied to another shard is counted only on its owner.
+ */
+@Repository
+@Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+public class AccountTotalsRepository {
+
+    private static final String GROUP_BY =
+            "SELECT currency, status, COUNT(*) AS accounts, COALESCE(SUM(balance), 0) AS units "
+                    + "FROM accounts GROUP BY currency, status";
+
+    private static final String GROUP_BY_SLOT =
+            "SELECT currency, status, MOD(id, " + ShardSlots.SLOTS + ") AS slot, COUNT(*) AS accounts, "
+                    + "COALESCE(SUM(balance), 0) AS units "
+                    + "FROM accounts GROUP BY currency, status, MOD(id, " + ShardSlots.SLOTS + ")";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ShardRouter shardRouter;
+    private final MemoryAccountStore memoryStore;
+
+    public AccountTotalsRepository(JdbcTemplate jdbcTemplate, ShardRouter shardRouter, MemoryAccountStore memoryStore) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shardRouter = shardRouter;
+        this.memoryStore = memoryStore;
+    }
+
+    /**
+     * One group per currency and status that has accounts, balances in hundredths.
+     */
+    public List<Group> totals() {
+        Map<Group, Group> groups = new LinkedHashMap<>();
+        if (memoryStore.isEnabled()) {
+            memoryStore.streamAll(account -> add(groups, new Group(account.getCurrency(), account.getStatus(),
+                    1, units(account.getBalance()))));
+            return new ArrayList<>(groups.values());
+        }
+        if (!shardRouter.isEnabled()) {
+            return jdbcTemplate.query(GROUP_BY, (rs, rowNum) -> new Group(rs.getString("currency"),
+                    Account.AccountStatus.valueOf(rs.getString("status")), rs.getLong("accounts"), units(rs.getBigDecimal("units"))));
+        }
+        for (int shard : shardRouter.shards()) {
+            shardRouter.runOnShard(shard, () -> jdbcTemplate.query(GROUP_BY_SLOT, rs -> {
+                if (shardRouter.ownerOf(rs.getInt("slot")) == shard) {
+                    add(groups, new Group(rs.getString("currency"), Account.AccountStatus.valueOf(rs.getString("status")),
+                            rs.getLong("accounts"), units(rs.getBigDecimal("units"))));
+                }
+            }));
+        }
+        return new ArrayList<>(groups.values());
+    }
+
+    private static long units(BigDecimal amount) {
+        return amount.setScale(Money.SCALE).unscaledValue().longValueExact();
+    }
+
+    private static void add(Map<Group, Group> groups, Group group) {
+        Group existing = groups.putIfAbsent(group, group);
+        if (existing != null) {
+            existing.accounts += group.accounts;
+            existing.units += group.units;
+        }
+    }
+
+    /**
+     * Accounts of one currency and status; equal to another group of the same pair whatever
+     * the sums.
+     */
+    public static final class Group {
+
+        private final String currency;
+        private final Account.AccountStatus status;
+        private long accounts;
+        private long units;
+
+        public Group(String currency, Account.AccountStatus status, long accounts, long units) {
+            this.currency = currency;
+            this.status = status;
+            this.accounts = accounts;
+            this.units = units;
+        }
+
+        public String getCurrency() {
+            return currency;
+        }
+
+        public Account.AccountStatus getStatus() {
+            return status;
+        }
+
+        public long getAccounts() {
+            return accounts;
+        }
+
+        public long getUnits() {
+            return units;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Group)) {
+                return false;
+            }
+            Group other = (Group) o;
+            return currency.equals(other.currency) && status == other.status;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(currency, status);
+        }
+    }
+}
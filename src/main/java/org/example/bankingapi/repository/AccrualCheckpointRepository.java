@@ -0,0 +1,11 @@
+package org.example.bankingapi.repository;
+
+import org.example.bankingapi.entity.AccrualCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface AccrualCheckpointRepository extends JpaRepository<AccrualCheckpoint, String> {
+
+    List<AccrualCheckpoint> findByFinishedFalseOrderByBusinessDateAsc();
+}
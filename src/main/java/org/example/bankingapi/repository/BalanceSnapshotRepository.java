@@ -0,0 +1,12 @@
+package org.example.bankingapi.repository;
+
+import org.example.bankingapi.entity.BalanceSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.Instant;
+import java.util.Optional;
+
+public interface BalanceSnapshotRepository extends JpaRepository<BalanceSnapshot, Long> {
+
+    Optional<BalanceSnapshot> findFirstByAccountIdAndCreatedAtLessThanEqualOrderBySequenceDesc(Long accountId, Instant at);
+}
@@ -0,0 +1,57 @@
+package org.example.bankingapi.repository;
+
+import org.example.bankingapi.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+/**
+ * Claims, completions and releases commit on their own, so other instances see a claim before
+ * the claimed request starts executing.
+ */
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    /**
+     * Inserts a pending record for {@code key}; fails with a
+     * {@link org.springframework.dao.DataIntegrityViolationException} if any record for it exists.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_records (idem_key, fingerprint, created_at) "
+            + "VALUES (:key, :fingerprint, :createdAt)", nativeQuery = true)
+    int claim(@Param("key") String key, @Param("fingerprint") String fingerprint, @Param("createdAt") Instant createdAt);
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.status = :status, r.etag = :etag, r.body = :body "
+            + "WHERE r.key = :key AND r.status IS NULL")
+    int complete(@Param("key") String key, @Param("status") int status, @Param("etag") String etag,
+                 @Param("body") byte[] body);
+
+    /**
+     * Deletes a pending record created before {@code cutoff}: pass the current time to release
+     * one's own claim, or an older time to take over a claim whose holder is gone.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.key = :key AND r.status IS NULL AND r.createdAt <= :cutoff")
+    int deletePending(@Param("key") String key, @Param("cutoff") Instant cutoff);
+
+    /**
+     * Deletes the record for {@code key} if it was created before {@code cutoff}, pending or not.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.key = :key AND r.createdAt < :cutoff")
+    int deleteExpired(@Param("key") String key, @Param("cutoff") Instant cutoff);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.createdAt < :cutoff")
+    int deleteCreatedBefore(@Param("cutoff") Instant cutoff);
+}
@@ -0,0 +1,34 @@
+package org.example.bankingapi.repository;
+
+import org.example.bankingapi.entity.LedgerEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface LedgerEntryRepository extends JpaRepository<LedgerEntry, Long> {
+
+    List<LedgerEntry> findByAccountIdAndSequenceGreaterThanOrderBySequenceAsc(Long accountId, Long sequence, Pageable pageable);
+
+    /**
+     * Sums the entries after {@code afterSequence} up to {@code at}; served by the
+     * (account_id, seq_no) index, so the scan is bounded by the snapshot interval.
+     */
+    @Query("SELECT COALESCE(SUM(e.amount), 0) FROM LedgerEntry e "
+            + "WHERE e.accountId = :accountId AND e.sequence > :afterSequence AND e.createdAt <= :at")
+    BigDecimal sumAfter(@Param("accountId") Long accountId,
+                        @Param("afterSequence") Long afterSequence,
+                        @Param("at") Instant at);
+
+    /**
+     * The accounts among {@code accountIds} that already have an entry with {@code reference}.
+     */
+    @Query("SELECT e.accountId FROM LedgerEntry e WHERE e.accountId IN :accountIds AND e.reference = :reference")
+    List<Long> findAccountIdsWithReference(@Param("accountIds") Collection<Long> accountIds,
+                                           @Param("reference") String reference);
+}
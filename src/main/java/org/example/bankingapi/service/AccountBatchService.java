@@ -0,0 +1,230 @@
+package org.example.bankingapi.service;
+
+import org.example.bankingapi.dto.BatchCreateResponse;
+import org.example.bankingapi.dto.BatchItemResult;
+import org.example.bankingapi.dto.CreateAccountRequest;
+import org.example.bankingapi.entity.Account;
+import org.example.bankingapi.entity.LedgerEntry;
+import org.example.bankingapi.exception.InvalidAmountException;
+import org.example.bankingapi.exception.ShardSlotMovedException;
+import org.example.bankingapi.outbox.AccountOutbox;
+import org.example.bankingapi.repository.AccountRepository;
+import org.example.bankingapi.repository.LedgerEntryRepository;
+import org.example.bankingapi.shard.ShardRouter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Creates accounts in chunks. Each chunk is one transaction that checks duplicates with a
+ * single IN query and writes its rows as JDBC insert batches, then clears the persistence
+ * context so memory stays bounded by the chunk size rather than the request size. With
+ * sharding, a chunk is split into one transaction per shard.
+ */
+@Service
+public class AccountBatchService {
+
+    private final AccountRepository accountRepository;
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final LedgerService ledgerService;
+    private final AccountOutbox accountOutbox;
+    private final AccountTotals accountTotals;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouter shardRouter;
+    private final int chunkSize;
+
+    public AccountBatchService(AccountRepository accountRepository,
+                               LedgerEntryRepository ledgerEntryRepository,
+                               LedgerService ledgerService,
+                               AccountOutbox accountOutbox,
+                               AccountTotals accountTotals,
+                               EntityManager entityManager,
+                               Validator validator,
+                               PlatformTransactionManager transactionManager,
+                               ShardRouter shardRouter,
+                               @Value("${banking.batch.chunk-size:500}") int chunkSize) {
+        this.accountRepository = accountRepository;
+        this.ledgerEntryRepository = ledgerEntryRepository;
+        this.ledgerService = ledgerService;
+        this.accountOutbox = accountOutbox;
+        this.accountTotals = accountTotals;
+        this.entityManager = entityManager;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shardRouter = shardRouter;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * @param requests items in submission order; a {@code null} element stands for an item that
+     *                 could not be parsed and is reported as {@link BatchItemResult.Status#INVALID}
+     */
+    public BatchCreateResponse createAccounts(Iterator<CreateAccountRequest> requests) {
+        List<BatchItemResult> results = new ArrayList<>();
+        List<IndexedRequest> chunk = new ArrayList<>(chunkSize);
+        int index = 0;
+        while (requests.hasNext()) {
+            chunk.add(new IndexedRequest(index++, requests.next()));
+            if (chunk.size() == chunkSize) {
+                results.addAll(processChunk(chunk));
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            results.addAll(processChunk(chunk));
+        }
+
+        int created = (int) results.stream().filter(r -> r.getStatus() == BatchItemResult.Status.CREATED).count();
+        return BatchCreateResponse.builder()
+                .created(created)
+                .failed(results.size() - created)
+                .results(results)
+                .build();
+    }
+
+    private List<BatchItemResult> processChunk(List<IndexedRequest> chunk) {
+        List<BatchItemResult> results = new ArrayList<>(chunk.size());
+        List<IndexedRequest> candidates = new ArrayList<>(chunk.size());
+        for (IndexedRequest item : chunk) {
+            String error = validate(item.request);
+            if (error != null) {
+                results.add(invalid(item, error));
+            } else {
+                candidates.add(item);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return results;
+        }
+
+        for (List<IndexedRequest> group : shardRouter.groupByShard(candidates, item -> item.request.getAccountNumber())) {
+            try {
+                results.addAll(transactionTemplate.execute(status -> insertChunk(group)));
+            } catch (ShardSlotMovedException ex) {
+                // A slot moved after the chunk was grouped; group what is left again.
+                results.addAll(processChunk(group));
+            } catch (DataIntegrityViolationException ex) {
+                // A concurrent writer took one of the numbers between our check and the insert.
+                // Fall back to one transaction per item so only the conflicting rows fail.
+                if (group.size() == 1) {
+                    results.add(duplicate(group.get(0)));
+                } else {
+                    for (IndexedRequest item : group) {
+                        results.addAll(processChunk(List.of(item)));
+                    }
+                }
+            }
+        }
+        results.sort((a, b) -> Integer.compare(a.getIndex(), b.getIndex()));
+        return results;
+    }
+
+    private List<BatchItemResult> insertChunk(List<IndexedRequest> candidates) {
+        shardRouter.route(candidates.stream().map(item -> item.request.getAccountNumber()).toArray(String[]::new));
+        Set<String> numbers = candidates.stream()
+                .map(item -> item.request.getAccountNumber())
+                .collect(Collectors.toSet());
+        Set<String> taken = new HashSet<>(accountRepository.findExistingAccountNumbers(numbers));
+
+        List<BatchItemResult> results = new ArrayList<>(candidates.size());
+        List<IndexedRequest> inserted = new ArrayList<>(candidates.size());
+        List<Account> accounts = new ArrayList<>(candidates.size());
+        for (IndexedRequest item : candidates) {
+            CreateAccountRequest request = item.request;
+            if (!taken.add(request.getAccountNumber())) {
+                results.add(duplicate(item));
+                continue;
+            }
+            inserted.add(item);
+            accounts.add(Account.builder()
+                    .accountNumber(request.getAccountNumber())
+                    .accountHolderName(request.getAccountHolderName())
+                    .balance(AccountService.openingBalance(request))
+                    .currency(request.getCurrency())
+                    .status(Account.AccountStatus.ACTIVE)
+                    .ledgerSequence(1L)
+                    .build());
+        }
+
+        List<Account> saved = accountRepository.saveAllAndFlush(accounts);
+        List<LedgerEntry> openings = saved.stream()
+                .map(ledgerService::openingEntry)
+                .collect(Collectors.toList());
+        ledgerEntryRepository.saveAllAndFlush(openings);
+        accountOutbox.created(saved);
+        accountTotals.created(saved);
+        entityManager.clear();
+        for (int i = 0; i < saved.size(); i++) {
+            IndexedRequest item = inserted.get(i);
+            results.add(BatchItemResult.builder()
+                    .index(item.index)
+                    .status(BatchItemResult.Status.CREATED)
+                    .accountNumber(item.request.getAccountNumber())
+                    .id(saved.get(i).getId())
+                    .build());
+        }
+        return results;
+    }
+
+    private String validate(CreateAccountRequest request) {
+        if (request == null) {
+            return "Malformed item";
+        }
+        Set<ConstraintViolation<CreateAccountRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            try {
+                AccountService.openingBalance(request);
+                return null;
+            } catch (InvalidAmountException ex) {
+                return "balance: " + ex.getMessage();
+            }
+        }
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private static BatchItemResult invalid(IndexedRequest item, String error) {
+        return BatchItemResult.builder()
+                .index(item.index)
+                .status(BatchItemResult.Status.INVALID)
+                .accountNumber(item.request != null ? item.request.getAccountNumber() : null)
+                .error(error)
+                .build();
+    }
+
+    private static BatchItemResult duplicate(IndexedRequest item) {
+        return BatchItemResult.builder()
+                .index(item.index)
+                .status(BatchItemResult.Status.DUPLICATE)
+                .accountNumber(item.request.getAccountNumber())
+                .error("Account already exists with account number: " + item.request.getAccountNumber())
+                .build();
+    }
+
+    private static final class IndexedRequest {
+
+        private final int index;
+        private final CreateAccountRequest request;
+
+        private IndexedRequest(int index, CreateAccountRequest request) {
+            this.index = index;
+            this.request = request;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package org.example.bankingapi.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.example.bankingapi.dto.AccountResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of account responses keyed by id, plus an accountNumber-to-id index.
+ * Caffeine's W-TinyLFU policy bounds the size and keeps the hot set resident.
+ * <p>
+ * Concurrent misses on one key share a single in-flight load, and evictions are issued only
+ * after the writing transaction commits. An eviction that races with an in-flight load drops
+ * the pending entry, so a stale row read before the commit can never outlive it. The load
+ * itself runs on the caller's thread outside any map lock, so a virtual thread waiting on
+ * JDBC never pins its carrier.
+ */
+@Component
+public class AccountCache implements MeterBinder {
+
+    private final boolean enabled;
+    private final AsyncCache<Long, AccountResponse> byId;
+    private final Cache<String, Long> idByNumber;
+    private final List<Consumer<Long>> evictionListeners = new CopyOnWriteArrayList<>();
+
+    public AccountCache(@Value("${banking.cache.enabled:true}") boolean enabled,
+                        @Value("${banking.cache.maximum-size:100000}") long maximumSize,
+                        @Value("${banking.cache.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.enabled = enabled;
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .buildAsync();
+        this.idByNumber = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    public Optional<AccountResponse> getById(Long id, Function<Long, Optional<AccountResponse>> loader) {
+        if (!enabled) {
+            return loader.apply(id);
+        }
+        CompletableFuture<AccountResponse> pending = new CompletableFuture<>();
+        CompletableFuture<AccountResponse> entry = byId.get(id, (key, executor) -> pending);
+        if (entry != pending) {
+            return Optional.ofNullable(join(entry));
+        }
+        // This caller won the miss; entries completed with null or an exception are discarded.
+        try {
+            AccountResponse loaded = loader.apply(id).orElse(null);
+            pending.complete(loaded);
+            return Optional.ofNullable(loaded);
+        } catch (RuntimeException ex) {
+            pending.completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    private static AccountResponse join(CompletableFuture<AccountResponse> entry) {
+        try {
+            return entry.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * Resolves the number to an id through the index, then reads through the id cache. The
+     * number of an account never changes, so the index only goes stale when an account is
+     * deleted; that case falls back to the loader and repairs the entry.
+     */
+    public Optional<AccountResponse> getByAccountNumber(String accountNumber,
+                                                        Function<Long, Optional<AccountResponse>> idLoader,
+                                                        Supplier<Optional<AccountResponse>> numberLoader) {
+        if (!enabled) {
+            return numberLoader.get();
+        }
+        Long id = idByNumber.getIfPresent(accountNumber);
+        if (id != null) {
+            Optional<AccountResponse> cached = getById(id, idLoader);
+            if (cached.isPresent()) {
+                return cached;
+            }
+            idByNumber.invalidate(accountNumber);
+        }
+        Optional<AccountResponse> loaded = numberLoader.get();
+        loaded.ifPresent(account -> idByNumber.put(accountNumber, account.getId()));
+        return loaded;
+    }
+
+    public void evictAfterCommit(Long... ids) {
+        if (!enabled && evictionListeners.isEmpty()) {
+            return;
+        }
+        afterCommit(() -> {
+            if (enabled) {
+                byId.synchronous().invalidateAll(Arrays.asList(ids));
+            }
+            for (Long id : ids) {
+                evictionListeners.forEach(listener -> listener.accept(id));
+            }
+        });
+    }
+
+    /**
+     * Registers a cache derived from account state, or any other observer of committed account
+     * writes, to be told about every eviction. Listeners hear about writes even when this cache
+     * is disabled.
+     */
+    public void addEvictionListener(Consumer<Long> listener) {
+        evictionListeners.add(listener);
+    }
+
+    public void evictNumberAfterCommit(String accountNumber) {
+        if (!enabled) {
+            return;
+        }
+        afterCommit(() -> idByNumber.invalidate(accountNumber));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, byId, "accounts-by-id");
+        CaffeineCacheMetrics.monitor(registry, idByNumber, "account-ids-by-number");
+    }
+
+    public void clear() {
+        byId.synchronous().invalidateAll();
+        idByNumber.invalidateAll();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long size() {
+        return byId.synchronous().estimatedSize();
+    }
+
+    public long numberIndexSize() {
+        return idByNumber.estimatedSize();
+    }
+
+    public CacheStats byIdStats() {
+        return byId.synchronous().stats();
+    }
+
+    public CacheStats byNumberStats() {
+        return idByNumber.stats();
+    }
+}
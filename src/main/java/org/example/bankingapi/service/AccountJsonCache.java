@@ -0,0 +1,106 @@
+package org.example.bankingapi.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.example.bankingapi.dto.AccountResponse;
+import org.example.bankingapi.dto.EncodedAccount;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.util.zip.CRC32C;
+
+/**
+ * Pre-encoded JSON of account responses, keyed by id and tagged with the version it was encoded
+ * from. A response is only served from the cache when its version matches, so bytes of an older
+ * version can never be returned; entries are also dropped whenever {@link AccountCache} evicts the
+ * account, which happens after every committed write.
+ */
+@Component
+public class AccountJsonCache implements MeterBinder {
+
+    private final ObjectWriter writer;
+    private final boolean enabled;
+    private final Cache<Long, EncodedAccount> byId;
+
+    public AccountJsonCache(ObjectMapper objectMapper,
+                            AccountCache accountCache,
+                            @Value("${banking.cache.enabled:true}") boolean enabled,
+                            @Value("${banking.cache.maximum-size:100000}") long maximumSize) {
+        this.writer = objectMapper.writerFor(AccountResponse.class);
+        this.enabled = enabled;
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        accountCache.addEvictionListener(this::evict);
+    }
+
+    /**
+     * Returns the cached encoding of {@code account} if one exists for its version, otherwise
+     * encodes it and keeps the result for the next read.
+     */
+    public EncodedAccount get(AccountResponse account) {
+        if (!enabled || account.getId() == null || account.getVersion() == null) {
+            return encode(account);
+        }
+        EncodedAccount cached = byId.getIfPresent(account.getId());
+        if (cached != null && cached.getVersion() == account.getVersion()) {
+            return cached;
+        }
+        EncodedAccount encoded = encode(account);
+        // Readers that raced with a write may arrive with the older version; keep the newest.
+        byId.asMap().merge(account.getId(), encoded,
+                (current, candidate) -> candidate.getVersion() >= current.getVersion() ? candidate : current);
+        return encoded;
+    }
+
+    /**
+     * Encodes without caching, for responses built from state that reads may not see yet.
+     */
+    public EncodedAccount encode(AccountResponse account) {
+        byte[] json;
+        try {
+            json = writer.writeValueAsBytes(account);
+        } catch (JsonProcessingException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        long version = account.getVersion() != null ? account.getVersion() : 0L;
+        CRC32C checksum = new CRC32C();
+        checksum.update(json);
+        String etag = "\"" + version + "-" + Long.toHexString(checksum.getValue()) + "\"";
+        return new EncodedAccount(account.getId() != null ? account.getId() : 0L, version, json, etag, account);
+    }
+
+    public void evict(Long id) {
+        byId.invalidate(id);
+    }
+
+    public void clear() {
+        byId.invalidateAll();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, byId, "account-json");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long size() {
+        return byId.estimatedSize();
+    }
+
+    public CacheStats stats() {
+        return byId.stats();
+    }
+}
@@ -1,82 +1,304 @@
 package org.example.bankingapi.service;
 
+import org.example.bankingapi.dto.AccountPage;
 import org.example.bankingapi.dto.AccountResponse;
+import org.example.bankingapi.dto.AccountSearchCriteria;
+import org.example.bankingapi.dto.AccountSort;
 import org.example.bankingapi.dto.CreateAccountRequest;
 import org.example.bankingapi.dto.UpdateAccountRequest;
 import org.example.bankingapi.entity.Account;
+import org.example.bankingapi.entity.LedgerEntry;
+import org.example.bankingapi.entity.Money;
 import org.example.bankingapi.exception.AccountNotFoundException;
+import org.example.bankingapi.exception.AccountVersionMismatchException;
+import org.example.bankingapi.exception.ConcurrentUpdateException;
 import org.example.bankingapi.exception.DuplicateAccountException;
+import org.example.bankingapi.exception.InvalidCursorException;
+import org.example.bankingapi.outbox.AccountOutbox;
+import org.example.bankingapi.replica.ReplicaRouter;
+import org.example.bankingapi.repository.AccountReadRepository;
 import org.example.bankingapi.repository.AccountRepository;
+import org.example.bankingapi.repository.AccountSearchRepository;
+import org.example.bankingapi.repository.AccountStreamRepository;
+import org.example.bankingapi.shard.ShardRouter;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 @Service
 public class AccountService {
 
+    private static final int EXPORT_FETCH_SIZE = 500;
+
     private final AccountRepository accountRepository;
+    private final AccountReadRepository accountReadRepository;
+    private final AccountStreamRepository accountStreamRepository;
+    private final AccountSearchRepository accountSearchRepository;
+    private final OptimisticRetry optimisticRetry;
+    private final AccountCache accountCache;
+    private final LedgerService ledgerService;
+    private final AccountUpdatePipeline updatePipeline;
+    private final AccountOutbox accountOutbox;
+    private final AccountTotals accountTotals;
+    private final ShardRouter shardRouter;
 
-    public AccountService(AccountRepository accountRepository) {
+    public AccountService(AccountRepository accountRepository,
+                          AccountReadRepository accountReadRepository,
+                          AccountStreamRepository accountStreamRepository,
+                          AccountSearchRepository accountSearchRepository,
+                          OptimisticRetry optimisticRetry,
+                          AccountCache accountCache,
+                          LedgerService ledgerService,
+                          AccountUpdatePipeline updatePipeline,
+                          AccountOutbox accountOutbox,
+                          AccountTotals accountTotals,
+                          ShardRouter shardRouter) {
         this.accountRepository = accountRepository;
+        this.accountReadRepository = accountReadRepository;
+        this.accountStreamRepository = accountStreamRepository;
+        this.accountSearchRepository = accountSearchRepository;
+        this.optimisticRetry = optimisticRetry;
+        this.accountCache = accountCache;
+        this.ledgerService = ledgerService;
+        this.updatePipeline = updatePipeline;
+        this.accountOutbox = accountOutbox;
+        this.accountTotals = accountTotals;
+        this.shardRouter = shardRouter;
     }
 
     @Transactional
     public AccountResponse createAccount(CreateAccountRequest request) {
+        shardRouter.route(request.getAccountNumber());
         if (accountRepository.existsByAccountNumber(request.getAccountNumber())) {
             throw new DuplicateAccountException(request.getAccountNumber());
         }
         Account account = Account.builder()
                 .accountNumber(request.getAccountNumber())
                 .accountHolderName(request.getAccountHolderName())
-                .balance(request.getBalance() != null ? request.getBalance() : java.math.BigDecimal.ZERO)
+                .balance(openingBalance(request))
                 .currency(request.getCurrency())
                 .status(Account.AccountStatus.ACTIVE)
+                .ledgerSequence(1L)
                 .build();
         account = accountRepository.save(account);
+        ledgerService.recordOpening(account);
+        accountOutbox.created(account);
+        accountTotals.created(account);
+        accountCache.evictNumberAfterCommit(account.getAccountNumber());
         return AccountResponse.fromEntity(account);
     }
 
-    @Transactional
+    /**
+     * Applies the provided fields to the latest committed state. A commit that loses the
+     * version check is retried on fresh state rather than overwriting the competing write.
+     * With group commit enabled the update is written in a shared transaction instead.
+     */
     public AccountResponse updateAccount(Long id, UpdateAccountRequest request) {
+        if (updatePipeline.isEnabled()) {
+            return updatePipeline.update(id, request);
+        }
+        return optimisticRetry.execute(
+                () -> applyUpdate(id, request, null),
+                () -> new ConcurrentUpdateException(id, optimisticRetry.getMaxAttempts()));
+    }
+
+    /**
+     * Conditional update: succeeds only if the account is still at {@code expectedVersion}
+     * when the change commits. Always its own transaction, since updates coalesced into one
+     * write would not each produce a version to compare against.
+     */
+    public AccountResponse updateAccount(Long id, UpdateAccountRequest request, Long expectedVersion) {
+        if (expectedVersion == null) {
+            return updateAccount(id, request);
+        }
+        return optimisticRetry.executeOnce(
+                () -> applyUpdate(id, request, expectedVersion),
+                () -> new AccountVersionMismatchException(id, expectedVersion));
+    }
+
+    private AccountResponse applyUpdate(Long id, UpdateAccountRequest request, Long expectedVersion) {
+        shardRouter.route(id);
         Account account = accountRepository.findById(id)
                 .orElseThrow(() -> new AccountNotFoundException(id));
+        if (expectedVersion != null && !expectedVersion.equals(account.getVersion())) {
+            throw new AccountVersionMismatchException(id, expectedVersion);
+        }
+
+        Money previousBalance = account.getBalance();
+        AccountTotals.Position previousPosition = AccountTotals.positionOf(account);
+        applyFields(account, request);
+
+        account = accountRepository.saveAndFlush(account);
+        Money delta = balanceChange(account, previousBalance);
+        if (delta.signum() != 0) {
+            // The version-checked flush above holds the row, so the entry can take the next
+            // sequence; the second flush publishes the sequence and the final version.
+            ledgerService.append(account, LedgerEntry.EntryType.ADJUSTMENT, delta, null, "Balance set by account update");
+            account = accountRepository.saveAndFlush(account);
+        }
+        accountOutbox.updated(account);
+        accountTotals.changed(previousPosition, account);
+        accountCache.evictAfterCommit(id);
+        return AccountResponse.fromEntity(account);
+    }
+
+    static Money openingBalance(CreateAccountRequest request) {
+        return request.getBalance() != null
+                ? Money.of(request.getBalance(), request.getCurrency())
+                : Money.zero(request.getCurrency());
+    }
 
+    /**
+     * The currency is applied first, so a new balance is checked against the new currency's
+     * precision; a relabelled balance is checked as well.
+     */
+    static void applyFields(Account account, UpdateAccountRequest request) {
         if (request.getAccountHolderName() != null) {
             account.setAccountHolderName(request.getAccountHolderName());
         }
-        if (request.getBalance() != null) {
-            account.setBalance(request.getBalance());
-        }
-        if (request.getCurrency() != null) {
+        if (request.getCurrency() != null && !request.getCurrency().equals(account.getCurrency())) {
+            Money relabelled = Money.of(account.getBalance().toBigDecimal(), request.getCurrency());
             account.setCurrency(request.getCurrency());
+            account.setBalance(relabelled);
+        }
+        if (request.getBalance() != null) {
+            account.setBalance(Money.of(request.getBalance(), account.getCurrency()));
         }
         if (request.getStatus() != null) {
             account.setStatus(request.getStatus());
         }
+    }
 
-        account = accountRepository.save(account);
-        return AccountResponse.fromEntity(account);
+    /**
+     * Net change of the balance since {@code previous}, in the account's current currency; a
+     * relabelled balance keeps its number, so only the amount is compared.
+     */
+    static Money balanceChange(Account account, Money previous) {
+        return account.getBalance().minus(previous.withCurrency(account.getCurrency()));
     }
 
-    public List<AccountResponse> getAllAccounts() {
-        return accountRepository.findAll().stream()
-                .map(AccountResponse::fromEntity)
-                .collect(Collectors.toList());
+    public AccountPage getAccounts(String cursor, int limit) {
+        long afterId = cursor != null ? PageCursor.decode(cursor) : 0L;
+        // Fetch one extra row to learn whether another page exists without a count query.
+        List<AccountResponse> accounts = shardRouter.gather(() -> accountReadRepository.findAfterId(afterId, limit + 1),
+                AccountResponse::getId, Comparator.comparing(AccountResponse::getId), limit + 1);
+        boolean hasMore = accounts.size() > limit;
+        List<AccountResponse> items = hasMore ? accounts.subList(0, limit) : accounts;
+        String nextCursor = hasMore ? PageCursor.encode(items.get(items.size() - 1).getId()) : null;
+        return AccountPage.builder()
+                .items(items)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    /**
+     * Filtered listing in {@code sort} order. The cursor carries the sort value and id of the
+     * last row, so each page is a fresh index seek rather than an offset skip.
+     */
+    public AccountPage searchAccounts(AccountSearchCriteria criteria, AccountSort sort, String cursor, int limit) {
+        Object afterValue = null;
+        Long afterId = null;
+        if (cursor != null) {
+            PageCursor.Keyset keyset = PageCursor.decode(cursor, sort.getParameter());
+            afterValue = parseSortValue(sort, keyset.getValue(), cursor);
+            afterId = keyset.getId();
+        }
+        Object seekValue = afterValue;
+        Long seekId = afterId;
+        List<AccountResponse> accounts = shardRouter.gather(
+                () -> accountSearchRepository.search(criteria, sort, seekValue, seekId, limit + 1),
+                AccountResponse::getId, sort.comparator(), limit + 1);
+        boolean hasMore = accounts.size() > limit;
+        List<AccountResponse> items = hasMore ? accounts.subList(0, limit) : accounts;
+        String nextCursor = null;
+        if (hasMore) {
+            AccountResponse last = items.get(items.size() - 1);
+            nextCursor = PageCursor.encode(sort.getParameter(), sortValue(sort, last), last.getId());
+        }
+        return AccountPage.builder()
+                .items(items)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    private static String sortValue(AccountSort sort, AccountResponse account) {
+        switch (sort) {
+            case HOLDER_NAME_ASC:
+                return account.getAccountHolderName();
+            case BALANCE_DESC:
+                return account.getBalance().toPlainString();
+            case UPDATED_AT_DESC:
+                return account.getUpdatedAt().toString();
+            default:
+                return "";
+        }
+    }
+
+    private static Object parseSortValue(AccountSort sort, String value, String cursor) {
+        try {
+            switch (sort) {
+                case HOLDER_NAME_ASC:
+                    return value;
+                case BALANCE_DESC:
+                    return new BigDecimal(value);
+                case UPDATED_AT_DESC:
+                    return Instant.parse(value);
+                default:
+                    return null;
+            }
+        } catch (NumberFormatException | DateTimeParseException ex) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+
+    /**
+     * Streams every account, shard by shard; the order holds within each shard only.
+     */
+    public void exportAccounts(Consumer<AccountResponse> consumer) {
+        for (int shard : shardRouter.shards()) {
+            shardRouter.runOnShard(shard, () -> accountStreamRepository.streamAll(EXPORT_FETCH_SIZE, account -> {
+                if (shardRouter.isOwner(shard, account.getId())) {
+                    consumer.accept(account);
+                }
+            }));
+        }
     }
 
     public AccountResponse getAccountById(Long id) {
-        Account account = accountRepository.findById(id)
+        return accountCache.getById(id, this::loadById)
                 .orElseThrow(() -> new AccountNotFoundException(id));
-        return AccountResponse.fromEntity(account);
+    }
+
+    public AccountResponse getAccountByNumber(String accountNumber) {
+        return accountCache.getByAccountNumber(accountNumber, this::loadById,
+                        () -> ReplicaRouter.onPrimary(() -> shardRouter.onShardOf(accountNumber,
+                                () -> accountReadRepository.findByAccountNumber(accountNumber))))
+                .orElseThrow(() -> new AccountNotFoundException(accountNumber));
+    }
+
+    /**
+     * Point reads fill the account caches, which serve every client until the next write, so
+     * they read from the primary even when replicas are configured.
+     */
+    private Optional<AccountResponse> loadById(Long id) {
+        return ReplicaRouter.onPrimary(() -> shardRouter.onShardOf(id, () -> accountReadRepository.findById(id)));
     }
 
     @Transactional
     public void deleteAccount(Long id) {
-        if (!accountRepository.existsById(id)) {
-            throw new AccountNotFoundException(id);
-        }
-        accountRepository.deleteById(id);
+        shardRouter.route(id);
+        Account account = accountRepository.findById(id)
+                .orElseThrow(() -> new AccountNotFoundException(id));
+        accountRepository.delete(account);
+        accountOutbox.deleted(account);
+        accountTotals.deleted(account);
+        accountCache.evictAfterCommit(id);
     }
 }
@@ -0,0 +1,256 @@
+package org.example.bankingapi.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.example.bankingapi.entity.Account;
+import org.example.bankingapi.repository.AccountTotalsRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Account counts and balances per currency and status, kept current by the writers instead of
+ * summed on demand, so a totals report costs one pass over the currencies however many
+ * accounts there are. The totals are seeded from {@link AccountTotalsRepository} before the
+ * application takes requests and every write reports its change after it commits, the same
+ * way {@link AccountCache} hears about it.
+ * <p>
+ * A rebuild swaps in freshly summed totals; a write that commits while the sums are being read
+ * may be counted twice or not at all, which the next scheduled rebuild corrects. Reports that
+ * must be exact ask the database instead.
+ */
+@Component
+public class AccountTotals implements SmartLifecycle, MeterBinder {
+
+    private static final Account.AccountStatus[] STATUSES = Account.AccountStatus.values();
+
+    private final boolean enabled;
+    private final AccountTotalsRepository totalsRepository;
+    private volatile Map<String, CurrencyTotals> byCurrency = new ConcurrentHashMap<>();
+    private volatile Instant rebuiltAt;
+    private volatile boolean running;
+
+    private final LongAdder changes = new LongAdder();
+    private final LongAdder rebuilds = new LongAdder();
+
+    public AccountTotals(@Value("${banking.reports.tracked-totals.enabled:true}") boolean enabled,
+                         AccountTotalsRepository totalsRepository) {
+        this.enabled = enabled;
+        this.totalsRepository = totalsRepository;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Replaces the totals with sums read from the accounts.
+     */
+    @Scheduled(fixedDelayString = "${banking.reports.tracked-totals.rebuild-interval:PT1H}",
+            initialDelayString = "${banking.reports.tracked-totals.rebuild-interval:PT1H}")
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        Map<String, CurrencyTotals> rebuilt = new ConcurrentHashMap<>();
+        for (AccountTotalsRepository.Group group : totalsRepository.totals()) {
+            rebuilt.computeIfAbsent(group.getCurrency(), currency -> new CurrencyTotals())
+                    .add(group.getStatus(), group.getAccounts(), group.getUnits());
+        }
+        byCurrency = rebuilt;
+        rebuiltAt = Instant.now();
+        rebuilds.increment();
+    }
+
+    /**
+     * The current totals, one group per currency and status that holds accounts.
+     */
+    public List<AccountTotalsRepository.Group> snapshot() {
+        List<AccountTotalsRepository.Group> groups = new ArrayList<>();
+        byCurrency.forEach((currency, totals) -> {
+            for (Account.AccountStatus status : STATUSES) {
+                long accounts = totals.accounts[status.ordinal()].sum();
+                if (accounts != 0) {
+                    groups.add(new AccountTotalsRepository.Group(currency, status, accounts,
+                            totals.units[status.ordinal()].sum()));
+                }
+            }
+        });
+        return groups;
+    }
+
+    public Instant getRebuiltAt() {
+        return rebuiltAt;
+    }
+
+    public void created(Account account) {
+        Position position = positionOf(account);
+        afterCommit(() -> apply(position, 1));
+    }
+
+    public void created(Collection<Account> accounts) {
+        List<Position> positions = new ArrayList<>(accounts.size());
+        for (Account account : accounts) {
+            positions.add(positionOf(account));
+        }
+        afterCommit(() -> positions.forEach(position -> apply(position, 1)));
+    }
+
+    /**
+     * @param before the account's position captured before the change was applied
+     */
+    public void changed(Position before, Account after) {
+        Position position = positionOf(after);
+        if (position.equals(before)) {
+            return;
+        }
+        afterCommit(() -> {
+            apply(before, -1);
+            apply(position, 1);
+        });
+    }
+
+    public void deleted(Account account) {
+        Position position = positionOf(account);
+        afterCommit(() -> apply(position, -1));
+    }
+
+    private void apply(Position position, int sign) {
+        byCurrency.computeIfAbsent(position.currency, currency -> new CurrencyTotals())
+                .add(position.status, sign, sign * position.units);
+        changes.increment();
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Where an account counts: its currency, status and balance.
+     */
+    public static Position positionOf(Account account) {
+        return new Position(account.getCurrency(), account.getStatus(), account.getBalance().getUnits());
+    }
+
+    /**
+     * Seeds the totals once every bean is ready, in an early phase so that it happens before
+     * the web server starts taking requests.
+     */
+    @Override
+    public void start() {
+        rebuild();
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    public long getChanges() {
+        return changes.sum();
+    }
+
+    public long getRebuilds() {
+        return rebuilds.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!enabled) {
+            return;
+        }
+        FunctionCounter.builder("banking.reports.totals.changes", changes, LongAdder::sum)
+                .description("Committed account writes applied to the tracked totals")
+                .register(registry);
+        FunctionCounter.builder("banking.reports.totals.rebuilds", rebuilds, LongAdder::sum)
+                .description("Times the tracked totals were summed again from the accounts")
+                .register(registry);
+        Gauge.builder("banking.reports.totals.currencies", this, totals -> totals.byCurrency.size())
+                .description("Currencies with tracked totals")
+                .register(registry);
+    }
+
+    public static final class Position {
+
+        private final String currency;
+        private final Account.AccountStatus status;
+        private final long units;
+
+        Position(String currency, Account.AccountStatus status, long units) {
+            this.currency = currency;
+            this.status = status;
+            this.units = units;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Position)) {
+                return false;
+            }
+            Position other = (Position) o;
+            return units == other.units && currency.equals(other.currency) && status == other.status;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * currency.hashCode() + status.hashCode()) + Long.hashCode(units);
+        }
+    }
+
+    private static final class CurrencyTotals {
+
+        private final LongAdder[] accounts = new LongAdder[STATUSES.length];
+        private final LongAdder[] units = new LongAdder[STATUSES.length];
+
+        CurrencyTotals() {
+            for (int i = 0; i < STATUSES.length; i++) {
+                accounts[i] = new LongAdder();
+                units[i] = new LongAdder();
+            }
+        }
+
+        void add(Account.AccountStatus status, long accountDelta, long unitDelta) {
+            accounts[status.ordinal()].add(accountDelta);
+            units[status.ordinal()].add(unitDelta);
+        }
+    }
+}
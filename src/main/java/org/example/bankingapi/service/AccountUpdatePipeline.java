@@ -0,0 +1,358 @@
+package org.example.bankingapi.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.example.bankingapi.dto.AccountResponse;
+import org.example.bankingapi.dto.UpdateAccountRequest;
+import org.example.bankingapi.entity.Account;
+import org.example.bankingapi.entity.LedgerEntry;
+import org.example.bankingapi.entity.Money;
+import org.example.bankingapi.exception.AccountNotFoundException;
+import org.example.bankingapi.exception.ConcurrentUpdateException;
+import org.example.bankingapi.outbox.AccountOutbox;
+import org.example.bankingapi.repository.AccountRepository;
+import org.example.bankingapi.shard.ShardRouter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Group commit for unconditional account updates. Callers enqueue their update and wait; one
+ * flusher thread drains the queue into batches of up to {@code max-batch-size} updates, waiting
+ * at most {@code linger} for a batch to fill, and writes each batch in a single transaction.
+ * Updates to the same account within a batch are applied in arrival order to one loaded entity,
+ * so the row is written once. A caller is answered only after the transaction holding its update
+ * has committed, so durability is the same as a transaction per update. With sharding, a batch
+ * is written as one transaction per shard.
+ * <p>
+ * An update that cannot be applied (an invalid amount or currency) is undone on the loaded entity
+ * and fails only its own caller; the rest of the batch is written without it. A batch that fails
+ * as a whole in the database (a lost version check against a writer outside the pipeline, a
+ * constraint violation) is replayed one account at a time, each with the usual optimistic retry,
+ * so a failed write fails only the callers of that account.
+ */
+@Component
+public class AccountUpdatePipeline implements MeterBinder {
+
+    private final AccountRepository accountRepository;
+    private final LedgerService ledgerService;
+    private final AccountCache accountCache;
+    private final AccountOutbox accountOutbox;
+    private final AccountTotals accountTotals;
+    private final OptimisticRetry optimisticRetry;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouter shardRouter;
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final long lingerNanos;
+    private final BlockingQueue<PendingUpdate> queue;
+    private final Thread flusher;
+    private volatile boolean running = true;
+
+    private final LongAdder updates = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+
+    public AccountUpdatePipeline(AccountRepository accountRepository,
+                                 LedgerService ledgerService,
+                                 AccountCache accountCache,
+                                 AccountOutbox accountOutbox,
+                                 AccountTotals accountTotals,
+                                 OptimisticRetry optimisticRetry,
+                                 PlatformTransactionManager transactionManager,
+                                 ShardRouter shardRouter,
+                                 @Value("${banking.updates.group-commit.enabled:false}") boolean enabled,
+                                 @Value("${banking.updates.group-commit.max-batch-size:64}") int maxBatchSize,
+                                 @Value("${banking.updates.group-commit.linger:2ms}") Duration linger,
+                                 @Value("${banking.updates.group-commit.queue-capacity:10000}") int queueCapacity) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("Max batch size must be at least 1: " + maxBatchSize);
+        }
+        this.accountRepository = accountRepository;
+        this.ledgerService = ledgerService;
+        this.accountCache = accountCache;
+        this.accountOutbox = accountOutbox;
+        this.accountTotals = accountTotals;
+        this.optimisticRetry = optimisticRetry;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shardRouter = shardRouter;
+        this.enabled = enabled;
+        this.maxBatchSize = maxBatchSize;
+        this.lingerNanos = linger.toNanos();
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        this.flusher = new Thread(this::drain, "account-update-flusher");
+        this.flusher.setDaemon(true);
+        if (enabled) {
+            flusher.start();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues the update and blocks until the batch holding it has committed. The response is
+     * the account as committed, including updates coalesced after this one in the same batch.
+     */
+    public AccountResponse update(Long id, UpdateAccountRequest request) {
+        if (!running) {
+            throw new IllegalStateException("Update pipeline is shut down");
+        }
+        PendingUpdate pending = new PendingUpdate(id, request);
+        try {
+            queue.put(pending);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queueing an update", ex);
+        }
+        try {
+            return pending.result.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw ex;
+        }
+    }
+
+    private void drain() {
+        List<PendingUpdate> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingUpdate first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + lingerNanos;
+                while (batch.size() < maxBatchSize) {
+                    // Take whatever is already queued before waiting for more.
+                    if (queue.drainTo(batch, maxBatchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    PendingUpdate next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                batch.forEach(pending -> pending.result.completeExceptionally(
+                        new IllegalStateException("Update pipeline interrupted", ex)));
+                return;
+            } catch (RuntimeException ex) {
+                batch.forEach(pending -> pending.result.completeExceptionally(ex));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<PendingUpdate> batch) {
+        Map<Integer, Map<Long, List<PendingUpdate>>> byShard = new LinkedHashMap<>();
+        for (PendingUpdate pending : batch) {
+            byShard.computeIfAbsent(shardRouter.shardOf(pending.id), shard -> new LinkedHashMap<>())
+                    .computeIfAbsent(pending.id, id -> new ArrayList<>()).add(pending);
+        }
+        updates.add(batch.size());
+        for (Map<Long, List<PendingUpdate>> byAccount : byShard.values()) {
+            batches.increment();
+            coalesced.add(byAccount.values().stream().mapToInt(List::size).sum() - byAccount.size());
+            flushShard(byAccount);
+        }
+    }
+
+    private void flushShard(Map<Long, List<PendingUpdate>> byAccount) {
+        try {
+            complete(byAccount, transactionTemplate.execute(status -> apply(byAccount)));
+        } catch (RuntimeException ex) {
+            fallbacks.increment();
+            for (Map.Entry<Long, List<PendingUpdate>> group : byAccount.entrySet()) {
+                Map<Long, List<PendingUpdate>> single = Map.of(group.getKey(), group.getValue());
+                try {
+                    complete(single, optimisticRetry.execute(() -> apply(single),
+                            () -> new ConcurrentUpdateException(group.getKey(), optimisticRetry.getMaxAttempts())));
+                } catch (RuntimeException failure) {
+                    group.getValue().forEach(pending -> pending.result.completeExceptionally(failure));
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs inside the batch transaction. Accounts that do not exist are left out of the result;
+     * every other account with at least one applicable update is written with one version-checked
+     * update.
+     */
+    private Applied apply(Map<Long, List<PendingUpdate>> byAccount) {
+        shardRouter.route(byAccount.keySet().stream().mapToLong(Long::longValue).toArray());
+        List<Account> accounts = accountRepository.findAllById(byAccount.keySet());
+        Map<PendingUpdate, RuntimeException> rejected = new HashMap<>();
+        List<Account> changed = new ArrayList<>(accounts.size());
+        Map<Long, Money> deltas = new HashMap<>();
+        Map<Long, AccountTotals.Position> positions = new HashMap<>();
+        for (Account account : accounts) {
+            Money previousBalance = account.getBalance();
+            AccountTotals.Position position = AccountTotals.positionOf(account);
+            boolean applied = false;
+            for (PendingUpdate pending : byAccount.get(account.getId())) {
+                String holderName = account.getAccountHolderName();
+                String currency = account.getCurrency();
+                Money balance = account.getBalance();
+                Account.AccountStatus status = account.getStatus();
+                try {
+                    AccountService.applyFields(account, pending.request);
+                    applied = true;
+                } catch (RuntimeException ex) {
+                    // Undo whatever the update set before it failed; the others still apply.
+                    account.setAccountHolderName(holderName);
+                    account.setCurrency(currency);
+                    account.setBalance(balance);
+                    account.setStatus(status);
+                    rejected.put(pending, ex);
+                }
+            }
+            if (applied) {
+                changed.add(account);
+                positions.put(account.getId(), position);
+                deltas.put(account.getId(), AccountService.balanceChange(account, previousBalance));
+            }
+        }
+        accountRepository.flush();
+        boolean appended = false;
+        for (Account account : changed) {
+            Money delta = deltas.get(account.getId());
+            if (delta.signum() != 0) {
+                // Same order as a single update: the version-checked flush above holds the row.
+                ledgerService.append(account, LedgerEntry.EntryType.ADJUSTMENT, delta, null, "Balance set by account update");
+                appended = true;
+            }
+        }
+        if (appended) {
+            accountRepository.flush();
+        }
+        if (!changed.isEmpty()) {
+            accountOutbox.updated(changed);
+        }
+        Map<Long, AccountResponse> responses = new HashMap<>();
+        for (Account account : accounts) {
+            if (positions.containsKey(account.getId())) {
+                accountTotals.changed(positions.get(account.getId()), account);
+            }
+            responses.put(account.getId(), AccountResponse.fromEntity(account));
+        }
+        if (!changed.isEmpty()) {
+            accountCache.evictAfterCommit(changed.stream().map(Account::getId).toArray(Long[]::new));
+        }
+        return new Applied(responses, rejected);
+    }
+
+    private static void complete(Map<Long, List<PendingUpdate>> byAccount, Applied applied) {
+        byAccount.forEach((id, group) -> {
+            AccountResponse response = applied.responses.get(id);
+            for (PendingUpdate pending : group) {
+                RuntimeException rejection = applied.rejected.get(pending);
+                if (rejection != null) {
+                    pending.result.completeExceptionally(rejection);
+                } else if (response != null) {
+                    pending.result.complete(response);
+                } else {
+                    pending.result.completeExceptionally(new AccountNotFoundException(id));
+                }
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        // Not interrupted: the flusher notices within one poll and finishes the queued batches.
+        running = false;
+        if (enabled) {
+            flusher.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("banking.updates.group-commit.updates", updates, LongAdder::sum)
+                .description("Updates written through the group-commit pipeline")
+                .register(registry);
+        FunctionCounter.builder("banking.updates.group-commit.batches", batches, LongAdder::sum)
+                .description("Group-commit transactions")
+                .register(registry);
+        FunctionCounter.builder("banking.updates.group-commit.coalesced", coalesced, LongAdder::sum)
+                .description("Updates merged into another update of the same account in one batch")
+                .register(registry);
+        FunctionCounter.builder("banking.updates.group-commit.fallbacks", fallbacks, LongAdder::sum)
+                .description("Batches replayed one account at a time after failing as a whole")
+                .register(registry);
+        Gauge.builder("banking.updates.group-commit.queued", queue, BlockingQueue::size)
+                .description("Updates waiting for the next batch")
+                .register(registry);
+    }
+
+    public long getUpdates() {
+        return updates.sum();
+    }
+
+    public long getBatches() {
+        return batches.sum();
+    }
+
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    public long getFallbacks() {
+        return fallbacks.sum();
+    }
+
+    /**
+     * What one transaction wrote: the committed state per account, and the updates that were
+     * left out because they could not be applied.
+     */
+    private static final class Applied {
+
+        private final Map<Long, AccountResponse> responses;
+        private final Map<PendingUpdate, RuntimeException> rejected;
+
+        private Applied(Map<Long, AccountResponse> responses, Map<PendingUpdate, RuntimeException> rejected) {
+            this.responses = responses;
+            this.rejected = rejected;
+        }
+    }
+
+    private static final class PendingUpdate {
+
+        private final Long id;
+        private final UpdateAccountRequest request;
+        private final CompletableFuture<AccountResponse> result = new CompletableFuture<>();
+
+        private PendingUpdate(Long id, UpdateAccountRequest request) {
+            this.id = id;
+            this.request = request;
+        }
+    }
+}
@@ -0,0 +1,341 @@
+package org.example.bankingapi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.example.bankingapi.entity.IdempotencyRecord;
+import org.example.bankingapi.exception.IdempotencyKeyInProgressException;
+import org.example.bankingapi.exception.IdempotencyKeyReusedException;
+import org.example.bankingapi.exception.InvalidIdempotencyKeyException;
+import org.example.bankingapi.repository.IdempotencyRecordRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Honours the {@code Idempotency-Key} request header. The first request with a key executes
+ * and its successful response is kept for {@code ttl}; a retry with the same key and payload
+ * gets that response back without executing again. Requests that arrive while the first one
+ * is still running wait for it and share its outcome, so duplicates never race.
+ * <p>
+ * Completed responses live in a bounded in-memory cache and, when the JDBC tier is enabled,
+ * in {@code idempotency_records}, which survives restarts and is shared between instances.
+ * Failures are not stored: the request had no effect, so a retry runs again.
+ * <p>
+ * With the JDBC tier, a request also claims its key in {@code idempotency_records} before it
+ * executes, so duplicates on other instances wait for the stored response instead of executing
+ * again. A claim older than {@code inFlightTimeout} is taken to belong to an instance that died
+ * mid-request and is taken over; a duplicate that is still waiting by then gets a 409.
+ */
+@Service
+public class IdempotencyService implements MeterBinder {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final long POLL_MILLIS = 25;
+
+    private final ObjectMapper objectMapper;
+    private final IdempotencyRecordRepository recordRepository;
+    private final boolean jdbcEnabled;
+    private final Duration ttl;
+    private final Duration inFlightTimeout;
+    private final Cache<String, StoredResponse> completed;
+    private final ConcurrentMap<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder replays = new LongAdder();
+    private final LongAdder collapsed = new LongAdder();
+
+    public IdempotencyService(ObjectMapper objectMapper,
+                              IdempotencyRecordRepository recordRepository,
+                              @Value("${banking.idempotency.maximum-size:100000}") long maximumSize,
+                              @Value("${banking.idempotency.ttl:24h}") Duration ttl,
+                              @Value("${banking.idempotency.jdbc.enabled:false}") boolean jdbcEnabled,
+                              @Value("${banking.idempotency.jdbc.in-flight-timeout:30s}") Duration inFlightTimeout) {
+        this.objectMapper = objectMapper;
+        this.recordRepository = recordRepository;
+        this.jdbcEnabled = jdbcEnabled;
+        this.ttl = ttl;
+        this.inFlightTimeout = inFlightTimeout;
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * @param key     the client's key, or {@code null} to run {@code action} unconditionally
+     * @param scope   the endpoint the key belongs to, so one key cannot collide across operations
+     * @param request the request payload; a retry must send an equal payload
+     */
+    public <T> ResponseEntity<T> execute(String key, String scope, Object request, Class<T> bodyType,
+                                         Supplier<ResponseEntity<T>> action) {
+        if (key == null) {
+            return action.get();
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new InvalidIdempotencyKeyException(HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        String scopedKey = scope + '\n' + key;
+        String fingerprint = fingerprint(request);
+
+        StoredResponse stored = lookup(scopedKey);
+        if (stored != null) {
+            return replay(stored, key, fingerprint, bodyType);
+        }
+
+        CompletableFuture<StoredResponse> pending = new CompletableFuture<>();
+        CompletableFuture<StoredResponse> running = inFlight.putIfAbsent(scopedKey, pending);
+        if (running != null) {
+            collapsed.increment();
+            return replay(join(running), key, fingerprint, bodyType);
+        }
+        try {
+            // A previous execution may have finished between the lookup and taking the slot.
+            stored = lookup(scopedKey);
+            if (stored != null) {
+                pending.complete(stored);
+                return replay(stored, key, fingerprint, bodyType);
+            }
+            if (jdbcEnabled) {
+                stored = claim(scopedKey, key, fingerprint);
+                if (stored != null) {
+                    pending.complete(stored);
+                    return replay(stored, key, fingerprint, bodyType);
+                }
+            }
+            executions.increment();
+            ResponseEntity<T> response;
+            try {
+                response = action.get();
+            } catch (RuntimeException ex) {
+                release(scopedKey, ex);
+                throw ex;
+            }
+            stored = new StoredResponse(fingerprint, response.getStatusCode().value(),
+                    response.getHeaders().getETag(), serialize(response.getBody()));
+            if (response.getStatusCode().is2xxSuccessful()) {
+                save(scopedKey, stored);
+            } else {
+                release(scopedKey, null);
+            }
+            pending.complete(stored);
+            return response;
+        } catch (RuntimeException ex) {
+            pending.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(scopedKey, pending);
+        }
+    }
+
+    private StoredResponse lookup(String scopedKey) {
+        StoredResponse stored = completed.getIfPresent(scopedKey);
+        if (stored != null || !jdbcEnabled) {
+            return stored;
+        }
+        return recordRepository.findById(scopedKey)
+                .filter(record -> record.getStatus() != null)
+                .filter(record -> record.getCreatedAt().isAfter(Instant.now().minus(ttl)))
+                .map(record -> remember(scopedKey, record))
+                .orElse(null);
+    }
+
+    private StoredResponse remember(String scopedKey, IdempotencyRecord record) {
+        StoredResponse stored = new StoredResponse(record.getFingerprint(), record.getStatus(), record.getEtag(),
+                record.getBody());
+        completed.put(scopedKey, stored);
+        return stored;
+    }
+
+    /**
+     * Claims {@code scopedKey} for this request. Returns {@code null} once the claim is held, or the
+     * stored response if another request with the key completed while this one waited.
+     */
+    private StoredResponse claim(String scopedKey, String key, String fingerprint) {
+        long deadline = System.nanoTime() + inFlightTimeout.toNanos();
+        while (true) {
+            Instant now = Instant.now();
+            try {
+                recordRepository.claim(scopedKey, fingerprint, now);
+                return null;
+            } catch (DataIntegrityViolationException ex) {
+                // Held by another request, most likely on another instance.
+            }
+            IdempotencyRecord record = recordRepository.findById(scopedKey).orElse(null);
+            if (record == null) {
+                // Released or purged since the insert failed.
+                continue;
+            }
+            if (!record.getFingerprint().equals(fingerprint)) {
+                throw new IdempotencyKeyReusedException(key);
+            }
+            if (record.getCreatedAt().isBefore(now.minus(ttl))) {
+                recordRepository.deleteExpired(scopedKey, now.minus(ttl));
+                continue;
+            }
+            if (record.getStatus() != null) {
+                collapsed.increment();
+                return remember(scopedKey, record);
+            }
+            if (record.getCreatedAt().isBefore(now.minus(inFlightTimeout))) {
+                recordRepository.deletePending(scopedKey, now.minus(inFlightTimeout));
+                continue;
+            }
+            if (System.nanoTime() - deadline > 0) {
+                throw new IdempotencyKeyInProgressException(key);
+            }
+            try {
+                Thread.sleep(POLL_MILLIS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IdempotencyKeyInProgressException(key);
+            }
+        }
+    }
+
+    private void save(String scopedKey, StoredResponse stored) {
+        completed.put(scopedKey, stored);
+        if (jdbcEnabled) {
+            recordRepository.complete(scopedKey, stored.status, stored.etag, stored.body);
+        }
+    }
+
+    /**
+     * Gives up the claim of a request that failed, so a retry executes again. A claim that cannot
+     * be released is taken over once it is older than {@code inFlightTimeout}.
+     */
+    private void release(String scopedKey, RuntimeException failure) {
+        if (!jdbcEnabled) {
+            return;
+        }
+        try {
+            recordRepository.deletePending(scopedKey, Instant.now());
+        } catch (RuntimeException ex) {
+            if (failure == null) {
+                throw ex;
+            }
+            failure.addSuppressed(ex);
+        }
+    }
+
+    private <T> ResponseEntity<T> replay(StoredResponse stored, String key, String fingerprint, Class<T> bodyType) {
+        if (!stored.fingerprint.equals(fingerprint)) {
+            throw new IdempotencyKeyReusedException(key);
+        }
+        replays.increment();
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(stored.status).header(REPLAYED_HEADER, "true");
+        if (stored.etag != null) {
+            builder.header(HttpHeaders.ETAG, stored.etag);
+        }
+        try {
+            return builder.body(stored.body.length == 0 ? null : objectMapper.readValue(stored.body, bodyType));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static StoredResponse join(CompletableFuture<StoredResponse> running) {
+        try {
+            return running.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw ex;
+        }
+    }
+
+    private String fingerprint(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(serialize(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private byte[] serialize(Object value) {
+        if (value == null) {
+            return new byte[0];
+        }
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${banking.idempotency.jdbc.purge-interval:PT10M}")
+    public void purgeExpired() {
+        if (jdbcEnabled) {
+            recordRepository.deleteCreatedBefore(Instant.now().minus(ttl));
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("banking.idempotency.executions", executions, LongAdder::sum)
+                .description("Keyed requests that executed")
+                .register(registry);
+        FunctionCounter.builder("banking.idempotency.replays", replays, LongAdder::sum)
+                .description("Keyed requests answered with a stored response")
+                .register(registry);
+        FunctionCounter.builder("banking.idempotency.collapsed", collapsed, LongAdder::sum)
+                .description("Keyed requests that waited for an identical in-flight request")
+                .register(registry);
+    }
+
+    public long size() {
+        return completed.estimatedSize();
+    }
+
+    public long getExecutions() {
+        return executions.sum();
+    }
+
+    public long getReplays() {
+        return replays.sum();
+    }
+
+    public long getCollapsed() {
+        return collapsed.sum();
+    }
+
+    private static final class StoredResponse {
+
+        private final String fingerprint;
+        private final int status;
+        private final String etag;
+        private final byte[] body;
+
+        private StoredResponse(String fingerprint, int status, String etag, byte[] body) {
+            this.fingerprint = fingerprint;
+            this.status = status;
+            this.etag = etag;
+            this.body = body;
+        }
+    }
+}
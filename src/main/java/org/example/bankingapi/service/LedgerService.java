@@ -0,0 +1,218 @@
+package org.example.bankingapi.service;
+
+import org.example.bankingapi.dto.AccountResponse;
+import org.example.bankingapi.dto.BalanceResponse;
+import org.example.bankingapi.dto.LedgerEntryResponse;
+import org.example.bankingapi.dto.LedgerPage;
+import org.example.bankingapi.dto.MoneyMovementRequest;
+import org.example.bankingapi.entity.Account;
+import org.example.bankingapi.entity.BalanceSnapshot;
+import org.example.bankingapi.entity.LedgerEntry;
+import org.example.bankingapi.entity.Money;
+import org.example.bankingapi.exception.AccountNotActiveException;
+import org.example.bankingapi.exception.AccountNotFoundException;
+import org.example.bankingapi.exception.InsufficientFundsException;
+import org.example.bankingapi.outbox.AccountOutbox;
+import org.example.bankingapi.repository.AccountRepository;
+import org.example.bankingapi.repository.BalanceSnapshotRepository;
+import org.example.bankingapi.repository.LedgerEntryRepository;
+import org.example.bankingapi.shard.ShardRouter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Owns the append-only ledger. Every balance change appends one entry in the same transaction
+ * that updates {@link Account#getBalance()}, so the stored balance is always the running sum
+ * of the account's entries. Every {@code snapshot-interval} entries the running balance is
+ * checkpointed, which bounds the work of a point-in-time balance query.
+ */
+@Service
+public class LedgerService {
+
+    private final AccountRepository accountRepository;
+    private final LedgerEntryRepository ledgerEntryRepository;
+    private final BalanceSnapshotRepository balanceSnapshotRepository;
+    private final StripedLocks locks;
+    private final AccountCache accountCache;
+    private final AccountOutbox accountOutbox;
+    private final AccountTotals accountTotals;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardRouter shardRouter;
+    private final int snapshotInterval;
+
+    public LedgerService(AccountRepository accountRepository,
+                         LedgerEntryRepository ledgerEntryRepository,
+                         BalanceSnapshotRepository balanceSnapshotRepository,
+                         StripedLocks locks,
+                         AccountCache accountCache,
+                         AccountOutbox accountOutbox,
+                         AccountTotals accountTotals,
+                         PlatformTransactionManager transactionManager,
+                         ShardRouter shardRouter,
+                         @Value("${banking.ledger.snapshot-interval:100}") int snapshotInterval) {
+        if (snapshotInterval < 1) {
+            throw new IllegalArgumentException("Snapshot interval must be at least 1: " + snapshotInterval);
+        }
+        this.accountRepository = accountRepository;
+        this.ledgerEntryRepository = ledgerEntryRepository;
+        this.balanceSnapshotRepository = balanceSnapshotRepository;
+        this.locks = locks;
+        this.accountCache = accountCache;
+        this.accountOutbox = accountOutbox;
+        this.accountTotals = accountTotals;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shardRouter = shardRouter;
+        this.snapshotInterval = snapshotInterval;
+    }
+
+    /**
+     * Builds the opening entry of a freshly persisted account. The account must have been
+     * built with {@code ledgerSequence = 1}, so opening does not dirty the row again.
+     */
+    public LedgerEntry openingEntry(Account account) {
+        return LedgerEntry.builder()
+                .accountId(account.getId())
+                .sequence(account.getLedgerSequence())
+                .type(LedgerEntry.EntryType.OPENING)
+                .amount(account.getBalance().toBigDecimal())
+                .description("Account opened")
+                .createdAt(Instant.now())
+                .build();
+    }
+
+    public void recordOpening(Account account) {
+        ledgerEntryRepository.save(openingEntry(account));
+    }
+
+    /**
+     * Appends an entry for a change already applied to {@code account}'s balance. The caller
+     * must hold the account row, either by a row lock or by having flushed a version-checked
+     * update in the current transaction, so sequence numbers cannot be handed out twice.
+     */
+    public LedgerEntry append(Account account, LedgerEntry.EntryType type, Money amount,
+                              String reference, String description) {
+        long sequence = account.nextLedgerSequence();
+        Instant now = Instant.now();
+        LedgerEntry entry = ledgerEntryRepository.save(LedgerEntry.builder()
+                .accountId(account.getId())
+                .sequence(sequence)
+                .type(type)
+                .amount(amount.toBigDecimal())
+                .reference(reference)
+                .description(description)
+                .createdAt(now)
+                .build());
+        if (sequence % snapshotInterval == 0) {
+            balanceSnapshotRepository.save(BalanceSnapshot.builder()
+                    .accountId(account.getId())
+                    .sequence(sequence)
+                    .balance(account.getBalance().toBigDecimal())
+                    .createdAt(now)
+                    .build());
+        }
+        return entry;
+    }
+
+    public AccountResponse deposit(Long id, MoneyMovementRequest request) {
+        return move(id, request.getAmount(), false, LedgerEntry.EntryType.DEPOSIT, request.getDescription());
+    }
+
+    public AccountResponse withdraw(Long id, MoneyMovementRequest request) {
+        return move(id, request.getAmount(), true, LedgerEntry.EntryType.WITHDRAWAL, request.getDescription());
+    }
+
+    /**
+     * Same locking discipline as transfers: the stripe is taken before the transaction and
+     * the row is locked inside it, so deposits, withdrawals and transfers on one account
+     * serialize without holding a connection while they wait.
+     */
+    private AccountResponse move(Long id, BigDecimal requested, boolean debit, LedgerEntry.EntryType type,
+                                 String description) {
+        int[] stripes = locks.lock(id);
+        try {
+            return transactionTemplate.execute(status -> {
+                shardRouter.route(id);
+                Account account = accountRepository.findAllByIdForUpdate(List.of(id)).stream()
+                        .findFirst()
+                        .orElseThrow(() -> new AccountNotFoundException(id));
+                if (account.getStatus() != Account.AccountStatus.ACTIVE) {
+                    throw new AccountNotActiveException(id);
+                }
+                Money amount = Money.of(requested, account.getCurrency());
+                Money signedAmount = debit ? amount.negate() : amount;
+                Money balance = account.getBalance().plus(signedAmount);
+                if (balance.isNegative()) {
+                    throw new InsufficientFundsException(id);
+                }
+                AccountTotals.Position before = AccountTotals.positionOf(account);
+                account.setBalance(balance);
+                append(account, type, signedAmount, null, description);
+                account = accountRepository.saveAndFlush(account);
+                accountOutbox.updated(account);
+                accountTotals.changed(before, account);
+                accountCache.evictAfterCommit(id);
+                return AccountResponse.fromEntity(account);
+            });
+        } finally {
+            locks.unlock(stripes);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public LedgerPage getStatement(Long accountId, String cursor, int limit) {
+        shardRouter.route(accountId);
+        if (!accountRepository.existsById(accountId)) {
+            throw new AccountNotFoundException(accountId);
+        }
+        long afterSequence = cursor != null ? PageCursor.decode(cursor) : 0L;
+        // Fetch one extra row to learn whether another page exists without a count query.
+        List<LedgerEntry> entries = ledgerEntryRepository.findByAccountIdAndSequenceGreaterThanOrderBySequenceAsc(
+                accountId, afterSequence, PageRequest.of(0, limit + 1));
+        boolean hasMore = entries.size() > limit;
+        List<LedgerEntryResponse> items = entries.stream()
+                .limit(limit)
+                .map(LedgerEntryResponse::fromEntity)
+                .collect(Collectors.toList());
+        String nextCursor = hasMore ? PageCursor.encode(items.get(items.size() - 1).getSequence()) : null;
+        return LedgerPage.builder()
+                .items(items)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    /**
+     * Balance as of {@code at}: the latest checkpoint taken no later than {@code at} plus the
+     * entries appended after it up to {@code at}.
+     */
+    @Transactional(readOnly = true)
+    public BalanceResponse getBalanceAt(Long accountId, Instant at) {
+        shardRouter.route(accountId);
+        Account account = accountRepository.findById(accountId)
+                .orElseThrow(() -> new AccountNotFoundException(accountId));
+        BigDecimal base = BigDecimal.ZERO;
+        long afterSequence = 0L;
+        BalanceSnapshot snapshot = balanceSnapshotRepository
+                .findFirstByAccountIdAndCreatedAtLessThanEqualOrderBySequenceDesc(accountId, at)
+                .orElse(null);
+        if (snapshot != null) {
+            base = snapshot.getBalance();
+            afterSequence = snapshot.getSequence();
+        }
+        BigDecimal balance = base.add(ledgerEntryRepository.sumAfter(accountId, afterSequence, at));
+        return BalanceResponse.builder()
+                .accountId(accountId)
+                .at(at)
+                .balance(balance)
+                .currency(account.getCurrency())
+                .build();
+    }
+}
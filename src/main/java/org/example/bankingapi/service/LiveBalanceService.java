@@ -0,0 +1,431 @@
+package org.example.bankingapi.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.example.bankingapi.dto.AccountResponse;
+import org.example.bankingapi.exception.AccountNotFoundException;
+import org.example.bankingapi.exception.InvalidSubscriptionException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pushes account state to clients watching a set of account ids, as server-sent events or as
+ * long polls. Every committed write to an account (updates, deposits and withdrawals, transfers,
+ * deletes) marks the account dirty in each subscription that watches it; the subscription then
+ * reads the account once and sends it. Writes that land while a send is queued or running are
+ * folded into the next send, which reads the state current at that time, so a slow client gets
+ * fewer messages rather than a growing backlog: what a subscription holds is bounded by the ids
+ * it watches.
+ * <p>
+ * Open connections are parked in the servlet container's async support and hold no thread while
+ * idle. Sends run on a small dispatcher pool with at most one task per subscription queued or
+ * running, so a client that stops reading ties up one dispatcher thread until its write fails,
+ * and never more.
+ */
+@Component
+public class LiveBalanceService implements MeterBinder {
+
+    /**
+     * Version recorded for an account that does not exist.
+     */
+    public static final long ABSENT = -1L;
+
+    private final AccountService accountService;
+    private final AccountJsonCache accountJsonCache;
+    private final int maxIds;
+    private final long streamTimeoutMillis;
+    private final long pollTimeoutMillis;
+    private final ExecutorService dispatcher;
+    private final Map<Long, Set<Subscription>> watchers = new ConcurrentHashMap<>();
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    public LiveBalanceService(AccountService accountService,
+                              AccountJsonCache accountJsonCache,
+                              AccountCache accountCache,
+                              @Value("${banking.live.max-ids:100}") int maxIds,
+                              @Value("${banking.live.stream-timeout:30m}") Duration streamTimeout,
+                              @Value("${banking.live.poll-timeout:25s}") Duration pollTimeout,
+                              @Value("${banking.live.dispatch-threads:4}") int dispatchThreads) {
+        this.accountService = accountService;
+        this.accountJsonCache = accountJsonCache;
+        this.maxIds = maxIds;
+        this.streamTimeoutMillis = streamTimeout.toMillis();
+        this.pollTimeoutMillis = pollTimeout.toMillis();
+        AtomicInteger threads = new AtomicInteger();
+        this.dispatcher = Executors.newFixedThreadPool(dispatchThreads, task -> {
+            Thread thread = new Thread(task, "live-balances-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        accountCache.addEvictionListener(this::changed);
+    }
+
+    /**
+     * Streams each watched account as an {@code account} event, first with its current state and
+     * then after every committed change. An account that is deleted, or never existed, is sent as
+     * a {@code deleted} event carrying its id. A reconnecting client simply subscribes again.
+     */
+    public SseEmitter stream(List<Long> ids) {
+        Set<Long> watched = validate(ids);
+        SseEmitter emitter = new SseEmitter(streamTimeoutMillis);
+        StreamSubscription subscription = new StreamSubscription(watched, emitter);
+        emitter.onCompletion(subscription::unregister);
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(ex -> subscription.unregister());
+        open(subscription, Map.of());
+        return emitter;
+    }
+
+    /**
+     * Answers as soon as a watched account differs from the version the client knows, with the
+     * current state of every account that differs ({@code null} for one that does not exist),
+     * or with 204 once the poll times out. {@code versions} go with {@code ids} by position, and
+     * {@link #ABSENT} stands for an account the client knows does not exist; without versions the
+     * current state is returned straight away.
+     */
+    public DeferredResult<ResponseEntity<Map<Long, AccountResponse>>> poll(List<Long> ids, List<Long> versions) {
+        Set<Long> watched = validate(ids);
+        if (versions != null && versions.size() != ids.size()) {
+            throw new InvalidSubscriptionException(
+                    "Expected one version per account id, got " + versions.size() + " for " + ids.size() + " ids");
+        }
+        Map<Long, Long> known = new HashMap<>();
+        if (versions != null) {
+            for (int i = 0; i < ids.size(); i++) {
+                known.put(ids.get(i), versions.get(i));
+            }
+        }
+        DeferredResult<ResponseEntity<Map<Long, AccountResponse>>> result =
+                new DeferredResult<>(pollTimeoutMillis, ResponseEntity.noContent().build());
+        PollSubscription subscription = new PollSubscription(watched, result);
+        result.onCompletion(subscription::unregister);
+        open(subscription, known);
+        return result;
+    }
+
+    private Set<Long> validate(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            throw new InvalidSubscriptionException("At least one account id is required");
+        }
+        Set<Long> watched = new LinkedHashSet<>(ids);
+        if (watched.contains(null)) {
+            throw new InvalidSubscriptionException("Account ids must not be empty");
+        }
+        if (watched.size() > maxIds) {
+            throw new InvalidSubscriptionException("At most " + maxIds + " account ids per subscription, got " + watched.size());
+        }
+        return watched;
+    }
+
+    /**
+     * Registers before the first read, so a write that commits in between is not missed: it
+     * marks the account again and the subscription reads it once more.
+     */
+    private void open(Subscription subscription, Map<Long, Long> known) {
+        subscription.delivered.putAll(known);
+        subscriptions.add(subscription);
+        for (Long id : subscription.ids) {
+            watchers.compute(id, (key, watching) -> {
+                Set<Subscription> set = watching != null ? watching : ConcurrentHashMap.newKeySet();
+                set.add(subscription);
+                return set;
+            });
+        }
+        subscription.changedAll();
+    }
+
+    private void changed(Long id) {
+        Set<Subscription> watching = watchers.get(id);
+        if (watching != null) {
+            watching.forEach(subscription -> subscription.changed(id));
+        }
+    }
+
+    private AccountResponse load(Long id) {
+        try {
+            return accountService.getAccountById(id);
+        } catch (AccountNotFoundException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Keeps idle streams alive through proxies and notices clients that went away without
+     * closing the connection.
+     */
+    @Scheduled(fixedDelayString = "${banking.live.heartbeat:PT30S}")
+    public void heartbeat() {
+        subscriptions.forEach(Subscription::ping);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+    }
+
+    public int getSubscribers() {
+        return subscriptions.size();
+    }
+
+    public long getSent() {
+        return sent.sum();
+    }
+
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("banking.live.subscribers", subscriptions, Set::size)
+                .description("Open live-balance streams and long polls")
+                .register(registry);
+        FunctionCounter.builder("banking.live.sent", sent, LongAdder::sum)
+                .description("Account states pushed to live-balance subscribers")
+                .register(registry);
+        FunctionCounter.builder("banking.live.coalesced", coalesced, LongAdder::sum)
+                .description("Account changes folded into a send already pending for the subscriber")
+                .register(registry);
+    }
+
+    private abstract class Subscription {
+
+        private final Set<Long> ids;
+        /**
+         * Version last sent per account; only the one send running at a time touches it.
+         */
+        private final Map<Long, Long> delivered = new HashMap<>();
+        private final Set<Long> dirty = new LinkedHashSet<>();
+        private boolean pingDue;
+        private boolean scheduled;
+        private boolean closed;
+
+        private Subscription(Set<Long> ids) {
+            this.ids = ids;
+        }
+
+        private void changed(Long id) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                if (!dirty.add(id)) {
+                    coalesced.increment();
+                }
+                if (scheduled) {
+                    return;
+                }
+                scheduled = true;
+            }
+            dispatch();
+        }
+
+        /**
+         * Marks every watched account at once, so the first round answers for all of them.
+         */
+        private void changedAll() {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                dirty.addAll(ids);
+                if (scheduled) {
+                    return;
+                }
+                scheduled = true;
+            }
+            dispatch();
+        }
+
+        void ping() {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                pingDue = true;
+                if (scheduled) {
+                    return;
+                }
+                scheduled = true;
+            }
+            dispatch();
+        }
+
+        private void dispatch() {
+            try {
+                dispatcher.execute(this::send);
+            } catch (RejectedExecutionException ex) {
+                close();
+            }
+        }
+
+        /**
+         * One round: reads the dirty accounts, sends those whose version moved, then hands the
+         * dispatcher thread back and queues another round if more changes arrived meanwhile.
+         */
+        private void send() {
+            List<Long> batch;
+            boolean ping;
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                batch = new ArrayList<>(dirty);
+                dirty.clear();
+                ping = pingDue;
+                pingDue = false;
+            }
+            boolean open;
+            try {
+                Map<Long, AccountResponse> changes = new LinkedHashMap<>();
+                for (Long id : batch) {
+                    AccountResponse account = load(id);
+                    long version = account != null ? account.getVersion() : ABSENT;
+                    Long previous = delivered.put(id, version);
+                    if (previous == null || previous != version) {
+                        changes.put(id, account);
+                    }
+                }
+                open = deliver(changes, ping);
+            } catch (RuntimeException ex) {
+                open = false;
+            }
+            boolean again;
+            synchronized (this) {
+                again = open && !closed && (!dirty.isEmpty() || pingDue);
+                if (!again) {
+                    scheduled = false;
+                }
+            }
+            if (again) {
+                dispatch();
+            } else if (!open) {
+                close();
+            }
+        }
+
+        /**
+         * @return {@code false} once the subscription is done
+         */
+        abstract boolean deliver(Map<Long, AccountResponse> changes, boolean ping);
+
+        abstract void terminate();
+
+        void unregister() {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+            }
+            subscriptions.remove(this);
+            for (Long id : ids) {
+                watchers.computeIfPresent(id, (key, watching) -> {
+                    watching.remove(this);
+                    return watching.isEmpty() ? null : watching;
+                });
+            }
+        }
+
+        private void close() {
+            unregister();
+            terminate();
+        }
+    }
+
+    private final class StreamSubscription extends Subscription {
+
+        private final SseEmitter emitter;
+
+        private StreamSubscription(Set<Long> ids, SseEmitter emitter) {
+            super(ids);
+            this.emitter = emitter;
+        }
+
+        @Override
+        boolean deliver(Map<Long, AccountResponse> changes, boolean ping) {
+            try {
+                for (Map.Entry<Long, AccountResponse> change : changes.entrySet()) {
+                    if (change.getValue() != null) {
+                        emitter.send(SseEmitter.event()
+                                .name("account")
+                                .data(accountJsonCache.get(change.getValue()), MediaType.APPLICATION_JSON));
+                    } else {
+                        emitter.send(SseEmitter.event().name("deleted").data(change.getKey()));
+                    }
+                    sent.increment();
+                }
+                if (ping && changes.isEmpty()) {
+                    emitter.send(SseEmitter.event().comment("ping"));
+                }
+                return true;
+            } catch (IOException | IllegalStateException ex) {
+                return false;
+            }
+        }
+
+        @Override
+        void terminate() {
+            emitter.complete();
+        }
+    }
+
+    private final class PollSubscription extends Subscription {
+
+        private final DeferredResult<ResponseEntity<Map<Long, AccountResponse>>> result;
+
+        private PollSubscription(Set<Long> ids, DeferredResult<ResponseEntity<Map<Long, AccountResponse>>> result) {
+            super(ids);
+            this.result = result;
+        }
+
+        @Override
+        void ping() {
+            // The poll timeout already bounds how long the connection stays idle.
+        }
+
+        @Override
+        boolean deliver(Map<Long, AccountResponse> changes, boolean ping) {
+            if (changes.isEmpty()) {
+                return true;
+            }
+            if (result.setResult(ResponseEntity.ok(changes))) {
+                sent.add(changes.size());
+            }
+            return false;
+        }
+
+        @Override
+        void terminate() {
+            // A no-op once the result is set; otherwise a failed read fails the request.
+            result.setErrorResult(new IllegalStateException("Live balance poll closed"));
+        }
+    }
+}
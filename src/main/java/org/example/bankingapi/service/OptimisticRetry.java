@@ -0,0 +1,127 @@
+package org.example.bankingapi.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Runs an action in its own transaction and re-runs it when the commit loses an optimistic
+ * version check. Backoff is exponential with full jitter, so colliding writers spread out
+ * instead of retrying in lockstep.
+ */
+@Component
+public class OptimisticRetry implements MeterBinder {
+
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final long baseBackoffMicros;
+    private final long maxBackoffMicros;
+
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder conflicts = new LongAdder();
+    private final LongAdder exhausted = new LongAdder();
+
+    public OptimisticRetry(PlatformTransactionManager transactionManager,
+                           @Value("${banking.retry.max-attempts:5}") int maxAttempts,
+                           @Value("${banking.retry.base-backoff-micros:500}") long baseBackoffMicros,
+                           @Value("${banking.retry.max-backoff-micros:50000}") long maxBackoffMicros) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("Max attempts must be at least 1: " + maxAttempts);
+        }
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxAttempts = maxAttempts;
+        this.baseBackoffMicros = baseBackoffMicros;
+        this.maxBackoffMicros = maxBackoffMicros;
+    }
+
+    /**
+     * @param onExhausted builds the exception thrown once every attempt has conflicted
+     */
+    public <T> T execute(Supplier<T> action, Supplier<? extends RuntimeException> onExhausted) {
+        return run(action, onExhausted, maxAttempts);
+    }
+
+    /**
+     * Single attempt for conditional writes: a conflict means the caller's precondition no
+     * longer holds, so retrying against newer state would be wrong.
+     */
+    public <T> T executeOnce(Supplier<T> action, Supplier<? extends RuntimeException> onConflict) {
+        return run(action, onConflict, 1);
+    }
+
+    private <T> T run(Supplier<T> action, Supplier<? extends RuntimeException> onExhausted, int maxAttempts) {
+        executions.increment();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> action.get());
+            } catch (OptimisticLockingFailureException ex) {
+                conflicts.increment();
+                if (attempt >= maxAttempts) {
+                    exhausted.increment();
+                    RuntimeException failure = onExhausted.get();
+                    failure.initCause(ex);
+                    throw failure;
+                }
+                backoff(attempt);
+            }
+        }
+    }
+
+    private void backoff(int attempt) {
+        long ceiling = Math.min(maxBackoffMicros, baseBackoffMicros << Math.min(attempt - 1, 20));
+        long micros = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        try {
+            TimeUnit.MICROSECONDS.sleep(micros);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while backing off", ex);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("banking.retry.executions", executions, LongAdder::sum)
+                .description("Optimistic writes attempted")
+                .register(registry);
+        FunctionCounter.builder("banking.retry.conflicts", conflicts, LongAdder::sum)
+                .description("Commits that lost an optimistic version check")
+                .register(registry);
+        FunctionCounter.builder("banking.retry.exhausted", exhausted, LongAdder::sum)
+                .description("Writes that conflicted on every attempt")
+                .register(registry);
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public long getExecutions() {
+        return executions.sum();
+    }
+
+    public long getConflicts() {
+        return conflicts.sum();
+    }
+
+    public long getExhausted() {
+        return exhausted.sum();
+    }
+
+    /**
+     * Conflicts per execution; above 1.0 means the average write needed more than one retry.
+     */
+    public double getConflictRate() {
+        long total = executions.sum();
+        return total == 0 ? 0.0 : (double) conflicts.sum() / total;
+    }
+}
@@ -0,0 +1,90 @@
+package org.example.bankingapi.service;
+
+import org.example.bankingapi.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Encodes the keyset position (last seen id) as an opaque, URL-safe token so clients
+ * cannot depend on its internal format.
+ */
+public final class PageCursor {
+
+    private static final String PREFIX = "id:";
+    private static final String KEYSET_PREFIX = "k:";
+    private static final char SEPARATOR = '|';
+
+    private PageCursor() {
+    }
+
+    public static String encode(long lastId) {
+        return toToken(PREFIX + lastId);
+    }
+
+    public static long decode(String cursor) {
+        String raw = fromToken(cursor);
+        if (!raw.startsWith(PREFIX)) {
+            throw new InvalidCursorException(cursor);
+        }
+        try {
+            return Long.parseLong(raw.substring(PREFIX.length()));
+        } catch (NumberFormatException ex) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+
+    /**
+     * Position in a listing ordered by {@code sort} and then id: the sort value and the id of
+     * the last row returned. The sort is part of the token, so a cursor cannot be replayed
+     * against a different order.
+     */
+    public static String encode(String sort, String lastValue, long lastId) {
+        return toToken(KEYSET_PREFIX + sort + SEPARATOR + lastValue + SEPARATOR + lastId);
+    }
+
+    public static Keyset decode(String cursor, String sort) {
+        String raw = fromToken(cursor);
+        String expected = KEYSET_PREFIX + sort + SEPARATOR;
+        int idStart = raw.lastIndexOf(SEPARATOR);
+        if (!raw.startsWith(expected) || idStart < expected.length()) {
+            throw new InvalidCursorException(cursor);
+        }
+        try {
+            return new Keyset(raw.substring(expected.length(), idStart), Long.parseLong(raw.substring(idStart + 1)));
+        } catch (NumberFormatException ex) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+
+    private static String toToken(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String fromToken(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+
+    public static final class Keyset {
+
+        private final String value;
+        private final long id;
+
+        private Keyset(String value, long id) {
+            this.value = value;
+            this.id = id;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        public long getId() {
+            return id;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package org.example.bankingapi.service;
+
+import org.example.bankingapi.dto.BalanceTotal;
+import org.example.bankingapi.dto.BalanceTotalsResponse;
+import org.example.bankingapi.entity.Account;
+import org.example.bankingapi.exception.InvalidReportException;
+import org.example.bankingapi.fx.FxRateTable;
+import org.example.bankingapi.fx.FxRates;
+import org.example.bankingapi.repository.AccountTotalsRepository;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Balance totals across accounts, converted into one reporting currency. The per-currency and
+ * per-status sums come either from {@link AccountTotals} or straight from the database; either
+ * way the work here is proportional to the number of currencies, not accounts. Every figure of
+ * one report is converted with the same rate table version, which the response names.
+ */
+@Service
+public class ReportService {
+
+    public static final String BY_CURRENCY = "currency";
+    public static final String BY_STATUS = "status";
+    public static final String BY_CURRENCY_AND_STATUS = "currency,status";
+
+    public static final String TRACKED = "tracked";
+    public static final String DATABASE = "database";
+
+    private static final Comparator<BalanceTotal> ORDER = Comparator
+            .comparing(BalanceTotal::getCurrency, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(BalanceTotal::getStatus, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final AccountTotals accountTotals;
+    private final AccountTotalsRepository totalsRepository;
+    private final FxRateTable rateTable;
+
+    public ReportService(AccountTotals accountTotals, AccountTotalsRepository totalsRepository, FxRateTable rateTable) {
+        this.accountTotals = accountTotals;
+        this.totalsRepository = totalsRepository;
+        this.rateTable = rateTable;
+    }
+
+    /**
+     * @param groupBy           {@code currency}, {@code status} or {@code currency,status}
+     * @param reportingCurrency currency of the converted figures; the rate table's base if {@code null}
+     * @param source            {@code tracked} or {@code database}; tracked if that is enabled if {@code null}
+     */
+    public BalanceTotalsResponse balanceTotals(String groupBy, String reportingCurrency, String source) {
+        String grouping = groupBy == null ? BY_CURRENCY : groupBy;
+        if (!grouping.equals(BY_CURRENCY) && !grouping.equals(BY_STATUS) && !grouping.equals(BY_CURRENCY_AND_STATUS)) {
+            throw new InvalidReportException("groupBy must be one of currency, status or currency,status: " + groupBy);
+        }
+        String from = source == null ? (accountTotals.isEnabled() ? TRACKED : DATABASE) : source;
+        List<AccountTotalsRepository.Group> groups;
+        if (from.equals(TRACKED)) {
+            if (!accountTotals.isEnabled()) {
+                throw new InvalidReportException("Tracked totals are disabled; use source=database");
+            }
+            groups = accountTotals.snapshot();
+        } else if (from.equals(DATABASE)) {
+            groups = totalsRepository.totals();
+        } else {
+            throw new InvalidReportException("source must be tracked or database: " + source);
+        }
+
+        // One table for the whole report, even if a reload swaps it in meanwhile.
+        FxRates rates = rateTable.current();
+        String target = reportingCurrency == null ? rates.getBase() : reportingCurrency;
+        if (!rates.supports(target)) {
+            throw new InvalidReportException("No exchange rate for reporting currency " + target
+                    + " in rate table " + rates.getVersion());
+        }
+
+        Map<String, Sum> sums = new HashMap<>();
+        long accounts = 0;
+        BigDecimal total = BigDecimal.ZERO;
+        for (AccountTotalsRepository.Group group : groups) {
+            BigDecimal balance = BigDecimal.valueOf(group.getUnits(), 2);
+            BigDecimal converted = balance.multiply(rates.rate(group.getCurrency(), target));
+            String currency = grouping.equals(BY_STATUS) ? null : group.getCurrency();
+            Account.AccountStatus status = grouping.equals(BY_CURRENCY) ? null : group.getStatus();
+            sums.computeIfAbsent(currency + "/" + status, key -> new Sum(currency, status))
+                    .add(group.getAccounts(), balance, converted);
+            accounts += group.getAccounts();
+            total = total.add(converted);
+        }
+
+        List<BalanceTotal> totals = new ArrayList<>(sums.size());
+        for (Sum sum : sums.values()) {
+            totals.add(BalanceTotal.builder()
+                    .currency(sum.currency)
+                    .status(sum.status)
+                    .accounts(sum.accounts)
+                    .balance(sum.currency == null ? null : sum.balance)
+                    .converted(FxRates.round(sum.converted, target))
+                    .build());
+        }
+        totals.sort(ORDER);
+        return BalanceTotalsResponse.builder()
+                .groupBy(grouping)
+                .source(from)
+                .reportingCurrency(target)
+                .ratesVersion(rates.getVersion())
+                .accounts(accounts)
+                .total(FxRates.round(total, target))
+                .totals(totals)
+                .build();
+    }
+
+    private static final class Sum {
+
+        private final String currency;
+        private final Account.AccountStatus status;
+        private long accounts;
+        private BigDecimal balance = BigDecimal.ZERO.setScale(2);
+        private BigDecimal converted = BigDecimal.ZERO;
+
+        Sum(String currency, Account.AccountStatus status) {
+            this.currency = currency;
+            this.status = status;
+        }
+
+        void add(long accounts, BigDecimal balance, BigDecimal converted) {
+            this.accounts += accounts;
+            this.balance = this.balance.add(balance);
+            this.converted = this.converted.add(converted);
+        }
+    }
+}
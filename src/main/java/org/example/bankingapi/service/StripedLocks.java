@@ -0,0 +1,64 @@
+package org.example.bankingapi.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A fixed pool of locks shared by account id. Two accounts only contend when they hash to
+ * the same stripe, so a hot account never blocks unrelated ones, and memory stays bounded
+ * regardless of how many accounts exist. Shared by every writer that moves money.
+ */
+@Component
+public final class StripedLocks {
+
+    private final ReentrantLock[] locks;
+    private final int mask;
+
+    public StripedLocks(@Value("${banking.transfers.lock-stripes:1024}") int stripes) {
+        if (stripes <= 0 || Integer.bitCount(stripes) != 1) {
+            throw new IllegalArgumentException("Stripe count must be a positive power of two: " + stripes);
+        }
+        this.locks = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        this.mask = stripes - 1;
+    }
+
+    public int stripeFor(long id) {
+        int h = Long.hashCode(id);
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    /**
+     * Locks the stripes of all given ids in ascending stripe order. Every caller acquires
+     * stripes in the same global order, so no two callers can wait on each other in a cycle.
+     * Ids sharing a stripe take it once.
+     *
+     * @return the acquired stripe indexes, to be passed to {@link #unlock(int[])}
+     */
+    public int[] lock(long... ids) {
+        int[] stripes = Arrays.stream(ids).mapToInt(this::stripeFor).sorted().distinct().toArray();
+        int acquired = 0;
+        try {
+            for (int stripe : stripes) {
+                locks[stripe].lockInterruptibly();
+                acquired++;
+            }
+        } catch (InterruptedException ex) {
+            unlock(Arrays.copyOf(stripes, acquired));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for account locks", ex);
+        }
+        return stripes;
+    }
+
+    public void unlock(int[] stripes) {
+        for (int i = stripes.length - 1; i >= 0; i--) {
+            locks[stripes[i]].unlock();
+        }
+    }
+}
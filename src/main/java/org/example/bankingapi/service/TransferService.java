@@ -0,0 +1,127 @@
+package org.example.bankingapi.service;
+
+import org.example.bankingapi.dto.TransferRequest;
+import org.example.bankingapi.dto.TransferResponse;
+import org.example.bankingapi.entity.Account;
+import org.example.bankingapi.entity.LedgerEntry;
+import org.example.bankingapi.entity.Money;
+import org.example.bankingapi.exception.AccountNotFoundException;
+import org.example.bankingapi.exception.InsufficientFundsException;
+import org.example.bankingapi.exception.InvalidTransferException;
+import org.example.bankingapi.outbox.AccountOutbox;
+import org.example.bankingapi.repository.AccountRepository;
+import org.example.bankingapi.shard.ShardRouter;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+public class TransferService {
+
+    private final AccountRepository accountRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final AccountCache accountCache;
+    private final StripedLocks locks;
+    private final LedgerService ledgerService;
+    private final AccountOutbox accountOutbox;
+    private final ShardRouter shardRouter;
+
+    public TransferService(AccountRepository accountRepository,
+                           AccountCache accountCache,
+                           PlatformTransactionManager transactionManager,
+                           StripedLocks locks,
+                           LedgerService ledgerService,
+                           AccountOutbox accountOutbox,
+                           ShardRouter shardRouter) {
+        this.accountRepository = accountRepository;
+        this.accountCache = accountCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.locks = locks;
+        this.ledgerService = ledgerService;
+        this.accountOutbox = accountOutbox;
+        this.shardRouter = shardRouter;
+    }
+
+    /**
+     * Moves {@code amount} between two accounts atomically. The in-memory stripes are taken
+     * before the transaction starts and released only after it commits, so waiting threads
+     * never hold a pooled connection and never observe uncommitted balances. Both accounts
+     * must be on one shard, since a transfer is a single local transaction.
+     */
+    public TransferResponse transfer(TransferRequest request) {
+        long fromId = request.getFromAccountId();
+        long toId = request.getToAccountId();
+        if (fromId == toId) {
+            throw new InvalidTransferException("Cannot transfer to the same account: " + fromId);
+        }
+        if (shardRouter.shardOf(fromId) != shardRouter.shardOf(toId)) {
+            throw new InvalidTransferException("Accounts " + fromId + " and " + toId + " are on different shards");
+        }
+        int[] stripes = locks.lock(fromId, toId);
+        try {
+            return transactionTemplate.execute(status -> {
+                shardRouter.route(fromId, toId);
+                return doTransfer(fromId, toId, request.getAmount());
+            });
+        } finally {
+            locks.unlock(stripes);
+        }
+    }
+
+    private TransferResponse doTransfer(long fromId, long toId, BigDecimal requested) {
+        List<Account> accounts = accountRepository.findAllByIdForUpdate(List.of(fromId, toId));
+        Account from = find(accounts, fromId);
+        Account to = find(accounts, toId);
+
+        requireActive(from);
+        requireActive(to);
+        if (!from.getCurrency().equals(to.getCurrency())) {
+            throw new InvalidTransferException("Currency mismatch: " + from.getCurrency() + " -> " + to.getCurrency());
+        }
+        Money amount = Money.of(requested, from.getCurrency());
+        if (from.getBalance().compareTo(amount) < 0) {
+            throw new InsufficientFundsException(fromId);
+        }
+
+        // Both legs share one reference so a statement line can be traced to its counterpart.
+        String transferId = UUID.randomUUID().toString();
+        from.setBalance(from.getBalance().minus(amount));
+        to.setBalance(to.getBalance().plus(amount));
+        ledgerService.append(from, LedgerEntry.EntryType.TRANSFER_OUT, amount.negate(), transferId, "Transfer to " + toId);
+        ledgerService.append(to, LedgerEntry.EntryType.TRANSFER_IN, amount, transferId, "Transfer from " + fromId);
+        // Flushed here rather than at commit so the change events carry the new versions.
+        accountRepository.flush();
+        accountOutbox.updated(from, to);
+        // Both accounts are active and share a currency, so the tracked totals do not move.
+        accountCache.evictAfterCommit(fromId, toId);
+
+        return TransferResponse.builder()
+                .transferId(transferId)
+                .fromAccountId(fromId)
+                .toAccountId(toId)
+                .amount(requested)
+                .currency(from.getCurrency())
+                .fromBalance(from.getBalance().toBigDecimal())
+                .toBalance(to.getBalance().toBigDecimal())
+                .completedAt(Instant.now())
+                .build();
+    }
+
+    private static Account find(List<Account> accounts, long id) {
+        return accounts.stream()
+                .filter(account -> account.getId() == id)
+                .findFirst()
+                .orElseThrow(() -> new AccountNotFoundException(id));
+    }
+
+    private static void requireActive(Account account) {
+        if (account.getStatus() != Account.AccountStatus.ACTIVE) {
+            throw new InvalidTransferException("Account is not active: " + account.getId());
+        }
+    }
+}
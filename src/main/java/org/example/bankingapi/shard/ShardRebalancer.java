@@ -0,0 +1,207 @@
+package org.example.bankingapi.shard;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.example.bankingapi.dto.ShardMoveResponse;
+import org.example.bankingapi.dto.ShardStatsResponse;
+import org.example.bankingapi.exception.InvalidShardMoveException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.ResultSetMetaData;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.stream.Collectors;
+
+/**
+ * Moves a range of hash slots, with their accounts, ledger entries, balance snapshots and
+ * outbox events, to another shard while the service keeps running. Routed work on the range
+ * waits for the move; every other slot is unaffected, so large moves are best made in several
+ * small ranges.
+ * <p>
+ * A move copies the rows to the target in one transaction, records the new owner, then deletes
+ * the rows from the source in one transaction. Until the delete, listings skip the source copies
+ * because the source no longer owns the slots. The slot directory and the locks live in this
+ * process, so moves are for a single instance; other instances must be restarted to see them.
+ */
+@Component
+public class ShardRebalancer implements MeterBinder {
+
+    private static final int BATCH_SIZE = 500;
+
+    /**
+     * Tables holding per-account rows, with the column that carries the account id.
+     */
+    private static final List<String[]> TABLES = List.of(
+            new String[]{"accounts", "id"},
+            new String[]{"ledger_entries", "account_id"},
+            new String[]{"balance_snapshots", "account_id"},
+            new String[]{"account_events", "account_id"});
+
+    private final ShardRouter shardRouter;
+
+    private final LongAdder slotsMoved = new LongAdder();
+    private final LongAdder accountsMoved = new LongAdder();
+
+    public ShardRebalancer(ShardRouter shardRouter) {
+        this.shardRouter = shardRouter;
+    }
+
+    public List<ShardStatsResponse> stats() {
+        List<ShardStatsResponse> stats = new ArrayList<>();
+        if (!shardRouter.isEnabled()) {
+            return stats;
+        }
+        for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+            Long accounts = new JdbcTemplate(shardRouter.dataSource(shard))
+                    .queryForObject("SELECT COUNT(*) FROM accounts", Long.class);
+            stats.add(ShardStatsResponse.builder()
+                    .shard(shard)
+                    .slots(shardRouter.slotCount(shard))
+                    .accounts(accounts != null ? accounts : 0L)
+                    .build());
+        }
+        return stats;
+    }
+
+    /**
+     * Moves the slots {@code fromSlot} to {@code toSlot}, inclusive, to {@code targetShard}.
+     * Slots the target already owns are left alone, so a failed move can simply be repeated.
+     */
+    public synchronized ShardMoveResponse move(int fromSlot, int toSlot, int targetShard) {
+        if (!shardRouter.isEnabled()) {
+            throw new InvalidShardMoveException("Sharding is not enabled");
+        }
+        if (fromSlot < 0 || toSlot >= ShardSlots.SLOTS || fromSlot > toSlot) {
+            throw new InvalidShardMoveException("Slots must satisfy 0 <= fromSlot <= toSlot < " + ShardSlots.SLOTS);
+        }
+        if (targetShard < 0 || targetShard >= shardRouter.getShardCount()) {
+            throw new InvalidShardMoveException("No shard " + targetShard + " (shards: " + shardRouter.getShardCount() + ")");
+        }
+        long start = System.nanoTime();
+        int[] moved = new int[TABLES.size()];
+        int slots = 0;
+        int slot = fromSlot;
+        // Consecutive slots on the same source shard move together.
+        while (slot <= toSlot) {
+            int source = shardRouter.ownerOf(slot);
+            int end = slot;
+            while (end < toSlot && shardRouter.ownerOf(end + 1) == source) {
+                end++;
+            }
+            if (source != targetShard) {
+                int[] rows = moveRange(slot, end, targetShard);
+                for (int i = 0; i < rows.length; i++) {
+                    moved[i] += rows[i];
+                }
+                slots += end - slot + 1;
+            }
+            slot = end + 1;
+        }
+        slotsMoved.add(slots);
+        accountsMoved.add(moved[0]);
+        return ShardMoveResponse.builder()
+                .fromSlot(fromSlot)
+                .toSlot(toSlot)
+                .targetShard(targetShard)
+                .slotsMoved(slots)
+                .accountsMoved(moved[0])
+                .ledgerEntriesMoved(moved[1])
+                .snapshotsMoved(moved[2])
+                .durationMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start))
+                .build();
+    }
+
+    private int[] moveRange(int fromSlot, int toSlot, int targetShard) {
+        List<Lock> locks = shardRouter.lockForMove(fromSlot, toSlot);
+        try {
+            // Read again under the locks: another move may have finished in the meantime.
+            int source = shardRouter.ownerOf(fromSlot);
+            if (source == targetShard) {
+                return new int[TABLES.size()];
+            }
+            DataSource sourceDataSource = shardRouter.dataSource(source);
+            DataSource targetDataSource = shardRouter.dataSource(targetShard);
+            JdbcTemplate sourceJdbc = new JdbcTemplate(sourceDataSource);
+            JdbcTemplate targetJdbc = new JdbcTemplate(targetDataSource);
+
+            int[] rows = new TransactionTemplate(new DataSourceTransactionManager(targetDataSource)).execute(status -> {
+                int[] copied = new int[TABLES.size()];
+                for (int i = 0; i < TABLES.size(); i++) {
+                    copied[i] = copy(sourceJdbc, targetJdbc, TABLES.get(i)[0], TABLES.get(i)[1], fromSlot, toSlot);
+                }
+                return copied;
+            });
+            shardRouter.assign(fromSlot, toSlot, targetShard);
+            new TransactionTemplate(new DataSourceTransactionManager(sourceDataSource)).executeWithoutResult(status -> {
+                // Children first, the way a cascading delete would go.
+                for (int i = TABLES.size() - 1; i >= 0; i--) {
+                    sourceJdbc.update("DELETE FROM " + TABLES.get(i)[0] + " WHERE " + slotCondition(TABLES.get(i)[1]),
+                            fromSlot, toSlot);
+                }
+            });
+            return rows;
+        } finally {
+            locks.forEach(Lock::unlock);
+        }
+    }
+
+    /**
+     * Streams the rows of the slots from source to target in insert batches, column for
+     * column, so the copy needs no knowledge of the table beyond its account id column.
+     */
+    private static int copy(JdbcTemplate source, JdbcTemplate target, String table, String accountIdColumn,
+                            int fromSlot, int toSlot) {
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        String[] insert = new String[1];
+        int[] count = new int[1];
+        source.query("SELECT * FROM " + table + " WHERE " + slotCondition(accountIdColumn), (RowCallbackHandler) rs -> {
+            ResultSetMetaData metaData = rs.getMetaData();
+            int columns = metaData.getColumnCount();
+            if (insert[0] == null) {
+                List<String> names = new ArrayList<>(columns);
+                for (int i = 1; i <= columns; i++) {
+                    names.add(metaData.getColumnName(i));
+                }
+                insert[0] = "INSERT INTO " + table + " (" + String.join(", ", names) + ") VALUES ("
+                        + names.stream().map(name -> "?").collect(Collectors.joining(", ")) + ")";
+            }
+            Object[] values = new Object[columns];
+            for (int i = 1; i <= columns; i++) {
+                values[i - 1] = rs.getObject(i);
+            }
+            batch.add(values);
+            count[0]++;
+            if (batch.size() == BATCH_SIZE) {
+                target.batchUpdate(insert[0], batch);
+                batch.clear();
+            }
+        }, fromSlot, toSlot);
+        if (!batch.isEmpty()) {
+            target.batchUpdate(insert[0], batch);
+        }
+        return count[0];
+    }
+
+    private static String slotCondition(String accountIdColumn) {
+        return "MOD(" + accountIdColumn + ", " + ShardSlots.SLOTS + ") BETWEEN ? AND ?";
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("banking.sharding.slots-moved", slotsMoved, LongAdder::sum)
+                .description("Hash slots moved to another shard")
+                .register(registry);
+        FunctionCounter.builder("banking.sharding.accounts-moved", accountsMoved, LongAdder::sum)
+                .description("Accounts moved to another shard with their slot")
+                .register(registry);
+    }
+}
@@ -0,0 +1,392 @@
+package org.example.bankingapi.shard;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.example.bankingapi.exception.ShardSlotMovedException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Decides which shard holds an account and binds the current work to it. The primary
+ * {@link DataSource} consults {@link #currentShard()} when a connection is first used, so a
+ * transaction runs on the shard it was routed to; unrouted work, such as the idempotency
+ * records, runs on shard 0.
+ * <p>
+ * Slot owners are kept in {@code shard_slots} on shard 0 and loaded at startup. Every routed
+ * operation holds a read lock on the slots it touches until it completes, which is what lets
+ * {@link ShardRebalancer} move a slot while the service keeps running.
+ * <p>
+ * Without sharding there are no shard databases: every call runs its work directly and the
+ * single database counts as shard 0.
+ */
+public class ShardRouter implements MeterBinder, DisposableBean {
+
+    private static final ThreadLocal<Binding> CURRENT = new ThreadLocal<>();
+
+    private final List<DataSource> dataSources;
+    private final AtomicIntegerArray owners = new AtomicIntegerArray(ShardSlots.SLOTS);
+    private final ReentrantReadWriteLock[] slotLocks = new ReentrantReadWriteLock[ShardSlots.SLOTS];
+    private final JdbcTemplate directory;
+
+    private final LongAdder routed = new LongAdder();
+    private final LongAdder scatters = new LongAdder();
+
+    public static ShardRouter disabled() {
+        return new ShardRouter(List.of());
+    }
+
+    /**
+     * @param dataSources one per shard, in shard order; shard 0 also holds the slot directory
+     */
+    public ShardRouter(List<DataSource> dataSources) {
+        this.dataSources = List.copyOf(dataSources);
+        for (int slot = 0; slot < ShardSlots.SLOTS; slot++) {
+            slotLocks[slot] = new ReentrantReadWriteLock();
+        }
+        this.directory = dataSources.isEmpty() ? null : new JdbcTemplate(dataSources.get(0));
+        if (directory != null) {
+            loadDirectory();
+        }
+    }
+
+    /**
+     * Reads the slot owners, or spreads the slots evenly in contiguous ranges on first start.
+     */
+    private void loadDirectory() {
+        directory.execute("CREATE TABLE IF NOT EXISTS shard_slots (slot INT PRIMARY KEY, shard INT NOT NULL)");
+        List<int[]> rows = directory.query("SELECT slot, shard FROM shard_slots",
+                (rs, rowNum) -> new int[]{rs.getInt("slot"), rs.getInt("shard")});
+        if (rows.isEmpty()) {
+            List<Object[]> assignments = new ArrayList<>(ShardSlots.SLOTS);
+            for (int slot = 0; slot < ShardSlots.SLOTS; slot++) {
+                int shard = (int) ((long) slot * dataSources.size() / ShardSlots.SLOTS);
+                owners.set(slot, shard);
+                assignments.add(new Object[]{slot, shard});
+            }
+            directory.batchUpdate("INSERT INTO shard_slots (slot, shard) VALUES (?, ?)", assignments);
+            return;
+        }
+        if (rows.size() != ShardSlots.SLOTS) {
+            throw new IllegalStateException("shard_slots holds " + rows.size() + " slots, expected " + ShardSlots.SLOTS);
+        }
+        for (int[] row : rows) {
+            if (row[1] >= dataSources.size()) {
+                throw new IllegalStateException("Slot " + row[0] + " belongs to shard " + row[1]
+                        + ", but only " + dataSources.size() + " shards are configured");
+            }
+            owners.set(row[0], row[1]);
+        }
+    }
+
+    public boolean isEnabled() {
+        return directory != null;
+    }
+
+    public int getShardCount() {
+        return isEnabled() ? dataSources.size() : 1;
+    }
+
+    public List<Integer> shards() {
+        return IntStream.range(0, getShardCount()).boxed().collect(Collectors.toList());
+    }
+
+    public int ownerOf(int slot) {
+        return isEnabled() ? owners.get(slot) : 0;
+    }
+
+    public int shardOf(long accountId) {
+        return ownerOf(ShardSlots.slotOf(accountId));
+    }
+
+    public int shardOf(String accountNumber) {
+        return ownerOf(ShardSlots.slotOf(accountNumber));
+    }
+
+    public boolean isOwner(int shard, long accountId) {
+        return shardOf(accountId) == shard;
+    }
+
+    /**
+     * Binds the current transaction to the shard of the given accounts. Must be called before
+     * the transaction's first statement; the binding and the slot locks are released when the
+     * transaction completes. The slots are locked in ascending order, the order
+     * {@link #lockForMove} takes them in, so a transfer cannot deadlock with a move whatever
+     * order it names its accounts in.
+     *
+     * @throws ShardSlotMovedException if the accounts, or the transaction so far, span shards
+     */
+    public void route(long... accountIds) {
+        if (!isEnabled()) {
+            return;
+        }
+        lockSlots(LongStream.of(accountIds).mapToInt(ShardSlots::slotOf));
+    }
+
+    /**
+     * Binds the current transaction to the shard of the given account numbers, like
+     * {@link #route(long...)}.
+     */
+    public void route(String... accountNumbers) {
+        if (!isEnabled()) {
+            return;
+        }
+        lockSlots(Stream.of(accountNumbers).mapToInt(ShardSlots::slotOf));
+    }
+
+    private void lockSlots(IntStream slots) {
+        Binding binding = transactionBinding();
+        for (int slot : slots.distinct().sorted().toArray()) {
+            binding.add(slot);
+        }
+    }
+
+    private Binding transactionBinding() {
+        Binding binding = CURRENT.get();
+        if (binding != null) {
+            return binding;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Routing by account needs a transaction; use onShardOf outside one");
+        }
+        binding = new Binding(-1);
+        CURRENT.set(binding);
+        TransactionSynchronizationManager.registerSynchronization(binding);
+        routed.increment();
+        return binding;
+    }
+
+    /**
+     * Runs {@code action} on {@code shard}, for work that is not a single account's, such as
+     * one leg of a scatter-gather. Transactions begun inside run on that shard.
+     */
+    public <T> T onShard(int shard, Supplier<T> action) {
+        if (!isEnabled()) {
+            return action.get();
+        }
+        Binding previous = CURRENT.get();
+        Binding binding = new Binding(shard);
+        CURRENT.set(binding);
+        try {
+            return action.get();
+        } finally {
+            binding.release();
+            CURRENT.set(previous);
+        }
+    }
+
+    public void runOnShard(int shard, Runnable action) {
+        onShard(shard, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs {@code action} on the shard of the account, holding its slot so it cannot move
+     * underneath the read.
+     */
+    public <T> T onShardOf(long accountId, Supplier<T> action) {
+        return onSlot(ShardSlots.slotOf(accountId), action);
+    }
+
+    public <T> T onShardOf(String accountNumber, Supplier<T> action) {
+        return onSlot(ShardSlots.slotOf(accountNumber), action);
+    }
+
+    private <T> T onSlot(int slot, Supplier<T> action) {
+        if (!isEnabled()) {
+            return action.get();
+        }
+        Lock lock = slotLocks[slot].readLock();
+        lock.lock();
+        try {
+            routed.increment();
+            return onShard(owners.get(slot), action);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Runs {@code query} on every shard and merges the results in {@code order}, keeping a row
+     * only from the shard that owns it, so a slot caught mid-move is not listed twice. Each
+     * shard must return its first {@code limit} rows in the same order.
+     */
+    public <T> List<T> gather(Supplier<List<T>> query, ToLongFunction<T> accountId, Comparator<T> order, int limit) {
+        if (!isEnabled()) {
+            return query.get();
+        }
+        scatters.increment();
+        List<T> merged = new ArrayList<>();
+        for (int shard = 0; shard < dataSources.size(); shard++) {
+            int owner = shard;
+            for (T row : onShard(shard, query)) {
+                if (isOwner(owner, accountId.applyAsLong(row))) {
+                    merged.add(row);
+                }
+            }
+        }
+        merged.sort(order);
+        return merged.size() > limit ? new ArrayList<>(merged.subList(0, limit)) : merged;
+    }
+
+    /**
+     * Splits {@code items} by the shard of their account number, keeping their relative order.
+     */
+    public <T> Collection<List<T>> groupByShard(Collection<T> items, Function<T, String> accountNumber) {
+        if (!isEnabled()) {
+            return List.of(new ArrayList<>(items));
+        }
+        Map<Integer, List<T>> groups = new LinkedHashMap<>();
+        for (T item : items) {
+            groups.computeIfAbsent(shardOf(accountNumber.apply(item)), shard -> new ArrayList<>()).add(item);
+        }
+        return groups.values();
+    }
+
+    /**
+     * The shard the current thread is bound to, or {@code null} for the default shard.
+     */
+    static Integer currentShard() {
+        Binding binding = CURRENT.get();
+        return binding == null || binding.shard < 0 ? null : binding.shard;
+    }
+
+    public DataSource dataSource(int shard) {
+        return dataSources.get(shard);
+    }
+
+    List<DataSource> dataSources() {
+        return dataSources;
+    }
+
+    /**
+     * Blocks routed work on the slots in {@code [fromSlot, toSlot]} until the returned locks
+     * are released; in-flight work on them finishes first.
+     */
+    List<Lock> lockForMove(int fromSlot, int toSlot) {
+        List<Lock> locks = new ArrayList<>(toSlot - fromSlot + 1);
+        for (int slot = fromSlot; slot <= toSlot; slot++) {
+            Lock lock = slotLocks[slot].writeLock();
+            lock.lock();
+            locks.add(lock);
+        }
+        return locks;
+    }
+
+    /**
+     * Records the new owner of the slots. The caller holds their move locks.
+     */
+    void assign(int fromSlot, int toSlot, int shard) {
+        directory.update("UPDATE shard_slots SET shard = ? WHERE slot BETWEEN ? AND ?", shard, fromSlot, toSlot);
+        for (int slot = fromSlot; slot <= toSlot; slot++) {
+            owners.set(slot, shard);
+        }
+    }
+
+    public int slotCount(int shard) {
+        int count = 0;
+        for (int slot = 0; slot < ShardSlots.SLOTS; slot++) {
+            if (ownerOf(slot) == shard) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        for (DataSource dataSource : dataSources) {
+            if (dataSource instanceof AutoCloseable) {
+                ((AutoCloseable) dataSource).close();
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("banking.sharding.routed", routed, LongAdder::sum)
+                .description("Transactions and reads routed to the shard of an account")
+                .register(registry);
+        FunctionCounter.builder("banking.sharding.scatter-gathers", scatters, LongAdder::sum)
+                .description("Listings that queried every shard and merged the results")
+                .register(registry);
+    }
+
+    public long getRouted() {
+        return routed.sum();
+    }
+
+    public long getScatterGathers() {
+        return scatters.sum();
+    }
+
+    /**
+     * The shard a thread is bound to and the slot read locks it holds. A binding made by
+     * {@link #route} lives as long as its transaction.
+     */
+    private final class Binding implements TransactionSynchronization {
+
+        private int shard;
+        private final BitSet slots = new BitSet(ShardSlots.SLOTS);
+        private final List<Lock> locks = new ArrayList<>(2);
+
+        private Binding(int shard) {
+            this.shard = shard;
+        }
+
+        private void add(int slot) {
+            if (slots.get(slot)) {
+                return;
+            }
+            Lock lock = slotLocks[slot].readLock();
+            lock.lock();
+            slots.set(slot);
+            locks.add(lock);
+            int owner = owners.get(slot);
+            if (shard < 0) {
+                shard = owner;
+            } else if (owner != shard) {
+                throw new ShardSlotMovedException("Work bound to shard " + shard + " cannot reach slot " + slot
+                        + " on shard " + owner);
+            }
+        }
+
+        private void release() {
+            locks.forEach(Lock::unlock);
+            locks.clear();
+            slots.clear();
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            release();
+            if (CURRENT.get() == this) {
+                CURRENT.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package org.example.bankingapi.shard;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Hands out connections of the shard the current thread is bound to, or of shard 0 when it is
+ * not bound. Meant to sit behind a lazy connection proxy, so a transaction takes its connection
+ * at its first statement, after the service has routed it.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    public ShardRoutingDataSource(ShardRouter router) {
+        Map<Object, Object> targets = new HashMap<>();
+        for (int shard = 0; shard < router.getShardCount(); shard++) {
+            targets.put(shard, router.dataSource(shard));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(router.dataSource(0));
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardRouter.currentShard();
+    }
+}
@@ -0,0 +1,50 @@
+package org.example.bankingapi.shard;
+
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32C;
+
+/**
+ * Fixed hash slots between account numbers and shards. An account number hashes to one of
+ * {@link #SLOTS} slots, and that never changes; which shard holds a slot is a table that the
+ * rebalancer edits. Adding a shard therefore moves only the slots handed to it, and an account
+ * is never rehashed.
+ * <p>
+ * Account ids carry their slot in the low {@link #SLOT_BITS} bits, so an id alone is enough to
+ * find the shard of an account.
+ */
+public final class ShardSlots {
+
+    public static final int SLOT_BITS = 10;
+    public static final int SLOTS = 1 << SLOT_BITS;
+
+    private static final long SLOT_MASK = SLOTS - 1;
+
+    private ShardSlots() {
+    }
+
+    public static int slotOf(String accountNumber) {
+        CRC32C crc = new CRC32C();
+        crc.update(accountNumber.getBytes(StandardCharsets.UTF_8));
+        // CRC is linear, so numbers differing in their last characters share most low bits;
+        // the murmur3 finalizer spreads every input bit over the slot bits.
+        int hash = (int) crc.getValue();
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return (int) (hash & SLOT_MASK);
+    }
+
+    public static int slotOf(long accountId) {
+        return (int) (accountId & SLOT_MASK);
+    }
+
+    /**
+     * @param sequence a value of {@code account_seq}; shards draw from disjoint sequence ranges,
+     *                 so ids stay unique when a slot moves between shards
+     */
+    public static long accountId(long sequence, String accountNumber) {
+        return (sequence << SLOT_BITS) | slotOf(accountNumber);
+    }
+}
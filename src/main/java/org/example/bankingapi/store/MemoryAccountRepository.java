@@ -0,0 +1,439 @@
+package org.example.bankingapi.store;
+
+import org.example.bankingapi.entity.Account;
+import org.example.bankingapi.repository.AccountRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+/**
+ * {@link AccountRepository} over the {@link MemoryAccountStore}, used instead of the JPA
+ * repository with {@code banking.store.mode=memory}. It keeps the JPA behaviour the services
+ * rely on: loaded accounts are managed and written back when changed, {@code @Version} is
+ * checked and bumped, {@link #findAllByIdForUpdate} holds row locks until the transaction ends,
+ * and a taken account number fails with {@link DataIntegrityViolationException}.
+ * <p>
+ * Changes are collected per transaction. They are logged just before the database transaction
+ * commits, so a failed log write rolls back the ledger entries and outbox events written with
+ * them, and published only after it has committed, so a failed database commit leaves neither
+ * readers nor recovery with a balance its ledger does not have. Outside a transaction each
+ * call commits on its own, like the JPA methods.
+ */
+@Component
+@Primary
+@ConditionalOnProperty(name = "banking.store.mode", havingValue = "memory")
+public class MemoryAccountRepository implements AccountRepository {
+
+    private final MemoryAccountStore store;
+
+    public MemoryAccountRepository(MemoryAccountStore store) {
+        this.store = store;
+    }
+
+    private <T> T inUnit(Function<UnitOfWork, T> work) {
+        UnitOfWork unit = (UnitOfWork) TransactionSynchronizationManager.getResource(this);
+        if (unit != null) {
+            return work.apply(unit);
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            unit = new UnitOfWork(TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+            TransactionSynchronizationManager.bindResource(this, unit);
+            TransactionSynchronizationManager.registerSynchronization(unit);
+            return work.apply(unit);
+        }
+        unit = new UnitOfWork(false);
+        try {
+            T result = work.apply(unit);
+            unit.commit();
+            return result;
+        } finally {
+            unit.release();
+        }
+    }
+
+    @Override
+    public Optional<Account> findById(Long id) {
+        return inUnit(unit -> Optional.ofNullable(unit.load(id)));
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return findById(id).isPresent();
+    }
+
+    @Override
+    public List<Account> findAllById(Iterable<Long> ids) {
+        return inUnit(unit -> {
+            List<Account> accounts = new ArrayList<>();
+            for (Long id : ids) {
+                Account account = unit.load(id);
+                if (account != null) {
+                    accounts.add(account);
+                }
+            }
+            return accounts;
+        });
+    }
+
+    @Override
+    public List<Account> findAll() {
+        return findAllById(new ArrayList<>(store.ids()));
+    }
+
+    @Override
+    public long count() {
+        return store.size();
+    }
+
+    @Override
+    public Optional<Account> findByAccountNumber(String accountNumber) {
+        return inUnit(unit -> Optional.ofNullable(unit.loadByNumber(accountNumber)));
+    }
+
+    @Override
+    public boolean existsByAccountNumber(String accountNumber) {
+        return findByAccountNumber(accountNumber).isPresent();
+    }
+
+    @Override
+    public List<String> findExistingAccountNumbers(Collection<String> accountNumbers) {
+        return inUnit(unit -> {
+            List<String> existing = new ArrayList<>();
+            for (String number : accountNumbers) {
+                if (unit.loadByNumber(number) != null) {
+                    existing.add(number);
+                }
+            }
+            return existing;
+        });
+    }
+
+    @Override
+    public List<Account> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable) {
+        List<Long> page = new ArrayList<>(pageable.getPageSize());
+        for (Long next : store.ids().tailSet(id, false)) {
+            if (page.size() == pageable.getPageSize()) {
+                break;
+            }
+            page.add(next);
+        }
+        return findAllById(page);
+    }
+
+    @Override
+    public List<Long> findIdsByStatusAfter(Account.AccountStatus status, Long afterId, Pageable pageable) {
+        List<Long> page = new ArrayList<>(pageable.getPageSize());
+        for (Long next : store.ids().tailSet(afterId, false)) {
+            if (page.size() == pageable.getPageSize()) {
+                break;
+            }
+            if (store.findById(next).filter(account -> account.getStatus() == status).isPresent()) {
+                page.add(next);
+            }
+        }
+        return page;
+    }
+
+    @Override
+    public List<Account> findAllByIdForUpdate(Collection<Long> ids) {
+        return inUnit(unit -> {
+            TreeSet<Long> ordered = new TreeSet<>(ids);
+            List<Account> accounts = new ArrayList<>(ordered.size());
+            for (Long id : ordered) {
+                unit.lock(id);
+                Account account = unit.load(id);
+                if (account != null) {
+                    accounts.add(account);
+                }
+            }
+            return accounts;
+        });
+    }
+
+    @Override
+    public <S extends Account> S save(S account) {
+        return inUnit(unit -> unit.save(account));
+    }
+
+    @Override
+    public <S extends Account> List<S> saveAll(Iterable<S> accounts) {
+        return inUnit(unit -> {
+            List<S> saved = new ArrayList<>();
+            for (S account : accounts) {
+                saved.add(unit.save(account));
+            }
+            return saved;
+        });
+    }
+
+    @Override
+    public <S extends Account> S saveAndFlush(S account) {
+        return inUnit(unit -> {
+            S saved = unit.save(account);
+            unit.flush();
+            return saved;
+        });
+    }
+
+    @Override
+    public <S extends Account> List<S> saveAllAndFlush(Iterable<S> accounts) {
+        return inUnit(unit -> {
+            List<S> saved = new ArrayList<>();
+            for (S account : accounts) {
+                saved.add(unit.save(account));
+            }
+            unit.flush();
+            return saved;
+        });
+    }
+
+    @Override
+    public void flush() {
+        inUnit(unit -> {
+            unit.flush();
+            return null;
+        });
+    }
+
+    @Override
+    public void delete(Account account) {
+        deleteAllById(List.of(account.getId()));
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends Long> ids) {
+        inUnit(unit -> {
+            for (Long id : ids) {
+                unit.remove(id);
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public void deleteAll() {
+        deleteAllById(new ArrayList<>(store.ids()));
+    }
+
+    /**
+     * The accounts one transaction has loaded or saved, playing the part of a persistence
+     * context. {@link #flush} writes changed accounts into it, taking their row locks and
+     * checking their versions; the store only sees them at commit.
+     */
+    private final class UnitOfWork implements TransactionSynchronization {
+
+        private final boolean readOnly;
+        // What callers hold and change, and their state at the last flush.
+        private final Map<Long, Account> managed = new HashMap<>();
+        private final Map<Long, Account> flushed = new HashMap<>();
+        private final Set<Long> inserted = new HashSet<>();
+        private final Map<Long, Account> puts = new LinkedHashMap<>();
+        private final Set<Long> deletes = new HashSet<>();
+        private final Set<Long> locked = new HashSet<>();
+        private final List<Integer> stripes = new ArrayList<>();
+        private final Map<String, Long> reservedNumbers = new HashMap<>();
+        private MemoryAccountStore.Prepared prepared;
+
+        private UnitOfWork(boolean readOnly) {
+            this.readOnly = readOnly;
+        }
+
+        Account load(Long id) {
+            if (id == null || deletes.contains(id)) {
+                return null;
+            }
+            Account account = managed.get(id);
+            if (account == null) {
+                Account committed = store.get(id);
+                if (committed == null) {
+                    return null;
+                }
+                account = AccountRecords.copy(committed);
+                managed.put(id, account);
+                flushed.put(id, committed);
+            }
+            return account;
+        }
+
+        Account loadByNumber(String accountNumber) {
+            for (Account account : managed.values()) {
+                if (account.getAccountNumber().equals(accountNumber) && !deletes.contains(account.getId())) {
+                    return account;
+                }
+            }
+            Long id = store.idOf(accountNumber);
+            return id != null ? load(id) : null;
+        }
+
+        void lock(long id) {
+            if (locked.add(id)) {
+                stripes.add(store.lock(id));
+            }
+        }
+
+        <S extends Account> S save(S account) {
+            if (account.getVersion() == null) {
+                Instant now = Instant.now();
+                account.setId(store.nextId(account.getAccountNumber()));
+                account.setCreatedAt(now);
+                account.setUpdatedAt(now);
+                account.setVersion(0L);
+                managed.put(account.getId(), account);
+                inserted.add(account.getId());
+                return account;
+            }
+            Account current = load(account.getId());
+            if (current == account) {
+                return account;
+            }
+            if (current == null || !current.getVersion().equals(account.getVersion())) {
+                throw new ObjectOptimisticLockingFailureException(Account.class, account.getId());
+            }
+            current.setAccountHolderName(account.getAccountHolderName());
+            current.setBalance(account.getBalance());
+            current.setStatus(account.getStatus());
+            current.setLedgerSequence(account.getLedgerSequence());
+            @SuppressWarnings("unchecked")
+            S merged = (S) current;
+            return merged;
+        }
+
+        void remove(Long id) {
+            Account account = load(id);
+            if (account == null) {
+                return;
+            }
+            if (inserted.remove(id)) {
+                managed.remove(id);
+                return;
+            }
+            lock(id);
+            checkVersion(id);
+            managed.remove(id);
+            puts.remove(id);
+            deletes.add(id);
+        }
+
+        @Override
+        public void flush() {
+            Instant now = Instant.now();
+            for (Account account : managed.values()) {
+                long id = account.getId();
+                if (inserted.remove(id)) {
+                    reserve(account);
+                    lock(id);
+                    flushed.put(id, AccountRecords.copy(account));
+                    puts.put(id, account);
+                } else if (!account.equals(flushed.get(id))) {
+                    lock(id);
+                    checkVersion(id);
+                    account.setVersion(account.getVersion() + 1);
+                    account.setUpdatedAt(now);
+                    flushed.put(id, AccountRecords.copy(account));
+                    puts.put(id, account);
+                }
+            }
+        }
+
+        private void reserve(Account account) {
+            store.reserveNumber(account.getAccountNumber(), account.getId());
+            reservedNumbers.put(account.getAccountNumber(), account.getId());
+        }
+
+        /**
+         * The row lock is held, so the committed version is final for this transaction: it
+         * must still be the one the account was read at, or at this transaction's own.
+         */
+        private void checkVersion(long id) {
+            if (puts.containsKey(id)) {
+                return;
+            }
+            Account committed = store.get(id);
+            Account read = flushed.get(id);
+            if (committed == null || !committed.getVersion().equals(read.getVersion())) {
+                throw new ObjectOptimisticLockingFailureException(Account.class, id);
+            }
+        }
+
+        /**
+         * Logs the changes; the store publishes them once {@link #prepared} commits.
+         */
+        void prepare() {
+            if (readOnly) {
+                return;
+            }
+            flush();
+            if (puts.isEmpty() && deletes.isEmpty()) {
+                return;
+            }
+            List<Account> committed = new ArrayList<>(puts.size());
+            for (Account account : puts.values()) {
+                committed.add(AccountRecords.copy(account));
+            }
+            prepared = store.prepare(committed, deletes);
+        }
+
+        void commit() {
+            prepare();
+            if (prepared != null) {
+                prepared.commit();
+            }
+        }
+
+        void release() {
+            reservedNumbers.forEach(store::releaseNumber);
+            reservedNumbers.clear();
+            for (int i = stripes.size() - 1; i >= 0; i--) {
+                store.unlock(stripes.get(i));
+            }
+            stripes.clear();
+            locked.clear();
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            prepare();
+        }
+
+        @Override
+        public void afterCommit() {
+            if (prepared != null) {
+                prepared.commit();
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResource(MemoryAccountRepository.this);
+            try {
+                if (prepared != null) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        prepared.abort();
+                    } else {
+                        prepared.close();
+                    }
+                }
+            } finally {
+                release();
+            }
+        }
+    }
+}
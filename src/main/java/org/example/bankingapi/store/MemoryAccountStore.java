@@ -0,0 +1,628 @@
+package org.example.bankingapi.store;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.example.bankingapi.dto.AccountResponse;
+import org.example.bankingapi.dto.AccountSearchCriteria;
+import org.example.bankingapi.dto.AccountSort;
+import org.example.bankingapi.entity.Account;
+import org.example.bankingapi.shard.ShardSlots;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+import java.util.zip.CRC32C;
+
+/**
+ * Committed account state for {@code banking.store.mode=memory}: accounts by id in a concurrent
+ * hash map, an accountNumber index, and an ordered id set for listings. Committed accounts are
+ * never changed in place, so readers need no locks; {@link MemoryAccountRepository} writes
+ * through {@link #prepare} only.
+ * <p>
+ * A transaction is logged in two steps around the database commit. Its changes are appended to
+ * a {@link WriteAheadLog} before the database commits, and become visible, with a commit marker
+ * appended, only after it has. A rollback appends an abort marker. Replay applies a transaction
+ * only when it finds the commit marker, so one whose database commit failed or never happened is
+ * skipped. A snapshot
+ * starts a new log segment, writes every account to {@code snapshot.bin} and deletes the
+ * segments before it; startup loads the snapshot and replays the segments after it. Log records
+ * carry whole accounts, so replaying one the snapshot already holds is harmless, and the
+ * snapshot can be written while commits go on.
+ * <p>
+ * In {@code jpa} mode (the default) this bean holds nothing and touches no files.
+ */
+@Component
+public class MemoryAccountStore implements MeterBinder {
+
+    private static final int SNAPSHOT_MAGIC = 0x42414E4B;
+    private static final String SNAPSHOT = "snapshot.bin";
+    private static final int LOCK_STRIPES = 4096;
+
+    private final boolean enabled;
+    private final Path directory;
+    private final long lockTimeoutNanos;
+    private final Map<Long, Account> accounts = new ConcurrentHashMap<>();
+    private final NavigableSet<Long> ids = new ConcurrentSkipListSet<>();
+    private final Map<String, Long> idsByNumber = new ConcurrentHashMap<>();
+    private final Map<String, Long> reservedNumbers = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong transactions = new AtomicLong();
+    private final ReentrantLock[] rowLocks = new ReentrantLock[LOCK_STRIPES];
+    // Commits share it; a snapshot takes it alone to switch log segments between two commits.
+    private final ReentrantReadWriteLock segmentLock = new ReentrantReadWriteLock();
+    private final WriteAheadLog log;
+
+    private final LongAdder commits = new LongAdder();
+    private final LongAdder snapshots = new LongAdder();
+    private long recoveredFrames;
+    private long recoveryMillis;
+
+    public MemoryAccountStore(@Value("${banking.store.mode:jpa}") String mode,
+                              @Value("${banking.store.memory.directory:data/accounts}") Path directory,
+                              @Value("${banking.store.memory.fsync:true}") boolean fsync,
+                              @Value("${banking.store.memory.lock-timeout:10s}") Duration lockTimeout,
+                              @Value("${banking.sharding.enabled:false}") boolean sharding) {
+        if (!mode.equals("jpa") && !mode.equals("memory")) {
+            throw new IllegalArgumentException("Unknown banking.store.mode: " + mode + " (jpa or memory)");
+        }
+        this.enabled = mode.equals("memory");
+        if (enabled && sharding) {
+            throw new IllegalStateException("The in-memory account store cannot be combined with sharding");
+        }
+        this.directory = directory;
+        this.lockTimeoutNanos = lockTimeout.toNanos();
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            rowLocks[i] = new ReentrantLock();
+        }
+        this.log = new WriteAheadLog(directory, fsync);
+        if (enabled) {
+            try {
+                recover();
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Could not recover accounts from " + directory, ex);
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    private void recover() throws IOException {
+        long start = System.nanoTime();
+        long firstSegment = 0;
+        Path snapshot = directory.resolve(SNAPSHOT);
+        if (Files.exists(snapshot)) {
+            firstSegment = readSnapshot(snapshot);
+        }
+        recoveredFrames = replay(firstSegment);
+        log.deleteBefore(firstSegment);
+        recoveryMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    private long readSnapshot(Path snapshot) throws IOException {
+        CRC32C crc = new CRC32C();
+        try (InputStream file = Files.newInputStream(snapshot);
+             CheckedInputStream checked = new CheckedInputStream(new BufferedInputStream(file), crc);
+             DataInputStream in = new DataInputStream(checked)) {
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("Not an account snapshot: " + snapshot);
+            }
+            long firstSegment = in.readLong();
+            sequence.set(in.readLong());
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                publish(AccountRecords.read(in));
+            }
+            long expected = crc.getValue();
+            if (in.readLong() != expected) {
+                throw new IOException("Checksum mismatch in " + snapshot);
+            }
+            return firstSegment;
+        }
+    }
+
+    /**
+     * Replays the log frames in order, holding each prepared transaction back until its commit
+     * marker. Transactions still pending at the end never committed and are dropped.
+     */
+    private long replay(long firstSegment) throws IOException {
+        Map<Long, ByteBuffer> pending = new HashMap<>();
+        long frames = log.replay(firstSegment, frame -> {
+            byte kind = frame.get();
+            long transaction = frame.getLong();
+            transactions.accumulateAndGet(transaction, Math::max);
+            if (kind == AccountRecords.PREPARE) {
+                pending.put(transaction, frame);
+            } else {
+                ByteBuffer changes = pending.remove(transaction);
+                if (kind == AccountRecords.COMMIT && changes != null) {
+                    apply(changes);
+                }
+            }
+        });
+        pending.values().forEach(this::skip);
+        return frames;
+    }
+
+    private void apply(ByteBuffer changes) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(
+                changes.array(), changes.arrayOffset() + changes.position(), changes.remaining()))) {
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                long id;
+                if (in.readByte() == AccountRecords.PUT) {
+                    Account account = AccountRecords.read(in);
+                    publish(account);
+                    id = account.getId();
+                } else {
+                    id = in.readLong();
+                    unpublish(id);
+                }
+                // Ids of accounts created and deleted since the snapshot must not be handed out again.
+                sequence.accumulateAndGet(id >>> ShardSlots.SLOT_BITS, Math::max);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Keeps the ids a transaction that never committed handed out from being handed out again.
+     */
+    private void skip(ByteBuffer changes) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(
+                changes.array(), changes.arrayOffset() + changes.position(), changes.remaining()))) {
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                long id = in.readByte() == AccountRecords.PUT ? AccountRecords.read(in).getId() : in.readLong();
+                sequence.accumulateAndGet(id >>> ShardSlots.SLOT_BITS, Math::max);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Makes a transaction's writes durable, but not yet visible: the returned transaction
+     * publishes them on {@link Prepared#commit} once the database has committed, or drops them
+     * on {@link Prepared#abort}. Until one of the two, a snapshot waits, so the prepared frame
+     * and its marker land in segments the snapshot does not delete. The accounts passed in
+     * become shared and must not be changed afterwards.
+     */
+    Prepared prepare(Collection<Account> puts, Collection<Long> deletes) {
+        long transaction = transactions.incrementAndGet();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + 96 * puts.size());
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(AccountRecords.PREPARE);
+            out.writeLong(transaction);
+            out.writeInt(puts.size() + deletes.size());
+            for (Account account : puts) {
+                out.writeByte(AccountRecords.PUT);
+                AccountRecords.write(out, account);
+            }
+            for (Long id : deletes) {
+                out.writeByte(AccountRecords.DELETE);
+                out.writeLong(id);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        segmentLock.readLock().lock();
+        try {
+            log.append(bytes.toByteArray());
+        } catch (IOException ex) {
+            segmentLock.readLock().unlock();
+            throw new UncheckedIOException("Could not append to the account log", ex);
+        }
+        return new Prepared(transaction, List.copyOf(puts), List.copyOf(deletes));
+    }
+
+    /**
+     * Prepares and commits at once, for writes with no database transaction around them.
+     */
+    void commit(Collection<Account> puts, Collection<Long> deletes) {
+        prepare(puts, deletes).commit();
+    }
+
+    private void appendMarker(byte kind, long transaction) throws IOException {
+        log.append(ByteBuffer.allocate(1 + Long.BYTES).put(kind).putLong(transaction).array());
+    }
+
+    private void publish(Account account) {
+        Account previous = accounts.put(account.getId(), account);
+        if (previous == null) {
+            ids.add(account.getId());
+        }
+        idsByNumber.put(account.getAccountNumber(), account.getId());
+    }
+
+    private void unpublish(long id) {
+        Account removed = accounts.remove(id);
+        if (removed != null) {
+            ids.remove(id);
+            idsByNumber.remove(removed.getAccountNumber(), id);
+        }
+    }
+
+    /**
+     * The committed account, shared with other readers: callers that change it must copy it.
+     */
+    Account get(long id) {
+        return accounts.get(id);
+    }
+
+    Long idOf(String accountNumber) {
+        return idsByNumber.get(accountNumber);
+    }
+
+    NavigableSet<Long> ids() {
+        return ids;
+    }
+
+    long nextId(String accountNumber) {
+        return ShardSlots.accountId(sequence.incrementAndGet(), accountNumber);
+    }
+
+    /**
+     * Holds the number for an account inserted by an uncommitted transaction, the way a unique
+     * index would, until {@link #releaseNumber} after that transaction completes.
+     */
+    void reserveNumber(String accountNumber, long id) {
+        Long reserved = reservedNumbers.putIfAbsent(accountNumber, id);
+        Long committed = idsByNumber.get(accountNumber);
+        if ((reserved != null && reserved != id) || (committed != null && committed != id)) {
+            if (reserved == null) {
+                reservedNumbers.remove(accountNumber, id);
+            }
+            throw new DataIntegrityViolationException("Duplicate account number: " + accountNumber);
+        }
+    }
+
+    void releaseNumber(String accountNumber, long id) {
+        reservedNumbers.remove(accountNumber, id);
+    }
+
+    /**
+     * Takes the row lock of an account for the calling transaction. Locks are striped, so two
+     * accounts may share one; a wait longer than the lock timeout fails the way a database lock
+     * timeout does.
+     *
+     * @return the stripe to pass to {@link #unlock}
+     */
+    int lock(long id) {
+        int stripe = stripeOf(id);
+        try {
+            if (!rowLocks[stripe].tryLock(lockTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                throw new CannotAcquireLockException("Timed out waiting for the lock of account " + id);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new CannotAcquireLockException("Interrupted while waiting for the lock of account " + id, ex);
+        }
+        return stripe;
+    }
+
+    void unlock(int stripe) {
+        rowLocks[stripe].unlock();
+    }
+
+    static int stripeOf(long id) {
+        int h = Long.hashCode(id);
+        return (h ^ (h >>> 16)) & (LOCK_STRIPES - 1);
+    }
+
+    public Optional<AccountResponse> findById(long id) {
+        Account account = accounts.get(id);
+        return account != null ? Optional.of(AccountResponse.fromEntity(account)) : Optional.empty();
+    }
+
+    public Optional<AccountResponse> findByAccountNumber(String accountNumber) {
+        Long id = idsByNumber.get(accountNumber);
+        return id != null ? findById(id) : Optional.empty();
+    }
+
+    public List<AccountResponse> findAfterId(long afterId, int limit) {
+        List<AccountResponse> page = new ArrayList<>(Math.min(limit, 1024));
+        for (Long id : ids.tailSet(afterId, false)) {
+            Account account = accounts.get(id);
+            if (account != null) {
+                page.add(AccountResponse.fromEntity(account));
+                if (page.size() == limit) {
+                    break;
+                }
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Same contract as the SQL search. Id orders walk the ordered id set and stop at
+     * {@code limit}; other orders filter every account and sort the matches, since no index
+     * is kept per sort column.
+     */
+    public List<AccountResponse> search(AccountSearchCriteria criteria, AccountSort sort,
+                                        Object afterValue, Long afterId, int limit) {
+        Predicate<AccountResponse> matches = matcher(criteria);
+        if (sort.isById()) {
+            NavigableSet<Long> range = ids;
+            if (afterId != null) {
+                range = sort.isDescending() ? ids.headSet(afterId, false) : ids.tailSet(afterId, false);
+            }
+            List<AccountResponse> page = new ArrayList<>();
+            for (Long id : sort.isDescending() ? range.descendingSet() : range) {
+                Account account = accounts.get(id);
+                if (account != null) {
+                    AccountResponse response = AccountResponse.fromEntity(account);
+                    if (matches.test(response)) {
+                        page.add(response);
+                        if (page.size() == limit) {
+                            break;
+                        }
+                    }
+                }
+            }
+            return page;
+        }
+        Comparator<AccountResponse> order = sort.comparator();
+        AccountResponse after = afterId != null ? seekPivot(sort, afterValue, afterId) : null;
+        return accounts.values().stream()
+                .map(AccountResponse::fromEntity)
+                .filter(matches)
+                .filter(account -> after == null || order.compare(account, after) > 0)
+                .sorted(order)
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    private static AccountResponse seekPivot(AccountSort sort, Object afterValue, Long afterId) {
+        AccountResponse pivot = AccountResponse.builder().id(afterId).build();
+        switch (sort) {
+            case HOLDER_NAME_ASC:
+                pivot.setAccountHolderName((String) afterValue);
+                break;
+            case BALANCE_DESC:
+                pivot.setBalance((BigDecimal) afterValue);
+                break;
+            case UPDATED_AT_DESC:
+                pivot.setUpdatedAt((Instant) afterValue);
+                break;
+            default:
+                break;
+        }
+        return pivot;
+    }
+
+    private static Predicate<AccountResponse> matcher(AccountSearchCriteria criteria) {
+        return account -> (criteria.getStatus() == null || criteria.getStatus() == account.getStatus())
+                && (criteria.getCurrency() == null || criteria.getCurrency().equals(account.getCurrency()))
+                && (criteria.getHolderNamePrefix() == null || account.getAccountHolderName().startsWith(criteria.getHolderNamePrefix()))
+                && (criteria.getMinBalance() == null || account.getBalance().compareTo(criteria.getMinBalance()) >= 0)
+                && (criteria.getMaxBalance() == null || account.getBalance().compareTo(criteria.getMaxBalance()) <= 0)
+                && (criteria.getCreatedFrom() == null || !account.getCreatedAt().isBefore(criteria.getCreatedFrom()))
+                && (criteria.getCreatedTo() == null || account.getCreatedAt().isBefore(criteria.getCreatedTo()))
+                && (criteria.getUpdatedFrom() == null || !account.getUpdatedAt().isBefore(criteria.getUpdatedFrom()))
+                && (criteria.getUpdatedTo() == null || account.getUpdatedAt().isBefore(criteria.getUpdatedTo()));
+    }
+
+    public void streamAll(Consumer<AccountResponse> consumer) {
+        for (Long id : ids) {
+            Account account = accounts.get(id);
+            if (account != null) {
+                consumer.accept(AccountResponse.fromEntity(account));
+            }
+        }
+    }
+
+    /**
+     * Writes a snapshot and drops the log segments it covers. Runs on a schedule and at
+     * shutdown; commits are held back only while the log switches to a new segment.
+     */
+    @Scheduled(fixedDelayString = "${banking.store.memory.snapshot-interval:PT5M}")
+    public synchronized void snapshot() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            long firstSegment;
+            long nextSequence;
+            segmentLock.writeLock().lock();
+            try {
+                firstSegment = log.rotate();
+                nextSequence = sequence.get();
+            } finally {
+                segmentLock.writeLock().unlock();
+            }
+            writeSnapshot(firstSegment, nextSequence);
+            log.deleteBefore(firstSegment);
+            snapshots.increment();
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not write an account snapshot to " + directory, ex);
+        }
+    }
+
+    private void writeSnapshot(long firstSegment, long nextSequence) throws IOException {
+        Path target = directory.resolve(SNAPSHOT);
+        Path temporary = directory.resolve(SNAPSHOT + ".tmp");
+        // The count is written up front, so take a stable list of the accounts to write.
+        List<Account> current = new ArrayList<>(accounts.values());
+        CRC32C crc = new CRC32C();
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            OutputStream file = Channels.newOutputStream(channel);
+            BufferedOutputStream buffered = new BufferedOutputStream(file, 1 << 16);
+            DataOutputStream out = new DataOutputStream(new CheckedOutputStream(buffered, crc));
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeLong(firstSegment);
+            out.writeLong(nextSequence);
+            out.writeInt(current.size());
+            for (Account account : current) {
+                AccountRecords.write(out, account);
+            }
+            out.flush();
+            new DataOutputStream(buffered).writeLong(crc.getValue());
+            buffered.flush();
+            channel.force(true);
+        }
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (enabled) {
+            snapshot();
+            log.close();
+        }
+    }
+
+    public int size() {
+        return accounts.size();
+    }
+
+    public long getCommits() {
+        return commits.sum();
+    }
+
+    public long getSnapshots() {
+        return snapshots.sum();
+    }
+
+    public long getRecoveredFrames() {
+        return recoveredFrames;
+    }
+
+    public long getRecoveryMillis() {
+        return recoveryMillis;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (!enabled) {
+            return;
+        }
+        Gauge.builder("banking.store.memory.accounts", accounts, Map::size)
+                .description("Accounts held by the in-memory store")
+                .register(registry);
+        FunctionCounter.builder("banking.store.memory.commits", commits, LongAdder::sum)
+                .description("Transactions appended to the account log")
+                .register(registry);
+        FunctionCounter.builder("banking.store.memory.snapshots", snapshots, LongAdder::sum)
+                .description("Account snapshots written")
+                .register(registry);
+        Gauge.builder("banking.store.memory.log.bytes", log, WriteAheadLog::size)
+                .description("Size of the current account log segment")
+                .register(registry);
+    }
+
+    /**
+     * A transaction whose changes are in the log but not yet in the maps. It holds the segment
+     * lock until it is committed, aborted or closed, on the thread that prepared it.
+     */
+    final class Prepared {
+
+        private final long transaction;
+        private final List<Account> puts;
+        private final List<Long> deletes;
+        private boolean open = true;
+
+        private Prepared(long transaction, List<Account> puts, List<Long> deletes) {
+            this.transaction = transaction;
+            this.puts = puts;
+            this.deletes = deletes;
+        }
+
+        /**
+         * Publishes the changes, then logs that they committed. The database has already
+         * committed, so the changes are published even if the marker cannot be written; the
+         * next snapshot then makes them durable.
+         */
+        void commit() {
+            if (!open) {
+                return;
+            }
+            try {
+                puts.forEach(MemoryAccountStore.this::publish);
+                deletes.forEach(MemoryAccountStore.this::unpublish);
+                commits.increment();
+                appendMarker(AccountRecords.COMMIT, transaction);
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Could not append a commit marker to the account log", ex);
+            } finally {
+                close();
+            }
+        }
+
+        /**
+         * Logs that the transaction rolled back. A marker that cannot be written is not an
+         * error: replay skips a prepared transaction without a commit marker anyway.
+         */
+        void abort() {
+            if (!open) {
+                return;
+            }
+            try {
+                appendMarker(AccountRecords.ABORT, transaction);
+            } catch (IOException ex) {
+                // Read the same as a missing marker.
+            } finally {
+                close();
+            }
+        }
+
+        /**
+         * Releases the segment lock without a marker, for a transaction whose outcome is unknown;
+         * replay leaves it out.
+         */
+        void close() {
+            if (open) {
+                open = false;
+                segmentLock.readLock().unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package org.example.bankingapi.store;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only log of committed account changes, split into numbered segment files. Each commit
+ * is one frame (body length, CRC32C of the body, body) written with a single positional write
+ * and, with {@code fsync} on, forced to disk before the commit returns. A snapshot starts a new
+ * segment, after which the older ones can be deleted.
+ * <p>
+ * Replay stops at the first frame of the last segment that is short or fails its checksum,
+ * which is where a crash tore the tail, and cuts the segment there. The same damage in an older
+ * segment cannot come from a crash and fails recovery instead.
+ */
+final class WriteAheadLog implements Closeable {
+
+    private static final Pattern SEGMENT = Pattern.compile("wal-(\\d{16})\\.log");
+    private static final int HEADER_BYTES = 8;
+
+    private final Path directory;
+    private final boolean fsync;
+    private FileChannel channel;
+    private long segment;
+    private long position;
+
+    WriteAheadLog(Path directory, boolean fsync) {
+        this.directory = directory;
+        this.fsync = fsync;
+    }
+
+    /**
+     * Hands the body of every frame in the segments from {@code fromSegment} on to
+     * {@code frames}, in order, then opens the last segment for appending.
+     *
+     * @return the number of frames replayed
+     */
+    long replay(long fromSegment, Consumer<ByteBuffer> frames) throws IOException {
+        List<Long> segments = segments();
+        long replayed = 0;
+        long last = fromSegment;
+        for (int i = 0; i < segments.size(); i++) {
+            long number = segments.get(i);
+            if (number < fromSegment) {
+                continue;
+            }
+            replayed += replaySegment(path(number), frames, i == segments.size() - 1);
+            last = number;
+        }
+        open(last);
+        return replayed;
+    }
+
+    private static long replaySegment(Path path, Consumer<ByteBuffer> frames, boolean tail) throws IOException {
+        long replayed = 0;
+        try (FileChannel in = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = in.size();
+            long offset = 0;
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            while (offset < size) {
+                header.clear();
+                ByteBuffer body = null;
+                if (readFully(in, header, offset)) {
+                    header.flip();
+                    int length = header.getInt();
+                    int checksum = header.getInt();
+                    if (length >= 0 && offset + HEADER_BYTES + length <= size) {
+                        body = ByteBuffer.allocate(length);
+                        if (!readFully(in, body, offset + HEADER_BYTES) || crc(body.array()) != checksum) {
+                            body = null;
+                        }
+                    }
+                }
+                if (body == null) {
+                    if (!tail) {
+                        throw new IOException("Corrupt frame at offset " + offset + " of " + path);
+                    }
+                    in.truncate(offset);
+                    in.force(true);
+                    break;
+                }
+                body.flip();
+                frames.accept(body);
+                replayed++;
+                offset += HEADER_BYTES + body.limit();
+            }
+        }
+        return replayed;
+    }
+
+    private static boolean readFully(FileChannel in, ByteBuffer buffer, long offset) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (in.read(buffer, offset + buffer.position()) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    synchronized void append(byte[] body) throws IOException {
+        ByteBuffer frame = ByteBuffer.allocate(HEADER_BYTES + body.length);
+        frame.putInt(body.length).putInt(crc(body)).put(body).flip();
+        while (frame.hasRemaining()) {
+            position += channel.write(frame, position);
+        }
+        if (fsync) {
+            channel.force(false);
+        }
+    }
+
+    /**
+     * Closes the current segment and starts the next one.
+     *
+     * @return the number of the new segment
+     */
+    synchronized long rotate() throws IOException {
+        channel.force(true);
+        channel.close();
+        open(segment + 1);
+        return segment;
+    }
+
+    /**
+     * Deletes the segments numbered below {@code segment}, once a snapshot covers them.
+     */
+    void deleteBefore(long segment) throws IOException {
+        for (long number : segments()) {
+            if (number < segment) {
+                Files.deleteIfExists(path(number));
+            }
+        }
+    }
+
+    synchronized long size() {
+        return position;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null && channel.isOpen()) {
+            channel.force(true);
+            channel.close();
+        }
+    }
+
+    private void open(long number) throws IOException {
+        Files.createDirectories(directory);
+        channel = FileChannel.open(path(number), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        segment = number;
+        position = channel.size();
+    }
+
+    private List<Long> segments() throws IOException {
+        List<Long> segments = new ArrayList<>();
+        if (!Files.isDirectory(directory)) {
+            return segments;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> {
+                Matcher matcher = SEGMENT.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    segments.add(Long.parseLong(matcher.group(1)));
+                }
+            });
+        }
+        segments.sort(null);
+        return segments;
+    }
+
+    private Path path(long number) {
+        return directory.resolve(String.format("wal-%016d.log", number));
+    }
+
+    private static int crc(byte[] bytes) {
+        CRC32C crc = new CRC32C();
+        crc.update(bytes);
+        return (int) crc.getValue();
+    }
+}
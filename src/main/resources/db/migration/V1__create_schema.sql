@@ -0,0 +1,80 @@
+-- Schema as mapped by the entities; later changes go into new versioned scripts.
+-- Sequences step by 50 to match the allocation size of the id generators.
+
+CREATE SEQUENCE account_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE ledger_entry_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE balance_snapshot_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE account_event_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE accounts (
+    id                  BIGINT                      NOT NULL,
+    account_number      VARCHAR(255)                NOT NULL,
+    account_holder_name VARCHAR(255)                NOT NULL,
+    balance             NUMERIC(19, 2)              NOT NULL,
+    currency            VARCHAR(3)                  NOT NULL,
+    status              ENUM ('ACTIVE', 'CLOSED', 'INACTIVE') NOT NULL,
+    ledger_sequence     BIGINT                      NOT NULL,
+    created_at          TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    updated_at          TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    version             BIGINT,
+    PRIMARY KEY (id),
+    UNIQUE (account_number)
+);
+
+CREATE INDEX idx_accounts_status_currency_balance ON accounts (status, currency, balance);
+CREATE INDEX idx_accounts_currency_balance ON accounts (currency, balance);
+CREATE INDEX idx_accounts_holder_name ON accounts (account_holder_name, id);
+CREATE INDEX idx_accounts_balance_desc ON accounts (balance DESC, id DESC);
+CREATE INDEX idx_accounts_created ON accounts (created_at);
+CREATE INDEX idx_accounts_updated_desc ON accounts (updated_at DESC, id DESC);
+CREATE INDEX idx_accounts_id_desc ON accounts (id DESC);
+
+CREATE TABLE ledger_entries (
+    id          BIGINT                      NOT NULL,
+    account_id  BIGINT                      NOT NULL,
+    seq_no      BIGINT                      NOT NULL,
+    type        ENUM ('ADJUSTMENT', 'DEPOSIT', 'OPENING', 'TRANSFER_IN', 'TRANSFER_OUT', 'WITHDRAWAL') NOT NULL,
+    amount      NUMERIC(19, 2)              NOT NULL,
+    reference   VARCHAR(36),
+    description VARCHAR(255),
+    created_at  TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_ledger_account_seq UNIQUE (account_id, seq_no)
+);
+
+CREATE TABLE balance_snapshots (
+    id         BIGINT                      NOT NULL,
+    account_id BIGINT                      NOT NULL,
+    seq_no     BIGINT                      NOT NULL,
+    balance    NUMERIC(19, 2)              NOT NULL,
+    created_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_snapshot_account_seq ON balance_snapshots (account_id, seq_no);
+
+CREATE TABLE idempotency_records (
+    idem_key    VARCHAR(512)                NOT NULL,
+    fingerprint VARCHAR(64)                 NOT NULL,
+    status      INTEGER                     NOT NULL,
+    etag        VARCHAR(64),
+    body        VARBINARY(65536)            NOT NULL,
+    created_at  TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (idem_key)
+);
+
+CREATE INDEX idx_idempotency_created_at ON idempotency_records (created_at);
+
+CREATE TABLE account_events (
+    id              BIGINT                      NOT NULL,
+    account_id      BIGINT                      NOT NULL,
+    account_version BIGINT                      NOT NULL,
+    type            ENUM ('CREATED', 'DELETED', 'UPDATED') NOT NULL,
+    payload         VARCHAR(4000),
+    stream_position BIGINT,
+    created_at      TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_account_events_position ON account_events (stream_position);
+CREATE INDEX idx_account_events_created_at ON account_events (created_at);
@@ -0,0 +1,16 @@
+-- Interest and fee ledger entries, and the checkpoints of the accrual job.
+
+ALTER TABLE ledger_entries ALTER COLUMN type SET DATA TYPE
+    ENUM ('ADJUSTMENT', 'DEPOSIT', 'FEE', 'INTEREST', 'OPENING', 'TRANSFER_IN', 'TRANSFER_OUT', 'WITHDRAWAL');
+
+CREATE TABLE accrual_checkpoints (
+    run_key       VARCHAR(32)                 NOT NULL,
+    business_date DATE                        NOT NULL,
+    shard         INTEGER                     NOT NULL,
+    after_id      BIGINT                      NOT NULL,
+    accounts      BIGINT                      NOT NULL,
+    finished      BOOLEAN                     NOT NULL,
+    started_at    TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    updated_at    TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (run_key)
+);
@@ -0,0 +1,4 @@
+-- A request claims its idempotency key before executing: a record without a status is pending.
+
+ALTER TABLE idempotency_records ALTER COLUMN status SET NULL;
+ALTER TABLE idempotency_records ALTER COLUMN body SET NULL;
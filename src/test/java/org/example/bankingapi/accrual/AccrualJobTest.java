@@ -0,0 +1,244 @@
+package org.example.bankingapi.accrual;
+
+import org.example.bankingapi.dto.AccountResponse;
+import org.example.bankingapi.dto.AccrualRunResponse;
+import org.example.bankingapi.dto.CreateAccountRequest;
+import org.example.bankingapi.dto.LedgerEntryResponse;
+import org.example.bankingapi.dto.UpdateAccountRequest;
+import org.example.bankingapi.entity.Account;
+import org.example.bankingapi.entity.AccrualCheckpoint;
+import org.example.bankingapi.entity.LedgerEntry;
+import org.example.bankingapi.entity.Money;
+import org.example.bankingapi.repository.AccountRepository;
+import org.example.bankingapi.repository.AccountTotalsRepository;
+import org.example.bankingapi.repository.AccrualCheckpointRepository;
+import org.example.bankingapi.service.AccountService;
+import org.example.bankingapi.service.AccountTotals;
+import org.example.bankingapi.service.LedgerService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        // 0.01% a day, so 1000.00 earns 0.10.
+        "banking.accrual.interest-rate=0.0365",
+        "banking.accrual.day-count=365",
+        "banking.accrual.fee=0.05",
+        "banking.accrual.chunk-size=2",
+        "banking.accrual.threads=2"})
+class AccrualJobTest {
+
+    private static final LocalDate DATE = LocalDate.of(2024, 5, 31);
+
+    @Autowired
+    private AccrualJob accrualJob;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private AccountTotals accountTotals;
+
+    @Autowired
+    private AccountTotalsRepository totalsRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccrualCheckpointRepository checkpointRepository;
+
+    @BeforeEach
+    void setUp() {
+        // Other tests clean up through the repository, which the tracked totals do not hear about.
+        accountTotals.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        accountRepository.deleteAll();
+        checkpointRepository.deleteAll();
+    }
+
+    private AccountResponse create(String number, String balance) {
+        return accountService.createAccount(CreateAccountRequest.builder()
+                .accountNumber(number)
+                .accountHolderName("Holder " + number)
+                .balance(new BigDecimal(balance))
+                .currency("EUR")
+                .build());
+    }
+
+    private BigDecimal balance(AccountResponse account) {
+        return accountService.getAccountById(account.getId()).getBalance();
+    }
+
+    private List<LedgerEntryResponse> accrualEntries(AccountResponse account, LocalDate date) {
+        return ledgerService.getStatement(account.getId(), null, 10).getItems().stream()
+                .filter(entry -> ("accrual-" + date).equals(entry.getReference()))
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("credits interest and charges the fee on active accounts only, never below zero")
+    void run_accruesActiveAccounts() {
+        AccountResponse rich = create("ACR-1", "1000.00");
+        AccountResponse empty = create("ACR-2", "0.00");
+        AccountResponse poor = create("ACR-3", "0.03");
+        AccountResponse plain = create("ACR-4", "100.00");
+        AccountResponse inactive = create("ACR-5", "500.00");
+        accountService.updateAccount(inactive.getId(), UpdateAccountRequest.builder()
+                .status(Account.AccountStatus.INACTIVE).build());
+
+        AccrualRunResponse run = accrualJob.run(DATE);
+
+        assertThat(run.getState()).isEqualTo(AccrualRunResponse.State.FINISHED);
+        assertThat(run.getScanned()).isEqualTo(4);
+        assertThat(run.getAccounts()).isEqualTo(3);
+        assertThat(run.getChunks()).isEqualTo(2);
+        assertThat(balance(rich)).isEqualByComparingTo("1000.05");
+        assertThat(balance(empty)).isEqualByComparingTo("0.00");
+        assertThat(balance(poor)).isEqualByComparingTo("0.00");
+        assertThat(balance(plain)).isEqualByComparingTo("99.96");
+        assertThat(balance(inactive)).isEqualByComparingTo("500.00");
+        assertThat(accrualEntries(rich, DATE))
+                .extracting(LedgerEntryResponse::getType, entry -> entry.getAmount().toPlainString())
+                .containsExactly(tuple(LedgerEntry.EntryType.INTEREST, "0.10"), tuple(LedgerEntry.EntryType.FEE, "-0.05"));
+        assertThat(accountService.getAccountById(rich.getId()).getVersion()).isGreaterThan(rich.getVersion());
+
+        AccrualCheckpoint checkpoint = checkpointRepository.findById(AccrualCheckpoint.key(DATE, 0)).orElseThrow();
+        assertThat(checkpoint.getFinished()).isTrue();
+        assertThat(checkpoint.getAfterId()).isEqualTo(plain.getId());
+        assertThat(checkpoint.getAccounts()).isEqualTo(3);
+
+        // The tracked totals heard about every change.
+        assertThat(accountTotals.snapshot())
+                .extracting(AccountTotalsRepository.Group::getCurrency, AccountTotalsRepository.Group::getStatus,
+                        AccountTotalsRepository.Group::getUnits)
+                .containsExactlyInAnyOrderElementsOf(totalsRepository.totals().stream()
+                        .map(group -> tuple(group.getCurrency(), group.getStatus(), group.getUnits()))
+                        .collect(Collectors.toList()));
+
+        // A finished date is not run again.
+        assertThat(accrualJob.run(DATE).getScanned()).isZero();
+        assertThat(balance(rich)).isEqualByComparingTo("1000.05");
+    }
+
+    @Test
+    @DisplayName("resumes after the checkpoint and never charges an account twice for one date")
+    void run_resumesWithoutChargingTwice() {
+        AccountResponse first = create("ACR-11", "1000.00");
+        AccountResponse second = create("ACR-12", "1000.00");
+        AccountResponse third = create("ACR-13", "1000.00");
+
+        // A run that died after the first page was checkpointed.
+        Instant now = Instant.now();
+        checkpointRepository.save(AccrualCheckpoint.builder()
+                .key(AccrualCheckpoint.key(DATE, 0))
+                .businessDate(DATE)
+                .shard(0)
+                .afterId(first.getId())
+                .accounts(1L)
+                .finished(false)
+                .startedAt(now)
+                .updatedAt(now)
+                .build());
+        assertThat(accrualJob.unfinishedDates()).containsExactly(DATE);
+
+        AccrualRunResponse resumed = accrualJob.run(DATE);
+        assertThat(resumed.getScanned()).isEqualTo(2);
+        assertThat(balance(first)).isEqualByComparingTo("1000.00");
+        assertThat(balance(second)).isEqualByComparingTo("1000.05");
+        assertThat(balance(third)).isEqualByComparingTo("1000.05");
+        assertThat(accrualJob.unfinishedDates()).isEmpty();
+
+        // A run that died before its first checkpoint walks every page again.
+        checkpointRepository.deleteAll();
+        AccrualRunResponse rerun = accrualJob.run(DATE);
+        assertThat(rerun.getScanned()).isEqualTo(3);
+        assertThat(rerun.getAccounts()).isEqualTo(1);
+        assertThat(balance(first)).isEqualByComparingTo("1000.05");
+        assertThat(balance(second)).isEqualByComparingTo("1000.05");
+        assertThat(accrualEntries(second, DATE)).hasSize(2);
+    }
+
+    @Nested
+    @DisplayName("on the schedule")
+    @TestPropertySource(properties = {
+            "banking.accrual.enabled=true",
+            // Never fires by itself; the test calls it.
+            "banking.accrual.cron=-",
+            "banking.accrual.throttle.accounts-per-second=1"})
+    class Scheduled {
+
+        @Autowired
+        private AccrualJob scheduledJob;
+
+        @Autowired
+        private AccountService scheduledAccounts;
+
+        @Test
+        @DisplayName("hands the run to the job's own thread instead of holding the scheduler")
+        void runScheduled_returnsBeforeTheRunFinishes() throws InterruptedException {
+            for (int i = 1; i <= 3; i++) {
+                scheduledAccounts.createAccount(CreateAccountRequest.builder()
+                        .accountNumber("ACR-S" + i)
+                        .accountHolderName("Holder ACR-S" + i)
+                        .balance(new BigDecimal("1000.00"))
+                        .currency("EUR")
+                        .build());
+            }
+
+            // At one account a second, the second page of two waits two seconds behind the first.
+            scheduledJob.runScheduled();
+            AccrualRunResponse started = scheduledJob.status();
+            assertThat(started == null || started.getState() == AccrualRunResponse.State.RUNNING).isTrue();
+
+            LocalDate yesterday = LocalDate.now(ZoneOffset.UTC).minusDays(1);
+            long deadline = System.currentTimeMillis() + 10000;
+            AccrualRunResponse run;
+            while ((run = scheduledJob.status()) == null || run.getState() == AccrualRunResponse.State.RUNNING) {
+                assertThat(System.currentTimeMillis()).as("run finished within 10s").isLessThan(deadline);
+                Thread.sleep(10);
+            }
+            assertThat(run.getBusinessDate()).isEqualTo(yesterday);
+            assertThat(run.getState()).isEqualTo(AccrualRunResponse.State.FINISHED);
+            assertThat(run.getScanned()).isGreaterThanOrEqualTo(3);
+        }
+    }
+
+    @Test
+    @DisplayName("rounds a day's interest half-even to the currency and caps the fee at the balance")
+    void amounts() {
+        BigDecimal rate = new BigDecimal("0.05");
+        assertThat(AccrualJob.dailyInterest(Money.of(new BigDecimal("1000.00"), "EUR"), rate, 365))
+                .isEqualTo(Money.of(new BigDecimal("0.14"), "EUR"));
+        assertThat(AccrualJob.dailyInterest(Money.of(new BigDecimal("-50.00"), "EUR"), rate, 365))
+                .isEqualTo(Money.zero("EUR"));
+        assertThat(AccrualJob.dailyInterest(Money.of(new BigDecimal("100000"), "JPY"), rate, 360))
+                .isEqualTo(Money.of(new BigDecimal("14"), "JPY"));
+        assertThat(AccrualJob.fee(Money.of(new BigDecimal("0.03"), "EUR"), new BigDecimal("0.05")))
+                .isEqualTo(Money.of(new BigDecimal("0.03"), "EUR"));
+        assertThat(AccrualJob.fee(Money.of(new BigDecimal("10.00"), "JPY"), new BigDecimal("0.60")))
+                .isEqualTo(Money.of(new BigDecimal("1"), "JPY"));
+    }
+}
@@ -0,0 +1,88 @@
+package org.example.bankingapi.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class BoundedDataSourceTest {
+
+    @Mock
+    private DataSource target;
+
+    @Mock
+    private Connection connection;
+
+    private BoundedDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new BoundedDataSource(target, 2, Duration.ofMillis(20));
+    }
+
+    @Test
+    @DisplayName("holds a permit until the connection is closed")
+    void getConnection_holdsPermitUntilClose() throws SQLException {
+        given(target.getConnection()).willReturn(connection);
+
+        Connection first = dataSource.getConnection();
+        Connection second = dataSource.getConnection();
+
+        assertThat(dataSource.getAvailablePermits()).isZero();
+        first.close();
+        assertThat(dataSource.getAvailablePermits()).isEqualTo(1);
+        second.close();
+        assertThat(dataSource.getAvailablePermits()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("times out when every permit is held")
+    void getConnection_exhausted_timesOut() throws SQLException {
+        given(target.getConnection()).willReturn(connection);
+        dataSource.getConnection();
+        dataSource.getConnection();
+
+        assertThatThrownBy(() -> dataSource.getConnection())
+                .isInstanceOf(SQLTransientConnectionException.class);
+        verify(target, times(2)).getConnection();
+    }
+
+    @Test
+    @DisplayName("releases the permit only once when close is repeated")
+    void close_twice_releasesOnce() throws SQLException {
+        given(target.getConnection()).willReturn(connection);
+        Connection held = dataSource.getConnection();
+        Connection closedTwice = dataSource.getConnection();
+
+        closedTwice.close();
+        closedTwice.close();
+
+        assertThat(dataSource.getAvailablePermits()).isEqualTo(1);
+        verify(connection, times(2)).close();
+        held.close();
+    }
+
+    @Test
+    @DisplayName("returns the permit when the pool fails to hand out a connection")
+    void getConnection_targetFails_releasesPermit() throws SQLException {
+        given(target.getConnection()).willThrow(new SQLException("pool closed"));
+
+        assertThatThrownBy(() -> dataSource.getConnection()).hasMessage("pool closed");
+        assertThat(dataSource.getAvailablePermits()).isEqualTo(2);
+    }
+}
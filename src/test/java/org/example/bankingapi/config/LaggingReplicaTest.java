@@ -0,0 +1,101 @@
+package org.example.bankingapi.config;
+
+import org.example.bankingapi.dto.AccountResponse;
+import org.example.bankingapi.dto.CreateAccountRequest;
+import org.example.bankingapi.dto.MoneyMovementRequest;
+import org.example.bankingapi.repository.AccountRepository;
+import org.example.bankingapi.service.AccountService;
+import org.example.bankingapi.service.LedgerService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.datasource.url=jdbc:h2:mem:lagging-primary;DB_CLOSE_DELAY=-1;LAZY_QUERY_EXECUTION=1",
+        "banking.replicas.enabled=true",
+        "banking.replicas.urls=" + LaggingReplicaTest.REPLICA_URL})
+class LaggingReplicaTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:lagging-replica;DB_CLOSE_DELAY=-1;LAZY_QUERY_EXECUTION=1";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    /** The application reads the replica as it starts, so it needs the schema by then. */
+    @BeforeAll
+    static void createReplica() {
+        JdbcTemplate replica = replica();
+        for (String migration : new String[] {"V1__create_schema", "V2__accrual", "V3__idempotency_claims"}) {
+            replica.execute("RUNSCRIPT FROM 'classpath:db/migration/" + migration + ".sql'");
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        accountRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("refills the account caches from the primary while the replica lags")
+    void lookupsAfterWrite_readFromPrimary() throws Exception {
+        AccountResponse created = accountService.createAccount(CreateAccountRequest.builder()
+                .accountNumber("LAGGING-1")
+                .accountHolderName("Lagging")
+                .balance(new BigDecimal("5.00"))
+                .currency("EUR")
+                .build());
+        replicate();
+        assertThat(accountService.getAccountById(created.getId()).getBalance()).isEqualByComparingTo("5.00");
+
+        // The deposit evicts the cached account, and the replica never sees it.
+        ledgerService.deposit(created.getId(), MoneyMovementRequest.builder()
+                .amount(new BigDecimal("10.00"))
+                .build());
+
+        assertThat(accountService.getAccounts(null, 10).getItems())
+                .extracting(AccountResponse::getBalance)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("5.00"));
+        assertThat(accountService.getAccountById(created.getId()).getBalance()).isEqualByComparingTo("15.00");
+        assertThat(accountService.getAccountByNumber("LAGGING-1").getBalance()).isEqualByComparingTo("15.00");
+    }
+
+    /** Copies the primary to the replica as it is now, which then falls behind every later write. */
+    private void replicate() throws Exception {
+        Path script = Files.createTempFile("lagging-replica", ".sql");
+        try {
+            new JdbcTemplate(dataSource).execute("SCRIPT TO '" + script + "'");
+            JdbcTemplate replica = replica();
+            replica.execute("DROP ALL OBJECTS");
+            replica.execute("RUNSCRIPT FROM '" + script + "'");
+        } finally {
+            Files.deleteIfExists(script);
+        }
+    }
+
+    private static JdbcTemplate replica() {
+        return new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+    }
+}
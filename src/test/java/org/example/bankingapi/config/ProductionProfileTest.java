@@ -0,0 +1,65 @@
+package org.example.bankingapi.config;
+
+import org.example.bankingapi.dto.AccountResponse;
+import org.example.bankingapi.dto.CreateAccountRequest;
+import org.example.bankingapi.repository.AccountRepository;
+import org.example.bankingapi.service.AccountService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ActiveProfiles("prod")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:prod-${random.uuid};LAZY_QUERY_EXECUTION=1",
+        // Checks the migrated schema against the entity mappings; prod itself skips the check.
+        "spring.jpa.hibernate.ddl-auto=validate"})
+class ProductionProfileTest {
+
+    @Autowired
+    private ConfigurableApplicationContext context;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @AfterEach
+    void tearDown() {
+        accountRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("migrates a schema that matches the entities and serves accounts from it")
+    void migratedSchema_servesAccounts() {
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT MAX(\"version\") FROM \"flyway_schema_history\" WHERE \"success\"", String.class))
+                .isEqualTo("3");
+
+        AccountService accountService = context.getBean(AccountService.class);
+        AccountResponse created = accountService.createAccount(CreateAccountRequest.builder()
+                .accountNumber("PROD-1")
+                .accountHolderName("Production")
+                .balance(new BigDecimal("10.00"))
+                .currency("EUR")
+                .build());
+        assertThat(accountService.getAccountById(created.getId()).getBalance()).isEqualByComparingTo("10.00");
+    }
+
+    @Test
+    @DisplayName("leaves beans that nothing has asked for uncreated")
+    void lazyInitialization() {
+        assertThat(context.getBeanFactory().containsSingleton("reportController")).isFalse();
+        assertThat(context.getBeanFactory().containsSingleton("flywayInitializer")).isTrue();
+        assertThat(context.getBeanFactory().containsSingleton("entityManagerFactory")).isTrue();
+    }
+}
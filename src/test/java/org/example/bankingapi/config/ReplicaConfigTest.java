@@ -0,0 +1,71 @@
+package org.example.bankingapi.config;
+
+import org.example.bankingapi.dto.AccountResponse;
+import org.example.bankingapi.dto.CreateAccountRequest;
+import org.example.bankingapi.replica.ReplicaRouter;
+import org.example.bankingapi.repository.AccountRepository;
+import org.example.bankingapi.service.AccountService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.datasource.url=jdbc:h2:mem:replicas;DB_CLOSE_DELAY=-1;LAZY_QUERY_EXECUTION=1",
+        "banking.replicas.enabled=true",
+        // The "replica" is the primary itself, so it is always in sync.
+        "banking.replicas.urls=jdbc:h2:mem:replicas;DB_CLOSE_DELAY=-1;LAZY_QUERY_EXECUTION=1"})
+class ReplicaConfigTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ReplicaRouter replicaRouter;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @AfterEach
+    void tearDown() {
+        accountRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("routes account listings to a replica and writes to the primary")
+    void listings_readFromReplica() {
+        assertThat(dataSource).isInstanceOf(LazyConnectionDataSourceProxy.class);
+        AccountResponse created = accountService.createAccount(CreateAccountRequest.builder()
+                .accountNumber("REPLICA-1")
+                .accountHolderName("Replica")
+                .balance(new BigDecimal("5.00"))
+                .currency("EUR")
+                .build());
+        long before = replicaRouter.getReplicaReads();
+
+        assertThat(accountService.getAccounts(null, 10).getItems())
+                .extracting(AccountResponse::getId)
+                .containsExactly(created.getId());
+        assertThat(replicaRouter.getReplicaReads()).isGreaterThan(before);
+
+        ReplicaRouter.usePrimary();
+        try {
+            long primaryBefore = replicaRouter.getPrimaryReads();
+            accountService.getAccounts(null, 10);
+            assertThat(replicaRouter.getPrimaryReads()).isGreaterThan(primaryBefore);
+        } finally {
+            ReplicaRouter.clearPrimary();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package org.example.bankingapi.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.example.bankingapi.dto.CreateAccountRequest;
+import org.example.bankingapi.service.AccountService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@EnabledForJreRange(min = JRE.JAVA_21)
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "spring.threads.virtual.enabled=true"})
+class VirtualThreadConfigTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Test
+    @DisplayName("bounds database access by the connection pool size")
+    void dataSource_isBoundedByPoolSize() throws Exception {
+        assertThat(dataSource).isInstanceOf(BoundedDataSource.class);
+        BoundedDataSource bounded = (BoundedDataSource) dataSource;
+        accountService.getAccounts(null, 1);
+        assertThat(bounded.getMaxPermits()).isEqualTo(dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize());
+
+        accountService.createAccount(CreateAccountRequest.builder()
+                .accountNumber("VT-1")
+                .accountHolderName("Virtual")
+                .balance(BigDecimal.TEN)
+                .currency("USD")
+                .build());
+
+        assertThat(bounded.getAvailablePermits()).isEqualTo(bounded.getMaxPermits());
+    }
+}
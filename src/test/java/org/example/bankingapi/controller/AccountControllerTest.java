@@ -1,36 +1,67 @@
 package org.example.bankingapi.controller;
 
+import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.bankingapi.config.CborHttpMessageConverter;
+import org.example.bankingapi.dto.AccountPage;
 import org.example.bankingapi.dto.AccountResponse;
+import org.example.bankingapi.dto.AccountSearchCriteria;
+import org.example.bankingapi.dto.AccountSort;
+import org.example.bankingapi.dto.BatchCreateResponse;
+import org.example.bankingapi.dto.BatchItemResult;
 import org.example.bankingapi.dto.CreateAccountRequest;
 import org.example.bankingapi.dto.UpdateAccountRequest;
 import org.example.bankingapi.entity.Account;
 import org.example.bankingapi.exception.AccountNotFoundException;
+import org.example.bankingapi.exception.AccountVersionMismatchException;
+import org.example.bankingapi.exception.ChangeEventsDisabledException;
+import org.example.bankingapi.exception.ConcurrentUpdateException;
 import org.example.bankingapi.exception.DuplicateAccountException;
+import org.example.bankingapi.exception.InvalidCursorException;
+import org.example.bankingapi.exception.InvalidSubscriptionException;
+import org.example.bankingapi.outbox.AccountChangeStream;
+import org.example.bankingapi.repository.IdempotencyRecordRepository;
+import org.example.bankingapi.service.AccountBatchService;
+import org.example.bankingapi.service.AccountCache;
+import org.example.bankingapi.service.AccountJsonCache;
 import org.example.bankingapi.service.AccountService;
+import org.example.bankingapi.service.IdempotencyService;
+import org.example.bankingapi.service.LiveBalanceService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Consumer;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
 import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(AccountController.class)
+@Import({IdempotencyService.class, AccountJsonCache.class, AccountCache.class})
 class AccountControllerTest {
 
     @Autowired
@@ -39,9 +70,24 @@ class AccountControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private CborHttpMessageConverter cborConverter;
+
+    @MockBean
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
     @MockBean
     private AccountService accountService;
 
+    @MockBean
+    private AccountBatchService accountBatchService;
+
+    @MockBean
+    private AccountChangeStream accountChangeStream;
+
+    @MockBean
+    private LiveBalanceService liveBalanceService;
+
     private static final Long ACCOUNT_ID = 1L;
     private static final String ACCOUNT_NUMBER = "ACC001";
     private static final String ACCOUNT_HOLDER = "John Doe";
@@ -59,6 +105,7 @@ class AccountControllerTest {
                 .status(Account.AccountStatus.ACTIVE)
                 .createdAt(NOW)
                 .updatedAt(NOW)
+                .version(3L)
                 .build();
     }
 
@@ -92,6 +139,53 @@ class AccountControllerTest {
             verify(accountService).createAccount(any(CreateAccountRequest.class));
         }
 
+        @Test
+        @DisplayName("replays the original response for a retried Idempotency-Key")
+        void createAccount_idempotentRetry_replays() throws Exception {
+            CreateAccountRequest request = CreateAccountRequest.builder()
+                    .accountNumber(ACCOUNT_NUMBER)
+                    .accountHolderName(ACCOUNT_HOLDER)
+                    .balance(BALANCE)
+                    .currency(CURRENCY)
+                    .build();
+            given(accountService.createAccount(any(CreateAccountRequest.class))).willReturn(accountResponse());
+
+            for (int attempt = 0; attempt < 2; attempt++) {
+                mockMvc.perform(post("/api/accounts")
+                                .header("Idempotency-Key", "create-1")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(request)))
+                        .andExpect(status().isCreated())
+                        .andExpect(jsonPath("$.id").value(ACCOUNT_ID));
+            }
+
+            verify(accountService, times(1)).createAccount(any(CreateAccountRequest.class));
+        }
+
+        @Test
+        @DisplayName("returns 422 when an Idempotency-Key is reused with another payload")
+        void createAccount_idempotencyKeyReused_returns422() throws Exception {
+            CreateAccountRequest request = CreateAccountRequest.builder()
+                    .accountNumber(ACCOUNT_NUMBER)
+                    .accountHolderName(ACCOUNT_HOLDER)
+                    .balance(BALANCE)
+                    .currency(CURRENCY)
+                    .build();
+            given(accountService.createAccount(any(CreateAccountRequest.class))).willReturn(accountResponse());
+            mockMvc.perform(post("/api/accounts")
+                            .header("Idempotency-Key", "create-2")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isCreated());
+
+            request.setAccountNumber("ACC999");
+            mockMvc.perform(post("/api/accounts")
+                            .header("Idempotency-Key", "create-2")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isUnprocessableEntity());
+        }
+
         @Test
         @DisplayName("returns 409 when account number already exists")
         void createAccount_duplicate_returnsConflict() throws Exception {
@@ -122,33 +216,287 @@ class AccountControllerTest {
         }
     }
 
+    @Nested
+    @DisplayName("POST /api/accounts/batch")
+    class CreateAccounts {
+
+        private List<CreateAccountRequest> captured;
+
+        private void captureBatch() {
+            captured = new ArrayList<>();
+            willAnswer(inv -> {
+                Iterator<CreateAccountRequest> it = inv.getArgument(0);
+                it.forEachRemaining(captured::add);
+                return BatchCreateResponse.builder()
+                        .created(1)
+                        .failed(captured.size() - 1)
+                        .results(List.of(BatchItemResult.builder()
+                                .index(0)
+                                .status(BatchItemResult.Status.CREATED)
+                                .accountNumber(ACCOUNT_NUMBER)
+                                .id(ACCOUNT_ID)
+                                .build()))
+                        .build();
+            }).given(accountBatchService).createAccounts(any());
+        }
+
+        @Test
+        @DisplayName("accepts a JSON array and returns per-item results")
+        void createAccounts_jsonArray() throws Exception {
+            captureBatch();
+            CreateAccountRequest request = CreateAccountRequest.builder()
+                    .accountNumber(ACCOUNT_NUMBER)
+                    .accountHolderName(ACCOUNT_HOLDER)
+                    .balance(BALANCE)
+                    .currency(CURRENCY)
+                    .build();
+
+            mockMvc.perform(post("/api/accounts/batch")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(List.of(request))))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.created").value(1))
+                    .andExpect(jsonPath("$.results[0].status").value("CREATED"))
+                    .andExpect(jsonPath("$.results[0].id").value(ACCOUNT_ID));
+
+            assertThat(captured).extracting(CreateAccountRequest::getAccountNumber).containsExactly(ACCOUNT_NUMBER);
+        }
+
+        @Test
+        @DisplayName("accepts NDJSON and passes malformed lines through as null items")
+        void createAccounts_ndjson() throws Exception {
+            captureBatch();
+            String body = "{\"accountNumber\":\"A1\",\"accountHolderName\":\"X\",\"balance\":1,\"currency\":\"USD\"}\n"
+                    + "\n"
+                    + "{not json\n"
+                    + "{\"accountNumber\":\"A2\",\"accountHolderName\":\"Y\",\"balance\":2,\"currency\":\"USD\"}\n";
+
+            mockMvc.perform(post("/api/accounts/batch")
+                            .contentType(MediaType.APPLICATION_NDJSON)
+                            .content(body))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.failed").value(2));
+
+            assertThat(captured).hasSize(3);
+            assertThat(captured.get(0).getAccountNumber()).isEqualTo("A1");
+            assertThat(captured.get(1)).isNull();
+            assertThat(captured.get(2).getAccountNumber()).isEqualTo("A2");
+        }
+    }
+
     @Nested
     @DisplayName("GET /api/accounts")
-    class GetAllAccounts {
+    class GetAccounts {
 
         @Test
-        @DisplayName("returns 200 and list of accounts")
-        void getAllAccounts_success() throws Exception {
-            List<AccountResponse> accounts = List.of(accountResponse());
-            given(accountService.getAllAccounts()).willReturn(accounts);
+        @DisplayName("returns 200 and first page with next cursor")
+        void getAccounts_success() throws Exception {
+            AccountPage page = AccountPage.builder()
+                    .items(List.of(accountResponse()))
+                    .nextCursor("abc")
+                    .build();
+            given(accountService.getAccounts(null, 50)).willReturn(page);
 
             mockMvc.perform(get("/api/accounts"))
                     .andExpect(status().isOk())
-                    .andExpect(jsonPath("$", hasSize(1)))
-                    .andExpect(jsonPath("$[0].id").value(ACCOUNT_ID))
-                    .andExpect(jsonPath("$[0].accountNumber").value(ACCOUNT_NUMBER));
+                    .andExpect(jsonPath("$.items", hasSize(1)))
+                    .andExpect(jsonPath("$.items[0].id").value(ACCOUNT_ID))
+                    .andExpect(jsonPath("$.items[0].accountNumber").value(ACCOUNT_NUMBER))
+                    .andExpect(jsonPath("$.nextCursor").value("abc"));
 
-            verify(accountService).getAllAccounts();
+            verify(accountService).getAccounts(null, 50);
         }
 
         @Test
-        @DisplayName("returns 200 and empty array when no accounts")
-        void getAllAccounts_empty() throws Exception {
-            given(accountService.getAllAccounts()).willReturn(List.of());
+        @DisplayName("returns 200 and empty items when no accounts")
+        void getAccounts_empty() throws Exception {
+            given(accountService.getAccounts(null, 50)).willReturn(AccountPage.builder().items(List.of()).build());
 
             mockMvc.perform(get("/api/accounts"))
                     .andExpect(status().isOk())
-                    .andExpect(jsonPath("$", hasSize(0)));
+                    .andExpect(jsonPath("$.items", hasSize(0)))
+                    .andExpect(jsonPath("$.nextCursor").doesNotExist());
+        }
+
+        @Test
+        @DisplayName("passes cursor through and clamps limit to the maximum page size")
+        void getAccounts_cursorAndLimit() throws Exception {
+            given(accountService.getAccounts("abc", 500)).willReturn(AccountPage.builder().items(List.of()).build());
+
+            mockMvc.perform(get("/api/accounts").param("cursor", "abc").param("limit", "100000"))
+                    .andExpect(status().isOk());
+
+            verify(accountService).getAccounts("abc", 500);
+        }
+
+        @Test
+        @DisplayName("returns 400 when cursor is invalid")
+        void getAccounts_invalidCursor() throws Exception {
+            willThrow(new InvalidCursorException("bad")).given(accountService).getAccounts("bad", 50);
+
+            mockMvc.perform(get("/api/accounts").param("cursor", "bad"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string(containsString("Invalid page cursor: bad")));
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /api/accounts/search")
+    class SearchAccounts {
+
+        @Test
+        @DisplayName("binds every filter, the sort and the page parameters")
+        void searchAccounts_bindsParameters() throws Exception {
+            AccountSearchCriteria criteria = AccountSearchCriteria.builder()
+                    .status(Account.AccountStatus.ACTIVE)
+                    .currency(CURRENCY)
+                    .holderNamePrefix("Jo")
+                    .minBalance(new BigDecimal("10.00"))
+                    .maxBalance(new BigDecimal("2000"))
+                    .createdFrom(Instant.parse("2024-01-01T00:00:00Z"))
+                    .createdTo(Instant.parse("2024-02-01T00:00:00Z"))
+                    .updatedFrom(Instant.parse("2024-03-01T00:00:00Z"))
+                    .updatedTo(Instant.parse("2024-04-01T00:00:00Z"))
+                    .build();
+            given(accountService.searchAccounts(criteria, AccountSort.BALANCE_DESC, "abc", 20))
+                    .willReturn(AccountPage.builder().items(List.of(accountResponse())).nextCursor("def").build());
+
+            mockMvc.perform(get("/api/accounts/search")
+                            .param("status", "ACTIVE")
+                            .param("currency", CURRENCY)
+                            .param("holderNamePrefix", "Jo")
+                            .param("minBalance", "10.00")
+                            .param("maxBalance", "2000")
+                            .param("createdFrom", "2024-01-01T00:00:00Z")
+                            .param("createdTo", "2024-02-01T00:00:00Z")
+                            .param("updatedFrom", "2024-03-01T00:00:00Z")
+                            .param("updatedTo", "2024-04-01T00:00:00Z")
+                            .param("sort", "balance,desc")
+                            .param("cursor", "abc")
+                            .param("limit", "20"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items[0].id").value(ACCOUNT_ID))
+                    .andExpect(jsonPath("$.nextCursor").value("def"));
+        }
+
+        @Test
+        @DisplayName("defaults to id order and the default page size")
+        void searchAccounts_defaults() throws Exception {
+            given(accountService.searchAccounts(new AccountSearchCriteria(), AccountSort.ID_ASC, null, 50))
+                    .willReturn(AccountPage.builder().items(List.of()).build());
+
+            mockMvc.perform(get("/api/accounts/search"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items", hasSize(0)));
+        }
+
+        @Test
+        @DisplayName("returns 400 for a sort order without a backing index")
+        void searchAccounts_unsupportedSort() throws Exception {
+            mockMvc.perform(get("/api/accounts/search").param("sort", "balance,asc"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string(containsString("Unsupported sort")));
+        }
+
+        @Test
+        @DisplayName("returns 400 for an invalid cursor")
+        void searchAccounts_invalidCursor() throws Exception {
+            given(accountService.searchAccounts(any(), any(), eq("bad"), anyInt()))
+                    .willThrow(new InvalidCursorException("bad"));
+
+            mockMvc.perform(get("/api/accounts/search").param("cursor", "bad"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /api/accounts/export")
+    class ExportAccounts {
+
+        @Test
+        @DisplayName("streams one JSON document per line")
+        void exportAccounts_writesNdjson() throws Exception {
+            willAnswer(inv -> {
+                Consumer<AccountResponse> consumer = inv.getArgument(0);
+                consumer.accept(accountResponse());
+                consumer.accept(accountResponse());
+                return null;
+            }).given(accountService).exportAccounts(any());
+
+            MvcResult result = mockMvc.perform(get("/api/accounts/export"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            String body = mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                    .andReturn().getResponse().getContentAsString();
+
+            String[] lines = body.split("\n");
+            assertThat(lines).hasSize(2);
+            assertThat(objectMapper.readValue(lines[0], AccountResponse.class).getAccountNumber()).isEqualTo(ACCOUNT_NUMBER);
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /api/accounts/changes")
+    class StreamChanges {
+
+        @Test
+        @DisplayName("resumes from the Last-Event-ID header when since is absent")
+        void streamChanges_lastEventId() throws Exception {
+            given(accountChangeStream.subscribe(42L)).willReturn(new SseEmitter());
+
+            mockMvc.perform(get("/api/accounts/changes").header("Last-Event-ID", "42"))
+                    .andExpect(request().asyncStarted());
+
+            verify(accountChangeStream).subscribe(42L);
+        }
+
+        @Test
+        @DisplayName("returns 404 when change events are disabled")
+        void streamChanges_disabled_returns404() throws Exception {
+            given(accountChangeStream.subscribe(any())).willThrow(new ChangeEventsDisabledException());
+
+            mockMvc.perform(get("/api/accounts/changes").param("since", "0"))
+                    .andExpect(status().isNotFound());
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /api/accounts/live")
+    class LiveAccounts {
+
+        @Test
+        @DisplayName("subscribes to the comma-separated account ids")
+        void streamAccounts_bindsIds() throws Exception {
+            given(liveBalanceService.stream(List.of(1L, 2L))).willReturn(new SseEmitter());
+
+            mockMvc.perform(get("/api/accounts/live").param("ids", "1,2"))
+                    .andExpect(request().asyncStarted());
+
+            verify(liveBalanceService).stream(List.of(1L, 2L));
+        }
+
+        @Test
+        @DisplayName("passes known versions to a long poll")
+        void pollAccounts_bindsVersions() throws Exception {
+            given(liveBalanceService.poll(List.of(1L, 2L), List.of(3L, -1L))).willReturn(new DeferredResult<>());
+
+            mockMvc.perform(get("/api/accounts/live/poll").param("ids", "1,2").param("versions", "3,-1"))
+                    .andExpect(request().asyncStarted());
+
+            verify(liveBalanceService).poll(List.of(1L, 2L), List.of(3L, -1L));
+        }
+
+        @Test
+        @DisplayName("returns 400 for an invalid subscription")
+        void streamAccounts_invalid_returnsBadRequest() throws Exception {
+            given(liveBalanceService.stream(any())).willThrow(new InvalidSubscriptionException("At least one account id is required"));
+
+            mockMvc.perform(get("/api/accounts/live"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(content().string("At least one account id is required"));
         }
     }
 
@@ -166,11 +514,35 @@ class AccountControllerTest {
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$.id").value(ACCOUNT_ID))
                     .andExpect(jsonPath("$.accountNumber").value(ACCOUNT_NUMBER))
-                    .andExpect(jsonPath("$.accountHolderName").value(ACCOUNT_HOLDER));
+                    .andExpect(jsonPath("$.accountHolderName").value(ACCOUNT_HOLDER))
+                    .andExpect(header().string("ETag", matchesPattern("\"3-[0-9a-f]+\"")));
 
             verify(accountService).getAccountById(ACCOUNT_ID);
         }
 
+        @Test
+        @DisplayName("returns 304 without a body when If-None-Match carries the current ETag")
+        void getAccountById_ifNoneMatch_notModified() throws Exception {
+            given(accountService.getAccountById(ACCOUNT_ID)).willReturn(accountResponse());
+            String etag = mockMvc.perform(get("/api/accounts/{id}", ACCOUNT_ID))
+                    .andReturn().getResponse().getHeader("ETag");
+
+            mockMvc.perform(get("/api/accounts/{id}", ACCOUNT_ID).header("If-None-Match", etag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string("ETag", etag))
+                    .andExpect(content().string(""));
+        }
+
+        @Test
+        @DisplayName("returns 200 when If-None-Match carries an older ETag")
+        void getAccountById_staleIfNoneMatch_returnsBody() throws Exception {
+            given(accountService.getAccountById(ACCOUNT_ID)).willReturn(accountResponse());
+
+            mockMvc.perform(get("/api/accounts/{id}", ACCOUNT_ID).header("If-None-Match", "\"2-0\""))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.id").value(ACCOUNT_ID));
+        }
+
         @Test
         @DisplayName("returns 404 when account not found")
         void getAccountById_notFound() throws Exception {
@@ -182,6 +554,32 @@ class AccountControllerTest {
         }
     }
 
+    @Nested
+    @DisplayName("GET /api/accounts/by-number/{accountNumber}")
+    class GetAccountByNumber {
+
+        @Test
+        @DisplayName("returns 200 and account when found")
+        void getAccountByNumber_success() throws Exception {
+            given(accountService.getAccountByNumber(ACCOUNT_NUMBER)).willReturn(accountResponse());
+
+            mockMvc.perform(get("/api/accounts/by-number/{accountNumber}", ACCOUNT_NUMBER))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.id").value(ACCOUNT_ID))
+                    .andExpect(header().string("ETag", matchesPattern("\"3-[0-9a-f]+\"")));
+        }
+
+        @Test
+        @DisplayName("returns 404 when account not found")
+        void getAccountByNumber_notFound() throws Exception {
+            willThrow(new AccountNotFoundException(ACCOUNT_NUMBER)).given(accountService).getAccountByNumber(ACCOUNT_NUMBER);
+
+            mockMvc.perform(get("/api/accounts/by-number/{accountNumber}", ACCOUNT_NUMBER))
+                    .andExpect(status().isNotFound())
+                    .andExpect(content().string(containsString("Account not found with account number: " + ACCOUNT_NUMBER)));
+        }
+    }
+
     @Nested
     @DisplayName("PUT /api/accounts/{id}")
     class UpdateAccount {
@@ -204,6 +602,7 @@ class AccountControllerTest {
                     .updatedAt(NOW)
                     .build();
             given(accountService.updateAccount(eq(ACCOUNT_ID), any(UpdateAccountRequest.class))).willReturn(response);
+            given(accountService.getAccountById(ACCOUNT_ID)).willReturn(response);
 
             mockMvc.perform(put("/api/accounts/{id}", ACCOUNT_ID)
                             .contentType(MediaType.APPLICATION_JSON)
@@ -229,6 +628,102 @@ class AccountControllerTest {
                     .andExpect(status().isNotFound())
                     .andExpect(content().string(containsString("Account not found with id: " + ACCOUNT_ID)));
         }
+
+        @Test
+        @DisplayName("passes If-Match version to a conditional update and returns new ETag")
+        void updateAccount_ifMatch_conditionalUpdate() throws Exception {
+            UpdateAccountRequest request = UpdateAccountRequest.builder()
+                    .accountHolderName("Jane Doe")
+                    .build();
+            given(accountService.updateAccount(eq(ACCOUNT_ID), any(UpdateAccountRequest.class), eq(2L))).willReturn(accountResponse());
+            given(accountService.getAccountById(ACCOUNT_ID)).willReturn(accountResponse());
+
+            mockMvc.perform(put("/api/accounts/{id}", ACCOUNT_ID)
+                            .header("If-Match", "W/\"2\"")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", matchesPattern("\"3-[0-9a-f]+\"")));
+
+            verify(accountService).updateAccount(eq(ACCOUNT_ID), any(UpdateAccountRequest.class), eq(2L));
+        }
+
+        @Test
+        @DisplayName("reads the version from an ETag issued by a GET")
+        void updateAccount_ifMatchWithChecksum_usesVersion() throws Exception {
+            UpdateAccountRequest request = UpdateAccountRequest.builder()
+                    .accountHolderName("Jane Doe")
+                    .build();
+            given(accountService.updateAccount(eq(ACCOUNT_ID), any(UpdateAccountRequest.class), eq(2L))).willReturn(accountResponse());
+            given(accountService.getAccountById(ACCOUNT_ID)).willReturn(accountResponse());
+
+            mockMvc.perform(put("/api/accounts/{id}", ACCOUNT_ID)
+                            .header("If-Match", "\"2-1a2b3c4d\"")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isOk());
+
+            verify(accountService).updateAccount(eq(ACCOUNT_ID), any(UpdateAccountRequest.class), eq(2L));
+        }
+
+        @Test
+        @DisplayName("returns the ETag a GET of the new version returns, so it validates If-None-Match")
+        void updateAccount_etagMatchesGet() throws Exception {
+            UpdateAccountRequest request = UpdateAccountRequest.builder()
+                    .balance(new BigDecimal("2000"))
+                    .build();
+            // The written entity keeps the request's scale; reads return the column's.
+            AccountResponse written = accountResponse();
+            written.setBalance(new BigDecimal("2000"));
+            written.setVersion(4L);
+            AccountResponse read = accountResponse();
+            read.setBalance(new BigDecimal("2000.00"));
+            read.setVersion(4L);
+            given(accountService.updateAccount(eq(ACCOUNT_ID), any(UpdateAccountRequest.class))).willReturn(written);
+            given(accountService.getAccountById(ACCOUNT_ID)).willReturn(read);
+
+            String etag = mockMvc.perform(put("/api/accounts/{id}", ACCOUNT_ID)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.balance").value(2000.00))
+                    .andReturn().getResponse().getHeader("ETag");
+
+            mockMvc.perform(get("/api/accounts/{id}", ACCOUNT_ID).header("If-None-Match", etag))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string("ETag", etag));
+        }
+
+        @Test
+        @DisplayName("returns 412 when If-Match version is stale")
+        void updateAccount_staleIfMatch_returnsPreconditionFailed() throws Exception {
+            UpdateAccountRequest request = UpdateAccountRequest.builder()
+                    .accountHolderName("Jane Doe")
+                    .build();
+            willThrow(new AccountVersionMismatchException(ACCOUNT_ID, 2L))
+                    .given(accountService).updateAccount(eq(ACCOUNT_ID), any(UpdateAccountRequest.class), eq(2L));
+
+            mockMvc.perform(put("/api/accounts/{id}", ACCOUNT_ID)
+                            .header("If-Match", "\"2\"")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isPreconditionFailed());
+        }
+
+        @Test
+        @DisplayName("returns 409 when retries are exhausted")
+        void updateAccount_concurrentUpdate_returnsConflict() throws Exception {
+            UpdateAccountRequest request = UpdateAccountRequest.builder()
+                    .accountHolderName("Jane Doe")
+                    .build();
+            willThrow(new ConcurrentUpdateException(ACCOUNT_ID, 5))
+                    .given(accountService).updateAccount(eq(ACCOUNT_ID), any(UpdateAccountRequest.class));
+
+            mockMvc.perform(put("/api/accounts/{id}", ACCOUNT_ID)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isConflict());
+        }
     }
 
     @Nested
@@ -254,4 +749,121 @@ class AccountControllerTest {
                     .andExpect(content().string(containsString("Account not found with id: " + ACCOUNT_ID)));
         }
     }
+
+    @Nested
+    @DisplayName("application/cbor")
+    class Cbor {
+
+        private ObjectMapper cbor() {
+            return cborConverter.getObjectMapper();
+        }
+
+        @Test
+        @DisplayName("returns an account as CBOR with a weak ETag that still validates")
+        void getAccountById_cbor() throws Exception {
+            given(accountService.getAccountById(ACCOUNT_ID)).willReturn(accountResponse());
+
+            MvcResult result = mockMvc.perform(get("/api/accounts/{id}", ACCOUNT_ID).accept(MediaType.APPLICATION_CBOR))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                    .andExpect(header().string("ETag", matchesPattern("W/\"3-[0-9a-f]+\"")))
+                    .andExpect(header().string("Vary", containsString("Accept")))
+                    .andReturn();
+            byte[] body = result.getResponse().getContentAsByteArray();
+            assertThat(cbor().readValue(body, AccountResponse.class)).isEqualTo(accountResponse());
+            assertThat(body.length).isLessThan(objectMapper.writeValueAsBytes(accountResponse()).length);
+
+            mockMvc.perform(get("/api/accounts/{id}", ACCOUNT_ID)
+                            .accept(MediaType.APPLICATION_CBOR)
+                            .header("If-None-Match", result.getResponse().getHeader("ETag")))
+                    .andExpect(status().isNotModified());
+            mockMvc.perform(get("/api/accounts/{id}", ACCOUNT_ID))
+                    .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(header().string("ETag", matchesPattern("\"3-[0-9a-f]+\"")));
+        }
+
+        @Test
+        @DisplayName("reads CBOR request bodies for create, update and batch")
+        void requests_cbor() throws Exception {
+            CreateAccountRequest create = CreateAccountRequest.builder()
+                    .accountNumber(ACCOUNT_NUMBER)
+                    .accountHolderName(ACCOUNT_HOLDER)
+                    .balance(BALANCE)
+                    .currency(CURRENCY)
+                    .build();
+            given(accountService.createAccount(create)).willReturn(accountResponse());
+            byte[] created = mockMvc.perform(post("/api/accounts")
+                            .contentType(MediaType.APPLICATION_CBOR)
+                            .accept(MediaType.APPLICATION_CBOR)
+                            .content(cbor().writeValueAsBytes(create)))
+                    .andExpect(status().isCreated())
+                    .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                    .andReturn().getResponse().getContentAsByteArray();
+            assertThat(cbor().readValue(created, AccountResponse.class)).isEqualTo(accountResponse());
+
+            UpdateAccountRequest update = UpdateAccountRequest.builder()
+                    .accountHolderName("Jane Doe")
+                    .balance(new BigDecimal("2000.00"))
+                    .build();
+            given(accountService.updateAccount(ACCOUNT_ID, update, 3L)).willReturn(accountResponse());
+            given(accountService.getAccountById(ACCOUNT_ID)).willReturn(accountResponse());
+            mockMvc.perform(put("/api/accounts/{id}", ACCOUNT_ID)
+                            .header("If-Match", "W/\"3-1a2b3c4d\"")
+                            .contentType(MediaType.APPLICATION_CBOR)
+                            .content(cbor().writeValueAsBytes(update)))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+
+            given(accountBatchService.createAccounts(any())).willReturn(BatchCreateResponse.builder().created(1).build());
+            byte[] batch = mockMvc.perform(post("/api/accounts/batch")
+                            .contentType(MediaType.APPLICATION_CBOR)
+                            .accept(MediaType.APPLICATION_CBOR)
+                            .content(cbor().writeValueAsBytes(List.of(create))))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsByteArray();
+            assertThat(cbor().readValue(batch, BatchCreateResponse.class).getCreated()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("returns a page as CBOR")
+        void getAccounts_cbor() throws Exception {
+            given(accountService.getAccounts(null, 50)).willReturn(AccountPage.builder()
+                    .items(List.of(accountResponse()))
+                    .nextCursor("next")
+                    .build());
+
+            byte[] body = mockMvc.perform(get("/api/accounts").accept(MediaType.APPLICATION_CBOR))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                    .andReturn().getResponse().getContentAsByteArray();
+
+            AccountPage page = cbor().readValue(body, AccountPage.class);
+            assertThat(page.getItems()).containsExactly(accountResponse());
+            assertThat(page.getNextCursor()).isEqualTo("next");
+        }
+
+        @Test
+        @DisplayName("exports a CBOR sequence when the client prefers it")
+        void exportAccounts_cborSequence() throws Exception {
+            willAnswer(inv -> {
+                Consumer<AccountResponse> consumer = inv.getArgument(0);
+                consumer.accept(accountResponse());
+                consumer.accept(accountResponse());
+                return null;
+            }).given(accountService).exportAccounts(any());
+
+            MvcResult result = mockMvc.perform(get("/api/accounts/export")
+                            .header("Accept", "application/x-ndjson;q=0.5, application/cbor-seq"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            byte[] body = mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(CborHttpMessageConverter.APPLICATION_CBOR_SEQ))
+                    .andReturn().getResponse().getContentAsByteArray();
+
+            try (MappingIterator<AccountResponse> items = cbor().readerFor(AccountResponse.class).readValues(body)) {
+                assertThat(items.readAll()).containsExactly(accountResponse(), accountResponse());
+            }
+        }
+    }
 }
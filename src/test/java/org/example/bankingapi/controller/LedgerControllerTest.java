@@ -0,0 +1,165 @@
+package org.example.bankingapi.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.bankingapi.dto.AccountResponse;
+import org.example.bankingapi.dto.BalanceResponse;
+import org.example.bankingapi.dto.LedgerEntryResponse;
+import org.example.bankingapi.dto.LedgerPage;
+import org.example.bankingapi.dto.MoneyMovementRequest;
+import org.example.bankingapi.entity.Account;
+import org.example.bankingapi.entity.LedgerEntry;
+import org.example.bankingapi.exception.AccountNotFoundException;
+import org.example.bankingapi.exception.InsufficientFundsException;
+import org.example.bankingapi.exception.InvalidAmountException;
+import org.example.bankingapi.repository.IdempotencyRecordRepository;
+import org.example.bankingapi.service.IdempotencyService;
+import org.example.bankingapi.service.LedgerService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(LedgerController.class)
+@Import(IdempotencyService.class)
+class LedgerControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @MockBean
+    private LedgerService ledgerService;
+
+    private static final MoneyMovementRequest REQUEST = MoneyMovementRequest.builder()
+            .amount(new BigDecimal("25.00"))
+            .description("Salary")
+            .build();
+
+    private static AccountResponse account(String balance) {
+        return AccountResponse.builder()
+                .id(1L)
+                .accountNumber("ACC001")
+                .accountHolderName("John Doe")
+                .balance(new BigDecimal(balance))
+                .currency("USD")
+                .status(Account.AccountStatus.ACTIVE)
+                .version(4L)
+                .build();
+    }
+
+    @Test
+    @DisplayName("POST deposits returns the updated account")
+    void deposit_success() throws Exception {
+        given(ledgerService.deposit(eq(1L), any(MoneyMovementRequest.class))).willReturn(account("125.00"));
+
+        mockMvc.perform(post("/api/accounts/1/deposits")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(REQUEST)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.balance").value(125.00));
+    }
+
+    @Test
+    @DisplayName("POST withdrawals returns 422 on insufficient funds")
+    void withdraw_insufficientFunds_returns422() throws Exception {
+        willThrow(new InsufficientFundsException(1L)).given(ledgerService).withdraw(eq(1L), any(MoneyMovementRequest.class));
+
+        mockMvc.perform(post("/api/accounts/1/withdrawals")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(REQUEST)))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    @DisplayName("POST deposits rejects non-positive amounts")
+    void deposit_invalidAmount_returns400() throws Exception {
+        MoneyMovementRequest invalid = MoneyMovementRequest.builder().amount(BigDecimal.ZERO).build();
+
+        mockMvc.perform(post("/api/accounts/1/deposits")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(invalid)))
+                .andExpect(status().isBadRequest());
+        verify(ledgerService, never()).deposit(any(), any());
+    }
+
+    @Test
+    @DisplayName("POST deposits returns 400 when the amount is too precise for the currency")
+    void deposit_tooPrecise_returns400() throws Exception {
+        willThrow(new InvalidAmountException("Amount 10.5 has more than 0 decimals for JPY"))
+                .given(ledgerService).deposit(eq(1L), any(MoneyMovementRequest.class));
+
+        mockMvc.perform(post("/api/accounts/1/deposits")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(REQUEST)))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(containsString("JPY")));
+    }
+
+    @Test
+    @DisplayName("GET ledger returns a page of entries with the next cursor")
+    void getStatement_success() throws Exception {
+        LedgerEntryResponse entry = LedgerEntryResponse.builder()
+                .accountId(1L)
+                .sequence(1L)
+                .type(LedgerEntry.EntryType.OPENING)
+                .amount(new BigDecimal("100.00"))
+                .createdAt(Instant.now())
+                .build();
+        given(ledgerService.getStatement(1L, "abc", 10))
+                .willReturn(LedgerPage.builder().items(List.of(entry)).nextCursor("next").build());
+
+        mockMvc.perform(get("/api/accounts/1/ledger").param("cursor", "abc").param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].type").value("OPENING"))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+    }
+
+    @Test
+    @DisplayName("GET balance parses the point in time")
+    void getBalance_at() throws Exception {
+        Instant at = Instant.parse("2026-01-01T00:00:00Z");
+        given(ledgerService.getBalanceAt(1L, at)).willReturn(BalanceResponse.builder()
+                .accountId(1L)
+                .at(at)
+                .balance(new BigDecimal("42.00"))
+                .currency("USD")
+                .build());
+
+        mockMvc.perform(get("/api/accounts/1/balance").param("at", "2026-01-01T00:00:00Z"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.balance").value(42.00));
+    }
+
+    @Test
+    @DisplayName("returns 404 for unknown accounts")
+    void getBalance_notFound_returns404() throws Exception {
+        willThrow(new AccountNotFoundException(9L)).given(ledgerService).getBalanceAt(eq(9L), any(Instant.class));
+
+        mockMvc.perform(get("/api/accounts/9/balance"))
+                .andExpect(status().isNotFound());
+    }
+}
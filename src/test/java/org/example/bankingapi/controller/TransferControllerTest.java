@@ -0,0 +1,142 @@
+package org.example.bankingapi.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.bankingapi.dto.TransferRequest;
+import org.example.bankingapi.dto.TransferResponse;
+import org.example.bankingapi.exception.AccountNotFoundException;
+import org.example.bankingapi.exception.InsufficientFundsException;
+import org.example.bankingapi.exception.InvalidTransferException;
+import org.example.bankingapi.repository.IdempotencyRecordRepository;
+import org.example.bankingapi.service.IdempotencyService;
+import org.example.bankingapi.service.TransferService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(TransferController.class)
+@Import(IdempotencyService.class)
+class TransferControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @MockBean
+    private TransferService transferService;
+
+    private static final TransferRequest REQUEST = TransferRequest.builder()
+            .fromAccountId(1L)
+            .toAccountId(2L)
+            .amount(new BigDecimal("25.00"))
+            .build();
+
+    @Test
+    @DisplayName("returns 201 and resulting balances")
+    void transfer_success() throws Exception {
+        given(transferService.transfer(any(TransferRequest.class))).willReturn(TransferResponse.builder()
+                .fromAccountId(1L)
+                .toAccountId(2L)
+                .amount(new BigDecimal("25.00"))
+                .currency("USD")
+                .fromBalance(new BigDecimal("75.00"))
+                .toBalance(new BigDecimal("125.00"))
+                .completedAt(Instant.now())
+                .build());
+
+        mockMvc.perform(post("/api/transfers")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(REQUEST)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.fromBalance").value(75.00))
+                .andExpect(jsonPath("$.toBalance").value(125.00));
+    }
+
+    @Test
+    @DisplayName("executes a transfer once per Idempotency-Key")
+    void transfer_idempotentRetry_executesOnce() throws Exception {
+        given(transferService.transfer(any(TransferRequest.class))).willReturn(TransferResponse.builder()
+                .transferId("t-1")
+                .fromAccountId(1L)
+                .toAccountId(2L)
+                .amount(new BigDecimal("25.00"))
+                .build());
+
+        for (int attempt = 0; attempt < 3; attempt++) {
+            mockMvc.perform(post("/api/transfers")
+                            .header("Idempotency-Key", "transfer-1")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(REQUEST)))
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$.transferId").value("t-1"));
+        }
+
+        verify(transferService, times(1)).transfer(any(TransferRequest.class));
+    }
+
+    @Test
+    @DisplayName("returns 400 when amount is not positive")
+    void transfer_invalidAmount_returnsBadRequest() throws Exception {
+        mockMvc.perform(post("/api/transfers")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"fromAccountId\":1,\"toAccountId\":2,\"amount\":0}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("returns 400 when transfer is invalid")
+    void transfer_invalidTransfer_returnsBadRequest() throws Exception {
+        willThrow(new InvalidTransferException("Cannot transfer to the same account: 1"))
+                .given(transferService).transfer(any(TransferRequest.class));
+
+        mockMvc.perform(post("/api/transfers")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(REQUEST)))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(containsString("same account")));
+    }
+
+    @Test
+    @DisplayName("returns 404 when an account does not exist")
+    void transfer_accountNotFound() throws Exception {
+        willThrow(new AccountNotFoundException(2L)).given(transferService).transfer(any(TransferRequest.class));
+
+        mockMvc.perform(post("/api/transfers")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(REQUEST)))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("returns 422 when funds are insufficient")
+    void transfer_insufficientFunds() throws Exception {
+        willThrow(new InsufficientFundsException(1L)).given(transferService).transfer(any(TransferRequest.class));
+
+        mockMvc.perform(post("/api/transfers")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(REQUEST)))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(content().string(containsString("Insufficient funds in account with id: 1")));
+    }
+}
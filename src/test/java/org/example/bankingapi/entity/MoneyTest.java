@@ -0,0 +1,79 @@
+package org.example.bankingapi.entity;
+
+import org.example.bankingapi.exception.InvalidAmountException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MoneyTest {
+
+    private static Money usd(String amount) {
+        return Money.of(new BigDecimal(amount), "USD");
+    }
+
+    @Test
+    @DisplayName("holds amounts as hundredths and renders them at scale 2")
+    void of_storesHundredths() {
+        Money money = usd("12.3");
+
+        assertThat(money.getUnits()).isEqualTo(1230L);
+        assertThat(money.toBigDecimal()).isEqualTo(new BigDecimal("12.30"));
+        assertThat(money.toString()).isEqualTo("12.30 USD");
+        assertThat(usd("7.000")).isEqualTo(usd("7"));
+    }
+
+    @Test
+    @DisplayName("enforces the precision of the currency")
+    void of_enforcesCurrencyPrecision() {
+        assertThat(Money.of(new BigDecimal("500"), "JPY").getUnits()).isEqualTo(50_000L);
+        assertThatThrownBy(() -> Money.of(new BigDecimal("500.5"), "JPY"))
+                .isInstanceOf(InvalidAmountException.class);
+        assertThatThrownBy(() -> usd("0.001"))
+                .isInstanceOf(InvalidAmountException.class);
+        assertThatThrownBy(() -> Money.of(BigDecimal.ONE, "BHD"))
+                .isInstanceOf(InvalidAmountException.class)
+                .hasMessageContaining("3 decimals");
+    }
+
+    @Test
+    @DisplayName("adds, subtracts and compares exactly")
+    void arithmetic() {
+        Money balance = usd("100.00");
+
+        assertThat(balance.minus(usd("30.01"))).isEqualTo(usd("69.99"));
+        assertThat(balance.plus(usd("0.01"))).isEqualTo(usd("100.01"));
+        assertThat(balance.minus(usd("100.01")).isNegative()).isTrue();
+        assertThat(balance.compareTo(usd("99.99"))).isPositive();
+        assertThat(balance.negate().signum()).isEqualTo(-1);
+    }
+
+    @Test
+    @DisplayName("rejects amounts and results outside the long range")
+    void overflow_throws() {
+        assertThatThrownBy(() -> usd("100000000000000000000"))
+                .isInstanceOf(InvalidAmountException.class);
+        assertThatThrownBy(() -> Money.ofUnits(Long.MAX_VALUE, "USD").plus(usd("0.01")))
+                .isInstanceOf(InvalidAmountException.class);
+    }
+
+    @Test
+    @DisplayName("refuses to mix currencies")
+    void currencyMismatch_throws() {
+        assertThatThrownBy(() -> usd("1.00").plus(Money.of(BigDecimal.ONE, "EUR")))
+                .isInstanceOf(InvalidAmountException.class)
+                .hasMessageContaining("USD and EUR");
+    }
+
+    @Test
+    @DisplayName("converts between hundredths and the amount column")
+    void converter_roundTrip() {
+        MoneyUnitsConverter converter = new MoneyUnitsConverter();
+
+        assertThat(converter.convertToDatabaseColumn(-1234L)).isEqualTo(new BigDecimal("-12.34"));
+        assertThat(converter.convertToEntityAttribute(new BigDecimal("-12.34"))).isEqualTo(-1234L);
+    }
+}
@@ -0,0 +1,71 @@
+package org.example.bankingapi.fx;
+
+import org.example.bankingapi.exception.UnknownCurrencyException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FxRateTableTest {
+
+    @TempDir
+    private Path directory;
+
+    private Path write(String content, Instant modified) throws IOException {
+        Path file = directory.resolve("rates.properties");
+        Files.writeString(file, content);
+        Files.setLastModifiedTime(file, FileTime.from(modified));
+        return file;
+    }
+
+    @Test
+    @DisplayName("derives cross rates through the base and rounds to the target's decimals")
+    void convert_crossRate() throws IOException {
+        Path file = write("version=v1\nbase=USD\nEUR=0.8\nGBP=0.5\nJPY=150\n", Instant.parse("2026-01-01T00:00:00Z"));
+        FxRates rates = new FxRateTable(new FileSystemResource(file)).current();
+
+        assertThat(rates.getVersion()).isEqualTo("v1");
+        assertThat(rates.getCurrencies()).containsExactlyInAnyOrder("USD", "EUR", "GBP", "JPY");
+        assertThat(rates.rate("EUR", "GBP")).isEqualByComparingTo("0.625");
+        assertThat(rates.convert(new BigDecimal("10.00"), "EUR", "GBP")).isEqualTo(new BigDecimal("6.25"));
+        assertThat(rates.convert(new BigDecimal("1.01"), "USD", "JPY")).isEqualTo(new BigDecimal("152"));
+        assertThat(rates.convert(new BigDecimal("3.00"), "USD", "USD")).isEqualTo(new BigDecimal("3.00"));
+        assertThatThrownBy(() -> rates.rate("USD", "CHF"))
+                .isInstanceOf(UnknownCurrencyException.class)
+                .hasMessageContaining("CHF")
+                .hasMessageContaining("v1");
+    }
+
+    @Test
+    @DisplayName("swaps in a changed file and keeps the last good table when the file is broken")
+    void reloadIfChanged() throws IOException {
+        Path file = write("version=v1\nbase=USD\nEUR=0.8\n", Instant.parse("2026-01-01T00:00:00Z"));
+        FxRateTable table = new FxRateTable(new FileSystemResource(file));
+        FxRates first = table.current();
+
+        table.reloadIfChanged();
+        assertThat(table.current()).isSameAs(first);
+
+        write("version=v2\nbase=USD\nEUR=0.9\n", Instant.parse("2026-01-02T00:00:00Z"));
+        table.reloadIfChanged();
+        assertThat(table.current().getVersion()).isEqualTo("v2");
+        assertThat(table.current().rate("USD", "EUR")).isEqualByComparingTo("0.9");
+        assertThat(first.rate("USD", "EUR")).isEqualByComparingTo("0.8");
+
+        write("version=v3\nbase=USD\nEUR=-1\n", Instant.parse("2026-01-03T00:00:00Z"));
+        table.reloadIfChanged();
+        assertThat(table.current().getVersion()).isEqualTo("v2");
+        assertThat(table.getLoads()).isEqualTo(2);
+        assertThat(table.getFailures()).isEqualTo(1);
+    }
+}
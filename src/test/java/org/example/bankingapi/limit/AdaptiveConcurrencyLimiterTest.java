@@ -0,0 +1,60 @@
+package org.example.bankingapi.limit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(true, 10, 2, 12, 2.0, 0.5);
+
+    @Test
+    @DisplayName("admits up to the limit and again after a release")
+    void tryAcquire_upToLimit() {
+        for (int i = 0; i < 10; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+        }
+        assertThat(limiter.tryAcquire()).isFalse();
+        limiter.release();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.getRejected()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("cuts the limit when pool latency leaves the baseline, down to the minimum")
+    void onLatency_backsOff() {
+        limiter.onLatency(2 * MILLI);
+        limiter.onLatency(3 * MILLI);
+        assertThat(limiter.getLimit()).isEqualTo(10);
+
+        limiter.onLatency(10 * MILLI);
+        assertThat(limiter.getLimit()).isEqualTo(5);
+        limiter.onLatency(10 * MILLI);
+        limiter.onLatency(10 * MILLI);
+        assertThat(limiter.getLimit()).isEqualTo(2);
+        assertThat(limiter.getBaselineNanos()).isLessThan(3 * MILLI);
+    }
+
+    @Test
+    @DisplayName("grows the limit while healthy only if requests use it, up to the maximum")
+    void onLatency_growsUnderUse() {
+        limiter.onLatency(2 * MILLI);
+        assertThat(limiter.getLimit()).isEqualTo(10);
+
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < limiter.getLimit(); i++) {
+                limiter.tryAcquire();
+            }
+            for (int i = limiter.getInFlight(); i > 0; i--) {
+                limiter.release();
+            }
+            limiter.onLatency(2 * MILLI);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(12);
+    }
+}
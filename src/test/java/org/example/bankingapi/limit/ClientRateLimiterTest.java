@@ -0,0 +1,32 @@
+package org.example.bankingapi.limit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClientRateLimiterTest {
+
+    @Test
+    @DisplayName("keeps at most max-buckets buckets however many clients show up")
+    void tryAcquire_capsBuckets() {
+        ClientRateLimiter limiter = new ClientRateLimiter(true, 1, 5, 100);
+        long now = System.nanoTime();
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(limiter.tryAcquire("client-" + i + " GET /api/accounts", 1, now)).isZero();
+        }
+        assertThat(limiter.getBuckets()).isLessThanOrEqualTo(100);
+    }
+
+    @Test
+    @DisplayName("charges each bucket on its own and refuses once it is empty")
+    void tryAcquire_emptiesBucket() {
+        ClientRateLimiter limiter = new ClientRateLimiter(true, 1, 5, 100);
+        long now = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire("a", 1, now)).isZero();
+        }
+        assertThat(limiter.tryAcquire("a", 1, now)).isPositive();
+        assertThat(limiter.tryAcquire("b", 1, now)).isZero();
+    }
+}
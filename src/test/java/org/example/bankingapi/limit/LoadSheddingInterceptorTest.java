@@ -0,0 +1,159 @@
+package org.example.bankingapi.limit;
+
+import org.example.bankingapi.dto.AccountResponse;
+import org.example.bankingapi.dto.CreateAccountRequest;
+import org.example.bankingapi.repository.AccountRepository;
+import org.example.bankingapi.repository.BalanceSnapshotRepository;
+import org.example.bankingapi.repository.LedgerEntryRepository;
+import org.example.bankingapi.service.AccountService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "banking.limits.enabled=true",
+        "banking.limits.rate.tokens-per-second=0.1",
+        "banking.limits.rate.burst=20",
+        "banking.limits.concurrency.initial=5",
+        "banking.limits.concurrency.min=5",
+        "banking.limits.concurrency.max=5",
+        "banking.limits.concurrency.retry-after=2s"})
+@AutoConfigureMockMvc
+class LoadSheddingInterceptorTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private BalanceSnapshotRepository balanceSnapshotRepository;
+
+    private AccountResponse account;
+
+    @BeforeEach
+    void setUp() {
+        account = accountService.createAccount(CreateAccountRequest.builder()
+                .accountNumber("LIMIT-1")
+                .accountHolderName("Limit Holder")
+                .balance(new BigDecimal("10.00"))
+                .currency("USD")
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        accountRepository.deleteAll();
+        ledgerEntryRepository.deleteAll();
+        balanceSnapshotRepository.deleteAll();
+    }
+
+    private static RequestPostProcessor from(String address) {
+        return request -> {
+            request.setRemoteAddr(address);
+            return request;
+        };
+    }
+
+    @Test
+    @DisplayName("charges listings more than point reads and answers an empty bucket with 429")
+    void rateLimit_perClientAndEndpoint() throws Exception {
+        mockMvc.perform(get("/api/accounts").with(from("10.0.0.1"))).andExpect(status().isOk());
+        mockMvc.perform(get("/api/accounts").with(from("10.0.0.1"))).andExpect(status().isOk());
+        mockMvc.perform(get("/api/accounts").with(from("10.0.0.1")))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "100"));
+
+        // Point reads have their own bucket, and other clients are not affected.
+        for (int i = 0; i < 20; i++) {
+            mockMvc.perform(get("/api/accounts/{id}", account.getId()).with(from("10.0.0.1")))
+                    .andExpect(status().isOk());
+        }
+        mockMvc.perform(get("/api/accounts/{id}", account.getId()).with(from("10.0.0.1")))
+                .andExpect(status().isTooManyRequests());
+        mockMvc.perform(get("/api/accounts").with(from("10.0.0.2"))).andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("keys buckets on the remote address, not on a header the client chooses")
+    void rateLimit_ignoresClientHeader() throws Exception {
+        mockMvc.perform(get("/api/accounts").with(from("10.0.0.3")).header("X-Client-Id", "a"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/accounts").with(from("10.0.0.3")).header("X-Client-Id", "b"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/accounts").with(from("10.0.0.3")).header("X-Client-Id", "c"))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    @DisplayName("an export keeps its slot until the stream completes; a long poll gives it up while waiting")
+    void concurrencyLimit_asyncResponses() throws Exception {
+        MvcResult export = mockMvc.perform(get("/api/accounts/export").with(from("10.0.0.4")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        export.getAsyncResult(10_000);
+        assertThat(concurrencyLimiter.getInFlight()).isEqualTo(1);
+        mockMvc.perform(asyncDispatch(export)).andExpect(status().isOk());
+        assertThat(concurrencyLimiter.getInFlight()).isZero();
+
+        mockMvc.perform(get("/api/accounts/live/poll").with(from("10.0.0.4"))
+                        .param("ids", account.getId().toString())
+                        .param("versions", Long.toString(account.getVersion())))
+                .andExpect(request().asyncStarted());
+        assertThat(concurrencyLimiter.getInFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("sheds requests with 503 while the concurrency limit is taken, and frees slots afterwards")
+    void concurrencyLimit_shedsLoad() throws Exception {
+        assertThat(concurrencyLimiter.getInFlight()).isZero();
+        for (int i = 0; i < 5; i++) {
+            assertThat(concurrencyLimiter.tryAcquire()).isTrue();
+        }
+        try {
+            mockMvc.perform(get("/api/accounts/{id}", account.getId()).with(from("10.0.0.5")))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string(HttpHeaders.RETRY_AFTER, "2"));
+        } finally {
+            for (int i = 0; i < 5; i++) {
+                concurrencyLimiter.release();
+            }
+        }
+
+        mockMvc.perform(get("/api/accounts/{id}", account.getId()).with(from("10.0.0.5")))
+                .andExpect(status().isOk());
+        assertThat(concurrencyLimiter.getInFlight()).isZero();
+
+        // The limit follows the pool timers HikariCP publishes.
+        concurrencyLimiter.update();
+        assertThat(concurrencyLimiter.getBaselineNanos()).isPositive();
+    }
+}
@@ -0,0 +1,38 @@
+package org.example.bankingapi.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QueryCountInterceptorTest {
+
+    @Test
+    @DisplayName("records statements issued between preHandle and afterCompletion per route")
+    void afterCompletion_recordsStatementCount() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        QueryCountInterceptor interceptor = new QueryCountInterceptor(registry);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/accounts/1");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/accounts/{id}");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        QueryCountInspector inspector = new QueryCountInspector();
+
+        QueryCounter.increment();
+        interceptor.preHandle(request, response, null);
+        inspector.inspect("select 1");
+        inspector.inspect("select 2");
+        interceptor.afterCompletion(request, response, null, null);
+
+        DistributionSummary summary = registry.get("banking.http.db.statements")
+                .tag("method", "GET")
+                .tag("uri", "/api/accounts/{id}")
+                .summary();
+        assertThat(summary.count()).isEqualTo(1);
+        assertThat(summary.totalAmount()).isEqualTo(2.0);
+    }
+}
@@ -0,0 +1,55 @@
+package org.example.bankingapi.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.bankingapi.exception.AccountNotFoundException;
+import org.example.bankingapi.service.AccountService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.mock;
+
+class ServiceMetricsAspectTest {
+
+    private SimpleMeterRegistry registry;
+    private AccountService target;
+    private AccountService proxy;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        target = mock(AccountService.class);
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new ServiceMetricsAspect(registry));
+        proxy = factory.getProxy();
+    }
+
+    @Test
+    @DisplayName("times each call under a per-method timer")
+    void record_timesCalls() {
+        given(target.getAccountById(1L)).willReturn(null);
+
+        proxy.getAccountById(1L);
+        proxy.getAccountById(1L);
+
+        assertThat(registry.get("banking.service").tag("method", "getAccountById").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("counts thrown exceptions by type and still records latency")
+    void record_countsExceptions() {
+        willThrow(new AccountNotFoundException(1L)).given(target).deleteAccount(1L);
+
+        assertThatThrownBy(() -> proxy.deleteAccount(1L)).isInstanceOf(AccountNotFoundException.class);
+
+        assertThat(registry.get("banking.service.exceptions").tag("exception", "AccountNotFoundException").counter().count())
+                .isEqualTo(1.0);
+        assertThat(registry.get("banking.service").tag("method", "deleteAccount").timer().count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,206 @@
+package org.example.bankingapi.outbox;
+
+import org.example.bankingapi.dto.AccountChangeEvent;
+import org.example.bankingapi.dto.CreateAccountRequest;
+import org.example.bankingapi.dto.MoneyMovementRequest;
+import org.example.bankingapi.dto.TransferRequest;
+import org.example.bankingapi.dto.UpdateAccountRequest;
+import org.example.bankingapi.entity.AccountEvent;
+import org.example.bankingapi.repository.AccountEventRepository;
+import org.example.bankingapi.repository.AccountRepository;
+import org.example.bankingapi.repository.LedgerEntryRepository;
+import org.example.bankingapi.service.AccountService;
+import org.example.bankingapi.service.LedgerService;
+import org.example.bankingapi.service.TransferService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.EventListener;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "banking.outbox.enabled=true",
+        "banking.outbox.poll-interval=PT1H",
+        "banking.outbox.batch-size=3",
+        "banking.outbox.file.path=target/outbox-relay-test.ndjson"})
+@AutoConfigureMockMvc
+class OutboxRelayTest {
+
+    private static final Path FILE = Path.of("target/outbox-relay-test.ndjson");
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private AccountOutbox accountOutbox;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private AccountEventRepository accountEventRepository;
+
+    @Autowired
+    private RecordingSink recordingSink;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @TestConfiguration
+    static class Sinks {
+
+        @Bean
+        RecordingSink recordingSink() {
+            return new RecordingSink();
+        }
+    }
+
+    static class RecordingSink implements AccountChangeSink {
+
+        final List<AccountChangeEvent> published = new CopyOnWriteArrayList<>();
+        final List<AccountChangeEvent> heard = new CopyOnWriteArrayList<>();
+        volatile boolean failing;
+
+        @Override
+        public void publish(List<AccountChangeEvent> events) {
+            if (failing) {
+                throw new IllegalStateException("sink down");
+            }
+            published.addAll(events);
+        }
+
+        @EventListener
+        void onChange(AccountChangeEvent event) {
+            heard.add(event);
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        outboxRelay.relay();
+        recordingSink.published.clear();
+        recordingSink.heard.clear();
+        recordingSink.failing = false;
+    }
+
+    @AfterEach
+    void tearDown() {
+        accountRepository.deleteAll();
+        ledgerEntryRepository.deleteAll();
+        accountEventRepository.deleteAll();
+    }
+
+    private Long create(String number, String balance) {
+        return accountService.createAccount(CreateAccountRequest.builder()
+                .accountNumber(number)
+                .accountHolderName("Outbox Holder")
+                .balance(new BigDecimal(balance))
+                .currency("USD")
+                .build()).getId();
+    }
+
+    @Test
+    @DisplayName("publishes every account change once, in order, to every sink")
+    void relay_publishesInOrder() throws Exception {
+        Long first = create("OUTBOX-1", "100.00");
+        Long second = create("OUTBOX-2", "0.00");
+        accountService.updateAccount(first, UpdateAccountRequest.builder().accountHolderName("Renamed").build());
+        ledgerService.deposit(second, new MoneyMovementRequest(new BigDecimal("5.00"), null));
+        transferService.transfer(new TransferRequest(first, second, new BigDecimal("10.00")));
+        accountService.deleteAccount(first);
+
+        outboxRelay.relay();
+
+        List<AccountChangeEvent> events = recordingSink.published;
+        assertThat(events).extracting(AccountChangeEvent::getAccountId, AccountChangeEvent::getType, AccountChangeEvent::getAccountVersion)
+                .containsExactly(
+                        tuple(first, AccountEvent.ChangeType.CREATED, 0L),
+                        tuple(second, AccountEvent.ChangeType.CREATED, 0L),
+                        tuple(first, AccountEvent.ChangeType.UPDATED, 1L),
+                        tuple(second, AccountEvent.ChangeType.UPDATED, 1L),
+                        tuple(first, AccountEvent.ChangeType.UPDATED, 2L),
+                        tuple(second, AccountEvent.ChangeType.UPDATED, 2L),
+                        tuple(first, AccountEvent.ChangeType.DELETED, 2L));
+        assertThat(events).extracting(AccountChangeEvent::getPosition).isSorted().doesNotHaveDuplicates();
+        assertThat(events.get(5).getAccount().getBalance()).isEqualByComparingTo("15.00");
+        assertThat(events.get(6).getAccount()).isNull();
+        assertThat(recordingSink.heard).containsExactlyElementsOf(events);
+        assertThat(Files.readAllLines(FILE)).last().asString().contains("\"type\":\"DELETED\"");
+
+        outboxRelay.relay();
+        assertThat(recordingSink.published).hasSize(7);
+        assertThat(accountOutbox.eventsAfter(events.get(2).getPosition(), 100)).containsExactlyElementsOf(events.subList(3, 7));
+    }
+
+    @Test
+    @DisplayName("keeps a batch unpublished while a sink fails and offers it again")
+    void relay_retriesFailedBatch() {
+        create("OUTBOX-3", "1.00");
+        recordingSink.failing = true;
+        long failures = outboxRelay.getFailures();
+
+        outboxRelay.relay();
+
+        assertThat(outboxRelay.getFailures()).isEqualTo(failures + 1);
+        List<AccountEvent> pending = accountEventRepository.findAll();
+        assertThat(pending).extracting(AccountEvent::getPosition).containsOnlyNulls();
+        assertThat(outboxRelay.getLastFailure())
+                .contains("events " + pending.get(0).getId() + ".." + pending.get(pending.size() - 1).getId())
+                .contains("sink down");
+
+        recordingSink.failing = false;
+        outboxRelay.relay();
+
+        assertThat(recordingSink.published).hasSize(1);
+        assertThat(accountEventRepository.findAll()).extracting(AccountEvent::getPosition).doesNotContainNull();
+    }
+
+    @Test
+    @DisplayName("streams published changes after the requested position, then live ones")
+    void stream_catchesUpThenFollows() throws Exception {
+        Long id = create("OUTBOX-4", "1.00");
+        outboxRelay.relay();
+        long since = recordingSink.published.get(0).getPosition() - 1;
+
+        MvcResult result = mockMvc.perform(get("/api/accounts/changes").param("since", String.valueOf(since)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        accountService.updateAccount(id, UpdateAccountRequest.builder().accountHolderName("Live").build());
+        outboxRelay.relay();
+
+        String body = result.getResponse().getContentAsString();
+        assertThat(body).contains("id:" + (since + 1), "event:CREATED", "event:UPDATED", "\"accountHolderName\":\"Live\"");
+        assertThat(body.indexOf("event:CREATED")).isLessThan(body.indexOf("event:UPDATED"));
+    }
+}
@@ -0,0 +1,193 @@
+package org.example.bankingapi.replica;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReplicaRoutingDataSourceTest {
+
+    private DataSource primary;
+    private SwitchableDataSource replica0;
+    private SwitchableDataSource replica1;
+    private ReplicaRouter router;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+
+    @BeforeEach
+    void setUp() {
+        primary = database("primary");
+        replica0 = new SwitchableDataSource(database("replica0"));
+        replica1 = new SwitchableDataSource(database("replica1"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReplicaRouter.clearPrimary();
+    }
+
+    private void route(ReplicaRouter.Selection selection, DataSource... replicas) {
+        router = new ReplicaRouter(List.of(replicas), selection, Duration.ofSeconds(5), Duration.ofSeconds(1));
+        DataSource dataSource = new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(primary, router));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readWrite = new TransactionTemplate(transactionManager);
+    }
+
+    private String readOnlyNode() {
+        return readOnly.execute(status -> node());
+    }
+
+    private String node() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    @Test
+    @DisplayName("sends read-only transactions to the replicas in turn and the rest to the primary")
+    void routes_readOnlyToReplicas() {
+        route(ReplicaRouter.Selection.ROUND_ROBIN, replica0, replica1);
+
+        assertThat(readOnlyNode()).isEqualTo("replica0");
+        assertThat(readOnlyNode()).isEqualTo("replica1");
+        assertThat(readOnlyNode()).isEqualTo("replica0");
+        String written = readWrite.execute(status -> node());
+        assertThat(written).isEqualTo("primary");
+        assertThat(node()).isEqualTo("primary");
+        assertThat(router.getReplicaReads()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("least-loaded selection skips the replica holding an open connection")
+    void routes_leastLoaded() {
+        route(ReplicaRouter.Selection.LEAST_LOADED, replica0, replica1);
+
+        String second = readOnly.execute(outer -> {
+            assertThat(node()).isEqualTo("replica0");
+            assertThat(router.getActive(0)).isEqualTo(1);
+            // A separate thread has no transaction of its own to join.
+            String[] inner = new String[1];
+            Thread thread = new Thread(() -> inner[0] = readOnlyNode());
+            thread.start();
+            try {
+                thread.join();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return inner[0];
+        });
+        assertThat(second).isEqualTo("replica1");
+        assertThat(router.getActive(0)).isZero();
+        assertThat(router.getActive(1)).isZero();
+    }
+
+    @Test
+    @DisplayName("pins a client to the primary after its own write, for reads only")
+    void readYourWrites() throws Exception {
+        route(ReplicaRouter.Selection.ROUND_ROBIN, replica0);
+        ReadYourWritesInterceptor interceptor = new ReadYourWritesInterceptor(router, "X-Client-Id");
+
+        MockHttpServletRequest write = request("PUT", "alice");
+        interceptor.preHandle(write, new MockHttpServletResponse(), null);
+        interceptor.afterCompletion(write, new MockHttpServletResponse(), null, null);
+
+        MockHttpServletRequest read = request("GET", "alice");
+        interceptor.preHandle(read, new MockHttpServletResponse(), null);
+        assertThat(readOnlyNode()).isEqualTo("primary");
+        interceptor.afterCompletion(read, new MockHttpServletResponse(), null, null);
+        assertThat(readOnlyNode()).isEqualTo("replica0");
+
+        MockHttpServletRequest other = request("GET", "bob");
+        interceptor.preHandle(other, new MockHttpServletResponse(), null);
+        assertThat(readOnlyNode()).isEqualTo("replica0");
+        interceptor.afterCompletion(other, new MockHttpServletResponse(), null, null);
+
+        MockHttpServletRequest failed = request("POST", "bob");
+        MockHttpServletResponse conflict = new MockHttpServletResponse();
+        conflict.setStatus(409);
+        interceptor.preHandle(failed, conflict, null);
+        interceptor.afterCompletion(failed, conflict, null, null);
+        assertThat(router.isPinned("alice", System.nanoTime())).isTrue();
+        assertThat(router.isPinned("bob", System.nanoTime())).isFalse();
+        assertThat(router.getPrimaryReads()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("falls back to the next replica, then the primary, and restores a replica once it answers")
+    void failover() {
+        route(ReplicaRouter.Selection.ROUND_ROBIN, replica0, replica1);
+
+        replica0.down = true;
+        assertThat(readOnlyNode()).isEqualTo("replica1");
+        assertThat(router.isHealthy(0)).isFalse();
+        assertThat(readOnlyNode()).isEqualTo("replica1");
+
+        replica1.down = true;
+        assertThat(readOnlyNode()).isEqualTo("primary");
+        assertThat(router.getHealthyReplicas()).isZero();
+        assertThat(router.getFailovers()).isEqualTo(2);
+
+        router.checkHealth();
+        assertThat(readOnlyNode()).isEqualTo("primary");
+
+        replica0.down = false;
+        router.checkHealth();
+        assertThat(router.getHealthyReplicas()).isEqualTo(1);
+        assertThat(readOnlyNode()).isEqualTo("replica0");
+        assertThat(router.getFailovers()).isEqualTo(2);
+    }
+
+    private static MockHttpServletRequest request(String method, String client) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/api/accounts/1");
+        request.addHeader("X-Client-Id", client);
+        return request;
+    }
+
+    /**
+     * A fresh in-memory database whose one row names it, so a query shows where it ran.
+     */
+    private static DataSource database(String name) {
+        DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE node (name VARCHAR(20))");
+        jdbcTemplate.update("INSERT INTO node VALUES (?)", name);
+        return dataSource;
+    }
+
+    private static final class SwitchableDataSource extends DelegatingDataSource {
+
+        private volatile boolean down;
+
+        private SwitchableDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (down) {
+                throw new SQLException("Connection refused");
+            }
+            return super.getConnection();
+        }
+    }
+}
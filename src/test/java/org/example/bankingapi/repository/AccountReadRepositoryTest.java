@@ -0,0 +1,91 @@
+package org.example.bankingapi.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.bankingapi.dto.AccountResponse;
+import org.example.bankingapi.entity.Account;
+import org.example.bankingapi.entity.Money;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {"spring.jpa.show-sql=false"})
+class AccountReadRepositoryTest {
+
+    @Autowired
+    private AccountReadRepository accountReadRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private List<Account> accounts;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        accounts = accountRepository.saveAll(IntStream.range(0, 5)
+                .mapToObj(i -> Account.builder()
+                        .accountNumber("READ-" + i)
+                        .accountHolderName("Reader " + i)
+                        .balance(Money.of(new BigDecimal("10.50"), "EUR"))
+                        .currency("EUR")
+                        .status(Account.AccountStatus.ACTIVE)
+                        .build())
+                .collect(Collectors.toList()));
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        accountRepository.deleteAllById(accounts.stream().map(Account::getId).collect(Collectors.toList()));
+    }
+
+    @Test
+    @DisplayName("returns what the entity path returns without loading an entity or opening a session")
+    void findById_matchesEntityPath() {
+        Account account = accounts.get(2);
+
+        AccountResponse read = accountReadRepository.findById(account.getId()).orElseThrow();
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getSessionOpenCount()).isZero();
+
+        AccountResponse fromEntity = accountRepository.findById(account.getId()).map(AccountResponse::fromEntity).orElseThrow();
+        assertThat(statistics.getEntityLoadCount()).isEqualTo(1);
+
+        assertThat(read).usingRecursiveComparison()
+                .withComparatorForType(BigDecimal::compareTo, BigDecimal.class)
+                .isEqualTo(fromEntity);
+        assertThat(accountReadRepository.findById(-1L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("finds by account number and pages by id")
+    void findByAccountNumber_andFindAfterId() {
+        assertThat(accountReadRepository.findByAccountNumber("READ-4"))
+                .map(AccountResponse::getId)
+                .contains(accounts.get(4).getId());
+        assertThat(accountReadRepository.findByAccountNumber("missing")).isEmpty();
+
+        List<AccountResponse> page = accountReadRepository.findAfterId(accounts.get(0).getId(), 3);
+
+        assertThat(page).extracting(AccountResponse::getId)
+                .containsExactly(accounts.get(1).getId(), accounts.get(2).getId(), accounts.get(3).getId());
+        assertThat(statistics.getSessionOpenCount()).isZero();
+    }
+}
@@ -0,0 +1,230 @@
+package org.example.bankingapi.repository;
+
+import org.example.bankingapi.dto.AccountResponse;
+import org.example.bankingapi.dto.AccountSearchCriteria;
+import org.example.bankingapi.dto.AccountSort;
+import org.example.bankingapi.entity.Account;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {"spring.jpa.show-sql=false"})
+class AccountSearchRepositoryTest {
+
+    private static final int ROWS = 2000;
+    private static final long FIRST_ID = 1_000_000L;
+    private static final Instant EPOCH = Instant.parse("2024-01-01T00:00:00Z");
+    private static final String[] CURRENCIES = {"USD", "EUR", "GBP", "JPY"};
+    private static final Pattern INDEX_USE = Pattern.compile("/\\* PUBLIC\\.([A-Z0-9_.]+)(: [^*]+)?\\*/");
+
+    @Autowired
+    private AccountSearchRepository accountSearchRepository;
+
+    @Autowired
+    private AccountStreamRepository accountStreamRepository;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        List<Object[]> rows = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            rows.add(new Object[]{
+                    FIRST_ID + i,
+                    "SEARCH-" + i,
+                    "Holder " + (i % 150),
+                    BigDecimal.valueOf(i % 400, 0),
+                    CURRENCIES[i % CURRENCIES.length],
+                    Account.AccountStatus.values()[i % 3].name(),
+                    Timestamp.from(EPOCH.plusSeconds(i)),
+                    Timestamp.from(EPOCH.plusSeconds((i * 7L) % ROWS))});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO accounts (id, account_number, account_holder_name, balance, currency, "
+                + "status, created_at, updated_at, version, ledger_sequence) VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0, 0)", rows);
+        jdbcTemplate.execute("ANALYZE TABLE accounts");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM accounts WHERE id >= ?", FIRST_ID);
+    }
+
+    /**
+     * One sample value per filter; the search is run with every subset of them.
+     */
+    private static final List<Consumer<AccountSearchCriteria>> FILTERS = List.of(
+            c -> c.setStatus(Account.AccountStatus.ACTIVE),
+            c -> c.setCurrency("EUR"),
+            c -> c.setHolderNamePrefix("Holder 1"),
+            c -> {
+                c.setMinBalance(new BigDecimal("100"));
+                c.setMaxBalance(new BigDecimal("120"));
+            },
+            c -> {
+                c.setCreatedFrom(EPOCH.plusSeconds(500));
+                c.setCreatedTo(EPOCH.plusSeconds(700));
+            },
+            c -> {
+                c.setUpdatedFrom(EPOCH.plusSeconds(1000));
+                c.setUpdatedTo(EPOCH.plusSeconds(1100));
+            });
+
+    private static AccountSearchCriteria criteria(int mask) {
+        AccountSearchCriteria criteria = new AccountSearchCriteria();
+        for (int f = 0; f < FILTERS.size(); f++) {
+            if ((mask & (1 << f)) != 0) {
+                FILTERS.get(f).accept(criteria);
+            }
+        }
+        return criteria;
+    }
+
+    private static Object sampleAfterValue(AccountSort sort) {
+        switch (sort) {
+            case HOLDER_NAME_ASC:
+                return "Holder 5";
+            case BALANCE_DESC:
+                return new BigDecimal("200");
+            case UPDATED_AT_DESC:
+                return EPOCH.plusSeconds(1500);
+            default:
+                return null;
+        }
+    }
+
+    private String explain(AccountSearchCriteria criteria, AccountSort sort, boolean firstPage) {
+        AccountSearchRepository.SearchQuery query = accountSearchRepository.buildQuery(criteria, sort,
+                firstPage ? null : sampleAfterValue(sort), firstPage ? null : FIRST_ID + 1000, 51);
+        return namedJdbcTemplate.queryForObject("EXPLAIN " + query.sql, query.params, String.class);
+    }
+
+    @Test
+    @DisplayName("every filter combination seeks an index, on the first and on later pages, in every sort order")
+    void everyFilterCombination_isIndexBacked() {
+        List<String> violations = new ArrayList<>();
+        for (int mask = 1; mask < (1 << FILTERS.size()); mask++) {
+            for (AccountSort sort : AccountSort.values()) {
+                for (boolean firstPage : new boolean[]{true, false}) {
+                    String plan = explain(criteria(mask), sort, firstPage);
+                    Matcher index = INDEX_USE.matcher(plan);
+                    assertThat(index.find()).as(plan).isTrue();
+                    boolean seek = index.group(2) != null;
+                    if (index.group(1).endsWith("tableScan") || !(seek || plan.contains("index sorted"))) {
+                        violations.add(sort + " " + criteria(mask) + " first=" + firstPage + ": " + plan);
+                    }
+                }
+            }
+        }
+        assertThat(violations).isEmpty();
+    }
+
+    @Test
+    @DisplayName("unfiltered pages read an index in the requested order instead of sorting the table")
+    void everySortOrder_readsIndexInOrder() {
+        for (AccountSort sort : AccountSort.values()) {
+            for (boolean firstPage : new boolean[]{true, false}) {
+                String plan = explain(new AccountSearchCriteria(), sort, firstPage);
+
+                assertThat(plan).as(sort + " first=" + firstPage).contains("index sorted").doesNotContain("tableScan");
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("keyset pages return exactly the matching rows, in order, without gaps or repeats")
+    void search_pagesMatchFullScan() {
+        List<AccountResponse> all = new ArrayList<>();
+        accountStreamRepository.streamAll(500, all::add);
+
+        for (int mask : new int[]{0, 0b000001, 0b000110, 0b001000, 0b010001, 0b100010, 0b111111}) {
+            AccountSearchCriteria criteria = criteria(mask);
+            for (AccountSort sort : AccountSort.values()) {
+                List<Long> expected = all.stream()
+                        .filter(matches(criteria))
+                        .sorted(order(sort))
+                        .map(AccountResponse::getId)
+                        .collect(Collectors.toList());
+
+                List<Long> actual = new ArrayList<>();
+                Object afterValue = null;
+                Long afterId = null;
+                List<AccountResponse> page;
+                do {
+                    page = accountSearchRepository.search(criteria, sort, afterValue, afterId, 37);
+                    page.forEach(account -> actual.add(account.getId()));
+                    if (!page.isEmpty()) {
+                        AccountResponse last = page.get(page.size() - 1);
+                        afterValue = sortValue(sort, last);
+                        afterId = last.getId();
+                    }
+                } while (page.size() == 37);
+
+                assertThat(actual).as(sort + " " + criteria).isEqualTo(expected);
+            }
+        }
+    }
+
+    private static Predicate<AccountResponse> matches(AccountSearchCriteria c) {
+        return a -> (c.getStatus() == null || a.getStatus() == c.getStatus())
+                && (c.getCurrency() == null || a.getCurrency().equals(c.getCurrency()))
+                && (c.getHolderNamePrefix() == null || a.getAccountHolderName().startsWith(c.getHolderNamePrefix()))
+                && (c.getMinBalance() == null || a.getBalance().compareTo(c.getMinBalance()) >= 0)
+                && (c.getMaxBalance() == null || a.getBalance().compareTo(c.getMaxBalance()) <= 0)
+                && (c.getCreatedFrom() == null || !a.getCreatedAt().isBefore(c.getCreatedFrom()))
+                && (c.getCreatedTo() == null || a.getCreatedAt().isBefore(c.getCreatedTo()))
+                && (c.getUpdatedFrom() == null || !a.getUpdatedAt().isBefore(c.getUpdatedFrom()))
+                && (c.getUpdatedTo() == null || a.getUpdatedAt().isBefore(c.getUpdatedTo()));
+    }
+
+    private static Comparator<AccountResponse> order(AccountSort sort) {
+        Comparator<AccountResponse> byId = Comparator.comparing(AccountResponse::getId);
+        switch (sort) {
+            case ID_DESC:
+                return byId.reversed();
+            case HOLDER_NAME_ASC:
+                return Comparator.comparing(AccountResponse::getAccountHolderName).thenComparing(byId);
+            case BALANCE_DESC:
+                return Comparator.comparing(AccountResponse::getBalance).thenComparing(byId).reversed();
+            case UPDATED_AT_DESC:
+                return Comparator.comparing(AccountResponse::getUpdatedAt).thenComparing(byId).reversed();
+            default:
+                return byId;
+        }
+    }
+
+    private static Object sortValue(AccountSort sort, AccountResponse account) {
+        switch (sort) {
+            case HOLDER_NAME_ASC:
+                return account.getAccountHolderName();
+            case BALANCE_DESC:
+                return account.getBalance();
+            case UPDATED_AT_DESC:
+                return account.getUpdatedAt();
+            default:
+                return null;
+        }
+    }
+}
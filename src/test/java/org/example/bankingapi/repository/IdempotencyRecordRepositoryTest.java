@@ -0,0 +1,100 @@
+package org.example.bankingapi.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.bankingapi.dto.MoneyMovementRequest;
+import org.example.bankingapi.dto.TransferResponse;
+import org.example.bankingapi.service.IdempotencyService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.ResponseEntity;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {"spring.jpa.show-sql=false"})
+class IdempotencyRecordRepositoryTest {
+
+    private static final String SCOPE = "POST /api/transfers";
+
+    @Autowired
+    private IdempotencyRecordRepository recordRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @AfterEach
+    void tearDown() {
+        recordRepository.deleteAll();
+    }
+
+    /**
+     * A service with its own memory tier, as on a separate instance sharing the database.
+     */
+    private IdempotencyService instance() {
+        return new IdempotencyService(objectMapper, recordRepository, 100, Duration.ofMinutes(5), true, Duration.ofSeconds(10));
+    }
+
+    @Test
+    @DisplayName("a key can be claimed once; completing and releasing only touch pending claims")
+    void claim_isExclusive() {
+        Instant now = Instant.now();
+        recordRepository.claim(SCOPE + "\nk1", "f", now);
+        assertThatThrownBy(() -> recordRepository.claim(SCOPE + "\nk1", "f", now))
+                .isInstanceOf(DataIntegrityViolationException.class);
+
+        assertThat(recordRepository.complete(SCOPE + "\nk1", 201, "\"1\"", new byte[]{1})).isEqualTo(1);
+        assertThat(recordRepository.complete(SCOPE + "\nk1", 500, null, new byte[0])).isZero();
+        assertThat(recordRepository.deletePending(SCOPE + "\nk1", Instant.now())).isZero();
+        assertThat(recordRepository.findById(SCOPE + "\nk1").orElseThrow().getStatus()).isEqualTo(201);
+    }
+
+    @Test
+    @DisplayName("two instances given the same key execute it once; the second replays the first's response")
+    void execute_acrossInstances_executesOnce() throws Exception {
+        IdempotencyService first = instance();
+        IdempotencyService second = instance();
+        MoneyMovementRequest request = MoneyMovementRequest.builder().amount(new BigDecimal("10.00")).build();
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<ResponseEntity<TransferResponse>> transfer = () -> {
+            int n = executions.incrementAndGet();
+            entered.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return ResponseEntity.status(201).body(TransferResponse.builder().transferId("t" + n).build());
+        };
+
+        CompletableFuture<ResponseEntity<TransferResponse>> original = CompletableFuture.supplyAsync(
+                () -> first.execute("k1", SCOPE, request, TransferResponse.class, transfer));
+        assertThat(entered.await(10, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<ResponseEntity<TransferResponse>> duplicate = CompletableFuture.supplyAsync(
+                () -> second.execute("k1", SCOPE, request, TransferResponse.class, transfer));
+        Thread.sleep(100);
+        assertThat(duplicate).isNotDone();
+        release.countDown();
+
+        assertThat(original.get(10, TimeUnit.SECONDS).getBody().getTransferId()).isEqualTo("t1");
+        ResponseEntity<TransferResponse> replayed = duplicate.get(10, TimeUnit.SECONDS);
+        assertThat(replayed.getStatusCode().value()).isEqualTo(201);
+        assertThat(replayed.getBody().getTransferId()).isEqualTo("t1");
+        assertThat(replayed.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(executions.get()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,113 @@
+package org.example.bankingapi.service;
+
+import org.example.bankingapi.dto.BatchCreateResponse;
+import org.example.bankingapi.dto.BatchItemResult;
+import org.example.bankingapi.dto.CreateAccountRequest;
+import org.example.bankingapi.entity.Account;
+import org.example.bankingapi.entity.LedgerEntry;
+import org.example.bankingapi.entity.Money;
+import org.example.bankingapi.repository.AccountRepository;
+import org.example.bankingapi.repository.LedgerEntryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "banking.batch.chunk-size=3"})
+class AccountBatchServiceTest {
+
+    @Autowired
+    private AccountBatchService accountBatchService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @AfterEach
+    void tearDown() {
+        accountRepository.deleteAll();
+    }
+
+    private static CreateAccountRequest request(String accountNumber) {
+        return CreateAccountRequest.builder()
+                .accountNumber(accountNumber)
+                .accountHolderName("Holder " + accountNumber)
+                .balance(new BigDecimal("10.00"))
+                .currency("USD")
+                .build();
+    }
+
+    private static List<BatchItemResult.Status> statuses(BatchCreateResponse response) {
+        return response.getResults().stream().map(BatchItemResult::getStatus).collect(Collectors.toList());
+    }
+
+    @Test
+    @DisplayName("creates every item across several chunks and reports ids in order")
+    void createAccounts_allCreated() {
+        List<CreateAccountRequest> requests = IntStream.range(0, 10)
+                .mapToObj(i -> request("BATCH-" + i))
+                .collect(Collectors.toList());
+
+        BatchCreateResponse response = accountBatchService.createAccounts(requests.iterator());
+
+        assertThat(response.getCreated()).isEqualTo(10);
+        assertThat(response.getFailed()).isZero();
+        assertThat(response.getResults()).extracting(BatchItemResult::getIndex)
+                .containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+        assertThat(response.getResults()).allSatisfy(result -> assertThat(result.getId()).isNotNull());
+        assertThat(accountRepository.count()).isEqualTo(10);
+        assertThat(accountRepository.findByAccountNumber("BATCH-7"))
+                .map(Account::getId)
+                .contains(response.getResults().get(7).getId());
+        assertThat(ledgerEntryRepository.findByAccountIdAndSequenceGreaterThanOrderBySequenceAsc(
+                response.getResults().get(7).getId(), 0L, PageRequest.of(0, 10)))
+                .extracting(LedgerEntry::getType)
+                .containsExactly(LedgerEntry.EntryType.OPENING);
+    }
+
+    @Test
+    @DisplayName("reports existing, repeated, invalid and malformed items without failing the rest")
+    void createAccounts_mixedResults() {
+        accountRepository.save(Account.builder()
+                .accountNumber("EXISTING")
+                .accountHolderName("Existing")
+                .balance(Money.of(BigDecimal.ONE, "USD"))
+                .currency("USD")
+                .status(Account.AccountStatus.ACTIVE)
+                .build());
+        CreateAccountRequest invalid = request("BAD");
+        invalid.setCurrency("US");
+
+        BatchCreateResponse response = accountBatchService.createAccounts(Arrays.asList(
+                request("NEW-1"),
+                request("EXISTING"),
+                request("NEW-1"),
+                invalid,
+                null,
+                request("NEW-2")).iterator());
+
+        assertThat(statuses(response)).containsExactly(
+                BatchItemResult.Status.CREATED,
+                BatchItemResult.Status.DUPLICATE,
+                BatchItemResult.Status.DUPLICATE,
+                BatchItemResult.Status.INVALID,
+                BatchItemResult.Status.INVALID,
+                BatchItemResult.Status.CREATED);
+        assertThat(response.getResults().get(3).getError()).contains("currency");
+        assertThat(response.getCreated()).isEqualTo(2);
+        assertThat(response.getFailed()).isEqualTo(4);
+        assertThat(accountRepository.count()).isEqualTo(3);
+    }
+}
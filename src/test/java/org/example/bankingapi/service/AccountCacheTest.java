@@ -0,0 +1,90 @@
+package org.example.bankingapi.service;
+
+import org.example.bankingapi.dto.AccountResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AccountCacheTest {
+
+    private static final AccountResponse ACCOUNT = AccountResponse.builder()
+            .id(1L)
+            .accountNumber("ACC001")
+            .build();
+
+    private AccountCache cache;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        cache = new AccountCache(true, 100, Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private Optional<AccountResponse> load(Long id) {
+        loads.incrementAndGet();
+        return Optional.of(ACCOUNT);
+    }
+
+    @Test
+    @DisplayName("eviction inside a transaction is deferred until commit")
+    void evictAfterCommit_deferredUntilCommit() {
+        cache.getById(1L, this::load);
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.evictAfterCommit(1L);
+        assertThat(cache.size()).isEqualTo(1);
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("eviction outside a transaction is immediate")
+    void evictAfterCommit_noTransaction_immediate() {
+        cache.getById(1L, this::load);
+
+        cache.evictAfterCommit(1L);
+
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("disabled cache always delegates to the loader")
+    void disabled_alwaysLoads() {
+        AccountCache disabled = new AccountCache(false, 100, Duration.ofMinutes(1));
+
+        disabled.getById(1L, this::load);
+        disabled.getById(1L, this::load);
+
+        assertThat(loads.get()).isEqualTo(2);
+        assertThat(disabled.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("stale number index falls back to the number loader")
+    void getByAccountNumber_staleIndex_reloads() {
+        cache.getByAccountNumber("ACC001", this::load, () -> Optional.of(ACCOUNT));
+        cache.evictAfterCommit(1L);
+
+        Optional<AccountResponse> result = cache.getByAccountNumber("ACC001", id -> Optional.empty(), Optional::empty);
+
+        assertThat(result).isEmpty();
+        assertThat(cache.numberIndexSize()).isZero();
+    }
+}
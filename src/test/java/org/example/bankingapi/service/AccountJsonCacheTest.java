@@ -0,0 +1,103 @@
+package org.example.bankingapi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.example.bankingapi.dto.AccountResponse;
+import org.example.bankingapi.dto.EncodedAccount;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AccountJsonCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private AccountCache accountCache;
+    private AccountJsonCache cache;
+
+    @BeforeEach
+    void setUp() {
+        accountCache = new AccountCache(true, 100, Duration.ofMinutes(1));
+        cache = new AccountJsonCache(objectMapper, accountCache, true, 100);
+    }
+
+    private static AccountResponse account(long version, String balance) {
+        return AccountResponse.builder()
+                .id(1L)
+                .accountNumber("ACC001")
+                .balance(new BigDecimal(balance))
+                .version(version)
+                .build();
+    }
+
+    @Test
+    @DisplayName("encodes the same JSON as the object mapper")
+    void get_matchesObjectMapper() throws Exception {
+        AccountResponse account = account(3, "10.00");
+
+        EncodedAccount encoded = cache.get(account);
+
+        assertThat(new String(encoded.getJson(), StandardCharsets.UTF_8)).isEqualTo(objectMapper.writeValueAsString(account));
+        assertThat(encoded.getEtag()).matches("\"3-[0-9a-f]+\"");
+    }
+
+    @Test
+    @DisplayName("reuses the encoding while the version is unchanged")
+    void get_sameVersion_cached() {
+        EncodedAccount first = cache.get(account(3, "10.00"));
+        EncodedAccount second = cache.get(account(3, "10.00"));
+
+        assertThat(second).isSameAs(first);
+        assertThat(cache.stats().hitCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("re-encodes a newer version and never goes back to an older one")
+    void get_newerVersion_replaces() {
+        EncodedAccount old = cache.get(account(3, "10.00"));
+        EncodedAccount current = cache.get(account(4, "20.00"));
+
+        assertThat(current.getEtag()).isNotEqualTo(old.getEtag()).startsWith("\"4-");
+        cache.get(account(3, "10.00"));
+        assertThat(cache.get(account(4, "20.00"))).isSameAs(current);
+    }
+
+    @Test
+    @DisplayName("tags differ when the bytes differ, even at the same version")
+    void encode_differentBytes_differentTag() {
+        EncodedAccount scaled = cache.encode(account(3, "10.00"));
+        EncodedAccount unscaled = cache.encode(account(3, "10"));
+
+        assertThat(scaled.getEtag()).isNotEqualTo(unscaled.getEtag());
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("drops entries when the account cache evicts the account")
+    void evictAfterCommit_evictsEncoding() {
+        cache.get(account(3, "10.00"));
+
+        accountCache.evictAfterCommit(1L);
+
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("disabled cache encodes every time")
+    void disabled_neverCaches() {
+        AccountJsonCache disabled = new AccountJsonCache(objectMapper, accountCache, false, 100);
+
+        EncodedAccount first = disabled.get(account(3, "10.00"));
+        EncodedAccount second = disabled.get(account(3, "10.00"));
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getEtag()).isEqualTo(first.getEtag());
+        assertThat(disabled.size()).isZero();
+    }
+}
@@ -1,33 +1,55 @@
 package org.example.bankingapi.service;
 
+import org.example.bankingapi.dto.AccountPage;
 import org.example.bankingapi.dto.AccountResponse;
+import org.example.bankingapi.dto.AccountSearchCriteria;
+import org.example.bankingapi.dto.AccountSort;
 import org.example.bankingapi.dto.CreateAccountRequest;
 import org.example.bankingapi.dto.UpdateAccountRequest;
 import org.example.bankingapi.entity.Account;
+import org.example.bankingapi.entity.LedgerEntry;
+import org.example.bankingapi.entity.Money;
 import org.example.bankingapi.exception.AccountNotFoundException;
+import org.example.bankingapi.exception.AccountVersionMismatchException;
+import org.example.bankingapi.exception.ConcurrentUpdateException;
 import org.example.bankingapi.exception.DuplicateAccountException;
+import org.example.bankingapi.exception.InvalidCursorException;
+import org.example.bankingapi.outbox.AccountOutbox;
+import org.example.bankingapi.repository.AccountReadRepository;
 import org.example.bankingapi.repository.AccountRepository;
+import org.example.bankingapi.repository.AccountSearchRepository;
+import org.example.bankingapi.repository.AccountStreamRepository;
+import org.example.bankingapi.shard.ShardRouter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
 import static org.mockito.BDDMockito.willThrow;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
@@ -36,7 +58,32 @@ class AccountServiceTest {
     @Mock
     private AccountRepository accountRepository;
 
-    @InjectMocks
+    @Mock
+    private AccountReadRepository accountReadRepository;
+
+    @Mock
+    private AccountStreamRepository accountStreamRepository;
+
+    @Mock
+    private AccountSearchRepository accountSearchRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private LedgerService ledgerService;
+
+    @Mock
+    private AccountUpdatePipeline updatePipeline;
+
+    @Mock
+    private AccountOutbox accountOutbox;
+
+    @Mock
+    private AccountTotals accountTotals;
+
+    private OptimisticRetry optimisticRetry;
+
     private AccountService accountService;
 
     private static final Long ACCOUNT_ID = 1L;
@@ -50,15 +97,19 @@ class AccountServiceTest {
 
     @BeforeEach
     void setUp() {
+        optimisticRetry = new OptimisticRetry(transactionManager, 3, 0, 0);
+        accountService = new AccountService(accountRepository, accountReadRepository, accountStreamRepository, accountSearchRepository, optimisticRetry,
+                new AccountCache(false, 100, Duration.ofMinutes(1)), ledgerService, updatePipeline, accountOutbox, accountTotals, ShardRouter.disabled());
         savedAccount = Account.builder()
                 .id(ACCOUNT_ID)
                 .accountNumber(ACCOUNT_NUMBER)
                 .accountHolderName(ACCOUNT_HOLDER)
-                .balance(BALANCE)
+                .balance(Money.of(BALANCE, CURRENCY))
                 .currency(CURRENCY)
                 .status(Account.AccountStatus.ACTIVE)
                 .createdAt(NOW)
                 .updatedAt(NOW)
+                .version(0L)
                 .build();
     }
 
@@ -93,8 +144,11 @@ class AccountServiceTest {
             Account saved = captor.getValue();
             assertThat(saved.getAccountNumber()).isEqualTo(ACCOUNT_NUMBER);
             assertThat(saved.getAccountHolderName()).isEqualTo(ACCOUNT_HOLDER);
-            assertThat(saved.getBalance()).isEqualByComparingTo(BALANCE);
+            assertThat(saved.getBalance().toBigDecimal()).isEqualByComparingTo(BALANCE);
             assertThat(saved.getCurrency()).isEqualTo(CURRENCY);
+            assertThat(saved.getLedgerSequence()).isEqualTo(1L);
+            verify(ledgerService).recordOpening(savedAccount);
+            verify(accountOutbox).created(savedAccount);
             assertThat(saved.getStatus()).isEqualTo(Account.AccountStatus.ACTIVE);
         }
 
@@ -112,7 +166,7 @@ class AccountServiceTest {
                     .id(ACCOUNT_ID)
                     .accountNumber(ACCOUNT_NUMBER)
                     .accountHolderName(ACCOUNT_HOLDER)
-                    .balance(BigDecimal.ZERO)
+                    .balance(Money.zero(CURRENCY))
                     .currency(CURRENCY)
                     .status(Account.AccountStatus.ACTIVE)
                     .createdAt(NOW)
@@ -127,7 +181,7 @@ class AccountServiceTest {
             assertThat(response.getBalance()).isEqualByComparingTo(BigDecimal.ZERO);
             ArgumentCaptor<Account> captor = ArgumentCaptor.forClass(Account.class);
             verify(accountRepository).save(captor.capture());
-            assertThat(captor.getValue().getBalance()).isEqualByComparingTo(BigDecimal.ZERO);
+            assertThat(captor.getValue().getBalance().signum()).isZero();
         }
 
         @Test
@@ -165,7 +219,7 @@ class AccountServiceTest {
                     .id(ACCOUNT_ID)
                     .accountNumber(ACCOUNT_NUMBER)
                     .accountHolderName("Jane Doe")
-                    .balance(new BigDecimal("2000.00"))
+                    .balance(Money.of(new BigDecimal("2000.00"), CURRENCY))
                     .currency(CURRENCY)
                     .status(Account.AccountStatus.ACTIVE)
                     .createdAt(NOW)
@@ -173,12 +227,46 @@ class AccountServiceTest {
                     .build();
 
             given(accountRepository.findById(ACCOUNT_ID)).willReturn(Optional.of(savedAccount));
-            given(accountRepository.save(any(Account.class))).willReturn(updatedAccount);
+            given(accountRepository.saveAndFlush(any(Account.class))).willReturn(updatedAccount);
 
             AccountResponse response = accountService.updateAccount(ACCOUNT_ID, request);
 
             assertThat(response.getAccountHolderName()).isEqualTo("Jane Doe");
             assertThat(response.getBalance()).isEqualByComparingTo("2000.00");
+            verify(accountOutbox).updated(updatedAccount);
+        }
+
+        @Test
+        @DisplayName("records the balance change as a ledger adjustment")
+        void updateAccount_balanceChange_appendsAdjustment() {
+            UpdateAccountRequest request = UpdateAccountRequest.builder()
+                    .balance(new BigDecimal("1250.00"))
+                    .build();
+
+            given(accountRepository.findById(ACCOUNT_ID)).willReturn(Optional.of(savedAccount));
+            given(accountRepository.saveAndFlush(any(Account.class))).willAnswer(inv -> inv.getArgument(0));
+
+            accountService.updateAccount(ACCOUNT_ID, request);
+
+            ArgumentCaptor<Money> delta = ArgumentCaptor.forClass(Money.class);
+            verify(ledgerService).append(eq(savedAccount), eq(LedgerEntry.EntryType.ADJUSTMENT), delta.capture(), any(), any());
+            assertThat(delta.getValue()).isEqualTo(Money.of(new BigDecimal("250.00"), CURRENCY));
+        }
+
+        @Test
+        @DisplayName("does not touch the ledger when the balance is unchanged")
+        void updateAccount_noBalanceChange_noLedgerEntry() {
+            UpdateAccountRequest request = UpdateAccountRequest.builder()
+                    .accountHolderName("Jane Doe")
+                    .balance(BALANCE)
+                    .build();
+
+            given(accountRepository.findById(ACCOUNT_ID)).willReturn(Optional.of(savedAccount));
+            given(accountRepository.saveAndFlush(any(Account.class))).willAnswer(inv -> inv.getArgument(0));
+
+            accountService.updateAccount(ACCOUNT_ID, request);
+
+            verify(ledgerService, never()).append(any(), any(), any(), any(), any());
         }
 
         @Test
@@ -189,15 +277,15 @@ class AccountServiceTest {
                     .build();
 
             given(accountRepository.findById(ACCOUNT_ID)).willReturn(Optional.of(savedAccount));
-            given(accountRepository.save(any(Account.class))).willAnswer(inv -> inv.getArgument(0));
+            given(accountRepository.saveAndFlush(any(Account.class))).willAnswer(inv -> inv.getArgument(0));
 
             accountService.updateAccount(ACCOUNT_ID, request);
 
             ArgumentCaptor<Account> captor = ArgumentCaptor.forClass(Account.class);
-            verify(accountRepository).save(captor.capture());
+            verify(accountRepository).saveAndFlush(captor.capture());
             Account saved = captor.getValue();
             assertThat(saved.getAccountHolderName()).isEqualTo("Jane Doe");
-            assertThat(saved.getBalance()).isEqualByComparingTo(BALANCE);
+            assertThat(saved.getBalance().toBigDecimal()).isEqualByComparingTo(BALANCE);
             assertThat(saved.getCurrency()).isEqualTo(CURRENCY);
         }
 
@@ -213,34 +301,262 @@ class AccountServiceTest {
             assertThatThrownBy(() -> accountService.updateAccount(ACCOUNT_ID, request))
                     .isInstanceOf(AccountNotFoundException.class)
                     .hasMessageContaining("Account not found with id: " + ACCOUNT_ID);
-            verify(accountRepository, never()).save(any(Account.class));
+            verify(accountRepository, never()).saveAndFlush(any(Account.class));
+        }
+
+        @Test
+        @DisplayName("retries on optimistic lock conflict and applies change to fresh state")
+        void updateAccount_conflict_retries() {
+            UpdateAccountRequest request = UpdateAccountRequest.builder()
+                    .accountHolderName("Jane Doe")
+                    .build();
+
+            given(accountRepository.findById(ACCOUNT_ID)).willReturn(Optional.of(savedAccount));
+            given(accountRepository.saveAndFlush(any(Account.class)))
+                    .willThrow(new ObjectOptimisticLockingFailureException(Account.class, ACCOUNT_ID))
+                    .willAnswer(inv -> inv.getArgument(0));
+
+            AccountResponse response = accountService.updateAccount(ACCOUNT_ID, request);
+
+            assertThat(response.getAccountHolderName()).isEqualTo("Jane Doe");
+            verify(accountRepository, times(2)).findById(ACCOUNT_ID);
+            assertThat(optimisticRetry.getConflicts()).isEqualTo(1);
+            assertThat(optimisticRetry.getExhausted()).isZero();
+        }
+
+        @Test
+        @DisplayName("throws ConcurrentUpdateException when every attempt conflicts")
+        void updateAccount_conflictsExhausted_throws() {
+            UpdateAccountRequest request = UpdateAccountRequest.builder()
+                    .accountHolderName("Jane Doe")
+                    .build();
+
+            given(accountRepository.findById(ACCOUNT_ID)).willReturn(Optional.of(savedAccount));
+            given(accountRepository.saveAndFlush(any(Account.class)))
+                    .willThrow(new ObjectOptimisticLockingFailureException(Account.class, ACCOUNT_ID));
+
+            assertThatThrownBy(() -> accountService.updateAccount(ACCOUNT_ID, request))
+                    .isInstanceOf(ConcurrentUpdateException.class)
+                    .hasCauseInstanceOf(ObjectOptimisticLockingFailureException.class);
+            verify(accountRepository, times(3)).saveAndFlush(any(Account.class));
+            assertThat(optimisticRetry.getConflictRate()).isEqualTo(3.0);
+        }
+
+        @Test
+        @DisplayName("conditional update succeeds when version matches")
+        void updateAccount_matchingVersion_succeeds() {
+            UpdateAccountRequest request = UpdateAccountRequest.builder()
+                    .accountHolderName("Jane Doe")
+                    .build();
+
+            given(accountRepository.findById(ACCOUNT_ID)).willReturn(Optional.of(savedAccount));
+            given(accountRepository.saveAndFlush(any(Account.class))).willAnswer(inv -> inv.getArgument(0));
+
+            AccountResponse response = accountService.updateAccount(ACCOUNT_ID, request, 0L);
+
+            assertThat(response.getAccountHolderName()).isEqualTo("Jane Doe");
+        }
+
+        @Test
+        @DisplayName("conditional update throws AccountVersionMismatchException on stale version")
+        void updateAccount_staleVersion_throws() {
+            UpdateAccountRequest request = UpdateAccountRequest.builder()
+                    .accountHolderName("Jane Doe")
+                    .build();
+
+            given(accountRepository.findById(ACCOUNT_ID)).willReturn(Optional.of(savedAccount));
+
+            assertThatThrownBy(() -> accountService.updateAccount(ACCOUNT_ID, request, 7L))
+                    .isInstanceOf(AccountVersionMismatchException.class);
+            verify(accountRepository, never()).saveAndFlush(any(Account.class));
+        }
+
+        @Test
+        @DisplayName("conditional update is not retried when the commit conflicts")
+        void updateAccount_conditionalConflict_notRetried() {
+            UpdateAccountRequest request = UpdateAccountRequest.builder()
+                    .accountHolderName("Jane Doe")
+                    .build();
+
+            given(accountRepository.findById(ACCOUNT_ID)).willReturn(Optional.of(savedAccount));
+            given(accountRepository.saveAndFlush(any(Account.class)))
+                    .willThrow(new ObjectOptimisticLockingFailureException(Account.class, ACCOUNT_ID));
+
+            assertThatThrownBy(() -> accountService.updateAccount(ACCOUNT_ID, request, 0L))
+                    .isInstanceOf(AccountVersionMismatchException.class);
+            verify(accountRepository, times(1)).saveAndFlush(any(Account.class));
+        }
+
+        @Test
+        @DisplayName("hands unconditional updates to the group-commit pipeline when enabled")
+        void updateAccount_groupCommit_usesPipeline() {
+            UpdateAccountRequest request = UpdateAccountRequest.builder()
+                    .accountHolderName("Jane Doe")
+                    .build();
+            AccountResponse committed = AccountResponse.builder().id(ACCOUNT_ID).accountHolderName("Jane Doe").build();
+            given(updatePipeline.isEnabled()).willReturn(true);
+            given(updatePipeline.update(ACCOUNT_ID, request)).willReturn(committed);
+
+            assertThat(accountService.updateAccount(ACCOUNT_ID, request)).isSameAs(committed);
+            verify(accountRepository, never()).findById(anyLong());
+        }
+
+        @Test
+        @DisplayName("keeps conditional updates out of the group-commit pipeline")
+        void updateAccount_groupCommitConditional_bypassesPipeline() {
+            UpdateAccountRequest request = UpdateAccountRequest.builder()
+                    .accountHolderName("Jane Doe")
+                    .build();
+            given(accountRepository.findById(ACCOUNT_ID)).willReturn(Optional.of(savedAccount));
+            given(accountRepository.saveAndFlush(any(Account.class))).willAnswer(inv -> inv.getArgument(0));
+
+            accountService.updateAccount(ACCOUNT_ID, request, 0L);
+
+            verify(updatePipeline, never()).update(any(), any());
+        }
+    }
+
+    @Nested
+    @DisplayName("getAccounts")
+    class GetAccounts {
+
+        private AccountResponse accountWithId(long id) {
+            return AccountResponse.builder()
+                    .id(id)
+                    .accountNumber("ACC" + id)
+                    .accountHolderName(ACCOUNT_HOLDER)
+                    .balance(BALANCE)
+                    .currency(CURRENCY)
+                    .status(Account.AccountStatus.ACTIVE)
+                    .createdAt(NOW)
+                    .updatedAt(NOW)
+                    .build();
+        }
+
+        @Test
+        @DisplayName("returns empty page without cursor when no accounts")
+        void getAccounts_empty() {
+            given(accountReadRepository.findAfterId(0L, 11)).willReturn(List.of());
+
+            AccountPage page = accountService.getAccounts(null, 10);
+
+            assertThat(page.getItems()).isEmpty();
+            assertThat(page.getNextCursor()).isNull();
+        }
+
+        @Test
+        @DisplayName("returns last page without cursor")
+        void getAccounts_lastPage() {
+            given(accountReadRepository.findAfterId(0L, 11)).willReturn(List.of(AccountResponse.fromEntity(savedAccount)));
+
+            AccountPage page = accountService.getAccounts(null, 10);
+
+            assertThat(page.getItems()).hasSize(1);
+            assertThat(page.getItems().get(0).getId()).isEqualTo(ACCOUNT_ID);
+            assertThat(page.getItems().get(0).getAccountNumber()).isEqualTo(ACCOUNT_NUMBER);
+            assertThat(page.getNextCursor()).isNull();
+        }
+
+        @Test
+        @DisplayName("returns cursor pointing past the last item when more rows exist")
+        void getAccounts_hasMore_returnsCursor() {
+            given(accountReadRepository.findAfterId(0L, 3))
+                    .willReturn(List.of(accountWithId(1), accountWithId(2), accountWithId(3)));
+
+            AccountPage page = accountService.getAccounts(null, 2);
+
+            assertThat(page.getItems()).extracting(AccountResponse::getId).containsExactly(1L, 2L);
+            assertThat(PageCursor.decode(page.getNextCursor())).isEqualTo(2L);
+        }
+
+        @Test
+        @DisplayName("seeks past the id encoded in the cursor")
+        void getAccounts_withCursor_seeksById() {
+            given(accountReadRepository.findAfterId(eq(2L), anyInt())).willReturn(List.of(accountWithId(3)));
+
+            AccountPage page = accountService.getAccounts(PageCursor.encode(2L), 2);
+
+            assertThat(page.getItems()).extracting(AccountResponse::getId).containsExactly(3L);
+        }
+
+        @Test
+        @DisplayName("throws InvalidCursorException for a malformed cursor")
+        void getAccounts_invalidCursor_throws() {
+            assertThatThrownBy(() -> accountService.getAccounts("not-a-cursor!", 10))
+                    .isInstanceOf(InvalidCursorException.class);
+            verify(accountReadRepository, never()).findAfterId(anyLong(), anyInt());
         }
     }
 
     @Nested
-    @DisplayName("getAllAccounts")
-    class GetAllAccounts {
+    @DisplayName("searchAccounts")
+    class SearchAccounts {
+
+        private final AccountSearchCriteria criteria = AccountSearchCriteria.builder().currency(CURRENCY).build();
+        private final AccountSort byBalanceDesc = AccountSort.parse("balance,desc");
+
+        private AccountResponse account(long id, String balance) {
+            return AccountResponse.builder().id(id).balance(new BigDecimal(balance)).build();
+        }
 
         @Test
-        @DisplayName("returns empty list when no accounts")
-        void getAllAccounts_empty() {
-            given(accountRepository.findAll()).willReturn(List.of());
+        @DisplayName("returns a cursor holding the sort value and id of the last item")
+        void searchAccounts_hasMore_returnsKeysetCursor() {
+            given(accountSearchRepository.search(criteria, byBalanceDesc, null, null, 3))
+                    .willReturn(List.of(account(7, "90.00"), account(3, "50.00"), account(4, "50.00")));
 
-            List<AccountResponse> result = accountService.getAllAccounts();
+            AccountPage page = accountService.searchAccounts(criteria, byBalanceDesc, null, 2);
 
-            assertThat(result).isEmpty();
+            assertThat(page.getItems()).extracting(AccountResponse::getId).containsExactly(7L, 3L);
+            PageCursor.Keyset keyset = PageCursor.decode(page.getNextCursor(), "balance,desc");
+            assertThat(keyset.getValue()).isEqualTo("50.00");
+            assertThat(keyset.getId()).isEqualTo(3L);
         }
 
         @Test
-        @DisplayName("returns all accounts as responses")
-        void getAllAccounts_returnsList() {
-            given(accountRepository.findAll()).willReturn(List.of(savedAccount));
+        @DisplayName("continues after the keyset encoded in the cursor")
+        void searchAccounts_withCursor_seeksPastKeyset() {
+            given(accountSearchRepository.search(criteria, byBalanceDesc, new BigDecimal("50.00"), 3L, 3))
+                    .willReturn(List.of(account(4, "50.00")));
 
-            List<AccountResponse> result = accountService.getAllAccounts();
+            AccountPage page = accountService.searchAccounts(criteria, byBalanceDesc,
+                    PageCursor.encode("balance,desc", "50.00", 3L), 2);
 
-            assertThat(result).hasSize(1);
-            assertThat(result.get(0).getId()).isEqualTo(ACCOUNT_ID);
-            assertThat(result.get(0).getAccountNumber()).isEqualTo(ACCOUNT_NUMBER);
+            assertThat(page.getItems()).extracting(AccountResponse::getId).containsExactly(4L);
+            assertThat(page.getNextCursor()).isNull();
+        }
+
+        @Test
+        @DisplayName("rejects a cursor issued for a different sort order")
+        void searchAccounts_cursorOfOtherSort_throws() {
+            String cursor = PageCursor.encode("balance,asc", "50.00", 3L);
+
+            assertThatThrownBy(() -> accountService.searchAccounts(criteria, byBalanceDesc, cursor, 2))
+                    .isInstanceOf(InvalidCursorException.class);
+            assertThatThrownBy(() -> accountService.searchAccounts(criteria, byBalanceDesc, PageCursor.encode(3L), 2))
+                    .isInstanceOf(InvalidCursorException.class);
+            verify(accountSearchRepository, never()).search(any(), any(), any(), any(), anyInt());
+        }
+    }
+
+    @Nested
+    @DisplayName("exportAccounts")
+    class ExportAccounts {
+
+        @Test
+        @DisplayName("streams rows from the cursor repository to the consumer")
+        void exportAccounts_streamsRows() {
+            AccountResponse row = AccountResponse.fromEntity(savedAccount);
+            willAnswer(inv -> {
+                inv.<Consumer<AccountResponse>>getArgument(1).accept(row);
+                return null;
+            }).given(accountStreamRepository).streamAll(anyInt(), any());
+
+            List<AccountResponse> received = new ArrayList<>();
+            accountService.exportAccounts(received::add);
+
+            assertThat(received).containsExactly(row);
+            verify(accountRepository, never()).findAll();
         }
     }
 
@@ -251,7 +567,7 @@ class AccountServiceTest {
         @Test
         @DisplayName("returns account when found")
         void getAccountById_success() {
-            given(accountRepository.findById(ACCOUNT_ID)).willReturn(Optional.of(savedAccount));
+            given(accountReadRepository.findById(ACCOUNT_ID)).willReturn(Optional.of(AccountResponse.fromEntity(savedAccount)));
 
             AccountResponse response = accountService.getAccountById(ACCOUNT_ID);
 
@@ -263,7 +579,7 @@ class AccountServiceTest {
         @Test
         @DisplayName("throws AccountNotFoundException when not found")
         void getAccountById_notFound_throws() {
-            given(accountRepository.findById(ACCOUNT_ID)).willReturn(Optional.empty());
+            given(accountReadRepository.findById(ACCOUNT_ID)).willReturn(Optional.empty());
 
             assertThatThrownBy(() -> accountService.getAccountById(ACCOUNT_ID))
                     .isInstanceOf(AccountNotFoundException.class)
@@ -271,6 +587,100 @@ class AccountServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("with cache enabled")
+    class Cached {
+
+        private AccountCache accountCache;
+
+        @BeforeEach
+        void enableCache() {
+            accountCache = new AccountCache(true, 100, Duration.ofMinutes(1));
+            accountService = new AccountService(accountRepository, accountReadRepository, accountStreamRepository, accountSearchRepository, optimisticRetry, accountCache,
+                    ledgerService, updatePipeline, accountOutbox, accountTotals, ShardRouter.disabled());
+        }
+
+        @Test
+        @DisplayName("serves repeated reads by id from the cache")
+        void getAccountById_cached() {
+            given(accountReadRepository.findById(ACCOUNT_ID)).willReturn(Optional.of(AccountResponse.fromEntity(savedAccount)));
+
+            accountService.getAccountById(ACCOUNT_ID);
+            AccountResponse response = accountService.getAccountById(ACCOUNT_ID);
+
+            assertThat(response.getAccountNumber()).isEqualTo(ACCOUNT_NUMBER);
+            verify(accountReadRepository, times(1)).findById(ACCOUNT_ID);
+            assertThat(accountCache.byIdStats().hitCount()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("does not cache missing accounts")
+        void getAccountById_notFound_notCached() {
+            given(accountReadRepository.findById(ACCOUNT_ID)).willReturn(Optional.empty());
+
+            assertThatThrownBy(() -> accountService.getAccountById(ACCOUNT_ID)).isInstanceOf(AccountNotFoundException.class);
+            assertThatThrownBy(() -> accountService.getAccountById(ACCOUNT_ID)).isInstanceOf(AccountNotFoundException.class);
+
+            verify(accountReadRepository, times(2)).findById(ACCOUNT_ID);
+        }
+
+        @Test
+        @DisplayName("resolves account number through the id cache")
+        void getAccountByNumber_usesIndex() {
+            given(accountReadRepository.findByAccountNumber(ACCOUNT_NUMBER)).willReturn(Optional.of(AccountResponse.fromEntity(savedAccount)));
+            given(accountReadRepository.findById(ACCOUNT_ID)).willReturn(Optional.of(AccountResponse.fromEntity(savedAccount)));
+
+            accountService.getAccountByNumber(ACCOUNT_NUMBER);
+            accountService.getAccountByNumber(ACCOUNT_NUMBER);
+            accountService.getAccountByNumber(ACCOUNT_NUMBER);
+
+            verify(accountReadRepository, times(1)).findByAccountNumber(ACCOUNT_NUMBER);
+            verify(accountReadRepository, times(1)).findById(ACCOUNT_ID);
+        }
+
+        @Test
+        @DisplayName("evicts the account after an update")
+        void updateAccount_evicts() {
+            given(accountRepository.findById(ACCOUNT_ID)).willReturn(Optional.of(savedAccount));
+            given(accountReadRepository.findById(ACCOUNT_ID))
+                    .willAnswer(inv -> Optional.of(AccountResponse.fromEntity(savedAccount)));
+            given(accountRepository.saveAndFlush(any(Account.class))).willAnswer(inv -> inv.getArgument(0));
+
+            accountService.getAccountById(ACCOUNT_ID);
+            accountService.updateAccount(ACCOUNT_ID, UpdateAccountRequest.builder().accountHolderName("Jane Doe").build());
+            AccountResponse response = accountService.getAccountById(ACCOUNT_ID);
+
+            assertThat(response.getAccountHolderName()).isEqualTo("Jane Doe");
+        }
+
+        @Test
+        @DisplayName("evicts the account after a delete")
+        void deleteAccount_evicts() {
+            given(accountReadRepository.findById(ACCOUNT_ID)).willReturn(Optional.of(AccountResponse.fromEntity(savedAccount)));
+            given(accountRepository.findById(ACCOUNT_ID)).willReturn(Optional.of(savedAccount));
+
+            accountService.getAccountById(ACCOUNT_ID);
+            accountService.deleteAccount(ACCOUNT_ID);
+
+            assertThat(accountCache.size()).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("getAccountByNumber")
+    class GetAccountByNumber {
+
+        @Test
+        @DisplayName("throws AccountNotFoundException when not found")
+        void getAccountByNumber_notFound_throws() {
+            given(accountReadRepository.findByAccountNumber(ACCOUNT_NUMBER)).willReturn(Optional.empty());
+
+            assertThatThrownBy(() -> accountService.getAccountByNumber(ACCOUNT_NUMBER))
+                    .isInstanceOf(AccountNotFoundException.class)
+                    .hasMessageContaining("Account not found with account number: " + ACCOUNT_NUMBER);
+        }
+    }
+
     @Nested
     @DisplayName("deleteAccount")
     class DeleteAccount {
@@ -278,22 +688,23 @@ class AccountServiceTest {
         @Test
         @DisplayName("deletes account when it exists")
         void deleteAccount_success() {
-            given(accountRepository.existsById(ACCOUNT_ID)).willReturn(true);
+            given(accountRepository.findById(ACCOUNT_ID)).willReturn(Optional.of(savedAccount));
 
             accountService.deleteAccount(ACCOUNT_ID);
 
-            verify(accountRepository).deleteById(ACCOUNT_ID);
+            verify(accountRepository).delete(savedAccount);
+            verify(accountOutbox).deleted(savedAccount);
         }
 
         @Test
         @DisplayName("throws AccountNotFoundException when account does not exist")
         void deleteAccount_notFound_throws() {
-            given(accountRepository.existsById(ACCOUNT_ID)).willReturn(false);
+            given(accountRepository.findById(ACCOUNT_ID)).willReturn(Optional.empty());
 
             assertThatThrownBy(() -> accountService.deleteAccount(ACCOUNT_ID))
                     .isInstanceOf(AccountNotFoundException.class)
                     .hasMessageContaining("Account not found with id: " + ACCOUNT_ID);
-            verify(accountRepository, never()).deleteById(any());
+            verify(accountRepository, never()).delete(any());
         }
     }
 }
@@ -0,0 +1,181 @@
+package org.example.bankingapi.service;
+
+import org.example.bankingapi.dto.AccountResponse;
+import org.example.bankingapi.dto.CreateAccountRequest;
+import org.example.bankingapi.dto.LedgerEntryResponse;
+import org.example.bankingapi.dto.UpdateAccountRequest;
+import org.example.bankingapi.entity.LedgerEntry;
+import org.example.bankingapi.exception.AccountNotFoundException;
+import org.example.bankingapi.exception.InvalidAmountException;
+import org.example.bankingapi.repository.AccountRepository;
+import org.example.bankingapi.repository.BalanceSnapshotRepository;
+import org.example.bankingapi.repository.LedgerEntryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "banking.updates.group-commit.enabled=true",
+        "banking.updates.group-commit.max-batch-size=64",
+        "banking.updates.group-commit.linger=200ms"})
+class AccountUpdatePipelineTest {
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountUpdatePipeline pipeline;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private BalanceSnapshotRepository balanceSnapshotRepository;
+
+    private final ExecutorService pool = Executors.newFixedThreadPool(16);
+    private final List<Long> ids = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 3; i++) {
+            ids.add(accountService.createAccount(CreateAccountRequest.builder()
+                    .accountNumber("GROUP-" + i)
+                    .accountHolderName("Holder " + i)
+                    .balance(new BigDecimal("100.00"))
+                    .currency("USD")
+                    .build()).getId());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+        accountRepository.deleteAll();
+        ledgerEntryRepository.deleteAll();
+        balanceSnapshotRepository.deleteAll();
+    }
+
+    private Future<AccountResponse> submit(Long id, UpdateAccountRequest request) {
+        Callable<AccountResponse> update = () -> accountService.updateAccount(id, request);
+        return pool.submit(update);
+    }
+
+    private static UpdateAccountRequest holder(String name) {
+        return UpdateAccountRequest.builder().accountHolderName(name).build();
+    }
+
+    @Test
+    @DisplayName("writes concurrent updates in shared transactions and answers each caller with committed state")
+    void concurrentUpdates_groupCommitted() throws Exception {
+        long batchesBefore = pipeline.getBatches();
+        List<Future<AccountResponse>> futures = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            futures.add(submit(ids.get(i % 3), holder("Writer " + i)));
+        }
+
+        for (Future<AccountResponse> future : futures) {
+            AccountResponse response = future.get(10, TimeUnit.SECONDS);
+            assertThat(response.getVersion())
+                    .isEqualTo(accountRepository.findById(response.getId()).orElseThrow().getVersion());
+        }
+        assertThat(pipeline.getBatches() - batchesBefore).isLessThan(12);
+        assertThat(pipeline.getCoalesced()).isPositive();
+        for (Long id : ids) {
+            assertThat(accountService.getAccountById(id).getAccountHolderName()).startsWith("Writer ");
+        }
+    }
+
+    @Test
+    @DisplayName("fails an update of a missing account without failing the rest of its batch")
+    void missingAccount_failsAlone() throws Exception {
+        Future<AccountResponse> missing = submit(-1L, holder("Nobody"));
+        Future<AccountResponse> present = submit(ids.get(0), holder("Somebody"));
+
+        assertThatThrownBy(() -> missing.get(10, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(AccountNotFoundException.class);
+        assertThat(present.get(10, TimeUnit.SECONDS).getAccountHolderName()).isEqualTo("Somebody");
+    }
+
+    @Test
+    @DisplayName("replays a failed batch per account, so only the invalid update fails")
+    void invalidUpdate_doesNotPoisonBatch() throws Exception {
+        long fallbacksBefore = pipeline.getFallbacks();
+        Future<AccountResponse> invalid = submit(ids.get(0), UpdateAccountRequest.builder().currency("TOOLONG").build());
+        Future<AccountResponse> valid = submit(ids.get(1), holder("Still Written"));
+
+        assertThatThrownBy(() -> invalid.get(10, TimeUnit.SECONDS)).isInstanceOf(ExecutionException.class);
+        assertThat(valid.get(10, TimeUnit.SECONDS).getAccountHolderName()).isEqualTo("Still Written");
+        assertThat(pipeline.getFallbacks()).isGreaterThan(fallbacksBefore);
+        assertThat(accountService.getAccountById(ids.get(0)).getCurrency()).isEqualTo("USD");
+    }
+
+    @Test
+    @DisplayName("fails only the invalid update among those coalesced onto one account")
+    void invalidCoalescedUpdate_failsAlone() throws Exception {
+        Long id = ids.get(0);
+        long coalescedBefore = pipeline.getCoalesced();
+        Future<AccountResponse> before = submit(id, holder("Before"));
+        Future<AccountResponse> invalid = submit(id, UpdateAccountRequest.builder()
+                .accountHolderName("Never Written")
+                .balance(new BigDecimal("10.001"))
+                .build());
+        Future<AccountResponse> after = submit(id, UpdateAccountRequest.builder().balance(new BigDecimal("75.00")).build());
+
+        assertThatThrownBy(() -> invalid.get(10, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(InvalidAmountException.class);
+        assertThat(before.get(10, TimeUnit.SECONDS).getAccountHolderName()).isEqualTo("Before");
+        assertThat(after.get(10, TimeUnit.SECONDS).getBalance()).isEqualByComparingTo("75.00");
+        assertThat(pipeline.getCoalesced()).isGreaterThan(coalescedBefore);
+        AccountResponse committed = accountService.getAccountById(id);
+        assertThat(committed.getAccountHolderName()).isEqualTo("Before");
+        assertThat(committed.getBalance()).isEqualByComparingTo("75.00");
+    }
+
+    @Test
+    @DisplayName("records the net balance change of coalesced updates as one adjustment")
+    void coalescedBalanceUpdates_netAdjustment() throws Exception {
+        Long id = ids.get(0);
+        long coalescedBefore = pipeline.getCoalesced();
+        List<Future<AccountResponse>> futures = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            futures.add(submit(id, UpdateAccountRequest.builder().balance(new BigDecimal("90.00")).build()));
+        }
+        for (Future<AccountResponse> future : futures) {
+            assertThat(future.get(10, TimeUnit.SECONDS).getBalance()).isEqualByComparingTo("90.00");
+        }
+
+        assertThat(pipeline.getCoalesced()).isGreaterThan(coalescedBefore);
+        List<LedgerEntryResponse> entries = ledgerService.getStatement(id, null, 10).getItems();
+        assertThat(entries)
+                .filteredOn(entry -> entry.getType() == LedgerEntry.EntryType.ADJUSTMENT)
+                .extracting(entry -> entry.getAmount().toPlainString())
+                .containsExactly("-10.00");
+        assertThat(ledgerService.getBalanceAt(id, Instant.now()).getBalance()).isEqualByComparingTo("90.00");
+    }
+}
@@ -0,0 +1,301 @@
+package org.example.bankingapi.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.example.bankingapi.dto.AccountResponse;
+import org.example.bankingapi.dto.MoneyMovementRequest;
+import org.example.bankingapi.entity.IdempotencyRecord;
+import org.example.bankingapi.exception.IdempotencyKeyInProgressException;
+import org.example.bankingapi.exception.IdempotencyKeyReusedException;
+import org.example.bankingapi.exception.InsufficientFundsException;
+import org.example.bankingapi.exception.InvalidIdempotencyKeyException;
+import org.example.bankingapi.repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.math.BigDecimal;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    private static final String SCOPE = "POST /api/accounts/1/deposits";
+
+    @Mock
+    private IdempotencyRecordRepository recordRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private IdempotencyService idempotencyService;
+
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new IdempotencyService(objectMapper, recordRepository, 100, Duration.ofMinutes(5), false, Duration.ofSeconds(30));
+    }
+
+    private static MoneyMovementRequest request(String amount) {
+        return MoneyMovementRequest.builder().amount(new BigDecimal(amount)).build();
+    }
+
+    private Supplier<ResponseEntity<AccountResponse>> deposit() {
+        return () -> {
+            int n = executions.incrementAndGet();
+            return ResponseEntity.status(HttpStatus.OK)
+                    .eTag("\"" + n + "\"")
+                    .body(AccountResponse.builder().id(1L).balance(new BigDecimal("110.00")).version((long) n).build());
+        };
+    }
+
+    @Test
+    @DisplayName("runs the action every time when no key is given")
+    void execute_withoutKey_alwaysExecutes() {
+        idempotencyService.execute(null, SCOPE, request("10.00"), AccountResponse.class, deposit());
+        idempotencyService.execute(null, SCOPE, request("10.00"), AccountResponse.class, deposit());
+
+        assertThat(executions.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("replays the stored response for a retried key")
+    void execute_retry_replaysOriginalResponse() {
+        ResponseEntity<AccountResponse> first = idempotencyService.execute("k1", SCOPE, request("10.00"), AccountResponse.class, deposit());
+        ResponseEntity<AccountResponse> retry = idempotencyService.execute("k1", SCOPE, request("10.00"), AccountResponse.class, deposit());
+
+        assertThat(executions.get()).isEqualTo(1);
+        assertThat(retry.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(retry.getBody()).isEqualTo(first.getBody());
+        assertThat(retry.getHeaders().getETag()).isEqualTo("\"1\"");
+        assertThat(retry.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(idempotencyService.getReplays()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("rejects a key reused with a different payload")
+    void execute_differentPayload_throws() {
+        idempotencyService.execute("k1", SCOPE, request("10.00"), AccountResponse.class, deposit());
+
+        assertThatThrownBy(() -> idempotencyService.execute("k1", SCOPE, request("99.00"), AccountResponse.class, deposit()))
+                .isInstanceOf(IdempotencyKeyReusedException.class);
+        assertThat(executions.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("keeps keys of different endpoints apart")
+    void execute_otherScope_executes() {
+        idempotencyService.execute("k1", SCOPE, request("10.00"), AccountResponse.class, deposit());
+        idempotencyService.execute("k1", "POST /api/accounts/1/withdrawals", request("10.00"), AccountResponse.class, deposit());
+
+        assertThat(executions.get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("does not store failures, so a retry executes again")
+    void execute_failure_notStored() {
+        assertThatThrownBy(() -> idempotencyService.execute("k1", SCOPE, request("10.00"), AccountResponse.class, () -> {
+            throw new InsufficientFundsException(1L);
+        })).isInstanceOf(InsufficientFundsException.class);
+
+        idempotencyService.execute("k1", SCOPE, request("10.00"), AccountResponse.class, deposit());
+
+        assertThat(executions.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("rejects blank and over-long keys")
+    void execute_invalidKey_throws() {
+        assertThatThrownBy(() -> idempotencyService.execute(" ", SCOPE, request("10.00"), AccountResponse.class, deposit()))
+                .isInstanceOf(InvalidIdempotencyKeyException.class);
+        assertThatThrownBy(() -> idempotencyService.execute("x".repeat(256), SCOPE, request("10.00"), AccountResponse.class, deposit()))
+                .isInstanceOf(InvalidIdempotencyKeyException.class);
+    }
+
+    @Test
+    @DisplayName("collapses concurrent duplicates onto one execution")
+    void execute_concurrentDuplicates_collapse() throws Exception {
+        int threads = 8;
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<ResponseEntity<AccountResponse>> slow = () -> {
+            entered.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return deposit().get();
+        };
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<ResponseEntity<AccountResponse>>> futures = new ArrayList<>();
+        futures.add(pool.submit(() -> idempotencyService.execute("k1", SCOPE, request("10.00"), AccountResponse.class, slow)));
+        assertThat(entered.await(10, TimeUnit.SECONDS)).isTrue();
+        for (int i = 1; i < threads; i++) {
+            futures.add(pool.submit(() -> idempotencyService.execute("k1", SCOPE, request("10.00"), AccountResponse.class, slow)));
+        }
+        while (idempotencyService.getCollapsed() < threads - 1) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+
+        for (Future<ResponseEntity<AccountResponse>> future : futures) {
+            assertThat(future.get(10, TimeUnit.SECONDS).getBody().getVersion()).isEqualTo(1L);
+        }
+        pool.shutdown();
+        assertThat(executions.get()).isEqualTo(1);
+    }
+
+    private IdempotencyRecord record(String fingerprint, Integer status, byte[] body, Instant createdAt) {
+        return IdempotencyRecord.builder()
+                .key(SCOPE + "\nk1")
+                .fingerprint(fingerprint)
+                .status(status)
+                .body(body)
+                .createdAt(createdAt)
+                .build();
+    }
+
+    @Test
+    @DisplayName("JDBC tier: claims the key, stores the response and replays it after the memory tier is lost")
+    void execute_jdbcTier_replaysFromDatabase() throws Exception {
+        idempotencyService = new IdempotencyService(objectMapper, recordRepository, 100, Duration.ofMinutes(5), true, Duration.ofSeconds(30));
+        idempotencyService.execute("k1", SCOPE, request("10.00"), AccountResponse.class, deposit());
+
+        ArgumentCaptor<String> fingerprint = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<byte[]> body = ArgumentCaptor.forClass(byte[].class);
+        verify(recordRepository).claim(eq(SCOPE + "\nk1"), fingerprint.capture(), any());
+        verify(recordRepository).complete(eq(SCOPE + "\nk1"), eq(200), eq("\"1\""), body.capture());
+
+        IdempotencyService restarted = new IdempotencyService(objectMapper, recordRepository, 100, Duration.ofMinutes(5), true, Duration.ofSeconds(30));
+        given(recordRepository.findById(SCOPE + "\nk1"))
+                .willReturn(Optional.of(record(fingerprint.getValue(), 200, body.getValue(), Instant.now())));
+        ResponseEntity<AccountResponse> retry = restarted.execute("k1", SCOPE, request("10.00"), AccountResponse.class, deposit());
+
+        assertThat(executions.get()).isEqualTo(1);
+        assertThat(retry.getBody().getBalance()).isEqualByComparingTo("110.00");
+    }
+
+    @Test
+    @DisplayName("JDBC tier: waits for a claim held elsewhere and replays its response instead of executing")
+    void execute_jdbcTier_waitsForOtherInstance() throws Exception {
+        IdempotencyService other = new IdempotencyService(objectMapper, recordRepository, 100, Duration.ofMinutes(5), true, Duration.ofSeconds(30));
+        other.execute("k1", SCOPE, request("10.00"), AccountResponse.class, deposit());
+        ArgumentCaptor<String> fingerprint = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<byte[]> body = ArgumentCaptor.forClass(byte[].class);
+        verify(recordRepository).claim(eq(SCOPE + "\nk1"), fingerprint.capture(), any());
+        verify(recordRepository).complete(eq(SCOPE + "\nk1"), eq(200), any(), body.capture());
+
+        idempotencyService = new IdempotencyService(objectMapper, recordRepository, 100, Duration.ofMinutes(5), true, Duration.ofSeconds(30));
+        willThrow(new DataIntegrityViolationException("duplicate key"))
+                .given(recordRepository).claim(eq(SCOPE + "\nk1"), any(), any());
+        given(recordRepository.findById(SCOPE + "\nk1")).willReturn(
+                Optional.empty(),
+                Optional.of(record(fingerprint.getValue(), null, null, Instant.now())),
+                Optional.of(record(fingerprint.getValue(), 200, body.getValue(), Instant.now())));
+
+        ResponseEntity<AccountResponse> response = idempotencyService.execute("k1", SCOPE, request("10.00"), AccountResponse.class, deposit());
+
+        assertThat(executions.get()).isEqualTo(1);
+        assertThat(response.getBody().getVersion()).isEqualTo(1L);
+        assertThat(response.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(idempotencyService.getCollapsed()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("JDBC tier: gives up with 409 while the claim is still held, and takes over an abandoned one")
+    void execute_jdbcTier_inProgressAndAbandoned() throws Exception {
+        idempotencyService = new IdempotencyService(objectMapper, recordRepository, 100, Duration.ofMinutes(5), true, Duration.ofMillis(100));
+        given(recordRepository.claim(eq(SCOPE + "\nk1"), any(), any()))
+                .willThrow(new DataIntegrityViolationException("duplicate key"));
+        given(recordRepository.findById(SCOPE + "\nk1"))
+                .willAnswer(inv -> Optional.of(record(fingerprintOf(request("10.00")), null, null, Instant.now())));
+
+        assertThatThrownBy(() -> idempotencyService.execute("k1", SCOPE, request("10.00"), AccountResponse.class, deposit()))
+                .isInstanceOf(IdempotencyKeyInProgressException.class);
+
+        willThrow(new DataIntegrityViolationException("duplicate key")).willReturn(1)
+                .given(recordRepository).claim(eq(SCOPE + "\nk1"), any(), any());
+        given(recordRepository.findById(SCOPE + "\nk1")).willReturn(Optional.of(
+                record(fingerprintOf(request("10.00")), null, null, Instant.now().minusSeconds(1))));
+
+        idempotencyService.execute("k1", SCOPE, request("10.00"), AccountResponse.class, deposit());
+
+        verify(recordRepository).deletePending(eq(SCOPE + "\nk1"), any());
+        assertThat(executions.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("JDBC tier: releases the claim of a failed request")
+    void execute_jdbcTier_failureReleasesClaim() {
+        idempotencyService = new IdempotencyService(objectMapper, recordRepository, 100, Duration.ofMinutes(5), true, Duration.ofSeconds(30));
+
+        assertThatThrownBy(() -> idempotencyService.execute("k1", SCOPE, request("10.00"), AccountResponse.class, () -> {
+            throw new InsufficientFundsException(1L);
+        })).isInstanceOf(InsufficientFundsException.class);
+
+        verify(recordRepository).deletePending(eq(SCOPE + "\nk1"), any());
+        verify(recordRepository, never()).complete(any(), anyInt(), any(), any());
+    }
+
+    private String fingerprintOf(Object request) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request)));
+    }
+
+    @Test
+    @DisplayName("JDBC tier: ignores records older than the TTL")
+    void execute_jdbcTier_expiredRecordIgnored() {
+        idempotencyService = new IdempotencyService(objectMapper, recordRepository, 100, Duration.ofMinutes(5), true, Duration.ofSeconds(30));
+        given(recordRepository.findById(SCOPE + "\nk1")).willReturn(Optional.of(IdempotencyRecord.builder()
+                .key(SCOPE + "\nk1")
+                .fingerprint("stale")
+                .status(200)
+                .body(new byte[0])
+                .createdAt(Instant.now().minus(Duration.ofHours(1)))
+                .build()));
+
+        idempotencyService.execute("k1", SCOPE, request("10.00"), AccountResponse.class, deposit());
+
+        assertThat(executions.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("memory-only mode never touches the database")
+    void execute_memoryOnly_skipsRepository() {
+        idempotencyService.execute("k1", SCOPE, request("10.00"), AccountResponse.class, deposit());
+
+        verify(recordRepository, never()).findById(any());
+        verify(recordRepository, never()).claim(any(), any(), any());
+    }
+}
@@ -0,0 +1,189 @@
+package org.example.bankingapi.service;
+
+import org.example.bankingapi.dto.AccountResponse;
+import org.example.bankingapi.dto.CreateAccountRequest;
+import org.example.bankingapi.dto.LedgerEntryResponse;
+import org.example.bankingapi.dto.LedgerPage;
+import org.example.bankingapi.dto.MoneyMovementRequest;
+import org.example.bankingapi.dto.UpdateAccountRequest;
+import org.example.bankingapi.entity.Account;
+import org.example.bankingapi.entity.LedgerEntry;
+import org.example.bankingapi.exception.AccountNotActiveException;
+import org.example.bankingapi.exception.AccountNotFoundException;
+import org.example.bankingapi.exception.InsufficientFundsException;
+import org.example.bankingapi.repository.AccountRepository;
+import org.example.bankingapi.repository.BalanceSnapshotRepository;
+import org.example.bankingapi.repository.LedgerEntryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "banking.ledger.snapshot-interval=4"})
+class LedgerServiceTest {
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private BalanceSnapshotRepository balanceSnapshotRepository;
+
+    private Long accountId;
+
+    @BeforeEach
+    void setUp() {
+        accountId = accountService.createAccount(CreateAccountRequest.builder()
+                .accountNumber("LEDGER-1")
+                .accountHolderName("Ledger Holder")
+                .balance(new BigDecimal("100.00"))
+                .currency("USD")
+                .build()).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        accountRepository.deleteAll();
+        ledgerEntryRepository.deleteAll();
+        balanceSnapshotRepository.deleteAll();
+    }
+
+    private static MoneyMovementRequest amount(String amount) {
+        return MoneyMovementRequest.builder().amount(new BigDecimal(amount)).build();
+    }
+
+    @Test
+    @DisplayName("opens the ledger with the initial balance")
+    void createAccount_writesOpeningEntry() {
+        LedgerPage page = ledgerService.getStatement(accountId, null, 10);
+
+        assertThat(page.getItems()).hasSize(1);
+        LedgerEntryResponse opening = page.getItems().get(0);
+        assertThat(opening.getSequence()).isEqualTo(1L);
+        assertThat(opening.getType()).isEqualTo(LedgerEntry.EntryType.OPENING);
+        assertThat(opening.getAmount()).isEqualByComparingTo("100.00");
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("deposits and withdrawals update the balance and append signed entries")
+    void depositAndWithdraw_appendEntries() {
+        ledgerService.deposit(accountId, amount("50.00"));
+        AccountResponse response = ledgerService.withdraw(accountId, amount("30.00"));
+
+        assertThat(response.getBalance()).isEqualByComparingTo("120.00");
+        assertThat(response.getVersion()).isEqualTo(accountRepository.findById(accountId).orElseThrow().getVersion());
+        assertThat(ledgerService.getStatement(accountId, null, 10).getItems())
+                .extracting(LedgerEntryResponse::getType, e -> e.getAmount().toPlainString())
+                .containsExactly(
+                        tuple(LedgerEntry.EntryType.OPENING, "100.00"),
+                        tuple(LedgerEntry.EntryType.DEPOSIT, "50.00"),
+                        tuple(LedgerEntry.EntryType.WITHDRAWAL, "-30.00"));
+    }
+
+    @Test
+    @DisplayName("rejects an overdraft without writing an entry")
+    void withdraw_insufficientFunds_throws() {
+        assertThatThrownBy(() -> ledgerService.withdraw(accountId, amount("100.01")))
+                .isInstanceOf(InsufficientFundsException.class);
+
+        assertThat(accountRepository.findById(accountId).orElseThrow().getBalance().toBigDecimal()).isEqualByComparingTo("100.00");
+        assertThat(ledgerService.getStatement(accountId, null, 10).getItems()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("rejects movements on an inactive account")
+    void deposit_inactiveAccount_throws() {
+        accountService.updateAccount(accountId, UpdateAccountRequest.builder().status(Account.AccountStatus.CLOSED).build());
+
+        assertThatThrownBy(() -> ledgerService.deposit(accountId, amount("1.00")))
+                .isInstanceOf(AccountNotActiveException.class);
+    }
+
+    @Test
+    @DisplayName("records balance edits made through account updates as adjustments")
+    void updateAccount_balanceChange_isAdjustment() {
+        AccountResponse updated = accountService.updateAccount(accountId,
+                UpdateAccountRequest.builder().balance(new BigDecimal("80.00")).build());
+
+        LedgerEntryResponse last = ledgerService.getStatement(accountId, null, 10).getItems().get(1);
+        assertThat(last.getType()).isEqualTo(LedgerEntry.EntryType.ADJUSTMENT);
+        assertThat(last.getAmount()).isEqualByComparingTo("-20.00");
+        assertThat(updated.getVersion()).isEqualTo(accountRepository.findById(accountId).orElseThrow().getVersion());
+    }
+
+    @Test
+    @DisplayName("pages the statement by sequence without gaps or repeats")
+    void getStatement_keysetPaging() {
+        for (int i = 0; i < 6; i++) {
+            ledgerService.deposit(accountId, amount("1.00"));
+        }
+
+        List<Long> sequences = new ArrayList<>();
+        String cursor = null;
+        do {
+            LedgerPage page = ledgerService.getStatement(accountId, cursor, 3);
+            page.getItems().forEach(item -> sequences.add(item.getSequence()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertThat(sequences).containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L);
+    }
+
+    @Test
+    @DisplayName("writes a checkpoint every snapshot interval")
+    void append_writesSnapshots() {
+        for (int i = 0; i < 8; i++) {
+            ledgerService.deposit(accountId, amount("1.00"));
+        }
+
+        assertThat(balanceSnapshotRepository.findAll())
+                .extracting(snapshot -> snapshot.getSequence() + "=" + snapshot.getBalance().toPlainString())
+                .containsExactlyInAnyOrder("4=103.00", "8=107.00");
+    }
+
+    @Test
+    @DisplayName("computes point-in-time balances from the nearest checkpoint")
+    void getBalanceAt_pointInTime() throws InterruptedException {
+        for (int i = 0; i < 5; i++) {
+            ledgerService.deposit(accountId, amount("10.00"));
+        }
+        Thread.sleep(5);
+        Instant middle = Instant.now();
+        Thread.sleep(5);
+        for (int i = 0; i < 5; i++) {
+            ledgerService.withdraw(accountId, amount("5.00"));
+        }
+
+        assertThat(ledgerService.getBalanceAt(accountId, middle).getBalance()).isEqualByComparingTo("150.00");
+        assertThat(ledgerService.getBalanceAt(accountId, Instant.now()).getBalance()).isEqualByComparingTo("125.00");
+        assertThat(ledgerService.getBalanceAt(accountId, Instant.EPOCH).getBalance()).isEqualByComparingTo("0");
+    }
+
+    @Test
+    @DisplayName("throws AccountNotFoundException for unknown accounts")
+    void unknownAccount_throws() {
+        assertThatThrownBy(() -> ledgerService.deposit(-1L, amount("1.00"))).isInstanceOf(AccountNotFoundException.class);
+        assertThatThrownBy(() -> ledgerService.getStatement(-1L, null, 10)).isInstanceOf(AccountNotFoundException.class);
+        assertThatThrownBy(() -> ledgerService.getBalanceAt(-1L, Instant.now())).isInstanceOf(AccountNotFoundException.class);
+    }
+}
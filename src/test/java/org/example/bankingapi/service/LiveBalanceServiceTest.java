@@ -0,0 +1,187 @@
+package org.example.bankingapi.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.bankingapi.dto.AccountResponse;
+import org.example.bankingapi.dto.CreateAccountRequest;
+import org.example.bankingapi.dto.MoneyMovementRequest;
+import org.example.bankingapi.dto.UpdateAccountRequest;
+import org.example.bankingapi.repository.AccountRepository;
+import org.example.bankingapi.repository.BalanceSnapshotRepository;
+import org.example.bankingapi.repository.LedgerEntryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "banking.live.max-ids=3"})
+@AutoConfigureMockMvc
+class LiveBalanceServiceTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private LiveBalanceService liveBalanceService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private LedgerEntryRepository ledgerEntryRepository;
+
+    @Autowired
+    private BalanceSnapshotRepository balanceSnapshotRepository;
+
+    private AccountResponse first;
+    private AccountResponse second;
+
+    @BeforeEach
+    void setUp() {
+        first = create("LIVE-1");
+        second = create("LIVE-2");
+    }
+
+    @AfterEach
+    void tearDown() {
+        accountRepository.deleteAll();
+        ledgerEntryRepository.deleteAll();
+        balanceSnapshotRepository.deleteAll();
+    }
+
+    private AccountResponse create(String number) {
+        return accountService.createAccount(CreateAccountRequest.builder()
+                .accountNumber(number)
+                .accountHolderName("Live Holder")
+                .balance(new BigDecimal("100.00"))
+                .currency("USD")
+                .build());
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("condition met within 5s").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private static String body(MvcResult result) {
+        try {
+            return result.getResponse().getContentAsString();
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    @Test
+    @DisplayName("streams the current state, then every committed change and deletion")
+    void stream_followsCommittedChanges() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/accounts/live")
+                        .param("ids", first.getId() + "," + second.getId() + ",999999"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        await(() -> body(result).contains("\"id\":" + second.getId()) && body(result).contains("data:999999"));
+        assertThat(body(result)).contains("event:account", "\"id\":" + first.getId(), "event:deleted");
+
+        ledgerService.deposit(first.getId(), new MoneyMovementRequest(new BigDecimal("25.00"), null));
+        await(() -> body(result).contains("\"balance\":125.0"));
+
+        accountService.deleteAccount(second.getId());
+        await(() -> body(result).contains("data:" + second.getId()));
+    }
+
+    @Test
+    @DisplayName("answers a poll without versions straight away")
+    void poll_withoutVersions_returnsCurrentState() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/accounts/live/poll")
+                        .param("ids", first.getId() + ",999999"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String json = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        Map<Long, AccountResponse> accounts = objectMapper.readValue(json, new TypeReference<>() {
+        });
+        assertThat(accounts).containsOnlyKeys(first.getId(), 999999L);
+        assertThat(accounts.get(first.getId()).getVersion()).isEqualTo(first.getVersion());
+        assertThat(accounts.get(999999L)).isNull();
+    }
+
+    @Test
+    @DisplayName("holds a poll until a watched account changes and answers with its latest state")
+    void poll_withCurrentVersions_waitsForChange() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/accounts/live/poll")
+                        .param("ids", first.getId() + "," + second.getId() + ",999999")
+                        .param("versions", first.getVersion() + "," + second.getVersion() + ",-1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertThatThrownBy(() -> result.getAsyncResult(200)).isInstanceOf(IllegalStateException.class);
+
+        // Three writes in one transaction reach the subscriber as one state: the committed one.
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for (String name : new String[]{"A", "B", "C"}) {
+                accountService.updateAccount(second.getId(), UpdateAccountRequest.builder().accountHolderName(name).build());
+            }
+        });
+
+        String json = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        Map<Long, AccountResponse> accounts = objectMapper.readValue(json, new TypeReference<>() {
+        });
+        assertThat(accounts).containsOnlyKeys(second.getId());
+        assertThat(accounts.get(second.getId()).getAccountHolderName()).isEqualTo("C");
+        assertThat(accounts.get(second.getId()).getVersion())
+                .isEqualTo(accountService.getAccountById(second.getId()).getVersion());
+    }
+
+    @Test
+    @DisplayName("rejects subscriptions without ids, with too many ids or with mismatched versions")
+    void invalidSubscriptions() throws Exception {
+        int subscribers = liveBalanceService.getSubscribers();
+
+        mockMvc.perform(get("/api/accounts/live"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/accounts/live").param("ids", "1,2,3,4"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/accounts/live/poll").param("ids", "1,2").param("versions", "0"))
+                .andExpect(status().isBadRequest());
+
+        assertThat(liveBalanceService.getSubscribers()).isEqualTo(subscribers);
+    }
+}
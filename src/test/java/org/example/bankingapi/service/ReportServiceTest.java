@@ -0,0 +1,133 @@
+package org.example.bankingapi.service;
+
+import org.example.bankingapi.dto.AccountResponse;
+import org.example.bankingapi.dto.BalanceTotal;
+import org.example.bankingapi.dto.BalanceTotalsResponse;
+import org.example.bankingapi.dto.CreateAccountRequest;
+import org.example.bankingapi.dto.MoneyMovementRequest;
+import org.example.bankingapi.dto.UpdateAccountRequest;
+import org.example.bankingapi.entity.Account;
+import org.example.bankingapi.exception.InvalidReportException;
+import org.example.bankingapi.fx.FxRateTable;
+import org.example.bankingapi.fx.FxRates;
+import org.example.bankingapi.repository.AccountRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest(properties = {"spring.jpa.show-sql=false"})
+class ReportServiceTest {
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private AccountTotals accountTotals;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private FxRateTable rateTable;
+
+    @BeforeEach
+    void setUp() {
+        // Other tests clean up through the repository, which the tracked totals do not hear about.
+        accountTotals.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        accountRepository.deleteAll();
+    }
+
+    private AccountResponse create(String number, String balance, String currency) {
+        return accountService.createAccount(CreateAccountRequest.builder()
+                .accountNumber(number)
+                .accountHolderName("Holder " + number)
+                .balance(new BigDecimal(balance))
+                .currency(currency)
+                .build());
+    }
+
+    @Test
+    @DisplayName("keeps the tracked totals equal to the database's through creates, moves, updates and deletes")
+    void trackedTotals_followWrites() {
+        AccountResponse first = create("REP-1", "100.00", "USD");
+        AccountResponse second = create("REP-2", "50.00", "USD");
+        AccountResponse euro = create("REP-3", "80.00", "EUR");
+        ledgerService.deposit(first.getId(), new MoneyMovementRequest(new BigDecimal("25.00"), null));
+        accountService.updateAccount(euro.getId(), UpdateAccountRequest.builder()
+                .status(Account.AccountStatus.INACTIVE).build());
+        accountService.deleteAccount(second.getId());
+
+        BalanceTotalsResponse tracked = reportService.balanceTotals(ReportService.BY_CURRENCY_AND_STATUS, null, ReportService.TRACKED);
+        BalanceTotalsResponse database = reportService.balanceTotals(ReportService.BY_CURRENCY_AND_STATUS, null, ReportService.DATABASE);
+
+        assertThat(tracked.getTotals())
+                .extracting(BalanceTotal::getCurrency, BalanceTotal::getStatus, BalanceTotal::getAccounts, BalanceTotal::getBalance)
+                .containsExactly(
+                        tuple("EUR", Account.AccountStatus.INACTIVE, 1L, new BigDecimal("80.00")),
+                        tuple("USD", Account.AccountStatus.ACTIVE, 1L, new BigDecimal("125.00")));
+        assertThat(tracked.getTotals()).usingRecursiveFieldByFieldElementComparator().isEqualTo(database.getTotals());
+        assertThat(tracked.getTotal()).isEqualTo(database.getTotal());
+    }
+
+    @Test
+    @DisplayName("converts every group with one rate table version into the reporting currency")
+    void balanceTotals_convert() {
+        create("REP-1", "125.00", "USD");
+        create("REP-2", "80.00", "EUR");
+        FxRates rates = rateTable.current();
+
+        BalanceTotalsResponse byCurrency = reportService.balanceTotals(null, "GBP", null);
+        assertThat(byCurrency.getSource()).isEqualTo(ReportService.TRACKED);
+        assertThat(byCurrency.getRatesVersion()).isEqualTo(rates.getVersion());
+        assertThat(byCurrency.getAccounts()).isEqualTo(2);
+        assertThat(byCurrency.getTotals())
+                .extracting(BalanceTotal::getCurrency, BalanceTotal::getConverted)
+                .containsExactly(
+                        tuple("EUR", rates.convert(new BigDecimal("80.00"), "EUR", "GBP")),
+                        tuple("USD", rates.convert(new BigDecimal("125.00"), "USD", "GBP")));
+        BigDecimal unrounded = new BigDecimal("80.00").multiply(rates.rate("EUR", "GBP"))
+                .add(new BigDecimal("125.00").multiply(rates.rate("USD", "GBP")));
+        assertThat(byCurrency.getTotal()).isEqualTo(FxRates.round(unrounded, "GBP"));
+
+        BalanceTotalsResponse byStatus = reportService.balanceTotals(ReportService.BY_STATUS, null, ReportService.DATABASE);
+        assertThat(byStatus.getReportingCurrency()).isEqualTo(rates.getBase());
+        assertThat(byStatus.getTotals()).singleElement().satisfies(total -> {
+            assertThat(total.getStatus()).isEqualTo(Account.AccountStatus.ACTIVE);
+            assertThat(total.getCurrency()).isNull();
+            assertThat(total.getBalance()).isNull();
+            assertThat(total.getAccounts()).isEqualTo(2);
+            assertThat(total.getConverted()).isEqualTo(byStatus.getTotal());
+        });
+    }
+
+    @Test
+    @DisplayName("rejects an unknown grouping, source or reporting currency")
+    void balanceTotals_invalid() {
+        assertThatThrownBy(() -> reportService.balanceTotals("holder", null, null))
+                .isInstanceOf(InvalidReportException.class);
+        assertThatThrownBy(() -> reportService.balanceTotals(null, null, "cache"))
+                .isInstanceOf(InvalidReportException.class);
+        assertThatThrownBy(() -> reportService.balanceTotals(null, "XYZ", null))
+                .isInstanceOf(InvalidReportException.class)
+                .hasMessageContaining("XYZ");
+    }
+}
@@ -0,0 +1,117 @@
+package org.example.bankingapi.service;
+
+import org.example.bankingapi.dto.CreateAccountRequest;
+import org.example.bankingapi.dto.TransferRequest;
+import org.example.bankingapi.entity.Account;
+import org.example.bankingapi.exception.InsufficientFundsException;
+import org.example.bankingapi.repository.AccountRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {"spring.jpa.show-sql=false", "banking.transfers.lock-stripes=8",
+        "banking.ledger.snapshot-interval=16"})
+class TransferConcurrencyTest {
+
+    private static final int ACCOUNTS = 12;
+    private static final int THREADS = 16;
+    private static final int TRANSFERS_PER_THREAD = 250;
+    private static final BigDecimal INITIAL_BALANCE = new BigDecimal("1000.00");
+
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    private final List<Long> accountIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accountIds.add(accountService.createAccount(CreateAccountRequest.builder()
+                    .accountNumber("STRESS-" + i)
+                    .accountHolderName("Stress " + i)
+                    .balance(INITIAL_BALANCE)
+                    .currency("USD")
+                    .build()).getId());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        accountRepository.deleteAllById(accountIds);
+    }
+
+    @Test
+    @DisplayName("concurrent transfers conserve the total balance and never overdraw")
+    void concurrentTransfers_conserveTotal() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < TRANSFERS_PER_THREAD; i++) {
+                    int from = random.nextInt(ACCOUNTS);
+                    int to = (from + 1 + random.nextInt(ACCOUNTS - 1)) % ACCOUNTS;
+                    TransferRequest request = TransferRequest.builder()
+                            .fromAccountId(accountIds.get(from))
+                            .toAccountId(accountIds.get(to))
+                            .amount(BigDecimal.valueOf(random.nextInt(1, 30000), 2))
+                            .build();
+                    try {
+                        transferService.transfer(request);
+                        completed.incrementAndGet();
+                    } catch (InsufficientFundsException ex) {
+                        rejected.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        pool.shutdown();
+
+        List<Account> accounts = accountRepository.findAllById(accountIds);
+        BigDecimal total = accounts.stream().map(account -> account.getBalance().toBigDecimal()).reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        assertThat(completed.get() + rejected.get()).isEqualTo(THREADS * TRANSFERS_PER_THREAD);
+        assertThat(completed.get()).isPositive();
+        assertThat(total).isEqualByComparingTo(INITIAL_BALANCE.multiply(BigDecimal.valueOf(ACCOUNTS)));
+        assertThat(accounts).allSatisfy(account -> assertThat(account.getBalance().isNegative()).isFalse());
+        Instant now = Instant.now();
+        assertThat(accounts).allSatisfy(account -> assertThat(ledgerService.getBalanceAt(account.getId(), now).getBalance())
+                .isEqualByComparingTo(account.getBalance().toBigDecimal()));
+    }
+}
@@ -0,0 +1,161 @@
+package org.example.bankingapi.service;
+
+import org.example.bankingapi.dto.TransferRequest;
+import org.example.bankingapi.dto.TransferResponse;
+import org.example.bankingapi.entity.Account;
+import org.example.bankingapi.entity.LedgerEntry;
+import org.example.bankingapi.entity.Money;
+import org.example.bankingapi.exception.AccountNotFoundException;
+import org.example.bankingapi.exception.InsufficientFundsException;
+import org.example.bankingapi.exception.InvalidTransferException;
+import org.example.bankingapi.outbox.AccountOutbox;
+import org.example.bankingapi.repository.AccountRepository;
+import org.example.bankingapi.shard.ShardRouter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class TransferServiceTest {
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private LedgerService ledgerService;
+
+    @Mock
+    private AccountOutbox accountOutbox;
+
+    private TransferService transferService;
+
+    private Account from;
+    private Account to;
+
+    @BeforeEach
+    void setUp() {
+        transferService = new TransferService(accountRepository, new AccountCache(false, 100, Duration.ofMinutes(1)),
+                transactionManager, new StripedLocks(16), ledgerService, accountOutbox, ShardRouter.disabled());
+        from = account(1L, "100.00", "USD");
+        to = account(2L, "50.00", "USD");
+    }
+
+    private static Account account(Long id, String balance, String currency) {
+        return Account.builder()
+                .id(id)
+                .accountNumber("ACC00" + id)
+                .accountHolderName("Holder " + id)
+                .balance(Money.of(new BigDecimal(balance), currency))
+                .currency(currency)
+                .status(Account.AccountStatus.ACTIVE)
+                .build();
+    }
+
+    private static TransferRequest request(long fromId, long toId, String amount) {
+        return TransferRequest.builder()
+                .fromAccountId(fromId)
+                .toAccountId(toId)
+                .amount(new BigDecimal(amount))
+                .build();
+    }
+
+    @Test
+    @DisplayName("debits source and credits target")
+    void transfer_success() {
+        given(accountRepository.findAllByIdForUpdate(List.of(1L, 2L))).willReturn(List.of(from, to));
+
+        TransferResponse response = transferService.transfer(request(1L, 2L, "30.00"));
+
+        assertThat(from.getBalance().toBigDecimal()).isEqualByComparingTo("70.00");
+        assertThat(to.getBalance().toBigDecimal()).isEqualByComparingTo("80.00");
+        assertThat(response.getFromBalance()).isEqualByComparingTo("70.00");
+        assertThat(response.getToBalance()).isEqualByComparingTo("80.00");
+        assertThat(response.getCurrency()).isEqualTo("USD");
+    }
+
+    @Test
+    @DisplayName("appends both legs to the ledger under one transfer reference")
+    void transfer_appendsLedgerLegs() {
+        given(accountRepository.findAllByIdForUpdate(List.of(1L, 2L))).willReturn(List.of(from, to));
+
+        TransferResponse response = transferService.transfer(request(1L, 2L, "30.00"));
+
+        assertThat(response.getTransferId()).isNotNull();
+        verify(ledgerService).append(eq(from), eq(LedgerEntry.EntryType.TRANSFER_OUT),
+                eq(Money.of(new BigDecimal("-30.00"), "USD")), eq(response.getTransferId()), any());
+        verify(ledgerService).append(eq(to), eq(LedgerEntry.EntryType.TRANSFER_IN),
+                eq(Money.of(new BigDecimal("30.00"), "USD")), eq(response.getTransferId()), any());
+    }
+
+    @Test
+    @DisplayName("throws InsufficientFundsException and leaves balances untouched")
+    void transfer_insufficientFunds_throws() {
+        given(accountRepository.findAllByIdForUpdate(List.of(1L, 2L))).willReturn(List.of(from, to));
+
+        assertThatThrownBy(() -> transferService.transfer(request(1L, 2L, "100.01")))
+                .isInstanceOf(InsufficientFundsException.class)
+                .hasMessageContaining("Insufficient funds in account with id: 1");
+        assertThat(from.getBalance().toBigDecimal()).isEqualByComparingTo("100.00");
+        assertThat(to.getBalance().toBigDecimal()).isEqualByComparingTo("50.00");
+        verify(ledgerService, never()).append(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("throws AccountNotFoundException when an account is missing")
+    void transfer_missingAccount_throws() {
+        given(accountRepository.findAllByIdForUpdate(List.of(1L, 2L))).willReturn(List.of(from));
+
+        assertThatThrownBy(() -> transferService.transfer(request(1L, 2L, "10.00")))
+                .isInstanceOf(AccountNotFoundException.class)
+                .hasMessageContaining("Account not found with id: 2");
+    }
+
+    @Test
+    @DisplayName("rejects transfers to the same account without touching the database")
+    void transfer_sameAccount_throws() {
+        assertThatThrownBy(() -> transferService.transfer(request(1L, 1L, "10.00")))
+                .isInstanceOf(InvalidTransferException.class);
+        verify(accountRepository, never()).findAllByIdForUpdate(any());
+    }
+
+    @Test
+    @DisplayName("rejects transfers between different currencies")
+    void transfer_currencyMismatch_throws() {
+        Account eur = account(2L, "50.00", "EUR");
+        given(accountRepository.findAllByIdForUpdate(List.of(1L, 2L))).willReturn(List.of(from, eur));
+
+        assertThatThrownBy(() -> transferService.transfer(request(1L, 2L, "10.00")))
+                .isInstanceOf(InvalidTransferException.class)
+                .hasMessageContaining("Currency mismatch");
+    }
+
+    @Test
+    @DisplayName("rejects transfers involving an inactive account")
+    void transfer_inactiveAccount_throws() {
+        to.setStatus(Account.AccountStatus.CLOSED);
+        given(accountRepository.findAllByIdForUpdate(List.of(1L, 2L))).willReturn(List.of(from, to));
+
+        assertThatThrownBy(() -> transferService.transfer(request(1L, 2L, "10.00")))
+                .isInstanceOf(InvalidTransferException.class)
+                .hasMessageContaining("Account is not active: 2");
+    }
+}
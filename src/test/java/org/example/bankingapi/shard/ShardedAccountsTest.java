@@ -0,0 +1,387 @@
+package org.example.bankingapi.shard;
+
+import org.example.bankingapi.dto.AccountPage;
+import org.example.bankingapi.dto.AccountResponse;
+import org.example.bankingapi.dto.AccountSearchCriteria;
+import org.example.bankingapi.dto.AccountSort;
+import org.example.bankingapi.dto.BatchCreateResponse;
+import org.example.bankingapi.dto.BatchItemResult;
+import org.example.bankingapi.dto.CreateAccountRequest;
+import org.example.bankingapi.dto.MoneyMovementRequest;
+import org.example.bankingapi.dto.ShardMoveResponse;
+import org.example.bankingapi.dto.ShardStatsResponse;
+import org.example.bankingapi.dto.TransferRequest;
+import org.example.bankingapi.exception.InvalidShardMoveException;
+import org.example.bankingapi.exception.InvalidTransferException;
+import org.example.bankingapi.service.AccountBatchService;
+import org.example.bankingapi.service.AccountService;
+import org.example.bankingapi.service.LedgerService;
+import org.example.bankingapi.service.TransferService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "spring.jpa.show-sql=false",
+        "banking.cache.enabled=false",
+        "banking.sharding.enabled=true",
+        "banking.sharding.urls=jdbc:h2:mem:shardtest0;DB_CLOSE_DELAY=-1;LAZY_QUERY_EXECUTION=1,"
+                + "jdbc:h2:mem:shardtest1;DB_CLOSE_DELAY=-1;LAZY_QUERY_EXECUTION=1,"
+                + "jdbc:h2:mem:shardtest2;DB_CLOSE_DELAY=-1;LAZY_QUERY_EXECUTION=1"})
+class ShardedAccountsTest {
+
+    private static final int ACCOUNTS = 30;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private LedgerService ledgerService;
+
+    @Autowired
+    private TransferService transferService;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private ShardRebalancer shardRebalancer;
+
+    @Autowired
+    private AccountBatchService accountBatchService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<AccountResponse> accounts = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accounts.add(accountService.createAccount(CreateAccountRequest.builder()
+                    .accountNumber(String.format("SHARD-%03d", i))
+                    .accountHolderName("Holder " + (i % 7))
+                    .balance(BigDecimal.valueOf(100 + i))
+                    .currency("USD")
+                    .build()));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(shardRouter.dataSource(shard));
+            jdbcTemplate.update("DELETE FROM balance_snapshots");
+            jdbcTemplate.update("DELETE FROM ledger_entries");
+            jdbcTemplate.update("DELETE FROM accounts");
+        }
+    }
+
+    private long rowsOnShard(int shard, String table) {
+        return new JdbcTemplate(shardRouter.dataSource(shard)).queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+    }
+
+    private List<AccountResponse> allPages(AccountSort sort, int limit) {
+        List<AccountResponse> all = new ArrayList<>();
+        String cursor = null;
+        do {
+            AccountPage page = sort == null
+                    ? accountService.getAccounts(cursor, limit)
+                    : accountService.searchAccounts(new AccountSearchCriteria(), sort, cursor, limit);
+            all.addAll(page.getItems());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return all;
+    }
+
+    @Test
+    @DisplayName("stores each account on the shard its number hashes to")
+    void accountsSpreadOverShards() {
+        long total = 0;
+        for (int shard = 0; shard < shardRouter.getShardCount(); shard++) {
+            long onShard = rowsOnShard(shard, "accounts");
+            assertThat(onShard).as("accounts on shard %d", shard).isPositive();
+            total += onShard;
+        }
+        assertThat(total).isEqualTo(ACCOUNTS);
+        for (AccountResponse account : accounts) {
+            assertThat(account.getId()).isPositive();
+            assertThat(shardRouter.shardOf(account.getId())).isEqualTo(shardRouter.shardOf(account.getAccountNumber()));
+            assertThat(ShardSlots.slotOf(account.getId())).isEqualTo(ShardSlots.slotOf(account.getAccountNumber()));
+        }
+    }
+
+    @Test
+    @DisplayName("reads an account by id and by number from its shard")
+    void singleAccountReads() {
+        for (AccountResponse account : accounts) {
+            assertThat(accountService.getAccountById(account.getId()).getAccountNumber()).isEqualTo(account.getAccountNumber());
+            assertThat(accountService.getAccountByNumber(account.getAccountNumber()).getId()).isEqualTo(account.getId());
+        }
+    }
+
+    @Test
+    @DisplayName("merges listing and search pages from every shard in order")
+    void scatterGather() {
+        List<Long> expectedIds = accounts.stream().map(AccountResponse::getId).sorted().collect(Collectors.toList());
+        assertThat(allPages(null, 7)).extracting(AccountResponse::getId).containsExactlyElementsOf(expectedIds);
+
+        List<AccountResponse> byBalance = allPages(AccountSort.BALANCE_DESC, 4);
+        assertThat(byBalance).hasSize(ACCOUNTS);
+        assertThat(byBalance).isSortedAccordingTo(Comparator.comparing(AccountResponse::getBalance).reversed());
+
+        List<AccountResponse> byName = allPages(AccountSort.HOLDER_NAME_ASC, 5);
+        assertThat(byName).hasSize(ACCOUNTS);
+        assertThat(byName).isSortedAccordingTo(Comparator.comparing(AccountResponse::getAccountHolderName)
+                .thenComparing(AccountResponse::getId));
+
+        List<AccountResponse> exported = new ArrayList<>();
+        accountService.exportAccounts(exported::add);
+        assertThat(exported).extracting(AccountResponse::getId).containsExactlyInAnyOrderElementsOf(expectedIds);
+    }
+
+    @Test
+    @DisplayName("transfers within a shard and rejects transfers across shards")
+    void transfers() {
+        AccountResponse first = accounts.get(0);
+        AccountResponse sameShard = accounts.stream()
+                .filter(a -> a != first && shardRouter.shardOf(a.getId()) == shardRouter.shardOf(first.getId()))
+                .findFirst().orElseThrow();
+        AccountResponse otherShard = accounts.stream()
+                .filter(a -> shardRouter.shardOf(a.getId()) != shardRouter.shardOf(first.getId()))
+                .findFirst().orElseThrow();
+
+        transferService.transfer(new TransferRequest(first.getId(), sameShard.getId(), new BigDecimal("10.00")));
+        assertThat(accountService.getAccountById(first.getId()).getBalance())
+                .isEqualByComparingTo(first.getBalance().subtract(new BigDecimal("10.00")));
+
+        assertThatThrownBy(() -> transferService.transfer(
+                new TransferRequest(first.getId(), otherShard.getId(), new BigDecimal("10.00"))))
+                .isInstanceOf(InvalidTransferException.class);
+    }
+
+    @Test
+    @DisplayName("moves a slot range with its ledger and keeps serving it")
+    void moveSlots() {
+        AccountResponse account = accounts.get(0);
+        int slot = ShardSlots.slotOf(account.getId());
+        int source = shardRouter.shardOf(account.getId());
+        int target = (source + 1) % shardRouter.getShardCount();
+        ledgerService.deposit(account.getId(), new MoneyMovementRequest(new BigDecimal("5.00"), "before move"));
+        long sourceAccounts = rowsOnShard(source, "accounts");
+
+        ShardMoveResponse moved = shardRebalancer.move(slot, slot, target);
+        try {
+            assertThat(moved.getSlotsMoved()).isEqualTo(1);
+            assertThat(moved.getAccountsMoved()).isPositive();
+            assertThat(moved.getLedgerEntriesMoved()).isGreaterThanOrEqualTo(2);
+            assertThat(shardRouter.shardOf(account.getId())).isEqualTo(target);
+            assertThat(rowsOnShard(source, "accounts")).isEqualTo(sourceAccounts - moved.getAccountsMoved());
+
+            ledgerService.deposit(account.getId(), new MoneyMovementRequest(new BigDecimal("1.00"), "after move"));
+            assertThat(accountService.getAccountById(account.getId()).getBalance())
+                    .isEqualByComparingTo(account.getBalance().add(new BigDecimal("6.00")));
+            assertThat(ledgerService.getStatement(account.getId(), null, 10).getItems()).hasSize(3);
+            assertThat(allPages(null, 50)).hasSize(ACCOUNTS);
+            assertThat(shardRebalancer.stats()).extracting(ShardStatsResponse::getAccounts)
+                    .containsExactly(rowsOnShard(0, "accounts"), rowsOnShard(1, "accounts"), rowsOnShard(2, "accounts"));
+        } finally {
+            shardRebalancer.move(slot, slot, source);
+        }
+        assertThat(shardRouter.shardOf(account.getId())).isEqualTo(source);
+    }
+
+    @Test
+    @DisplayName("a transfer naming its higher slot first does not deadlock with a move of both slots")
+    void moveDuringReversedTransfer() throws Exception {
+        AccountResponse low = null;
+        AccountResponse high = null;
+        for (AccountResponse a : accounts) {
+            for (AccountResponse b : accounts) {
+                if (shardRouter.shardOf(a.getId()) == shardRouter.shardOf(b.getId())
+                        && ShardSlots.slotOf(a.getId()) < ShardSlots.slotOf(b.getId())) {
+                    low = a;
+                    high = b;
+                }
+            }
+        }
+        assertThat(low).isNotNull();
+        long lowId = low.getId();
+        long highId = high.getId();
+        int lowSlot = ShardSlots.slotOf(lowId);
+        int highSlot = ShardSlots.slotOf(highId);
+        int source = shardRouter.shardOf(lowId);
+        int target = (source + 1) % shardRouter.getShardCount();
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<ShardMoveResponse> move = null;
+        try {
+            // Holds both slots so the move queues for them, and the transfer arrives while it waits.
+            Future<?> inFlight = holdSlots(executor, release, () -> shardRouter.route(lowId, highId));
+            move = executor.submit(() -> shardRebalancer.move(lowSlot, highSlot, target));
+            Thread.sleep(100);
+            Future<?> transfer = executor.submit(() ->
+                    transferService.transfer(new TransferRequest(highId, lowId, new BigDecimal("10.00"))));
+            Thread.sleep(100);
+            release.countDown();
+
+            inFlight.get(10, TimeUnit.SECONDS);
+            assertThat(move.get(10, TimeUnit.SECONDS).getSlotsMoved()).isEqualTo(highSlot - lowSlot + 1);
+            transfer.get(10, TimeUnit.SECONDS);
+            assertThat(accountService.getAccountById(lowId).getBalance())
+                    .isEqualByComparingTo(low.getBalance().add(new BigDecimal("10.00")));
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+            // A deadlocked move still holds the rebalancer, so only a finished one is undone.
+            if (move != null && move.isDone()) {
+                shardRebalancer.move(lowSlot, highSlot, source);
+            }
+        }
+    }
+
+    /**
+     * Starts a transaction that holds the slots {@code route} locks until {@code release} opens,
+     * and returns once it holds them.
+     */
+    private Future<?> holdSlots(ExecutorService executor, CountDownLatch release, Runnable route) throws Exception {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        CountDownLatch holding = new CountDownLatch(1);
+        Future<?> inFlight = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+            route.run();
+            holding.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        assertThat(holding.await(10, TimeUnit.SECONDS)).isTrue();
+        return inFlight;
+    }
+
+    /**
+     * Two new account numbers on one shard, lower slot first.
+     */
+    private String[] newNumbersOnOneShard() {
+        for (int i = 0; ; i++) {
+            for (int j = 0; j < i; j++) {
+                String a = "BATCH-" + i;
+                String b = "BATCH-" + j;
+                if (shardRouter.shardOf(a) == shardRouter.shardOf(b) && ShardSlots.slotOf(a) != ShardSlots.slotOf(b)) {
+                    return ShardSlots.slotOf(a) < ShardSlots.slotOf(b) ? new String[]{a, b} : new String[]{b, a};
+                }
+            }
+        }
+    }
+
+    private static CreateAccountRequest newAccount(String accountNumber) {
+        return CreateAccountRequest.builder()
+                .accountNumber(accountNumber)
+                .accountHolderName("Batch Holder")
+                .balance(new BigDecimal("1.00"))
+                .currency("USD")
+                .build();
+    }
+
+    @Test
+    @DisplayName("a batch create listing its higher slot first does not deadlock with a move of both slots")
+    void moveDuringReversedBatchCreate() throws Exception {
+        String[] numbers = newNumbersOnOneShard();
+        int lowSlot = ShardSlots.slotOf(numbers[0]);
+        int highSlot = ShardSlots.slotOf(numbers[1]);
+        int source = shardRouter.shardOf(numbers[0]);
+        int target = (source + 1) % shardRouter.getShardCount();
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<ShardMoveResponse> move = null;
+        try {
+            Future<?> inFlight = holdSlots(executor, release, () -> shardRouter.route(numbers[0], numbers[1]));
+            move = executor.submit(() -> shardRebalancer.move(lowSlot, highSlot, target));
+            Thread.sleep(100);
+            Future<BatchCreateResponse> batch = executor.submit(() -> accountBatchService.createAccounts(
+                    List.of(newAccount(numbers[1]), newAccount(numbers[0])).iterator()));
+            Thread.sleep(100);
+            release.countDown();
+
+            inFlight.get(10, TimeUnit.SECONDS);
+            move.get(10, TimeUnit.SECONDS);
+            assertThat(batch.get(10, TimeUnit.SECONDS).getCreated()).isEqualTo(2);
+            assertThat(shardRouter.shardOf(numbers[0])).isEqualTo(target);
+            assertThat(accountService.getAccountByNumber(numbers[1]).getBalance()).isEqualByComparingTo("1.00");
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+            if (move != null && move.isDone()) {
+                shardRebalancer.move(lowSlot, highSlot, source);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("a batch create regroups its items when a slot moves after they were grouped")
+    void moveBetweenGroupingAndBatchCreate() throws Exception {
+        String[] numbers = newNumbersOnOneShard();
+        int highSlot = ShardSlots.slotOf(numbers[1]);
+        int source = shardRouter.shardOf(numbers[1]);
+        int target = (source + 1) % shardRouter.getShardCount();
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<ShardMoveResponse> move = null;
+        try {
+            // The batch groups both numbers on the source shard, then waits for the higher slot
+            // while the move takes it to the target.
+            Future<?> inFlight = holdSlots(executor, release, () -> shardRouter.route(numbers[1]));
+            move = executor.submit(() -> shardRebalancer.move(highSlot, highSlot, target));
+            Thread.sleep(100);
+            Future<BatchCreateResponse> batch = executor.submit(() -> accountBatchService.createAccounts(
+                    List.of(newAccount(numbers[0]), newAccount(numbers[1])).iterator()));
+            Thread.sleep(100);
+            release.countDown();
+
+            inFlight.get(10, TimeUnit.SECONDS);
+            move.get(10, TimeUnit.SECONDS);
+            BatchCreateResponse created = batch.get(10, TimeUnit.SECONDS);
+            assertThat(created.getCreated()).isEqualTo(2);
+            assertThat(created.getResults()).extracting(BatchItemResult::getIndex).containsExactly(0, 1);
+            assertThat(accountService.getAccountByNumber(numbers[0]).getId()).isPositive();
+            assertThat(accountService.getAccountByNumber(numbers[1]).getId()).isPositive();
+            assertThat(shardRouter.shardOf(numbers[0])).isEqualTo(source);
+            assertThat(shardRouter.shardOf(numbers[1])).isEqualTo(target);
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+            if (move != null && move.isDone()) {
+                shardRebalancer.move(highSlot, highSlot, source);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("rejects moves outside the slot or shard range")
+    void invalidMoves() {
+        assertThatThrownBy(() -> shardRebalancer.move(5, 4, 0)).isInstanceOf(InvalidShardMoveException.class);
+        assertThatThrownBy(() -> shardRebalancer.move(0, ShardSlots.SLOTS, 0)).isInstanceOf(InvalidShardMoveException.class);
+        assertThatThrownBy(() -> shardRebalancer.move(0, 1, 3)).isInstanceOf(InvalidShardMoveException.class);
+    }
+}
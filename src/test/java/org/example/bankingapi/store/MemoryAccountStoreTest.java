@@ -0,0 +1,328 @@
+package org.example.bankingapi.store;
+
+import org.example.bankingapi.dto.AccountResponse;
+import org.example.bankingapi.dto.AccountSearchCriteria;
+import org.example.bankingapi.dto.AccountSort;
+import org.example.bankingapi.dto.CreateAccountRequest;
+import org.example.bankingapi.dto.MoneyMovementRequest;
+import org.example.bankingapi.dto.TransferRequest;
+import org.example.bankingapi.dto.UpdateAccountRequest;
+import org.example.bankingapi.entity.Account;
+import org.example.bankingapi.entity.Money;
+import org.example.bankingapi.exception.AccountNotFoundException;
+import org.example.bankingapi.exception.AccountVersionMismatchException;
+import org.example.bankingapi.exception.DuplicateAccountException;
+import org.example.bankingapi.exception.InsufficientFundsException;
+import org.example.bankingapi.repository.AccountRepository;
+import org.example.bankingapi.service.AccountService;
+import org.example.bankingapi.service.LedgerService;
+import org.example.bankingapi.service.TransferService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MemoryAccountStoreTest {
+
+    @Nested
+    @DisplayName("as the account store of the application")
+    @SpringBootTest(properties = {
+            "spring.jpa.show-sql=false",
+            "banking.store.mode=memory",
+            "banking.store.memory.directory=target/memory-store/${random.uuid}",
+            "banking.store.memory.fsync=false"})
+    class Application {
+
+        @Autowired
+        private AccountService accountService;
+
+        @Autowired
+        private LedgerService ledgerService;
+
+        @Autowired
+        private TransferService transferService;
+
+        @Autowired
+        private AccountRepository accountRepository;
+
+        @Autowired
+        private MemoryAccountStore store;
+
+        @Autowired
+        private PlatformTransactionManager transactionManager;
+
+        @AfterEach
+        void tearDown() {
+            accountRepository.deleteAll();
+        }
+
+        private AccountResponse create(String number, String holder, String balance) {
+            return accountService.createAccount(CreateAccountRequest.builder()
+                    .accountNumber(number)
+                    .accountHolderName(holder)
+                    .balance(new BigDecimal(balance))
+                    .currency("USD")
+                    .build());
+        }
+
+        @Test
+        @DisplayName("replaces the JPA repository and serves every read path from memory")
+        void servesAccountsFromMemory() {
+            assertThat(accountRepository).isInstanceOf(MemoryAccountRepository.class);
+            AccountResponse alice = create("MEM-1", "Alice", "100.00");
+            AccountResponse bob = create("MEM-2", "Bob", "250.00");
+
+            ledgerService.deposit(alice.getId(), new MoneyMovementRequest(new BigDecimal("50.00"), null));
+            AccountResponse renamed = accountService.updateAccount(bob.getId(),
+                    UpdateAccountRequest.builder().accountHolderName("Bobby").build());
+
+            assertThat(store.size()).isEqualTo(2);
+            assertThat(accountService.getAccountById(alice.getId()).getBalance()).isEqualByComparingTo("150.00");
+            assertThat(accountService.getAccountById(alice.getId()).getVersion()).isEqualTo(alice.getVersion() + 1);
+            assertThat(accountService.getAccountByNumber("MEM-2").getAccountHolderName()).isEqualTo("Bobby");
+            assertThat(renamed.getVersion()).isEqualTo(bob.getVersion() + 1);
+            assertThat(accountService.getAccounts(null, 10).getItems())
+                    .extracting(AccountResponse::getId).containsExactly(alice.getId(), bob.getId());
+            assertThat(accountService.searchAccounts(AccountSearchCriteria.builder().minBalance(new BigDecimal("200")).build(),
+                    AccountSort.BALANCE_DESC, null, 10).getItems())
+                    .extracting(AccountResponse::getAccountNumber).containsExactly("MEM-2");
+            List<AccountResponse> exported = new ArrayList<>();
+            accountService.exportAccounts(exported::add);
+            assertThat(exported).extracting(AccountResponse::getAccountNumber).containsExactly("MEM-1", "MEM-2");
+
+            accountService.deleteAccount(alice.getId());
+            assertThatThrownBy(() -> accountService.getAccountById(alice.getId()))
+                    .isInstanceOf(AccountNotFoundException.class);
+        }
+
+        @Test
+        @DisplayName("rejects a taken account number and a stale expected version")
+        void keepsConstraints() {
+            AccountResponse account = create("MEM-1", "Alice", "100.00");
+            accountService.updateAccount(account.getId(), UpdateAccountRequest.builder().accountHolderName("Al").build());
+
+            assertThatThrownBy(() -> create("MEM-1", "Mallory", "1.00"))
+                    .isInstanceOf(DuplicateAccountException.class);
+            assertThatThrownBy(() -> accountService.updateAccount(account.getId(),
+                    UpdateAccountRequest.builder().accountHolderName("Eve").build(), account.getVersion()))
+                    .isInstanceOf(AccountVersionMismatchException.class);
+            assertThat(accountService.getAccountById(account.getId()).getAccountHolderName()).isEqualTo("Al");
+        }
+
+        @Test
+        @DisplayName("keeps a logged change out of memory when the database transaction then fails to commit")
+        void failedDatabaseCommit_leavesMemoryUnchanged() {
+            AccountResponse account = create("MEM-1", "Alice", "100.00");
+            long commits = store.getCommits();
+
+            assertThatThrownBy(() -> new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                ledgerService.deposit(account.getId(), new MoneyMovementRequest(new BigDecimal("50.00"), null));
+                // Runs after the store has logged the deposit, and fails the commit.
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void beforeCommit(boolean readOnly) {
+                        throw new IllegalStateException("commit failed");
+                    }
+                });
+            })).hasMessage("commit failed");
+
+            assertThat(store.getCommits()).isEqualTo(commits);
+            assertThat(accountService.getAccountById(account.getId()).getBalance()).isEqualByComparingTo("100.00");
+            assertThat(ledgerService.getBalanceAt(account.getId(), Instant.now()).getBalance()).isEqualByComparingTo("100.00");
+            ledgerService.deposit(account.getId(), new MoneyMovementRequest(new BigDecimal("5.00"), null));
+            assertThat(accountService.getAccountById(account.getId()).getBalance()).isEqualByComparingTo("105.00");
+        }
+
+        @Test
+        @DisplayName("serialises concurrent transfers on the account row locks")
+        void concurrentTransfers_conserveTotal() throws Exception {
+            List<Long> ids = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                ids.add(create("MEM-T" + i, "Holder " + i, "500.00").getId());
+            }
+            ExecutorService pool = Executors.newFixedThreadPool(8);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(pool.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < 100; i++) {
+                        int from = random.nextInt(ids.size());
+                        int to = (from + 1 + random.nextInt(ids.size() - 1)) % ids.size();
+                        try {
+                            transferService.transfer(TransferRequest.builder()
+                                    .fromAccountId(ids.get(from))
+                                    .toAccountId(ids.get(to))
+                                    .amount(BigDecimal.valueOf(random.nextInt(1, 20000), 2))
+                                    .build());
+                        } catch (InsufficientFundsException ex) {
+                            // Expected now and then; the balances must still add up.
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(2, TimeUnit.MINUTES);
+            }
+            pool.shutdown();
+
+            Instant now = Instant.now();
+            BigDecimal total = BigDecimal.ZERO;
+            for (Long id : ids) {
+                BigDecimal balance = accountService.getAccountById(id).getBalance();
+                assertThat(balance.signum()).isNotNegative();
+                assertThat(ledgerService.getBalanceAt(id, now).getBalance()).isEqualByComparingTo(balance);
+                total = total.add(balance);
+            }
+            assertThat(total).isEqualByComparingTo("3000.00");
+        }
+    }
+
+    @Nested
+    @DisplayName("recovery")
+    class Recovery {
+
+        @TempDir
+        Path directory;
+
+        private MemoryAccountStore open() {
+            return new MemoryAccountStore("memory", directory, true, Duration.ofSeconds(1), false);
+        }
+
+        private static Account account(MemoryAccountStore store, String number, long units) {
+            Instant now = Instant.now();
+            return Account.builder()
+                    .id(store.nextId(number))
+                    .accountNumber(number)
+                    .accountHolderName("Holder " + number)
+                    .balance(Money.ofUnits(units, "USD"))
+                    .currency("USD")
+                    .status(Account.AccountStatus.ACTIVE)
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .version(0L)
+                    .build();
+        }
+
+        private static Account withBalance(Account account, long units) {
+            Account changed = AccountRecords.copy(account);
+            changed.setBalance(Money.ofUnits(units, "USD"));
+            changed.setVersion(account.getVersion() + 1);
+            return changed;
+        }
+
+        private List<Path> segments() throws IOException {
+            try (Stream<Path> files = Files.list(directory)) {
+                return files.filter(file -> file.getFileName().toString().startsWith("wal-")).sorted().toList();
+            }
+        }
+
+        @Test
+        @DisplayName("rebuilds the accounts from the snapshot and the log written after it")
+        void snapshotPlusLog() throws IOException {
+            MemoryAccountStore store = open();
+            Account first = account(store, "R-1", 100);
+            Account second = account(store, "R-2", 200);
+            store.commit(List.of(first, second), List.of());
+            store.snapshot();
+            Account third = account(store, "R-3", 300);
+            store.commit(List.of(withBalance(first, 150), third), List.of(second.getId()));
+            // No close: the process died after the last commit.
+
+            MemoryAccountStore recovered = open();
+
+            assertThat(recovered.size()).isEqualTo(2);
+            assertThat(recovered.get(first.getId()).getBalance().getUnits()).isEqualTo(150);
+            assertThat(recovered.get(first.getId()).getVersion()).isEqualTo(1);
+            assertThat(recovered.get(second.getId())).isNull();
+            assertThat(recovered.findByAccountNumber("R-3")).map(AccountResponse::getId).contains(third.getId());
+            assertThat(recovered.getRecoveredFrames()).isEqualTo(2);
+            assertThat(recovered.nextId("R-4")).isGreaterThan(third.getId());
+            assertThat(segments()).hasSize(1);
+        }
+
+        @Test
+        @DisplayName("replays only the transactions whose commit marker was logged")
+        void skipsUncommittedTransactions() throws IOException {
+            MemoryAccountStore store = open();
+            Account first = account(store, "R-1", 100);
+            store.commit(List.of(first), List.of());
+            store.prepare(List.of(withBalance(first, 500)), List.of()).abort();
+            Account orphan = account(store, "R-2", 200);
+            store.prepare(List.of(orphan), List.of()).close();
+            MemoryAccountStore.Prepared committed = store.prepare(List.of(withBalance(first, 120)), List.of());
+            assertThat(store.get(first.getId()).getBalance().getUnits()).isEqualTo(100);
+            committed.commit();
+            assertThat(store.get(first.getId()).getBalance().getUnits()).isEqualTo(120);
+            // Prepared when the process died, before the database answered.
+            store.prepare(List.of(withBalance(first, 900)), List.of());
+
+            MemoryAccountStore recovered = open();
+
+            assertThat(recovered.size()).isEqualTo(1);
+            assertThat(recovered.get(first.getId()).getBalance().getUnits()).isEqualTo(120);
+            assertThat(recovered.findByAccountNumber("R-2")).isEmpty();
+            assertThat(recovered.nextId("R-3")).isGreaterThan(orphan.getId());
+        }
+
+        @Test
+        @DisplayName("drops a torn frame at the end of the log and keeps appending after it")
+        void tornTail() throws IOException {
+            MemoryAccountStore store = open();
+            Account first = account(store, "R-1", 100);
+            store.commit(List.of(first), List.of());
+            store.commit(List.of(withBalance(first, 120)), List.of());
+            Path segment = segments().get(segments().size() - 1);
+            long intact = Files.size(segment);
+            Files.write(segment, new byte[]{0, 0, 0, 90, 1, 2, 3}, StandardOpenOption.APPEND);
+
+            MemoryAccountStore recovered = open();
+            assertThat(Files.size(segment)).isEqualTo(intact);
+            assertThat(recovered.get(first.getId()).getBalance().getUnits()).isEqualTo(120);
+            recovered.commit(List.of(withBalance(recovered.get(first.getId()), 130)), List.of());
+
+            assertThat(open().get(first.getId()).getBalance().getUnits()).isEqualTo(130);
+        }
+
+        @Test
+        @DisplayName("refuses to start on a log damaged before its last segment")
+        void corruptOlderSegment() throws IOException {
+            MemoryAccountStore store = open();
+            Account first = account(store, "R-1", 100);
+            store.commit(List.of(first), List.of());
+            Path older = segments().get(0);
+            store.snapshot();
+            store.commit(List.of(withBalance(first, 110)), List.of());
+            Files.delete(directory.resolve("snapshot.bin"));
+            Files.write(older, new byte[]{1, 2, 3}, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+
+            assertThatThrownBy(this::open).hasMessageContaining("Could not recover accounts");
+        }
+    }
+}